@@ -0,0 +1,86 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.dao.BatchResult;
+import com.github.gabrielhumbertdev.dao.OffHeapAccountStore;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.service.AccountService;
+import com.github.gabrielhumbertdev.service.AccountServiceImpl;
+
+/**
+ * Migration throughput: ACCOUNTS accounts created and then deleted through
+ * AccountServiceImpl over an in-memory OffHeapAccountStore, one call per
+ * account versus createAccounts/removeAccounts with the given batch size.
+ * Scores are per account.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBatchBenchmark {
+
+    private static final int ACCOUNTS = 100_000;
+
+    @Param({ "100", "1000", "10000" })
+    public int batchSize;
+
+    private OffHeapAccountStore store;
+    private AccountService service;
+    private List<Account> accounts;
+
+    @Setup
+    public void setup() {
+        store = OffHeapAccountStore.inMemory();
+        service = new AccountServiceImpl(store, store, batchSize);
+        accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(i % 2 == 0 ? new CheckingAccount() : new SavingsAccount());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public int singleItem() {
+        for (Account account : accounts) {
+            service.createAccount(account);
+        }
+        for (Account account : accounts) {
+            service.removeAccount(account);
+        }
+        return store.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public int batched() {
+        BatchResult created = service.createAccounts(accounts);
+        BatchResult removed = service.removeAccounts(accounts);
+        return created.getFailureCount() + removed.getFailureCount() + store.size();
+    }
+}
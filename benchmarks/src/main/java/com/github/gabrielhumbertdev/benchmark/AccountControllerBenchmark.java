@@ -0,0 +1,69 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.service.AccountController;
+
+/**
+ * AccountController.deposit / withdraw including alert generation. Emails go
+ * to a no-op mail client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountControllerBenchmark {
+
+    private AccountController controller;
+    private Customer customer;
+    private Account checking;
+    private Account savings;
+
+    @Setup
+    public void setup() {
+        NoOpMailClient.install();
+
+        controller = new AccountController();
+        customer = controller.createCustomer("Bench Customer", "London", "person");
+        customer.setEmail("bench@example.com");
+        checking = controller.createAccount(customer, "checking");
+        savings = controller.createAccount(customer, "savings");
+
+        checking.setBalance(1_000_000.0);
+        savings.setBalance(1_000_000.0);
+    }
+
+    @Benchmark
+    public void deposit() {
+        controller.deposit(customer, savings, 10.0);
+    }
+
+    // Deposit + withdraw keeps the balance stable across iterations
+    @Benchmark
+    public void depositThenWithdraw() {
+        controller.deposit(customer, checking, 10.0);
+        controller.withdraw(customer, checking, 10.0);
+    }
+
+    // Withdraw that drops the checking account below its minimum: fine + two alerts
+    @Benchmark
+    public void withdrawWithMinimumBalanceFine() {
+        checking.setBalanceCents(6_000);
+        controller.withdraw(customer, checking, 20.0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.customer.Person;
+import com.github.gabrielhumbertdev.service.AccountRegistry;
+import com.github.gabrielhumbertdev.service.AlertService;
+
+/**
+ * AlertService message rendering and sendTransactionAlert(accountId) lookups.
+ * Emails go to a no-op mail client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertServiceBenchmark {
+
+    // ============================
+    // Message rendering
+    // ============================
+    @State(Scope.Thread)
+    public static class MessageState {
+        AlertService alertService;
+        Customer customer;
+        CheckingAccount account;
+
+        @Setup
+        public void setup() {
+            customer = new Person("Bench Customer", "London");
+            customer.setEmail("bench@example.com");
+            account = new CheckingAccount();
+            account.setBalance(1_234.56);
+            customer.getAccounts().add(account);
+
+            List<Customer> customers = new ArrayList<>();
+            customers.add(customer);
+            List<Account> accounts = new ArrayList<>();
+            accounts.add(account);
+            alertService = new AlertService(customers, accounts);
+        }
+    }
+
+    @Benchmark
+    public String generateAlertMessage(MessageState state) {
+        return state.alertService.generateAlertMessage(state.customer, state.account, 250.75);
+    }
+
+    @Benchmark
+    public String generateMinimumBalanceFineMessage(MessageState state) {
+        return state.alertService.generateMinimumBalanceFineMessage(state.customer, state.account, 25.0, 50.0);
+    }
+
+    // ============================
+    // Lookup by account id
+    // ============================
+    @State(Scope.Benchmark)
+    public static class LookupState {
+
+        @Param({ "10000", "1000000" })
+        int accountCount;
+
+        // "registry": indexed lookups (as used by AccountController), "lists": stream scans
+        @Param({ "registry", "lists" })
+        String lookup;
+
+        AlertService alertService;
+        long[] accountIds;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            NoOpMailClient.install();
+
+            AccountRegistry registry = new AccountRegistry();
+            List<Customer> customers = new ArrayList<>(accountCount);
+            List<Account> accounts = new ArrayList<>(accountCount);
+            accountIds = new long[accountCount];
+            for (int i = 0; i < accountCount; i++) {
+                Customer customer = new Person("Customer " + i, "London");
+                customer.setEmail("c" + i + "@example.com");
+                CheckingAccount account = new CheckingAccount();
+                customer.getAccounts().add(account);
+                customers.add(customer);
+                accounts.add(account);
+                accountIds[i] = account.getACCOUNT_ID();
+
+                registry.addCustomer(customer);
+                registry.addAccount(account);
+                registry.linkOwner(customer, account);
+            }
+            alertService = "lists".equals(lookup) ? new AlertService(customers, accounts) : new AlertService(registry);
+        }
+    }
+
+    // Cycles through ids with a large odd stride so lookups hit the whole book
+    @Benchmark
+    public boolean sendTransactionAlertByAccountId(LookupState state) {
+        int index = state.next;
+        state.next = (index + 7_919) % state.accountIds.length;
+        return state.alertService.sendTransactionAlert(state.accountIds[index], 10.0);
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Same options as the plain JMH launcher, but
+ * results are written as JSON (jmh-result.json) unless -rf/-rff are given, so
+ * runs of different releases can be compared.
+ *
+ * Usage: java -jar target/benchmarks.jar [JMH options] [benchmark regex]
+ */
+public class BenchmarkMain {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add(0, "json");
+            jmhArgs.add(0, "-rf");
+        }
+        if (!jmhArgs.contains("-rff")) {
+            jmhArgs.add(0, DEFAULT_RESULT_FILE);
+            jmhArgs.add(0, "-rff");
+        }
+
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.service.FeeCalculatorService;
+import com.github.gabrielhumbertdev.service.FeeCalculatorServiceImpl;
+
+/**
+ * FeeCalculatorServiceImpl over balances spread across every fee tier.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FeeCalculatorBenchmark {
+
+    private static final int BALANCE_COUNT = 1_024; // power of two for cheap wrap-around
+
+    private FeeCalculatorService feeCalculator;
+    private double[] balances;
+    private long[] balancesCents;
+    private int next;
+
+    @Setup
+    public void setup() {
+        feeCalculator = new FeeCalculatorServiceImpl();
+        balances = new double[BALANCE_COUNT];
+        balancesCents = new long[BALANCE_COUNT];
+
+        // 0 .. ~3000: covers all tiers, so the branches are not perfectly predictable
+        long seed = 42;
+        for (int i = 0; i < BALANCE_COUNT; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            long cents = (seed >>> 33) % 300_000;
+            balancesCents[i] = cents;
+            balances[i] = cents / 100.0;
+        }
+    }
+
+    @Benchmark
+    public double calculateFee() {
+        int index = next;
+        next = (index + 1) & (BALANCE_COUNT - 1);
+        return feeCalculator.calculateFee(balances[index]);
+    }
+
+    @Benchmark
+    public long calculateFeeCents() {
+        int index = next;
+        next = (index + 1) & (BALANCE_COUNT - 1);
+        return feeCalculator.calculateFeeCents(balancesCents[index]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.service.FeeCalculatorServiceImpl;
+
+/**
+ * Monthly fee run: prices a whole array of balances in one call. Divide the
+ * score by accountCount for the per-account cost; with 8 bytes in and 8 bytes
+ * out per account the bulk path should approach memory bandwidth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FeeRunBenchmark {
+
+    @Param({ "1000000", "20000000" })
+    int accountCount;
+
+    private FeeCalculatorServiceImpl feeCalculator;
+    private long[] balancesCents;
+    private long[] feesCents;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        feeCalculator = new FeeCalculatorServiceImpl();
+        balancesCents = new long[accountCount];
+        feesCents = new long[accountCount];
+
+        long seed = 42;
+        for (int i = 0; i < accountCount; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            balancesCents[i] = (seed >>> 33) % 300_000;
+        }
+    }
+
+    @Benchmark
+    public long[] calculateFeesCents() {
+        feeCalculator.calculateFeesCents(balancesCents, feesCents);
+        return feesCents;
+    }
+
+    @Benchmark
+    public long totalFeesCents() {
+        return feeCalculator.totalFeesCents(balancesCents);
+    }
+
+    // Baseline: one calculateFeeCents call per account on a single thread
+    @Benchmark
+    public long[] perAccountLoop() {
+        for (int i = 0; i < balancesCents.length; i++) {
+            feesCents[i] = feeCalculator.calculateFeeCents(balancesCents[i]);
+        }
+        return feesCents;
+    }
+}
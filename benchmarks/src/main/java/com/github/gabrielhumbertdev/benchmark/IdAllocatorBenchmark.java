@@ -0,0 +1,53 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.util.IdAllocator;
+
+/**
+ * Id allocation throughput. Run with -t 1, -t 2, -t 4, ... to see how it
+ * scales with the number of creating threads (bulk onboarding).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdAllocatorBenchmark {
+
+    @Param({ "1", "64" })
+    public int blockSize;
+
+    private IdAllocator allocator;
+
+    @Setup
+    public void setup() {
+        // blockSize 1 = one shared atomic add per id (the baseline leasing replaces)
+        allocator = new IdAllocator(1000, 5, blockSize);
+    }
+
+    @Benchmark
+    public long nextId() {
+        return allocator.next();
+    }
+
+    @Benchmark
+    public Account newAccount() {
+        return new CheckingAccount();
+    }
+}
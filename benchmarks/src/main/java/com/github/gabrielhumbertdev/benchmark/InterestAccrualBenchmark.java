@@ -0,0 +1,99 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.service.AccountService;
+import com.github.gabrielhumbertdev.service.InterestAccrualJob;
+import com.github.gabrielhumbertdev.service.InterestAccrualResult;
+
+/**
+ * Whole-book interest run over accountCount savings accounts on a pool of
+ * parallelism threads (0 = one per processor). Divide the score by
+ * accountCount for the per-account cost; 20M accounts needs roughly -Xmx6g.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class InterestAccrualBenchmark {
+
+    @Param({ "2000000" })
+    public int accountCount;
+
+    @Param({ "1", "0" })
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private InterestAccrualJob job;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Account> accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            SavingsAccount savings = new SavingsAccount();
+            savings.setInterestRate(0.01);
+            savings.setBalanceCents(100_000 + i % 10_000);
+            accounts.add(savings);
+        }
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        job = new InterestAccrualJob(new InMemoryAccountService(accounts), pool,
+                InterestAccrualJob.DEFAULT_CHUNK_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public InterestAccrualResult run() {
+        return job.run();
+    }
+
+    // Minimal AccountService over a prepared list (no DAO involved)
+    static final class InMemoryAccountService implements AccountService {
+
+        private final List<Account> accounts;
+
+        InMemoryAccountService(List<Account> accounts) {
+            this.accounts = accounts;
+        }
+
+        @Override
+        public List<Account> getAccounts() {
+            return accounts;
+        }
+
+        @Override
+        public void removeAccount(Account account) {
+            accounts.remove(account);
+        }
+
+        @Override
+        public Account createAccount(Account account) {
+            accounts.add(account);
+            return account;
+        }
+    }
+}
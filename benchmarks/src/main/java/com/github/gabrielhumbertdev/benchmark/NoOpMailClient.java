@@ -0,0 +1,48 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import com.github.gabrielhumbertdev.util.EmailMessage;
+import com.github.gabrielhumbertdev.util.EmailUtil;
+import com.github.gabrielhumbertdev.util.MailClient;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * Mail client that accepts every message and sends nothing. Installed into
+ * EmailUtil so benchmarks measure the alert code paths, not SMTP.
+ */
+final class NoOpMailClient extends MailClient {
+
+    private NoOpMailClient() throws MessagingException {
+        super(new Properties(), "benchmark@example.com", "", 1, 0);
+    }
+
+    /**
+     * Replaces EmailUtil's shared client with a no-op one.
+     */
+    static void install() {
+        try {
+            EmailUtil.setClient(new NoOpMailClient());
+        } catch (MessagingException e) {
+            throw new IllegalStateException("Could not create no-op mail client", e);
+        }
+    }
+
+    @Override
+    public void send(String to, String subject, String body) {
+        // Dropped on purpose
+    }
+
+    @Override
+    public void send(EmailMessage message) {
+        // Dropped on purpose
+    }
+
+    @Override
+    public List<EmailMessage> sendBatch(List<EmailMessage> messages) {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.model.depositbox.SafetyDepositBox;
+import com.github.gabrielhumbertdev.service.SafetyDepositBoxService;
+
+/**
+ * SafetyDepositBoxService allocate + release under 1, 4, 16 and 64 contending
+ * threads. The vault holds fewer boxes than the largest thread count, so the
+ * 64-thread run also measures waiting for a released box.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SafetyDepositBoxBenchmark {
+
+    static final int VAULT_SIZE = 32;
+
+    private SafetyDepositBoxService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = SafetyDepositBoxService.getInstance();
+        service.getSafetyDepositBoxes().clear();
+        service.setNumberOfSafetyDepositBoxes(VAULT_SIZE);
+    }
+
+    private SafetyDepositBox allocateAndRelease() {
+        SafetyDepositBox box = service.allocateSafetyDepositBox();
+        service.releaseSafetyDepositBox(box);
+        return box;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SafetyDepositBox allocateRelease_1Thread() {
+        return allocateAndRelease();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SafetyDepositBox allocateRelease_4Threads() {
+        return allocateAndRelease();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public SafetyDepositBox allocateRelease_16Threads() {
+        return allocateAndRelease();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public SafetyDepositBox allocateRelease_64Threads() {
+        return allocateAndRelease();
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.service.AccountController;
+import com.github.gabrielhumbertdev.service.ControllerSnapshot;
+
+/**
+ * Snapshot write and cold restore of a whole book (accountsPerCustomer
+ * accounts per customer). Each invocation is one full write or restore, so
+ * the score is the time for the book; 50M accounts needs roughly -Xmx24g and
+ * ~2 GB of disk.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({ "2000000" })
+    public int accountCount;
+
+    @Param({ "2" })
+    public int accountsPerCustomer;
+
+    private AccountController controller;
+    private Path writeFile;
+    private Path restoreFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        controller = new AccountController();
+        Customer customer = null;
+        for (int i = 0; i < accountCount; i++) {
+            if (i % accountsPerCustomer == 0) {
+                customer = controller.createCustomer("Customer " + i, i + " Main Street",
+                        i % 10 == 0 ? "company" : "person");
+                customer.setEmail("customer" + i + "@example.com");
+            }
+            controller.createAccount(customer, i % 3 == 0 ? "savings" : "checking").setBalanceCents(i % 100_000);
+        }
+        writeFile = Files.createTempFile("bank-write", ".snapshot");
+        restoreFile = Files.createTempFile("bank-restore", ".snapshot");
+        ControllerSnapshot.write(controller, restoreFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(writeFile);
+        Files.deleteIfExists(restoreFile);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        return ControllerSnapshot.write(controller, writeFile).getSizeBytes();
+    }
+
+    @Benchmark
+    public AccountController restore() throws IOException {
+        return ControllerSnapshot.restore(restoreFile);
+    }
+}
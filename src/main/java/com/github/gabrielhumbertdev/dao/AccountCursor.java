@@ -0,0 +1,79 @@
+package com.github.gabrielhumbertdev.dao;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+
+/**
+ * Iterates every account of an AccountReaderDAO one page at a time, so only
+ * one page of accounts is in memory at once.
+ *
+ * getResumeToken() is the token of the page after the current one: a job that
+ * saves it after finishing a page and later passes it to a new cursor carries
+ * on from there (accounts of a page that was only partly processed are
+ * returned again).
+ *
+ * Not thread-safe; use one cursor per thread.
+ */
+public class AccountCursor implements Iterator<Account> {
+
+    private final AccountReaderDAO reader;
+    private final int pageSize;
+
+    private List<Account> page = Collections.emptyList();
+    private int position;
+    private String nextToken;
+    private boolean lastPageRead;
+
+    public AccountCursor(AccountReaderDAO reader, int pageSize) {
+        this(reader, null, pageSize);
+    }
+
+    /**
+     * Starts at resumeToken (null = from the beginning).
+     */
+    public AccountCursor(AccountReaderDAO reader, String resumeToken, int pageSize) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader DAO cannot be null");
+        }
+        AccountPage.checkPageSize(pageSize);
+        this.reader = reader;
+        this.pageSize = pageSize;
+        this.nextToken = resumeToken;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Skip empty pages (a DAO may return one before the end)
+        while (position == page.size()) {
+            if (lastPageRead) {
+                return false;
+            }
+            AccountPage next = reader.readAccountPage(nextToken, pageSize);
+            page = next.getAccounts();
+            position = 0;
+            nextToken = next.getNextToken();
+            lastPageRead = next.isLast();
+        }
+        return true;
+    }
+
+    @Override
+    public Account next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(position++);
+    }
+
+    /**
+     * Token that resumes after the page currently being iterated (null once the
+     * last page has been read).
+     */
+    public String getResumeToken() {
+        return nextToken;
+    }
+}
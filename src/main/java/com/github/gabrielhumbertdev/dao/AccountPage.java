@@ -0,0 +1,60 @@
+package com.github.gabrielhumbertdev.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+
+/**
+ * One page of AccountReaderDAO.readAccountPage(...): up to pageSize accounts
+ * plus the token that resumes right after them (null on the last page). Tokens
+ * are opaque and only meaningful to the DAO that issued them; they stay valid
+ * across calls, so a batch job can store one and resume later.
+ */
+public class AccountPage {
+
+    private final List<Account> accounts;
+    private final String nextToken;
+
+    public AccountPage(List<Account> accounts, String nextToken) {
+        this.accounts = Collections.unmodifiableList(accounts);
+        this.nextToken = nextToken;
+    }
+
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Token for the next page, null if this is the last one.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean isLast() {
+        return nextToken == null;
+    }
+
+    // Tokens issued by this package are non-negative decimal positions
+    static long parseToken(String token) {
+        if (token == null) {
+            return -1;
+        }
+        try {
+            long position = Long.parseLong(token);
+            if (position >= 0) {
+                return position;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid page token: " + token);
+    }
+
+    static void checkPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+    }
+}
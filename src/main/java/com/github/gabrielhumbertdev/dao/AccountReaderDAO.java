@@ -1,9 +1,69 @@
 package com.github.gabrielhumbertdev.dao;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.github.gabrielhumbertdev.model.account.Account;
 
 public interface AccountReaderDAO {
     List<Account> readAccounts();
+
+    /**
+     * Reads one account by id (null if there is none). The default scans
+     * readAccounts(); stores with an id index override it.
+     */
+    default Account readAccount(long accountId) {
+        for (Account account : readAccounts()) {
+            if (account.getACCOUNT_ID() == accountId) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads up to pageSize accounts starting at resumeToken (null = first
+     * page). Accounts that exist for the whole scan are returned exactly once;
+     * ones created or deleted meanwhile may or may not be. The last page can be
+     * empty.
+     *
+     * The default pages by account id over readAccounts(), so it still
+     * materialises the whole list per call; stores override it to read only
+     * the page.
+     */
+    default AccountPage readAccountPage(String resumeToken, int pageSize) {
+        AccountPage.checkPageSize(pageSize);
+        long afterId = AccountPage.parseToken(resumeToken);
+
+        // Keep the pageSize smallest ids above afterId (largest on top)
+        PriorityQueue<Account> smallest = new PriorityQueue<>(
+                Comparator.comparingLong(Account::getACCOUNT_ID).reversed());
+        for (Account account : readAccounts()) {
+            if (account.getACCOUNT_ID() > afterId) {
+                smallest.add(account);
+                if (smallest.size() > pageSize) {
+                    smallest.poll();
+                }
+            }
+        }
+        List<Account> page = new ArrayList<>(smallest);
+        page.sort(Comparator.comparingLong(Account::getACCOUNT_ID));
+        String nextToken = page.size() < pageSize ? null
+                : Long.toString(page.get(page.size() - 1).getACCOUNT_ID());
+        return new AccountPage(page, nextToken);
+    }
+
+    /**
+     * Every account, read lazily pageSize at a time (see AccountCursor).
+     */
+    default Stream<Account> streamAccounts(int pageSize) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new AccountCursor(this, pageSize),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
 }
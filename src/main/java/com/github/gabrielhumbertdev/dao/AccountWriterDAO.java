@@ -1,5 +1,7 @@
 package com.github.gabrielhumbertdev.dao;
 
+import java.util.List;
+
 import com.github.gabrielhumbertdev.model.account.Account;
 
 public interface AccountWriterDAO {
@@ -7,4 +9,43 @@ public interface AccountWriterDAO {
     Account createAccount(Account account);
 
     void deleteAccount(Account account);
+
+    /**
+     * Creates every account in the list, in order, with one result per item (a
+     * RuntimeException from one item fails only that item). The default calls
+     * createAccount(...) per item; stores override it to amortise per-call
+     * costs over the batch.
+     */
+    default BatchResult createAccounts(List<Account> accounts) {
+        BatchResult.Collector results = new BatchResult.Collector(accounts.size());
+        for (Account account : accounts) {
+            try {
+                results.success(createAccount(account));
+            } catch (RuntimeException e) {
+                results.failure(e);
+            }
+        }
+        return results.result();
+    }
+
+    /**
+     * Deletes every account in the list, in order, with one result per item (see
+     * createAccounts).
+     */
+    default BatchResult deleteAccounts(List<Account> accounts) {
+        BatchResult.Collector results = new BatchResult.Collector(accounts.size());
+        for (Account account : accounts) {
+            if (account == null) {
+                results.failure(new IllegalArgumentException("Account cannot be null"));
+                continue;
+            }
+            try {
+                deleteAccount(account);
+                results.success(account);
+            } catch (RuntimeException e) {
+                results.failure(e);
+            }
+        }
+        return results.result();
+    }
 }
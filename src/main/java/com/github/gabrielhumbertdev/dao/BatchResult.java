@@ -0,0 +1,138 @@
+package com.github.gabrielhumbertdev.dao;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+
+/**
+ * Per-item outcome of a batch createAccounts/deleteAccounts call. Item i is the
+ * i-th account of the request: on success getAccount(i) is the account the DAO
+ * returned (created) or the account that was deleted; on failure it is null and
+ * getError(i) says why. One failed item never stops the rest of the batch.
+ */
+public class BatchResult {
+
+    private static final BatchResult EMPTY = new BatchResult(new Account[0], null, 0);
+
+    private final Account[] accounts;
+    private final RuntimeException[] errors; // null when nothing failed
+    private final int failureCount;
+
+    BatchResult(Account[] accounts, RuntimeException[] errors, int failureCount) {
+        this.accounts = accounts;
+        this.errors = failureCount == 0 ? null : errors;
+        this.failureCount = failureCount;
+    }
+
+    /**
+     * Joins the results of consecutive chunks of one request, in order.
+     */
+    public static BatchResult concat(List<BatchResult> parts) {
+        if (parts.isEmpty()) {
+            return EMPTY;
+        }
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        int total = 0;
+        int failures = 0;
+        for (BatchResult part : parts) {
+            total += part.size();
+            failures += part.failureCount;
+        }
+        Account[] accounts = new Account[total];
+        RuntimeException[] errors = failures == 0 ? null : new RuntimeException[total];
+        int position = 0;
+        for (BatchResult part : parts) {
+            System.arraycopy(part.accounts, 0, accounts, position, part.size());
+            if (part.errors != null) {
+                System.arraycopy(part.errors, 0, errors, position, part.size());
+            }
+            position += part.size();
+        }
+        return new BatchResult(accounts, errors, failures);
+    }
+
+    public int size() {
+        return accounts.length;
+    }
+
+    public boolean isFailed(int index) {
+        return errors != null && errors[index] != null;
+    }
+
+    /**
+     * Account created/deleted by item index (null if it failed).
+     */
+    public Account getAccount(int index) {
+        return accounts[index];
+    }
+
+    /**
+     * Why item index failed (null if it succeeded).
+     */
+    public RuntimeException getError(int index) {
+        return errors == null ? null : errors[index];
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getSuccessCount() {
+        return accounts.length - failureCount;
+    }
+
+    /**
+     * Indexes of the failed items, ascending.
+     */
+    public int[] getFailedIndexes() {
+        int[] failed = new int[failureCount];
+        int next = 0;
+        for (int i = 0; next < failureCount; i++) {
+            if (errors[i] != null) {
+                failed[next++] = i;
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{size=" + accounts.length + ", failed=" + failureCount
+                + (failureCount == 0 ? "" : ", failedIndexes=" + Arrays.toString(getFailedIndexes())) + "}";
+    }
+
+    /**
+     * Collects item outcomes in request order (for DAO and service
+     * implementations).
+     */
+    public static final class Collector {
+
+        private final Account[] accounts;
+        private RuntimeException[] errors;
+        private int count;
+        private int failures;
+
+        public Collector(int size) {
+            this.accounts = new Account[size];
+        }
+
+        public void success(Account account) {
+            accounts[count++] = account;
+        }
+
+        public void failure(RuntimeException error) {
+            if (errors == null) {
+                errors = new RuntimeException[accounts.length];
+            }
+            errors[count++] = error;
+            failures++;
+        }
+
+        public BatchResult result() {
+            return new BatchResult(accounts, errors, failures);
+        }
+    }
+}
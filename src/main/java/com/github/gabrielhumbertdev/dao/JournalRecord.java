@@ -0,0 +1,145 @@
+package com.github.gabrielhumbertdev.dao;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.organisation.Company;
+
+/**
+ * One decoded TransactionJournal record. Which fields are set depends on the
+ * type:
+ *
+ * - CUSTOMER_CREATED: customerId, kind (PERSON/COMPANY), name, address -
+ * CUSTOMER_REMOVED: customerId - ACCOUNT_CREATED: accountId, customerId, kind
+ * (CHECKING/SAVINGS) - ACCOUNT_REMOVED: accountId - OWNER_ADDED: accountId,
+ * customerId - DEPOSIT / WITHDRAWAL / FINE: accountId, amountCents (always > 0)
+ * - INTEREST: accountId, amountCents (interest credited; negative for a
+ * negative rate) - CORRECTION: accountId, amountCents (corrected minus
+ * previous balance, so it replays in any order with deposits) - RATE_CHANGED:
+ * accountId, getRate() - CHECK_NUMBER: accountId, amountCents (the next check
+ * number) - EMAIL_CHANGED: customerId, getEmail() ("" when cleared)
+ */
+public final class JournalRecord {
+
+    public enum Type {
+        CUSTOMER_CREATED(1), CUSTOMER_REMOVED(2), ACCOUNT_CREATED(3), ACCOUNT_REMOVED(4), OWNER_ADDED(5),
+        DEPOSIT(6), WITHDRAWAL(7), FINE(8), INTEREST(9), CORRECTION(10), RATE_CHANGED(11), CHECK_NUMBER(12),
+        EMAIL_CHANGED(13);
+
+        private static final Type[] BY_CODE = new Type[14];
+
+        static {
+            for (Type type : values()) {
+                BY_CODE[type.code] = type;
+            }
+        }
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        // null for unknown codes
+        static Type ofCode(byte code) {
+            return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        }
+    }
+
+    // kind values
+    public static final byte PERSON = 1;
+    public static final byte COMPANY = 2;
+    public static final byte CHECKING = 1;
+    public static final byte SAVINGS = 2;
+
+    private final Type type;
+    private final long sequence;
+    private final long timestampMillis;
+    private final long accountId;
+    private final long customerId;
+    private final long amountCents;
+    private final byte kind;
+    private final String name;
+    private final String address;
+
+    JournalRecord(Type type, long sequence, long timestampMillis, long accountId, long customerId, long amountCents,
+                  byte kind, String name, String address) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.accountId = accountId;
+        this.customerId = customerId;
+        this.amountCents = amountCents;
+        this.kind = kind;
+        this.name = name;
+        this.address = address;
+    }
+
+    static byte kindOf(Customer customer) {
+        return customer instanceof Company ? COMPANY : PERSON;
+    }
+
+    static byte kindOf(Account account) {
+        return account instanceof SavingsAccount ? SAVINGS : CHECKING;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Position in the journal: 1 for the first record ever written, +1 per
+     * record.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public byte getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * RATE_CHANGED: the new interest rate (stored as its raw double bits).
+     */
+    public double getRate() {
+        return Double.longBitsToDouble(amountCents);
+    }
+
+    /**
+     * EMAIL_CHANGED: the new email address (kept in the name field).
+     */
+    public String getEmail() {
+        return type == Type.EMAIL_CHANGED ? name : null;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{" + type + " #" + sequence + ", account=" + accountId + ", customer=" + customerId
+                + ", amountCents=" + amountCents + ", kind=" + kind + (name == null ? "" : ", name=" + name) + "}";
+    }
+}
@@ -0,0 +1,533 @@
+package com.github.gabrielhumbertdev.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.util.LongIntHashMap;
+
+/**
+ * OffHeapAccountStore
+ *
+ * AccountReaderDAO + AccountWriterDAO that keeps account records in fixed-width
+ * 64-byte slots outside the Java heap, either in a memory-mapped file
+ * (open(...)) or in direct ByteBuffers (inMemory()). Accounts only become Java
+ * objects when they are read.
+ *
+ * - id -> slot index: primitive open-addressing map (no boxing per account) -
+ * slots freed by deleteAccount(...) are reused by the next createAccount(...) -
+ * crash-safe reopen: a slot's "used" flag is written last and every record
+ * carries a checksum, so on reopen half-written records are treated as free
+ * and the index is rebuilt from the valid slots - updates never leave a slot
+ * torn: the new record is first committed to a redo area in the header, then
+ * copied over the slot, so a rewrite cut short is finished on reopen (the slot
+ * keeps its place, which the paged scan relies on). In file mode the header is
+ * forced to disk before the slot is touched and the slot before the redo entry
+ * is cleared, since the OS may write mapped pages back in any order; that makes
+ * updates safe against an OS crash or power loss too, at the cost of two
+ * syncs per update. Inserts and deletes are not forced (call sync()): after
+ * a power loss they may be lost, but never torn.
+ *
+ * Slot layout (bytes): 0 state | 1 type | 4 next check number | 8 id | 16
+ * balance (cents) | 24 interest rate (double bits) | 32 checksum | 36-63
+ * reserved. 64 bytes divides the page size, so a slot never straddles a page.
+ * Header redo area: 20 state | 24 target slot | 28-62 copy of slot bytes 1-35.
+ *
+ * Thread-safe (all operations synchronize on the store).
+ */
+public class OffHeapAccountStore implements AccountReaderDAO, AccountWriterDAO, Closeable {
+
+    static final int SLOT_SIZE = 64;
+    static final int HEADER_SIZE = 64;
+    static final int DEFAULT_CHUNK_SLOTS = 1 << 16; // 4 MB per chunk
+
+    private static final int MAGIC = 0x42414E4B; // "BANK"
+    private static final int VERSION = 1;
+
+    // header offsets
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SLOT_SIZE = 8;
+    private static final int H_CHUNK_SLOTS = 12;
+    private static final int H_HIGH_WATER = 16;
+    static final int H_REDO_STATE = 20;
+    static final int H_REDO_SLOT = 24;
+    static final int H_REDO_RECORD = 28;
+
+    // slot offsets
+    private static final int S_STATE = 0;
+    private static final int S_TYPE = 1;
+    private static final int S_CHECK_NUMBER = 4;
+    private static final int S_ID = 8;
+    private static final int S_BALANCE = 16;
+    private static final int S_RATE = 24;
+    private static final int S_CHECKSUM = 32;
+    private static final int S_RECORD_END = S_CHECKSUM + 4;
+
+    private static final byte STATE_FREE = 0;
+    private static final byte STATE_USED = 1;
+
+    private static final byte REDO_NONE = 0;
+    static final byte REDO_PENDING = 1;
+
+    static final byte TYPE_CHECKING = 1;
+    static final byte TYPE_SAVINGS = 2;
+
+    private static final int NO_SLOT = -1;
+
+    private final FileChannel channel; // null in memory mode
+    private final ByteBuffer header;
+    private final int chunkSlots;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final ByteBuffer redoRecord = ByteBuffer.allocate(SLOT_SIZE);
+
+    private final LongIntHashMap slotById;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int highWater;
+    private int corruptSlots;
+
+    private OffHeapAccountStore(FileChannel channel, ByteBuffer header, int chunkSlots) {
+        this.channel = channel;
+        this.header = header;
+        this.chunkSlots = chunkSlots;
+        this.slotById = new LongIntHashMap(Math.max(16, header.getInt(H_HIGH_WATER)));
+    }
+
+    /**
+     * Store backed by direct ByteBuffers (off-heap, not persistent).
+     */
+    public static OffHeapAccountStore inMemory() {
+        ByteBuffer header = ByteBuffer.allocateDirect(HEADER_SIZE);
+        writeNewHeader(header, DEFAULT_CHUNK_SLOTS);
+        return new OffHeapAccountStore(null, header, DEFAULT_CHUNK_SLOTS);
+    }
+
+    /**
+     * Opens (or creates) a store backed by a memory-mapped file. Existing records
+     * are indexed; records that were being written during a crash are dropped.
+     */
+    public static OffHeapAccountStore open(Path file) throws IOException {
+        return open(file, DEFAULT_CHUNK_SLOTS);
+    }
+
+    static OffHeapAccountStore open(Path file, int chunkSlots) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean fresh = channel.size() == 0;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (fresh) {
+                writeNewHeader(header, chunkSlots);
+                header.force();
+            } else {
+                validateHeader(header, file);
+            }
+            OffHeapAccountStore store = new OffHeapAccountStore(channel, header, header.getInt(H_CHUNK_SLOTS));
+            store.recover();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // ============================
+    // AccountReaderDAO
+    // ============================
+
+    @Override
+    public synchronized List<Account> readAccounts() {
+        List<Account> accounts = new ArrayList<>(slotById.size());
+        for (int slot = 0; slot < highWater; slot++) {
+            ByteBuffer chunk = chunkFor(slot);
+            int offset = offsetOf(slot);
+            if (chunk.get(offset + S_STATE) == STATE_USED) {
+                accounts.add(materialize(chunk, offset));
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Reads the next pageSize accounts in slot order; the token is the slot to
+     * continue from, so each page only materialises its own accounts and holds
+     * the lock for that page alone. A slot freed and reused behind the token
+     * is not revisited.
+     */
+    @Override
+    public synchronized AccountPage readAccountPage(String resumeToken, int pageSize) {
+        AccountPage.checkPageSize(pageSize);
+        long start = resumeToken == null ? 0 : AccountPage.parseToken(resumeToken);
+        int slot = (int) Math.min(start, highWater);
+        List<Account> page = new ArrayList<>(Math.min(pageSize, slotById.size()));
+        for (; slot < highWater && page.size() < pageSize; slot++) {
+            ByteBuffer chunk = chunkFor(slot);
+            int offset = offsetOf(slot);
+            if (chunk.get(offset + S_STATE) == STATE_USED) {
+                page.add(materialize(chunk, offset));
+            }
+        }
+        // Skip trailing free slots so a full final page is reported as last
+        while (slot < highWater && chunkFor(slot).get(offsetOf(slot) + S_STATE) != STATE_USED) {
+            slot++;
+        }
+        return new AccountPage(page, slot < highWater ? Integer.toString(slot) : null);
+    }
+
+    /**
+     * Reads one account by id (null if not stored).
+     */
+    @Override
+    public synchronized Account readAccount(long accountId) {
+        int slot = slotById.get(accountId, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return null;
+        }
+        return materialize(chunkFor(slot), offsetOf(slot));
+    }
+
+    // ============================
+    // AccountWriterDAO
+    // ============================
+
+    /**
+     * Stores the account. If an account with the same id is already stored its
+     * record is overwritten (same as updateAccount(...)).
+     */
+    @Override
+    public synchronized Account createAccount(Account account) {
+        return store(account);
+    }
+
+    @Override
+    public synchronized void deleteAccount(Account account) {
+        if (account == null) {
+            return;
+        }
+        remove(account.getACCOUNT_ID());
+    }
+
+    /**
+     * Batch create under one lock acquisition, with the id index grown once for
+     * the whole batch instead of rehashing as it fills.
+     */
+    @Override
+    public synchronized BatchResult createAccounts(List<Account> accounts) {
+        slotById.ensureCapacity(slotById.size() + accounts.size());
+        BatchResult.Collector results = new BatchResult.Collector(accounts.size());
+        for (Account account : accounts) {
+            try {
+                results.success(store(account));
+            } catch (RuntimeException e) {
+                results.failure(e);
+            }
+        }
+        return results.result();
+    }
+
+    /**
+     * Batch delete under one lock acquisition. Accounts that are not stored
+     * count as deleted (same as deleteAccount(...)).
+     */
+    @Override
+    public synchronized BatchResult deleteAccounts(List<Account> accounts) {
+        BatchResult.Collector results = new BatchResult.Collector(accounts.size());
+        for (Account account : accounts) {
+            if (account == null) {
+                results.failure(new IllegalArgumentException("Account cannot be null"));
+                continue;
+            }
+            remove(account.getACCOUNT_ID());
+            results.success(account);
+        }
+        return results.result();
+    }
+
+    /**
+     * Writes back the mutable fields (balance, interest rate, next check number)
+     * of an already stored account. Returns false if the account is not stored.
+     */
+    public synchronized boolean updateAccount(Account account) {
+        if (account == null) {
+            return false;
+        }
+        int slot = slotById.get(account.getACCOUNT_ID(), NO_SLOT);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        rewrite(slot, typeOf(account), account);
+        return true;
+    }
+
+    // ============================
+    // Store management
+    // ============================
+
+    public synchronized int size() {
+        return slotById.size();
+    }
+
+    public synchronized boolean contains(long accountId) {
+        return slotById.containsKey(accountId);
+    }
+
+    /**
+     * Number of half-written records found (and discarded) by the last reopen.
+     */
+    public synchronized int getCorruptSlotCount() {
+        return corruptSlots;
+    }
+
+    /**
+     * Flushes mapped pages to disk (no-op in memory mode).
+     */
+    public synchronized void sync() {
+        if (channel == null) {
+            return;
+        }
+        for (ByteBuffer chunk : chunks) {
+            ((MappedByteBuffer) chunk).force();
+        }
+        ((MappedByteBuffer) header).force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        chunks.clear();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    // ============================
+    // Internals
+    // ============================
+
+    // Shared by createAccount and createAccounts (caller holds the lock)
+    private Account store(Account account) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        byte type = typeOf(account);
+
+        int slot = slotById.get(account.getACCOUNT_ID(), NO_SLOT);
+        if (slot != NO_SLOT) {
+            rewrite(slot, type, account);
+            return account;
+        }
+
+        slot = allocateSlot();
+        writeRecord(chunkFor(slot), offsetOf(slot), type, account);
+        // Commit point: the record only counts once the used flag is set
+        chunkFor(slot).put(offsetOf(slot) + S_STATE, STATE_USED);
+        slotById.put(account.getACCOUNT_ID(), slot, NO_SLOT);
+        return account;
+    }
+
+    private void remove(long accountId) {
+        int slot = slotById.remove(accountId, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return;
+        }
+        chunkFor(slot).put(offsetOf(slot) + S_STATE, STATE_FREE);
+        pushFree(slot);
+    }
+
+    // Rebuilds the index + free-list from the slots on disk
+    private void recover() {
+        highWater = header.getInt(H_HIGH_WATER);
+        replayRedo();
+        for (int slot = 0; slot < highWater; slot++) {
+            ByteBuffer chunk = chunkFor(slot);
+            int offset = offsetOf(slot);
+            if (chunk.get(offset + S_STATE) != STATE_USED) {
+                pushFree(slot);
+                continue;
+            }
+            long id = chunk.getLong(offset + S_ID);
+            boolean valid = chunk.getInt(offset + S_CHECKSUM) == checksum(chunk, offset)
+                    && !slotById.containsKey(id);
+            if (valid) {
+                slotById.put(id, slot, NO_SLOT);
+            } else {
+                chunk.put(offset + S_STATE, STATE_FREE);
+                pushFree(slot);
+                corruptSlots++;
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = highWater;
+        chunkFor(slot); // map the chunk first so a failure leaves the header untouched
+        highWater = slot + 1;
+        header.putInt(H_HIGH_WATER, highWater);
+        return slot;
+    }
+
+    // Overwrites a committed slot. The new record is committed to the header's
+    // redo area first: a crash before that keeps the old record, a crash after
+    // it is finished by replayRedo()
+    private void rewrite(int slot, byte type, Account account) {
+        writeRecord(redoRecord, 0, type, account);
+        for (int i = S_TYPE; i < S_RECORD_END; i++) {
+            header.put(H_REDO_RECORD - S_TYPE + i, redoRecord.get(i));
+        }
+        header.putInt(H_REDO_SLOT, slot);
+        header.put(H_REDO_STATE, REDO_PENDING);
+        force(header); // the redo entry is on disk before the slot changes
+
+        ByteBuffer chunk = chunkFor(slot);
+        writeRecord(chunk, offsetOf(slot), type, account);
+        force(chunk); // the slot is on disk before the redo entry goes
+        header.put(H_REDO_STATE, REDO_NONE);
+    }
+
+    // Copies a committed but unfinished rewrite over its slot (before the scan)
+    private void replayRedo() {
+        if (header.get(H_REDO_STATE) != REDO_PENDING) {
+            return;
+        }
+        for (int i = S_TYPE; i < S_RECORD_END; i++) {
+            redoRecord.put(i, header.get(H_REDO_RECORD - S_TYPE + i));
+        }
+        int slot = header.getInt(H_REDO_SLOT);
+        if (slot >= 0 && slot < highWater && redoRecord.getInt(S_CHECKSUM) == checksum(redoRecord, 0)) {
+            ByteBuffer chunk = chunkFor(slot);
+            int offset = offsetOf(slot);
+            for (int i = S_TYPE; i < S_RECORD_END; i++) {
+                chunk.put(offset + i, redoRecord.get(i));
+            }
+            chunk.put(offset + S_STATE, STATE_USED);
+            force(chunk);
+        }
+        header.put(H_REDO_STATE, REDO_NONE);
+    }
+
+    // Writes a mapped buffer back to disk (no-op in memory mode)
+    private void force(ByteBuffer buffer) {
+        if (channel != null) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    private static void writeRecord(ByteBuffer chunk, int offset, byte type, Account account) {
+        int checkNumber = 0;
+        long rateBits = 0;
+        if (account instanceof CheckingAccount) {
+            checkNumber = ((CheckingAccount) account).getNextCheckNumber();
+        } else if (account instanceof SavingsAccount) {
+            rateBits = Double.doubleToRawLongBits(((SavingsAccount) account).getInterestRate());
+        }
+
+        chunk.put(offset + S_TYPE, type);
+        chunk.putInt(offset + S_CHECK_NUMBER, checkNumber);
+        chunk.putLong(offset + S_ID, account.getACCOUNT_ID());
+        chunk.putLong(offset + S_BALANCE, account.getBalanceCents());
+        chunk.putLong(offset + S_RATE, rateBits);
+        chunk.putInt(offset + S_CHECKSUM, checksum(chunk, offset));
+    }
+
+    private static Account materialize(ByteBuffer chunk, int offset) {
+        long id = chunk.getLong(offset + S_ID);
+        byte type = chunk.get(offset + S_TYPE);
+
+        Account account;
+        if (type == TYPE_SAVINGS) {
+            SavingsAccount savings = new SavingsAccount(id);
+            savings.setInterestRate(Double.longBitsToDouble(chunk.getLong(offset + S_RATE)));
+            account = savings;
+        } else {
+            CheckingAccount checking = new CheckingAccount(id);
+            checking.setNextCheckNumber(chunk.getInt(offset + S_CHECK_NUMBER));
+            account = checking;
+        }
+        account.setBalanceCents(chunk.getLong(offset + S_BALANCE));
+        return account;
+    }
+
+    static byte typeOf(Account account) {
+        if (account instanceof SavingsAccount) {
+            return TYPE_SAVINGS;
+        }
+        if (account instanceof CheckingAccount) {
+            return TYPE_CHECKING;
+        }
+        throw new IllegalArgumentException("Unsupported account type: " + account.getClass().getName());
+    }
+
+    // Cheap 32-bit mix of the record fields (detects torn / partial writes)
+    private static int checksum(ByteBuffer chunk, int offset) {
+        long h = chunk.get(offset + S_TYPE);
+        h = h * 0x9E3779B97F4A7C15L + chunk.getInt(offset + S_CHECK_NUMBER);
+        h = h * 0x9E3779B97F4A7C15L + chunk.getLong(offset + S_ID);
+        h = h * 0x9E3779B97F4A7C15L + chunk.getLong(offset + S_BALANCE);
+        h = h * 0x9E3779B97F4A7C15L + chunk.getLong(offset + S_RATE);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void pushFree(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int offsetOf(int slot) {
+        return (slot % chunkSlots) * SLOT_SIZE;
+    }
+
+    private ByteBuffer chunkFor(int slot) {
+        int chunkIndex = slot / chunkSlots;
+        while (chunks.size() <= chunkIndex) {
+            chunks.add(newChunk(chunks.size()));
+        }
+        return chunks.get(chunkIndex);
+    }
+
+    private ByteBuffer newChunk(int chunkIndex) {
+        long chunkBytes = (long) chunkSlots * SLOT_SIZE;
+        if (channel == null) {
+            return ByteBuffer.allocateDirect((int) chunkBytes);
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + chunkIndex * chunkBytes, chunkBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map account store chunk " + chunkIndex, e);
+        }
+    }
+
+    private static void writeNewHeader(ByteBuffer header, int chunkSlots) {
+        header.putInt(H_MAGIC, MAGIC);
+        header.putInt(H_VERSION, VERSION);
+        header.putInt(H_SLOT_SIZE, SLOT_SIZE);
+        header.putInt(H_CHUNK_SLOTS, chunkSlots);
+        header.putInt(H_HIGH_WATER, 0);
+    }
+
+    private static void validateHeader(ByteBuffer header, Path file) throws IOException {
+        if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION
+                || header.getInt(H_SLOT_SIZE) != SLOT_SIZE || header.getInt(H_CHUNK_SLOTS) <= 0) {
+            throw new IOException("Not an account store file (or unsupported version): " + file);
+        }
+    }
+}
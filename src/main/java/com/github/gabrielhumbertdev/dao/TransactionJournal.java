@@ -0,0 +1,729 @@
+package com.github.gabrielhumbertdev.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+
+/**
+ * TransactionJournal
+ *
+ * Append-only write-ahead journal of account activity (customers and accounts
+ * created/removed, owners added, deposits, withdrawals, fines, interest,
+ * balance corrections, rate / check number / email changes) as compact binary
+ * records in segment files journal-&lt;first sequence&gt;.log.
+ *
+ * - appends are encoded into an in-memory buffer and written to the segment's
+ * FileChannel; they never wait for the disk - group commit: a background thread
+ * fsyncs once syncEveryRecords records are pending or syncIntervalMillis has
+ * passed, so a crash loses at most that window. sync() forces everything
+ * appended so far. - a segment is closed (fsynced) and a new one started once it
+ * would exceed segmentBytes - on open, a torn record at the end of the last
+ * segment (crash mid-write) is cut off and appending continues after the last
+ * valid record
+ *
+ * Segment layout: 16-byte header (magic, version, first sequence) then
+ * records: int body length | int CRC32 of body | body (byte type, long
+ * sequence, long timestamp, type-specific fields; see JournalRecord).
+ *
+ * Thread-safe. I/O errors are rethrown as UncheckedIOException and make the
+ * journal reject further appends. Callers that journal a change after applying
+ * it can ignore those exceptions: every rejected append is counted
+ * (getRejectedAppends(), BankMetrics.JOURNAL_REJECTED) and isHealthy() /
+ * getFailure() report the journal's state.
+ */
+public class TransactionJournal implements Closeable {
+
+    public static final int DEFAULT_SYNC_EVERY_RECORDS = 1_024;
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 10;
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private static final int MAGIC = 0x544A4E4C; // "TJNL"
+    private static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final int BASE_BODY_SIZE = 1 + 8 + 8; // type, sequence, timestamp
+    private static final int MAX_TEXT_BYTES = 0xFFFF;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int syncEveryRecords;
+    private final long syncIntervalNanos;
+    private final long segmentBytes;
+
+    // Guarded by this
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private long segmentPosition; // bytes of the current segment already handed to the channel
+    private long lastSequence;
+    private int unsyncedRecords;
+
+    // fsync and closing a segment are serialised on ioLock (lock order: this -> ioLock)
+    private final Object ioLock = new Object();
+    private volatile long durableSequence;
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private final LongAdder rejectedAppends = new LongAdder();
+    private final Thread syncThread;
+
+    private TransactionJournal(Path directory, int syncEveryRecords, long syncIntervalMillis, long segmentBytes)
+            throws IOException {
+        this.directory = directory;
+        this.syncEveryRecords = syncEveryRecords;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.segmentBytes = segmentBytes;
+
+        Files.createDirectories(directory);
+        recover();
+        durableSequence = lastSequence;
+
+        syncThread = new Thread(this::runSyncLoop, "transaction-journal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    public static TransactionJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SYNC_EVERY_RECORDS, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param syncEveryRecords   fsync once this many records are pending
+     * @param syncIntervalMillis ... or once this much time has passed
+     * @param segmentBytes       start a new segment file beyond this size
+     */
+    public static TransactionJournal open(Path directory, int syncEveryRecords, long syncIntervalMillis,
+                                          long segmentBytes) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Journal directory cannot be null");
+        }
+        if (syncEveryRecords <= 0 || syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sync thresholds must be positive");
+        }
+        if (segmentBytes < SEGMENT_HEADER_SIZE + BUFFER_BYTES) {
+            throw new IllegalArgumentException("Segment size must be at least " + (SEGMENT_HEADER_SIZE + BUFFER_BYTES));
+        }
+        return new TransactionJournal(directory, syncEveryRecords, syncIntervalMillis, segmentBytes);
+    }
+
+    // ============================
+    // Appends (each returns the record's sequence number)
+    // ============================
+    public long customerCreated(Customer customer) {
+        byte[] name = text(customer.getName());
+        byte[] address = text(customer.getAddress());
+        return append(JournalRecord.Type.CUSTOMER_CREATED, 0, customer.getCUSTOMER_ID(), 0,
+                JournalRecord.kindOf(customer), name, address);
+    }
+
+    public long customerRemoved(long customerId) {
+        return append(JournalRecord.Type.CUSTOMER_REMOVED, 0, customerId, 0, (byte) 0, null, null);
+    }
+
+    public long accountCreated(Account account, long customerId) {
+        return append(JournalRecord.Type.ACCOUNT_CREATED, account.getACCOUNT_ID(), customerId, 0,
+                JournalRecord.kindOf(account), null, null);
+    }
+
+    public long accountRemoved(long accountId) {
+        return append(JournalRecord.Type.ACCOUNT_REMOVED, accountId, 0, 0, (byte) 0, null, null);
+    }
+
+    public long ownerAdded(long accountId, long customerId) {
+        return append(JournalRecord.Type.OWNER_ADDED, accountId, customerId, 0, (byte) 0, null, null);
+    }
+
+    public long deposit(long accountId, long amountCents) {
+        return append(JournalRecord.Type.DEPOSIT, accountId, 0, amountCents, (byte) 0, null, null);
+    }
+
+    public long withdrawal(long accountId, long amountCents) {
+        return append(JournalRecord.Type.WITHDRAWAL, accountId, 0, amountCents, (byte) 0, null, null);
+    }
+
+    public long fine(long accountId, long amountCents) {
+        return append(JournalRecord.Type.FINE, accountId, 0, amountCents, (byte) 0, null, null);
+    }
+
+    public long interest(long accountId, long amountCents) {
+        return append(JournalRecord.Type.INTEREST, accountId, 0, amountCents, (byte) 0, null, null);
+    }
+
+    public long correction(long accountId, long changeCents) {
+        return append(JournalRecord.Type.CORRECTION, accountId, 0, changeCents, (byte) 0, null, null);
+    }
+
+    public long rateChanged(long accountId, double rate) {
+        return append(JournalRecord.Type.RATE_CHANGED, accountId, 0, Double.doubleToRawLongBits(rate), (byte) 0,
+                null, null);
+    }
+
+    public long checkNumber(long accountId, int nextCheckNumber) {
+        return append(JournalRecord.Type.CHECK_NUMBER, accountId, 0, nextCheckNumber, (byte) 0, null, null);
+    }
+
+    public long emailChanged(long customerId, String email) {
+        return append(JournalRecord.Type.EMAIL_CHANGED, 0, customerId, 0, (byte) 0, text(email), null);
+    }
+
+    private long append(JournalRecord.Type type, long accountId, long customerId, long amountCents, byte kind,
+                        byte[] name, byte[] address) {
+        int recordSize = RECORD_HEADER_SIZE + bodySize(type, name, address);
+        long timestamp = System.currentTimeMillis();
+
+        synchronized (this) {
+            ensureAppendable();
+            try {
+                long used = segmentPosition + buffer.position();
+                if (used + recordSize > segmentBytes && used > SEGMENT_HEADER_SIZE) {
+                    rollover();
+                }
+                if (buffer.remaining() < recordSize) {
+                    drainBuffer();
+                }
+            } catch (IOException e) {
+                rejectedAppends.increment();
+                BankMetrics.JOURNAL_REJECTED_COUNT.increment();
+                throw fail(e);
+            }
+
+            long sequence = lastSequence + 1;
+            int start = buffer.position();
+            buffer.position(start + RECORD_HEADER_SIZE);
+            buffer.put(type.code).putLong(sequence).putLong(timestamp);
+            switch (type) {
+            case CUSTOMER_CREATED:
+                buffer.putLong(customerId).put(kind);
+                putText(name);
+                putText(address);
+                break;
+            case CUSTOMER_REMOVED:
+                buffer.putLong(customerId);
+                break;
+            case ACCOUNT_CREATED:
+                buffer.putLong(accountId).putLong(customerId).put(kind);
+                break;
+            case ACCOUNT_REMOVED:
+                buffer.putLong(accountId);
+                break;
+            case OWNER_ADDED:
+                buffer.putLong(accountId).putLong(customerId);
+                break;
+            case EMAIL_CHANGED:
+                buffer.putLong(customerId);
+                putText(name);
+                break;
+            default: // DEPOSIT, WITHDRAWAL, FINE, INTEREST, CORRECTION, RATE_CHANGED, CHECK_NUMBER
+                buffer.putLong(accountId).putLong(amountCents);
+                break;
+            }
+
+            int bodyStart = start + RECORD_HEADER_SIZE;
+            int bodyLength = buffer.position() - bodyStart;
+            crc.reset();
+            crc.update(buffer.array(), bodyStart, bodyLength);
+            buffer.putInt(start, bodyLength).putInt(start + 4, (int) crc.getValue());
+
+            lastSequence = sequence;
+            if (++unsyncedRecords >= syncEveryRecords) {
+                notifyAll(); // wake the sync thread early
+            }
+            return sequence;
+        }
+    }
+
+    private static int bodySize(JournalRecord.Type type, byte[] name, byte[] address) {
+        switch (type) {
+        case CUSTOMER_CREATED:
+            return BASE_BODY_SIZE + 8 + 1 + 2 + name.length + 2 + address.length;
+        case CUSTOMER_REMOVED:
+        case ACCOUNT_REMOVED:
+            return BASE_BODY_SIZE + 8;
+        case ACCOUNT_CREATED:
+            return BASE_BODY_SIZE + 8 + 8 + 1;
+        case EMAIL_CHANGED:
+            return BASE_BODY_SIZE + 8 + 2 + name.length;
+        default:
+            return BASE_BODY_SIZE + 8 + 8;
+        }
+    }
+
+    private static byte[] text(String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_BYTES) {
+            throw new IllegalArgumentException("Text too long for the journal (" + bytes.length + " bytes)");
+        }
+        return bytes;
+    }
+
+    private void putText(byte[] bytes) {
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    // ============================
+    // Group commit
+    // ============================
+    /**
+     * Writes and fsyncs everything appended so far. When it returns, every
+     * record with a sequence up to getLastSequence() (as seen before the call)
+     * survives a crash.
+     */
+    public void sync() {
+        FileChannel target;
+        long sequence;
+        synchronized (this) {
+            ensureWritable();
+            try {
+                drainBuffer();
+            } catch (IOException e) {
+                throw fail(e);
+            }
+            unsyncedRecords = 0;
+            target = channel;
+            sequence = lastSequence;
+        }
+        if (sequence <= durableSequence) {
+            return;
+        }
+
+        synchronized (ioLock) {
+            try {
+                target.force(false);
+            } catch (ClosedChannelException e) {
+                // Segment rolled over meanwhile: it was forced before being closed
+            } catch (IOException e) {
+                throw fail(e);
+            }
+        }
+        markDurable(sequence);
+    }
+
+    private void runSyncLoop() {
+        while (true) {
+            synchronized (this) {
+                long deadline = System.nanoTime() + syncIntervalNanos;
+                try {
+                    while (!closed && unsyncedRecords < syncEveryRecords) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed || failure != null) {
+                    return;
+                }
+                if (unsyncedRecords == 0) {
+                    continue;
+                }
+            }
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                // Closed meanwhile, or an I/O failure (recorded; appends now throw)
+                return;
+            }
+        }
+    }
+
+    private void markDurable(long sequence) {
+        synchronized (ioLock) {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+            }
+        }
+    }
+
+    // ============================
+    // Segments (callers hold this)
+    // ============================
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segmentPosition += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void rollover() throws IOException {
+        drainBuffer();
+        FileChannel previous = channel;
+        synchronized (ioLock) {
+            previous.force(false);
+            previous.close();
+        }
+        markDurable(lastSequence);
+        startSegment(lastSequence + 1);
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(segmentName(firstSequence));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(firstSequence).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segmentPosition = SEGMENT_HEADER_SIZE;
+    }
+
+    // Continues the last segment after its last valid record, or starts the first one
+    private void recover() throws IOException {
+        List<Path> segments = listSegments(directory);
+        lastSequence = 0;
+        if (!segments.isEmpty()) {
+            Path lastSegment = segments.get(segments.size() - 1);
+            FileChannel existing = FileChannel.open(lastSegment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ScanResult scan;
+            try {
+                // Heap copy rather than a mapping: the file is truncated right after
+                scan = scan(readFully(existing), null);
+            } catch (IOException e) {
+                existing.close();
+                throw e;
+            }
+
+            if (scan != null) {
+                existing.truncate(scan.validEnd);
+                existing.position(scan.validEnd);
+                channel = existing;
+                segmentPosition = scan.validEnd;
+                lastSequence = scan.lastSequence;
+                return;
+            }
+
+            // Header never made it to disk: the segment holds nothing, start it again
+            existing.close();
+            Files.delete(lastSegment);
+            if (segments.size() > 1) {
+                lastSequence = lastSequenceOf(segments.get(segments.size() - 2));
+            }
+        }
+        startSegment(lastSequence + 1);
+    }
+
+    private static long lastSequenceOf(Path segment) throws IOException {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ScanResult scan = scan(map(in), null);
+            if (scan == null) {
+                throw new IOException("Corrupt journal segment header: " + segment);
+            }
+            return scan.lastSequence;
+        }
+    }
+
+    // ensureWritable() for an append: a rejected append is counted
+    private void ensureAppendable() {
+        try {
+            ensureWritable();
+        } catch (RuntimeException e) {
+            rejectedAppends.increment();
+            BankMetrics.JOURNAL_REJECTED_COUNT.increment();
+            throw e;
+        }
+    }
+
+    private void ensureWritable() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        IOException cause = failure;
+        if (cause != null) {
+            throw new UncheckedIOException("Journal failed earlier", cause);
+        }
+    }
+
+    private UncheckedIOException fail(IOException e) {
+        failure = e;
+        return new UncheckedIOException("Journal write failed", e);
+    }
+
+    // ============================
+    // Reading
+    // ============================
+    /**
+     * Feeds every record in the directory to handler, in sequence order, and
+     * returns how many there were. A torn record at the very end (crash
+     * mid-write) ends the replay; damage anywhere else is an IOException.
+     */
+    public static long replay(Path directory, Consumer<JournalRecord> handler) throws IOException {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        List<Path> segments = listSegments(directory);
+        long count = 0;
+        long expectedFirst = -1;
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                ScanResult scan = scan(map(in), handler);
+                if (scan == null) {
+                    if (last) {
+                        break;
+                    }
+                    throw new IOException("Corrupt journal segment header: " + segment);
+                }
+                if (expectedFirst >= 0 && scan.firstSequence != expectedFirst) {
+                    throw new IOException("Journal segment " + segment + " does not follow sequence " + (expectedFirst - 1));
+                }
+                if (!last && scan.validEnd < in.size()) {
+                    throw new IOException("Corrupt record in journal segment " + segment + " at " + scan.validEnd);
+                }
+                count += scan.lastSequence - scan.firstSequence + 1;
+                expectedFirst = scan.lastSequence + 1;
+            }
+        }
+        return count;
+    }
+
+    public static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        // Zero-padded first sequence: name order == sequence order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private static final class ScanResult {
+        final long firstSequence;
+        final long lastSequence; // firstSequence - 1 when the segment has no records
+        final long validEnd;
+
+        ScanResult(long firstSequence, long lastSequence, long validEnd) {
+            this.firstSequence = firstSequence;
+            this.lastSequence = lastSequence;
+            this.validEnd = validEnd;
+        }
+    }
+
+    private static ByteBuffer map(FileChannel in) throws IOException {
+        return in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+    }
+
+    private static ByteBuffer readFully(FileChannel in) throws IOException {
+        long size = in.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal segment too large: " + size + " bytes");
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) size);
+        while (data.hasRemaining() && in.read(data, data.position()) >= 0) {
+            // positional reads until full
+        }
+        data.flip();
+        return data;
+    }
+
+    // Reads valid records until the end or the first damaged one; null if the header is unusable
+    private static ScanResult scan(ByteBuffer data, Consumer<JournalRecord> handler) {
+        int size = data.limit();
+        if (size < SEGMENT_HEADER_SIZE) {
+            return null;
+        }
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            return null;
+        }
+        long firstSequence = data.getLong(8);
+        long expected = firstSequence;
+        int position = SEGMENT_HEADER_SIZE;
+        CRC32 checksum = new CRC32();
+
+        while (size - position >= RECORD_HEADER_SIZE) {
+            int length = data.getInt(position);
+            int storedCrc = data.getInt(position + 4);
+            int bodyStart = position + RECORD_HEADER_SIZE;
+            if (length < BASE_BODY_SIZE || length > size - bodyStart) {
+                break;
+            }
+
+            ByteBuffer body = data.duplicate();
+            body.limit(bodyStart + length).position(bodyStart);
+            checksum.reset();
+            checksum.update(body);
+            if ((int) checksum.getValue() != storedCrc) {
+                break;
+            }
+
+            body.position(bodyStart);
+            JournalRecord record = decode(body, expected);
+            if (record == null) {
+                break;
+            }
+            if (handler != null) {
+                handler.accept(record);
+            }
+            expected++;
+            position = bodyStart + length;
+        }
+        return new ScanResult(firstSequence, expected - 1, position);
+    }
+
+    // null if the body is not a well-formed record with the expected sequence
+    private static JournalRecord decode(ByteBuffer body, long expectedSequence) {
+        JournalRecord.Type type = JournalRecord.Type.ofCode(body.get());
+        long sequence = body.getLong();
+        long timestamp = body.getLong();
+        if (type == null || sequence != expectedSequence) {
+            return null;
+        }
+        try {
+            switch (type) {
+            case CUSTOMER_CREATED: {
+                long customerId = body.getLong();
+                byte kind = body.get();
+                String name = readText(body);
+                String address = readText(body);
+                return new JournalRecord(type, sequence, timestamp, 0, customerId, 0, kind, name, address);
+            }
+            case CUSTOMER_REMOVED:
+                return new JournalRecord(type, sequence, timestamp, 0, body.getLong(), 0, (byte) 0, null, null);
+            case ACCOUNT_CREATED: {
+                long accountId = body.getLong();
+                long customerId = body.getLong();
+                return new JournalRecord(type, sequence, timestamp, accountId, customerId, 0, body.get(), null, null);
+            }
+            case ACCOUNT_REMOVED:
+                return new JournalRecord(type, sequence, timestamp, body.getLong(), 0, 0, (byte) 0, null, null);
+            case OWNER_ADDED: {
+                long accountId = body.getLong();
+                return new JournalRecord(type, sequence, timestamp, accountId, body.getLong(), 0, (byte) 0, null,
+                        null);
+            }
+            case EMAIL_CHANGED: {
+                long customerId = body.getLong();
+                return new JournalRecord(type, sequence, timestamp, 0, customerId, 0, (byte) 0, readText(body),
+                        null);
+            }
+            default: {
+                long accountId = body.getLong();
+                return new JournalRecord(type, sequence, timestamp, accountId, 0, body.getLong(), (byte) 0, null,
+                        null);
+            }
+            }
+        } catch (RuntimeException e) {
+            // Length field and contents disagree (BufferUnderflow etc.)
+            return null;
+        }
+    }
+
+    private static String readText(ByteBuffer body) {
+        int length = body.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ============================
+    // State
+    // ============================
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Highest sequence known to be fsynced.
+     */
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * False once the journal is closed or has failed: appends are then rejected.
+     */
+    public boolean isHealthy() {
+        return !closed && failure == null;
+    }
+
+    /**
+     * The I/O error that stopped the journal, or null.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Appends rejected because the journal was closed or had failed.
+     */
+    public long getRejectedAppends() {
+        return rejectedAppends.sum();
+    }
+
+    /**
+     * Stops the sync thread, then writes and fsyncs the remaining records.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            try {
+                if (failure == null) {
+                    drainBuffer();
+                    synchronized (ioLock) {
+                        channel.force(false);
+                    }
+                    markDurable(lastSequence);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.github.gabrielhumbertdev.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.depositbox.SafetyDepositBox;
+import com.github.gabrielhumbertdev.model.organisation.Company;
+import com.github.gabrielhumbertdev.service.AccountController;
+import com.github.gabrielhumbertdev.service.SafetyDepositBoxService;
+import com.github.gabrielhumbertdev.util.Money;
+import com.github.gabrielhumbertdev.util.TaskExecutors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * BankHttpServer
+ *
+ * JSON over HTTP in front of an AccountController and a SafetyDepositBoxService,
+ * on the JDK's built-in server (com.sun.net.httpserver):
+ *
+ * - POST /customers {"name","address","type","email"?} -> 201 customer
+ * - POST /accounts {"customerId","type"} -> 201 account
+ * - GET /accounts/{id} -> account (balance lookup)
+ * - POST /accounts/{id}/deposit {"amount","customerId"?} -> account
+ * - POST /accounts/{id}/withdraw {"amount","customerId"?} -> account
+ * - POST /boxes {"customerId"} -> 201 box (waits up to getBoxWaitMillis()
+ * while every box is allotted)
+ * - POST /boxes/{id}/release {"customerId"} -> box
+ *
+ * Without customerId, deposit/withdraw act for the account's owner; a given
+ * customerId must be one of the owners. Boxes are always allocated to a
+ * customer, and only that customer can release them. Amounts are returned as
+ * numbers with two decimals plus exact cents.
+ *
+ * Errors are {"error": "..."} with 400 (bad input, including amounts under a
+ * cent), 403 (customer does not own the account or hold the box), 404 (unknown
+ * id or path), 405 (wrong method), 409 (deposit or withdraw refused, e.g.
+ * insufficient funds), 503 (no deposit box freed up in time) or 500 (details
+ * are logged, not returned).
+ *
+ * Every response has a Content-Length, so HTTP/1.1 connections stay open
+ * between requests (keep-alive), and TCP_NODELAY is on (see create(...)).
+ * Handlers run on the executor given to create(...); request latency goes into
+ * BankMetrics.HTTP_REQUEST_LATENCY.
+ */
+public class BankHttpServer implements Closeable {
+
+    public static final int DEFAULT_BACKLOG = 1024;
+
+    public static final long DEFAULT_BOX_WAIT_MILLIS = 5_000;
+
+    // The JDK server writes headers and body separately; with Nagle on, every
+    // keep-alive response waits for the client's delayed ACK (~40 ms). The JDK
+    // reads this once, when the first server is created; an explicit
+    // -Dsun.net.httpserver.nodelay=false still wins.
+    static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private static final String JSON = "application/json";
+
+    private static final Logger LOG = Logger.getLogger(BankHttpServer.class.getName());
+
+    // Thrown by handlers to answer with a specific status
+    private static final class HttpError extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // One route: returns the JSON body of a successful response
+    private interface Route {
+        Response handle(HttpExchange exchange, String[] path) throws IOException;
+    }
+
+    private static final class Response {
+
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private final AccountController controller;
+    private final SafetyDepositBoxService boxService;
+    private final HttpServer server;
+    private volatile long boxWaitMillis = DEFAULT_BOX_WAIT_MILLIS;
+
+    private BankHttpServer(AccountController controller, SafetyDepositBoxService boxService, HttpServer server) {
+        this.controller = controller;
+        this.boxService = boxService;
+        this.server = server;
+    }
+
+    /**
+     * Server on port (0 = any free port) using TaskExecutors.shared() (virtual
+     * threads on Java 21+). Call start() to accept requests.
+     *
+     * Note: sets the JVM-wide system property sun.net.httpserver.nodelay to
+     * true unless it is already set (see create(..., Executor)).
+     */
+    public static BankHttpServer create(AccountController controller, SafetyDepositBoxService boxService, int port)
+            throws IOException {
+        return create(controller, boxService, new InetSocketAddress(port), TaskExecutors.shared());
+    }
+
+    /**
+     * Server bound to address whose handlers run on executor.
+     *
+     * Note: to turn TCP_NODELAY on, this sets the JVM-wide system property
+     * sun.net.httpserver.nodelay to true unless it is already set, so it also
+     * applies to any other com.sun.net.httpserver server created later in this
+     * JVM. Start the JVM with -Dsun.net.httpserver.nodelay=false to keep Nagle.
+     */
+    public static BankHttpServer create(AccountController controller, SafetyDepositBoxService boxService,
+            InetSocketAddress address, Executor executor) throws IOException {
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller cannot be null");
+        }
+        if (boxService == null) {
+            throw new IllegalArgumentException("Deposit box service cannot be null");
+        }
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        HttpServer server = HttpServer.create(address, DEFAULT_BACKLOG);
+        server.setExecutor(executor);
+        BankHttpServer bank = new BankHttpServer(controller, boxService, server);
+        server.createContext("/customers", exchange -> bank.dispatch(exchange, "customers", bank::customers));
+        server.createContext("/accounts", exchange -> bank.dispatch(exchange, "accounts", bank::accounts));
+        server.createContext("/boxes", exchange -> bank.dispatch(exchange, "boxes", bank::boxes));
+        return bank;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to delaySeconds for running ones.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+    }
+
+    @Override
+    public void close() {
+        stop(0);
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * How long POST /boxes waits for a box to be released before answering 503.
+     */
+    public long getBoxWaitMillis() {
+        return boxWaitMillis;
+    }
+
+    public void setBoxWaitMillis(long boxWaitMillis) {
+        if (boxWaitMillis < 0) {
+            throw new IllegalArgumentException("Box wait cannot be negative");
+        }
+        this.boxWaitMillis = boxWaitMillis;
+    }
+
+    // ============================
+    // Routes (path = segments after the leading '/')
+    // ============================
+
+    private Response customers(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 1) {
+            throw notFound();
+        }
+        requireMethod(exchange, "POST");
+        Map<String, String> body = readBody(exchange);
+        Customer customer = controller.createCustomer(body.get("name"), body.get("address"), body.get("type"));
+        String email = body.get("email");
+        if (email != null) {
+            controller.setCustomerEmail(customer, email);
+        }
+        return new Response(201, Json.object()
+                .field("id", customer.getCUSTOMER_ID())
+                .field("name", customer.getName())
+                .field("type", customer instanceof Company ? "company" : "person")
+                .end());
+    }
+
+    private Response accounts(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 1) {
+            requireMethod(exchange, "POST");
+            Map<String, String> body = readBody(exchange);
+            Customer customer = customer(requiredLong(body, "customerId"));
+            Account account = controller.createAccount(customer, body.get("type"));
+            return new Response(201, accountJson(account, customer.getCUSTOMER_ID()));
+        }
+
+        Account account = account(parseId(path[1]));
+        if (path.length == 2) {
+            requireMethod(exchange, "GET");
+            return ok(accountJson(account, -1));
+        }
+        if (path.length != 3) {
+            throw notFound();
+        }
+        requireMethod(exchange, "POST");
+        Map<String, String> body = readBody(exchange);
+        double amount = requiredAmount(body);
+        Customer customer = body.containsKey("customerId") ? customer(requiredLong(body, "customerId"))
+                : controller.findOwner(account.getACCOUNT_ID());
+        if (customer == null) {
+            throw new HttpError(404, "Account has no owner: " + account.getACCOUNT_ID());
+        }
+        if (!controller.isAccountOwner(customer, account)) {
+            throw new HttpError(403, "Customer " + customer.getCUSTOMER_ID() + " does not own account "
+                    + account.getACCOUNT_ID());
+        }
+        switch (path[2]) {
+        case "deposit":
+            if (!controller.deposit(customer, account, amount)) {
+                throw new HttpError(409, "Deposit refused");
+            }
+            break;
+        case "withdraw":
+            if (!(controller.withdraw(customer, account, amount) > 0)) {
+                throw new HttpError(409, "Withdrawal refused (insufficient funds?)");
+            }
+            break;
+        default:
+            throw notFound();
+        }
+        return ok(accountJson(account, -1));
+    }
+
+    private Response boxes(HttpExchange exchange, String[] path) throws IOException {
+        requireMethod(exchange, "POST");
+        Map<String, String> body = readBody(exchange);
+        Customer customer = customer(requiredLong(body, "customerId"));
+
+        if (path.length == 1) {
+            SafetyDepositBox box = boxService.allocateSafetyDepositBox(customer, boxWaitMillis,
+                    TimeUnit.MILLISECONDS);
+            if (box == null) {
+                throw new HttpError(503, "No deposit box available");
+            }
+            return new Response(201, boxJson(box));
+        }
+        if (path.length != 3 || !path[2].equals("release")) {
+            throw notFound();
+        }
+        long id = parseId(path[1]);
+        SafetyDepositBox box = id > Integer.MAX_VALUE ? null : boxService.findSafetyDepositBox((int) id);
+        if (box == null) {
+            throw new HttpError(404, "Unknown deposit box: " + id);
+        }
+        if (boxService.getHolder(box) != customer) {
+            throw new HttpError(403, "Customer " + customer.getCUSTOMER_ID() + " does not hold deposit box " + id);
+        }
+        boxService.releaseSafetyDepositBox(customer, box);
+        return ok(boxJson(box));
+    }
+
+    // ============================
+    // JSON views
+    // ============================
+
+    private static String accountJson(Account account, long customerId) {
+        Json.Writer json = Json.object()
+                .field("id", account.getACCOUNT_ID())
+                .field("type", account instanceof SavingsAccount ? "savings" : "checking");
+        if (customerId >= 0) {
+            json.field("customerId", customerId);
+        }
+        long cents = account.getBalanceCents();
+        return json.amount("balance", cents).field("balanceCents", cents).end();
+    }
+
+    private static String boxJson(SafetyDepositBox box) {
+        return Json.object()
+                .field("id", (long) box.getId())
+                .field("allotted", box.isAllotted())
+                .end();
+    }
+
+    // ============================
+    // Plumbing
+    // ============================
+
+    private void dispatch(HttpExchange exchange, String root, Route route) throws IOException {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            // Contexts match by prefix, so "/accountsX" also lands here
+            String[] path = splitPath(exchange.getRequestURI().getPath());
+            if (path.length == 0 || !path[0].equals(root)) {
+                throw notFound();
+            }
+            response = route.handle(exchange, path);
+        } catch (HttpError e) {
+            response = error(e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            // The detail stays in the server log, not in the response
+            LOG.log(Level.WARNING, "Request failed: " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath(), e);
+            response = error(500, "Internal server error");
+        }
+        try {
+            send(exchange, response);
+        } finally {
+            exchange.close();
+            BankMetrics.HTTP_REQUEST_LATENCY.recordSince(start);
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Response ok(String body) {
+        return new Response(200, body);
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, Json.object().field("error", message).end());
+    }
+
+    private static HttpError notFound() {
+        return new HttpError(404, "Not found");
+    }
+
+    // "/accounts/12/deposit" -> ["accounts", "12", "deposit"] (empty segments dropped)
+    private static String[] splitPath(String path) {
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new HttpError(405, "Method not allowed: " + exchange.getRequestMethod());
+        }
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        byte[] buffer = new byte[1024];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                bytes.write(buffer, 0, read);
+            }
+        }
+        String text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        return text.trim().isEmpty() ? Collections.<String, String>emptyMap() : Json.parseObject(text);
+    }
+
+    private Customer customer(long id) {
+        Customer customer = controller.findCustomer(id);
+        if (customer == null) {
+            throw new HttpError(404, "Unknown customer: " + id);
+        }
+        return customer;
+    }
+
+    private Account account(long id) {
+        Account account = controller.findAccount(id);
+        if (account == null) {
+            throw new HttpError(404, "Unknown account: " + id);
+        }
+        return account;
+    }
+
+    private static long parseId(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new HttpError(404, "Not found");
+        }
+    }
+
+    private static long requiredLong(Map<String, String> body, String name) {
+        String value = body.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field: " + name);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field " + name + " must be an integer");
+        }
+    }
+
+    private static double requiredAmount(Map<String, String> body) {
+        String value = body.get("amount");
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field: amount");
+        }
+        double amount;
+        try {
+            amount = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field amount must be a number");
+        }
+        if (!(amount > 0) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (!Money.isConvertible(amount) || Money.toCents(amount) <= 0) {
+            throw new IllegalArgumentException("Amount must be a positive number of cents (at least 0.01)");
+        }
+        return amount;
+    }
+}
@@ -0,0 +1,300 @@
+package com.github.gabrielhumbertdev.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Json
+ *
+ * The little JSON the HTTP API needs, without reflection or a library:
+ *
+ * - Writer: appends one compact object ({"a":1,"b":"x"}) field by field into a
+ * StringBuilder; amounts are written from cents so no locale or double
+ * rounding is involved
+ * - parseObject(...): reads a flat request object (string, number, boolean or
+ * null values) into name -> text
+ *
+ * Malformed input is reported as IllegalArgumentException.
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    // ============================
+    // Writing
+    // ============================
+
+    public static Writer object() {
+        return new Writer(new StringBuilder(64));
+    }
+
+    /**
+     * Writes one JSON object; call end() once, after the last field.
+     */
+    public static final class Writer {
+
+        private final StringBuilder out;
+        private boolean first = true;
+
+        private Writer(StringBuilder out) {
+            this.out = out;
+            out.append('{');
+        }
+
+        public Writer field(String name, String value) {
+            name(name);
+            if (value == null) {
+                out.append("null");
+            } else {
+                appendString(out, value);
+            }
+            return this;
+        }
+
+        public Writer field(String name, long value) {
+            name(name);
+            out.append(value);
+            return this;
+        }
+
+        public Writer field(String name, boolean value) {
+            name(name);
+            out.append(value);
+            return this;
+        }
+
+        /**
+         * Writes cents as a decimal number with two places (12345 -> 123.45).
+         */
+        public Writer amount(String name, long cents) {
+            name(name);
+            if (cents < 0) {
+                out.append('-');
+            }
+            long abs = Math.abs(cents); // Long.MIN_VALUE cents never happens for a balance
+            long fraction = abs % 100;
+            out.append(abs / 100).append('.');
+            if (fraction < 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+            return this;
+        }
+
+        public String end() {
+            return out.append('}').toString();
+        }
+
+        private void name(String name) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendString(out, name);
+            out.append(':');
+        }
+    }
+
+    static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.append("\\u00");
+                    out.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // ============================
+    // Parsing
+    // ============================
+
+    /**
+     * Parses a flat object. String values are unescaped; numbers, booleans are
+     * kept as their text; null values are left out. Nested objects and arrays
+     * are rejected.
+     */
+    public static Map<String, String> parseObject(String json) {
+        if (json == null) {
+            throw new IllegalArgumentException("JSON body cannot be null");
+        }
+        Parser parser = new Parser(json);
+        Map<String, String> fields = new HashMap<>();
+        parser.skipWhitespace();
+        parser.expect('{');
+        parser.skipWhitespace();
+        if (parser.peek() == '}') {
+            parser.pos++;
+        } else {
+            while (true) {
+                parser.skipWhitespace();
+                String name = parser.readString();
+                parser.skipWhitespace();
+                parser.expect(':');
+                parser.skipWhitespace();
+                String value = parser.readValue();
+                if (value != null) {
+                    fields.put(name, value);
+                }
+                parser.skipWhitespace();
+                char c = parser.next();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw parser.error("Expected ',' or '}'");
+                }
+            }
+        }
+        parser.skipWhitespace();
+        if (parser.pos != json.length()) {
+            throw parser.error("Unexpected trailing content");
+        }
+        return fields;
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private int pos;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        // String, number, true/false as text; null for JSON null
+        private String readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw error("Nested values are not supported");
+            }
+            int start = pos;
+            while (pos < text.length() && ",} \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || isNumber(literal)) {
+                return literal;
+            }
+            throw error("Invalid value '" + literal + "'");
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    value.append(escaped);
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        throw error("Truncated unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("Invalid escape '\\" + escaped + "'");
+                }
+            }
+        }
+
+        private static boolean isNumber(String literal) {
+            try {
+                Double.parseDouble(literal);
+                return !literal.isEmpty() && (Character.isDigit(literal.charAt(0)) || literal.charAt(0) == '-');
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.gabrielhumbertdev.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * BankMetrics
+ *
+ * The process-wide MetricsRegistry and the metrics the services record into:
+ *
+ * - latency histograms: account deposit/withdraw (whole operation, including an
+ * inline alert), alert render and send, deposit box allocation wait, account
+ * cache loads (DAO calls made by AccountCache), HTTP requests (BankHttpServer)
+ * - counters: alerts sent, failed (MessagingException) and skipped (no email),
+ * account cache hits and misses, journal appends rejected (journal closed or
+ * failed)
+ * - gauges: accounts and customers (registered by AccountController), available
+ * deposit boxes (registered by SafetyDepositBoxService), account cache hit
+ * ratio and entries (registered by AccountCache)
+ *
+ * Read them with BankMetrics.registry().dump() or over JMX after
+ * registerMBean().
+ */
+public final class BankMetrics {
+
+    public static final String OBJECT_NAME = "com.github.gabrielhumbertdev:type=Metrics";
+
+    public static final String DEPOSIT = "account.deposit";
+    public static final String WITHDRAW = "account.withdraw";
+    public static final String ALERT_RENDER = "alert.render";
+    public static final String ALERT_SEND = "alert.send";
+    public static final String BOX_ALLOCATE_WAIT = "box.allocate.wait";
+    public static final String ACCOUNT_CACHE_LOAD = "account.cache.load";
+    public static final String HTTP_REQUEST = "http.request";
+
+    public static final String ALERTS_SENT = "alert.sent";
+    public static final String ALERTS_FAILED = "alert.failed";
+    public static final String ALERTS_SKIPPED = "alert.skipped";
+    public static final String ACCOUNT_CACHE_HITS = "account.cache.hits";
+    public static final String ACCOUNT_CACHE_MISSES = "account.cache.misses";
+    public static final String JOURNAL_REJECTED = "journal.rejected";
+
+    public static final String ACCOUNTS = "accounts";
+    public static final String CUSTOMERS = "customers";
+    public static final String AVAILABLE_BOXES = "box.available";
+    public static final String ACCOUNT_CACHE_HIT_RATIO = "account.cache.hitRatioPercent";
+    public static final String ACCOUNT_CACHE_ENTRIES = "account.cache.entries";
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    public static final LatencyHistogram DEPOSIT_LATENCY = REGISTRY.histogram(DEPOSIT);
+    public static final LatencyHistogram WITHDRAW_LATENCY = REGISTRY.histogram(WITHDRAW);
+    public static final LatencyHistogram ALERT_RENDER_LATENCY = REGISTRY.histogram(ALERT_RENDER);
+    public static final LatencyHistogram ALERT_SEND_LATENCY = REGISTRY.histogram(ALERT_SEND);
+    public static final LatencyHistogram BOX_ALLOCATE_WAIT_LATENCY = REGISTRY.histogram(BOX_ALLOCATE_WAIT);
+    public static final LatencyHistogram ACCOUNT_CACHE_LOAD_LATENCY = REGISTRY.histogram(ACCOUNT_CACHE_LOAD);
+    public static final LatencyHistogram HTTP_REQUEST_LATENCY = REGISTRY.histogram(HTTP_REQUEST);
+
+    public static final LongAdder ALERTS_SENT_COUNT = REGISTRY.counter(ALERTS_SENT);
+    public static final LongAdder ALERTS_FAILED_COUNT = REGISTRY.counter(ALERTS_FAILED);
+    public static final LongAdder ALERTS_SKIPPED_COUNT = REGISTRY.counter(ALERTS_SKIPPED);
+    public static final LongAdder ACCOUNT_CACHE_HITS_COUNT = REGISTRY.counter(ACCOUNT_CACHE_HITS);
+    public static final LongAdder ACCOUNT_CACHE_MISSES_COUNT = REGISTRY.counter(ACCOUNT_CACHE_MISSES);
+    public static final LongAdder JOURNAL_REJECTED_COUNT = REGISTRY.counter(JOURNAL_REJECTED);
+
+    private BankMetrics() {
+    }
+
+    public static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Registers the registry on the platform MBean server under OBJECT_NAME.
+     */
+    public static ObjectName registerMBean() throws JMException {
+        return REGISTRY.registerMBean(OBJECT_NAME);
+    }
+
+    /**
+     * Plain-text dump of every metric.
+     */
+    public static String dump() {
+        return REGISTRY.dump();
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.gabrielhumbertdev.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram
+ *
+ * Fixed-size log-linear histogram of durations in nanoseconds: every power of
+ * two is split into 16 linear sub-buckets, so a recorded value is known to
+ * within 1/16 (6.25%) from 1 ns up to Long.MAX_VALUE with 960 buckets.
+ *
+ * - record(...) is one atomic increment plus two striped adders, no locks and
+ * no allocation - percentiles are read from a snapshot and report the upper
+ * bound of the bucket they fall in (capped at the exact maximum)
+ *
+ * Thread-safe.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Histogram name cannot be null or empty");
+        }
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one duration. Negative values (clock went backwards) count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Records the time elapsed since startNanos (a System.nanoTime() value).
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Copy of the current counts. Values recorded while the copy is taken may be
+     * partly included.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(name, counts, total, totalNanos.sum(), maxNanos.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    // ============================
+    // Bucket math
+    // ============================
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return (shift + 1) * SUB_COUNT + sub;
+    }
+
+    // Largest value that lands in the bucket
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        long base = SUB_COUNT + bucket % SUB_COUNT;
+        long next = (base + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+
+    /**
+     * Immutable view of a histogram at one point in time.
+     */
+    public static final class Snapshot {
+
+        private final String name;
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        Snapshot(String name, long[] counts, long count, long totalNanos, long maxNanos) {
+            this.name = name;
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Value at or below which `percentile` percent of the recordings fall
+         * (e.g. 99.9), in nanoseconds. 0 if nothing was recorded.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        /**
+         * One line: count, mean, p50/p90/p99/p99.9 and max in microseconds.
+         */
+        public String toText() {
+            return name + " count=" + count + " mean=" + micros(Math.round(getMeanNanos())) + " p50="
+                    + micros(getPercentileNanos(50)) + " p90=" + micros(getPercentileNanos(90)) + " p99="
+                    + micros(getPercentileNanos(99)) + " p99.9=" + micros(getPercentileNanos(99.9)) + " max="
+                    + micros(maxNanos);
+        }
+
+        private static String micros(long nanos) {
+            long tenths = TimeUnit.NANOSECONDS.toMicros(nanos * 10);
+            return tenths / 10 + "." + tenths % 10 + "us";
+        }
+
+        @Override
+        public String toString() {
+            return toText();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.gabrielhumbertdev.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+/**
+ * MetricsMBean
+ *
+ * Read-only JMX view of a MetricsRegistry. Every counter and gauge is a Long
+ * attribute; every histogram is exported as "name.count", ".mean", ".p50",
+ * ".p90", ".p99", ".p999" and ".max" (nanoseconds). The attribute list is built
+ * on each getMBeanInfo(), so metrics created later show up too.
+ *
+ * Operations: dump() (the plain-text dump) and reset().
+ */
+final class MetricsMBean implements DynamicMBean {
+
+    private static final String[] HISTOGRAM_FIELDS = { "count", "mean", "p50", "p90", "p99", "p999", "max" };
+
+    private final MetricsRegistry registry;
+
+    MetricsMBean(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Long value = registry.value(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException("No metric named " + attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Long value = registry.value(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if ("dump".equals(actionName)) {
+            return registry.dump();
+        }
+        if ("reset".equals(actionName)) {
+            registry.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName), "Unknown operation " + actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : registry.histogramSnapshots().keySet()) {
+            for (String field : HISTOGRAM_FIELDS) {
+                attributes.add(longAttribute(name + "." + field, "Latency histogram " + field + " (ns)"));
+            }
+        }
+        for (String name : registry.counterValues().keySet()) {
+            attributes.add(longAttribute(name, "Counter"));
+        }
+        for (Map.Entry<String, Long> gauge : registry.gaugeValues().entrySet()) {
+            attributes.add(longAttribute(gauge.getKey(), "Gauge"));
+        }
+
+        MBeanOperationInfo[] operations = {
+                new MBeanOperationInfo("dump", "Plain-text dump of all metrics", new MBeanParameterInfo[0],
+                        String.class.getName(), MBeanOperationInfo.INFO),
+                new MBeanOperationInfo("reset", "Zero histograms and counters", new MBeanParameterInfo[0],
+                        void.class.getName(), MBeanOperationInfo.ACTION) };
+
+        return new MBeanInfo(MetricsMBean.class.getName(), "Banking system metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+    }
+
+    private static MBeanAttributeInfo longAttribute(String name, String description) {
+        return new MBeanAttributeInfo(name, Long.class.getName(), description, true, false, false);
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.gabrielhumbertdev.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * MetricsRegistry
+ *
+ * Named latency histograms, counters (LongAdder) and gauges (read on demand).
+ * Metrics are created on first use and live as long as the registry; look them
+ * up once and keep the reference on hot paths.
+ *
+ * Exported as a plain-text dump (dump()) and over JMX (registerMBean(...),
+ * see MetricsMBean).
+ *
+ * Thread-safe.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(checkName(name), LatencyHistogram::new);
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(checkName(name), key -> new LongAdder());
+    }
+
+    /**
+     * Registers (or replaces) a gauge: value is read each time the metrics are
+     * exported.
+     */
+    public void gauge(String name, LongSupplier value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Gauge supplier cannot be null");
+        }
+        gauges.put(checkName(name), value);
+    }
+
+    public void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    // ============================
+    // Reading
+    // ============================
+
+    /**
+     * Histogram snapshots, sorted by name.
+     */
+    public Map<String, LatencyHistogram.Snapshot> histogramSnapshots() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        for (LatencyHistogram histogram : histograms.values()) {
+            snapshots.put(histogram.getName(), histogram.snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Current counter values, sorted by name.
+     */
+    public Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().sum());
+        }
+        return values;
+    }
+
+    /**
+     * Current gauge values, sorted by name. A gauge that throws reads as -1.
+     */
+    public Map<String, Long> gaugeValues() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            values.put(entry.getKey(), readGauge(entry.getValue()));
+        }
+        return values;
+    }
+
+    /**
+     * Value of one metric by name: a counter or gauge, or "histogram.count" /
+     * ".mean" / ".p50" / ".p90" / ".p99" / ".p999" / ".max" (nanoseconds). Null
+     * if there is no such metric.
+     */
+    public Long value(String name) {
+        LongAdder counter = counters.get(name);
+        if (counter != null) {
+            return counter.sum();
+        }
+        LongSupplier gauge = gauges.get(name);
+        if (gauge != null) {
+            return readGauge(gauge);
+        }
+        int dot = name.lastIndexOf('.');
+        LatencyHistogram histogram = dot < 0 ? null : histograms.get(name.substring(0, dot));
+        if (histogram == null) {
+            return null;
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        switch (name.substring(dot + 1)) {
+        case "count":
+            return snapshot.getCount();
+        case "mean":
+            return Math.round(snapshot.getMeanNanos());
+        case "p50":
+            return snapshot.getPercentileNanos(50);
+        case "p90":
+            return snapshot.getPercentileNanos(90);
+        case "p99":
+            return snapshot.getPercentileNanos(99);
+        case "p999":
+            return snapshot.getPercentileNanos(99.9);
+        case "max":
+            return snapshot.getMaxNanos();
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Plain-text dump: one line per metric, sections for histograms, counters
+     * and gauges.
+     */
+    public String dump() {
+        StringBuilder text = new StringBuilder(1024);
+        text.append("# histograms (microseconds)\n");
+        for (LatencyHistogram.Snapshot snapshot : histogramSnapshots().values()) {
+            text.append(snapshot.toText()).append('\n');
+        }
+        text.append("# counters\n");
+        for (Map.Entry<String, Long> entry : counterValues().entrySet()) {
+            text.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        text.append("# gauges\n");
+        for (Map.Entry<String, Long> entry : gaugeValues().entrySet()) {
+            text.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Zeroes histograms and counters (gauges are live values).
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+    }
+
+    // ============================
+    // JMX
+    // ============================
+
+    /**
+     * Registers this registry on the platform MBean server under objectName
+     * (e.g. "com.github.gabrielhumbertdev:type=Metrics"), replacing any bean
+     * already registered there.
+     */
+    public ObjectName registerMBean(String objectName) throws JMException {
+        ObjectName name = new ObjectName(objectName);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(new MetricsMBean(this), name);
+        return name;
+    }
+
+    private static long readGauge(LongSupplier gauge) {
+        try {
+            return gauge.getAsLong();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static String checkName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Metric name cannot be null or empty");
+        }
+        return name;
+    }
+}
@@ -1,34 +1,130 @@
 package com.github.gabrielhumbertdev.model.account;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import com.github.gabrielhumbertdev.util.IdAllocator;
+import com.github.gabrielhumbertdev.util.Money;
 
 public abstract class Account {
 
-    protected double balance;
+    // Balance is held in cents (fixed-point, exact) and updated with CAS
+    // (lock-free: concurrent deposits/withdrawals on one account never block).
+    // The double getters/setters are compatibility adapters over it.
+    private volatile long balanceCents;
+
+    private static final AtomicLongFieldUpdater<Account> BALANCE_CENTS = AtomicLongFieldUpdater
+            .newUpdater(Account.class, "balanceCents");
+
+    // Optional last-N history of balance changes (null = not recorded)
+    private volatile TransactionHistory history;
 
-    private static long nextAccountId = 1000;
+    // Ids 1000, 1005, 1010, ... leased to threads in blocks (unique under
+    // concurrent creation, no shared lock)
+    private static final IdAllocator ACCOUNT_IDS = new IdAllocator(1000, 5);
     private final long ACCOUNT_ID;
 
     public Account() {
-        this.ACCOUNT_ID = nextAccountId;
-        nextAccountId += 5;
+        this.ACCOUNT_ID = ACCOUNT_IDS.next();
+    }
+
+    /**
+     * Restores an account that already has an id (loaded from a store). Does not
+     * consume a new id, but moves the counter past accountId so new accounts can
+     * never reuse it.
+     */
+    protected Account(long accountId) {
+        this.ACCOUNT_ID = accountId;
+        ACCOUNT_IDS.observe(accountId);
+    }
+
+    /**
+     * Id allocator of new accounts (e.g. to persist its high-water mark with
+     * IdAllocator.persistTo(...)).
+     */
+    public static IdAllocator idAllocator() {
+        return ACCOUNT_IDS;
+    }
+
+    /**
+     * High-water mark of account ids: every id handed out so far is below it.
+     * Snapshots persist it so ids keep counting from the same place after a
+     * restart.
+     */
+    public static long getNextAccountId() {
+        return ACCOUNT_IDS.getHighWaterMark();
+    }
+
+    /**
+     * Moves the id counter forward to nextId (restoring a snapshot). Never moves
+     * it backwards, so ids already handed out in this JVM cannot be reused.
+     */
+    public static void advanceNextAccountId(long nextId) {
+        ACCOUNT_IDS.advance(nextId);
     }
 
     public long getACCOUNT_ID() {
         return ACCOUNT_ID;
     }
 
+    /**
+     * Starts recording this account's balance changes in a ring buffer of the
+     * given capacity (keeps the existing history if there already is one).
+     * Returns the history.
+     */
+    public synchronized TransactionHistory enableHistory(int capacity) {
+        if (history == null) {
+            history = new TransactionHistory(capacity);
+        }
+        return history;
+    }
+
+    /**
+     * Recorded balance changes, or null if history is not enabled.
+     */
+    public TransactionHistory getHistory() {
+        return history;
+    }
+
+    // For subclasses: records a change they applied (no-op without history)
+    protected final void recordHistory(TransactionHistory.Type type, long amountCents, long balanceAfterCents) {
+        TransactionHistory current = history;
+        if (current != null) {
+            current.append(type, amountCents, balanceAfterCents);
+        }
+    }
+
     public double getBalance() {
-        return balance;
+        return Money.toDouble(balanceCents);
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
     }
 
     // Specification asked for setter for all
+    // (values that cannot be held in cents, e.g. NaN, are ignored)
     public void setBalance(double balance) {
-        this.balance = balance;
+        if (Money.isConvertible(balance)) {
+            this.balanceCents = Money.toCents(balance);
+        }
+    }
+
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+
+    /**
+     * Atomically replaces the balance if it still equals expected (the value
+     * previously returned by getBalanceCents()). Subclasses build their
+     * check-then-update rules on this in a retry loop.
+     */
+    protected final boolean compareAndSetBalanceCents(long expected, long updated) {
+        return BALANCE_CENTS.compareAndSet(this, expected, updated);
     }
 
     // helper: must be positive AND finite
     protected boolean isPositiveAmount(double amount) {
-        return Double.isFinite(amount) && amount > 0;
+        return Money.isConvertible(amount) && amount > 0;
     }
 
     // deposit blocks <= 0
@@ -36,7 +132,26 @@ public abstract class Account {
         if (!isPositiveAmount(amount)) {
             return;
         }
-        balance += amount;
+        depositCents(Money.toCents(amount));
+    }
+
+    /**
+     * Deposits cents; returns false (balance unchanged) for amounts <= 0 or if the
+     * balance would overflow.
+     */
+    public boolean depositCents(long cents) {
+        if (cents <= 0) {
+            return false;
+        }
+        long current;
+        do {
+            current = balanceCents;
+            if (current > Long.MAX_VALUE - cents) {
+                return false;
+            }
+        } while (!compareAndSetBalanceCents(current, current + cents));
+        recordHistory(TransactionHistory.Type.DEPOSIT, cents, current + cents);
+        return true;
     }
 
     // withdraw blocks <= 0 (returns 0 for invalid request)
@@ -44,15 +159,45 @@ public abstract class Account {
         if (!isPositiveAmount(amount)) {
             return 0;
         }
-        balance -= amount; // base Account can overdraw
-        return amount;
+        return Money.toDouble(withdrawCents(Money.toCents(amount)));
+    }
+
+    /**
+     * Withdraws cents; returns the cents actually withdrawn (0 if refused). The
+     * base Account can overdraw.
+     */
+    public long withdrawCents(long cents) {
+        if (cents <= 0) {
+            return 0;
+        }
+        long current;
+        do {
+            current = balanceCents;
+            if (current < Long.MIN_VALUE + cents) {
+                return 0;
+            }
+        } while (!compareAndSetBalanceCents(current, current - cents));
+        recordHistory(TransactionHistory.Type.WITHDRAWAL, cents, current - cents);
+        return cents;
     }
 
     // Correction can be allowed to set any value, but should still be finite
     public void correctBalance(double amount) {
-        if (!Double.isFinite(amount)) {
+        if (!Money.isConvertible(amount)) {
             return;
         }
-        balance = amount;
+        correctBalanceCents(Money.toCents(amount));
+    }
+
+    /**
+     * Sets the balance to corrected and returns the balance it replaced.
+     */
+    public long correctBalanceCents(long corrected) {
+        long previous = BALANCE_CENTS.getAndSet(this, corrected);
+        if (previous != corrected) {
+            // amount is the size of the correction; the resulting balance shows its direction
+            recordHistory(TransactionHistory.Type.CORRECTION, Math.abs(corrected - previous), corrected);
+        }
+        return previous;
     }
 }
@@ -1,9 +1,23 @@
 package com.github.gabrielhumbertdev.model.account;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.gabrielhumbertdev.util.Money;
 
 public class CheckingAccount extends Account {
 
-    private int nextCheckNumber = 1;
+    private final AtomicInteger nextCheckNumber = new AtomicInteger(1);
+
+    public CheckingAccount() {
+        super();
+    }
+
+    /**
+     * Restores a checking account with an existing id (see Account(long)).
+     */
+    public CheckingAccount(long accountId) {
+        super(accountId);
+    }
 
     // ============================
     // Question 3: Minimum Balance Criteria + Fine
@@ -12,35 +26,57 @@ public class CheckingAccount extends Account {
     // checking account."
     // This minimum balance rule is used by the Bank to detect violations and apply
     // a fine.
-    private static final double MINIMUM_BALANCE = 50.0;
-    private static final double MIN_BALANCE_FINE = 25.0;
+    // Held in cents (fixed-point); double getters are compatibility adapters
+    private static final long MINIMUM_BALANCE_CENTS = 5_000; // $50.00
+    private static final long MIN_BALANCE_FINE_CENTS = 2_500; // $25.00
 
     /**
      * Question 3: Minimum balance limit for checking accounts.
      */
     public double getMinimumBalance() {
-        return MINIMUM_BALANCE;
+        return Money.toDouble(MINIMUM_BALANCE_CENTS);
+    }
+
+    public long getMinimumBalanceCents() {
+        return MINIMUM_BALANCE_CENTS;
     }
 
     /**
      * Question 3: Fine amount charged when balance violates minimum criteria.
      */
     public double getMinimumBalanceFine() {
-        return MIN_BALANCE_FINE;
+        return Money.toDouble(MIN_BALANCE_FINE_CENTS);
+    }
+
+    public long getMinimumBalanceFineCents() {
+        return MIN_BALANCE_FINE_CENTS;
     }
 
     /**
      * Question 3: Apply the fine if the account balance is below the minimum.
      * Returns the fine charged (0.0 if no fine was applied).
      *
-     * Note: We use correctBalance(...) from Account to set the new balance safely.
+     * Note: the minimum check and the fine are one CAS step, so a concurrent
+     * deposit can never be overwritten and the fine is charged against the
+     * balance that was actually checked.
      */
     public double applyMinimumBalanceFineIfNeeded() {
-        if (getBalance() < MINIMUM_BALANCE) {
-            correctBalance(getBalance() - MIN_BALANCE_FINE);
-            return MIN_BALANCE_FINE;
-        }
-        return 0.0;
+        return Money.toDouble(applyMinimumBalanceFineIfNeededCents());
+    }
+
+    /**
+     * Fixed-point version: returns the fine charged in cents (0 if none).
+     */
+    public long applyMinimumBalanceFineIfNeededCents() {
+        long current;
+        do {
+            current = getBalanceCents();
+            if (current >= MINIMUM_BALANCE_CENTS) {
+                return 0;
+            }
+        } while (!compareAndSetBalanceCents(current, current - MIN_BALANCE_FINE_CENTS));
+        recordHistory(TransactionHistory.Type.FINE, MIN_BALANCE_FINE_CENTS, current - MIN_BALANCE_FINE_CENTS);
+        return MIN_BALANCE_FINE_CENTS;
     }
 
     // ============================
@@ -49,18 +85,16 @@ public class CheckingAccount extends Account {
 
     // Returns the next check number WITHOUT incrementing
     public int getNextCheckNumber() {
-        return nextCheckNumber;
+        return nextCheckNumber.get();
     }
 
-    // Issues a check number and increments by 1
+    // Issues a check number and increments by 1 (atomic: no duplicate checks)
     public int issueNextCheckNumber() {
-        int current = nextCheckNumber;
-        nextCheckNumber++;
-        return current;
+        return nextCheckNumber.getAndIncrement();
     }
 
     // Spec asked for getter/setter
     public void setNextCheckNumber(int nextCheckNumber) {
-        this.nextCheckNumber = nextCheckNumber;
+        this.nextCheckNumber.set(nextCheckNumber);
     }
 }
@@ -1,9 +1,25 @@
 package com.github.gabrielhumbertdev.model.account;
 
+import com.github.gabrielhumbertdev.util.Money;
 
 public class SavingsAccount extends Account {
 
-    private double interestRate;
+    private volatile double interestRate;
+
+    // Same rate in micro-percent (5% == 5_000_000) for the fixed-point path;
+    // Long.MIN_VALUE when the double rate is not usable (NaN / infinite)
+    private volatile long interestRateMicros;
+
+    public SavingsAccount() {
+        super();
+    }
+
+    /**
+     * Restores a savings account with an existing id (see Account(long)).
+     */
+    public SavingsAccount(long accountId) {
+        super(accountId);
+    }
 
     public double getInterestRate() {
         return interestRate;
@@ -11,28 +27,61 @@ public class SavingsAccount extends Account {
 
     public void setInterestRate(double interestRate) {
         this.interestRate = interestRate;
+        this.interestRateMicros = Double.isFinite(interestRate) ? Money.toRateMicros(interestRate) : Long.MIN_VALUE;
+    }
+
+    public long getInterestRateMicros() {
+        return interestRateMicros;
     }
 
     // Savings: no overdraft allowed
+    // The balance check and the update happen in one CAS step, so concurrent
+    // withdrawals can never take the account below zero.
 
-    public double withdraw(double amount) {
-        if (!isPositiveAmount(amount)) {
-            return 0;
-        }
-        if (amount > balance) {
+    @Override
+    public long withdrawCents(long cents) {
+        if (cents <= 0) {
             return 0;
         }
-        balance -= amount;
-        return amount;
+        long current;
+        do {
+            current = getBalanceCents();
+            if (cents > current) {
+                return 0;
+            }
+        } while (!compareAndSetBalanceCents(current, current - cents));
+        recordHistory(TransactionHistory.Type.WITHDRAWAL, cents, current - cents);
+        return cents;
     }
 
     public void addInterest() {
-        if (!Double.isFinite(interestRate)) {
-            return;
+        addInterestCents();
+    }
+
+    /**
+     * Credits balance * rate% rounded to the nearest cent (halves to even).
+     * Returns the interest credited in cents (0 if the rate is unusable or the
+     * result would overflow).
+     */
+    public long addInterestCents() {
+        long rate = interestRateMicros;
+        if (rate == Long.MIN_VALUE) {
+            return 0;
         }
-        double interestDue = balance * interestRate / 100.0;
-        if (Double.isFinite(interestDue)) {
-            balance += interestDue;
+        long current;
+        long interestDue;
+        do {
+            current = getBalanceCents();
+            try {
+                interestDue = Money.applyRate(current, rate);
+                Math.addExact(current, interestDue);
+            } catch (ArithmeticException e) {
+                return 0;
+            }
+        } while (!compareAndSetBalanceCents(current, current + interestDue));
+        if (interestDue != 0) {
+            recordHistory(TransactionHistory.Type.INTEREST, interestDue, current + interestDue);
         }
+        return interestDue;
     }
 }
@@ -0,0 +1,62 @@
+package com.github.gabrielhumbertdev.model.account;
+
+import com.github.gabrielhumbertdev.util.Money;
+
+/**
+ * One entry of a TransactionHistory query (a copy: later appends do not change
+ * it).
+ */
+public final class TransactionEntry {
+
+    private final long sequence;
+    private final long timestampMillis;
+    private final TransactionHistory.Type type;
+    private final long amountCents;
+    private final long balanceAfterCents;
+
+    TransactionEntry(long sequence, long timestampMillis, TransactionHistory.Type type, long amountCents,
+                     long balanceAfterCents) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.amountCents = amountCents;
+        this.balanceAfterCents = balanceAfterCents;
+    }
+
+    /**
+     * Position in the account's history: 1 for its first change, +1 per change.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public TransactionHistory.Type getType() {
+        return type;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public double getAmount() {
+        return Money.toDouble(amountCents);
+    }
+
+    public long getBalanceAfterCents() {
+        return balanceAfterCents;
+    }
+
+    public double getBalanceAfter() {
+        return Money.toDouble(balanceAfterCents);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionEntry{#" + sequence + " " + type + ", amountCents=" + amountCents
+                + ", balanceAfterCents=" + balanceAfterCents + ", at=" + timestampMillis + "}";
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.gabrielhumbertdev.model.account;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TransactionHistory
+ *
+ * Last-N balance changes of one account, kept in a bounded ring buffer of
+ * primitive arrays (timestamp, type, amount, resulting balance). Once the ring
+ * is full the oldest entry is overwritten.
+ *
+ * - append(...) writes into the preallocated arrays and never allocates - every
+ * entry gets a sequence number (1, 2, 3, ... for the account's lifetime), which
+ * queries use as a stable cursor: paging keeps working while new entries arrive
+ * - amounts are positive and the type says which way the balance moved; only
+ * INTEREST can be negative (negative balance or rate)
+ *
+ * Entries from operations that ran at the same time on the same account may be
+ * recorded in either order; each entry's resulting balance is the exact balance
+ * its own operation produced.
+ *
+ * Thread-safe (synchronized on the history).
+ */
+public final class TransactionHistory {
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    public enum Type {
+        DEPOSIT, WITHDRAWAL, FINE, INTEREST, CORRECTION;
+
+        private static final Type[] VALUES = values();
+    }
+
+    private final long[] timestamps;
+    private final byte[] types;
+    private final long[] amountsCents;
+    private final long[] balancesCents;
+
+    private long lastSequence; // sequence of the newest entry (0 = none yet)
+
+    public TransactionHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.timestamps = new long[capacity];
+        this.types = new byte[capacity];
+        this.amountsCents = new long[capacity];
+        this.balancesCents = new long[capacity];
+    }
+
+    /**
+     * Records one balance change. Allocation-free.
+     */
+    public synchronized void append(Type type, long amountCents, long balanceAfterCents) {
+        int slot = (int) (lastSequence % timestamps.length);
+        timestamps[slot] = System.currentTimeMillis();
+        types[slot] = (byte) type.ordinal();
+        amountsCents[slot] = amountCents;
+        balancesCents[slot] = balanceAfterCents;
+        lastSequence++;
+    }
+
+    // ============================
+    // Queries
+    // ============================
+
+    public int getCapacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Entries currently held (at most the capacity).
+     */
+    public synchronized int size() {
+        return (int) Math.min(lastSequence, timestamps.length);
+    }
+
+    /**
+     * Sequence of the newest entry (0 if nothing was recorded). Also the number
+     * of entries ever recorded, including overwritten ones.
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * The newest entries, newest first (at most limit).
+     */
+    public TransactionPage latest(int limit) {
+        return before(Long.MAX_VALUE, limit);
+    }
+
+    /**
+     * Entries older than beforeSequence, newest first (at most limit). Pass
+     * Long.MAX_VALUE for the first page and page.getNextCursor() for the next
+     * ones; entries that have been overwritten in the meantime are skipped.
+     */
+    public synchronized TransactionPage before(long beforeSequence, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        long oldestHeld = lastSequence - size() + 1;
+        long newest = beforeSequence <= 0 ? 0 : Math.min(beforeSequence - 1, lastSequence);
+        long oldest = Math.max(oldestHeld, newest - limit + 1);
+
+        List<TransactionEntry> entries = new ArrayList<>((int) Math.max(0, newest - oldest + 1));
+        for (long sequence = newest; sequence >= oldest; sequence--) {
+            int slot = (int) ((sequence - 1) % timestamps.length);
+            entries.add(new TransactionEntry(sequence, timestamps[slot], Type.VALUES[types[slot]],
+                    amountsCents[slot], balancesCents[slot]));
+        }
+        boolean hasMore = oldest > oldestHeld;
+        return new TransactionPage(entries, hasMore ? oldest : 0);
+    }
+}
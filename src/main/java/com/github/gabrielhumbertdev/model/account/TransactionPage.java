@@ -0,0 +1,59 @@
+package com.github.gabrielhumbertdev.model.account;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of TransactionHistory entries, newest first.
+ */
+public final class TransactionPage {
+
+    private static final TransactionPage EMPTY = new TransactionPage(Collections.<TransactionEntry>emptyList(), 0);
+
+    private final List<TransactionEntry> entries;
+    private final long nextCursor;
+
+    TransactionPage(List<TransactionEntry> entries, long nextCursor) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Page with no entries (e.g. an account without history).
+     */
+    public static TransactionPage empty() {
+        return EMPTY;
+    }
+
+    public List<TransactionEntry> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * True if older entries are still held after this page.
+     */
+    public boolean hasMore() {
+        return nextCursor > 0;
+    }
+
+    /**
+     * Cursor for the next (older) page: pass it as beforeSequence. 0 when there
+     * are no more entries.
+     */
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionPage{entries=" + entries.size() + ", nextCursor=" + nextCursor + "}";
+    }
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.util.IdAllocator;
 
 public abstract class Customer {
 
@@ -20,7 +21,8 @@ public abstract class Customer {
     }
 
     private final long CUSTOMER_ID;
-    private static long nextCustomerId = 2_000_000;
+    // Ids 2_000_000, 2_000_007, ... leased to threads in blocks (see Account)
+    private static final IdAllocator CUSTOMER_IDS = new IdAllocator(2_000_000, 7);
 
     private String name;
     private String address;
@@ -38,14 +40,55 @@ public abstract class Customer {
             throw new IllegalArgumentException("Customer address cannot be null or empty");
         }
 
-        this.CUSTOMER_ID = nextCustomerId;
-        nextCustomerId += 7;
+        this.CUSTOMER_ID = CUSTOMER_IDS.next();
 
         // Store trimmed values (prevents names like " Gabriel ")
         this.name = name.trim();
         this.address = address.trim();
     }
 
+    /**
+     * Restores a customer that already has an id (loaded from a snapshot). Same
+     * validation as above; does not consume a new id, but moves the counter past
+     * customerId so new customers can never reuse it.
+     */
+    protected Customer(long customerId, String name, String address) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Customer name cannot be null or empty");
+        }
+        if (address == null || address.trim().isEmpty()) {
+            throw new IllegalArgumentException("Customer address cannot be null or empty");
+        }
+
+        this.CUSTOMER_ID = customerId;
+        CUSTOMER_IDS.observe(customerId);
+
+        this.name = name.trim();
+        this.address = address.trim();
+    }
+
+    /**
+     * Id allocator of new customers (see Account.idAllocator()).
+     */
+    public static IdAllocator idAllocator() {
+        return CUSTOMER_IDS;
+    }
+
+    /**
+     * High-water mark of customer ids (persisted by snapshots).
+     */
+    public static long getNextCustomerId() {
+        return CUSTOMER_IDS.getHighWaterMark();
+    }
+
+    /**
+     * Moves the id counter forward to nextId; never backwards (see
+     * Account.advanceNextAccountId).
+     */
+    public static void advanceNextCustomerId(long nextId) {
+        CUSTOMER_IDS.advance(nextId);
+    }
+
     public long getCUSTOMER_ID() {
         return CUSTOMER_ID;
     }
@@ -96,4 +139,13 @@ public abstract class Customer {
 
     // Behaviour differs between Person and Company
     public abstract void chargeAllAccounts(double amount);
+
+    /**
+     * Cents to withdraw from one of this customer's accounts when the customer is
+     * charged amountCents: the per-account rule of chargeAllAccounts(...), for
+     * bulk charging in cents. Default: the flat amount.
+     */
+    public long chargeCentsFor(Account account, long amountCents) {
+        return amountCents;
+    }
 }
\ No newline at end of file
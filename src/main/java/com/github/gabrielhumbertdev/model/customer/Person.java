@@ -9,6 +9,13 @@ public class Person extends Customer {
         super(name, address);
     }
 
+    /**
+     * Restores a person with an existing id (see Customer(long, ...)).
+     */
+    public Person(long customerId, String name, String address) {
+        super(customerId, name, address);
+    }
+
     // Person: subtract the amount from every account
 
     @Override
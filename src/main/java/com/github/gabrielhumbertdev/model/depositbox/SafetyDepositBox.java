@@ -1,9 +1,12 @@
 package com.github.gabrielhumbertdev.model.depositbox;
 
+import com.github.gabrielhumbertdev.model.customer.Customer;
+
 public class SafetyDepositBox {
 
     private boolean isAllotted;
     private double id;
+    private Customer holder; // null if allotted without a customer
 
     public boolean isAllotted() {
         return isAllotted;
@@ -20,4 +23,12 @@ public class SafetyDepositBox {
     public void setId(double id) {
         this.id = id;
     }
+
+    public Customer getHolder() {
+        return holder;
+    }
+
+    public void setHolder(Customer holder) {
+        this.holder = holder;
+    }
 }
@@ -10,6 +10,13 @@ public class Company extends Customer {
         super(name, address);
     }
 
+    /**
+     * Restores a company with an existing id (see Customer(long, ...)).
+     */
+    public Company(long customerId, String name, String address) {
+        super(customerId, name, address);
+    }
+
     // Company rules: - CheckingAccount: subtract amount - SavingsAccount: subtract
     // amount * 2
 
@@ -27,4 +34,12 @@ public class Company extends Customer {
         }
     }
 
+    // Same rule in cents: savings pay double
+    @Override
+    public long chargeCentsFor(Account account, long amountCents) {
+        if (account instanceof SavingsAccount) {
+            return Math.multiplyExact(amountCents, 2);
+        }
+        return amountCents;
+    }
 }
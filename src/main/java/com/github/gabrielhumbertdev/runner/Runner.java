@@ -112,7 +112,7 @@ public class Runner {
         Customer cust7 = ctrl3.createCustomer("Chris", "Liverpool Rd", "person");
 
         Account acc5 = ctrl3.createAccount(cust6, "checking");
-        cust7.addAccount(acc5); // simulate joint ownership
+        ctrl3.addAccountOwner(cust7, acc5); // simulate joint ownership
 
         System.out.println("Expected 1, actual " + cust6.getAccounts().size());
         System.out.println("Expected 1, actual " + cust7.getAccounts().size());
@@ -0,0 +1,354 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.github.gabrielhumbertdev.dao.AccountReaderDAO;
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
+import com.github.gabrielhumbertdev.metrics.MetricsRegistry;
+import com.github.gabrielhumbertdev.model.account.Account;
+
+/**
+ * AccountCache
+ *
+ * Read-through cache in front of an AccountReaderDAO (see
+ * AccountServiceImpl.enableCache(...)):
+ *
+ * - the account set: the result of readAccounts(), kept as an unmodifiable
+ * list for ttlMillis
+ * - per-id entries: results of readAccount(id), at most maxEntries of them
+ * (least recently used evicted first), each kept for ttlMillis
+ *
+ * Concurrent misses share ONE DAO call (the first caller loads, the others
+ * wait for its result). Writes go through the service, which calls
+ * accountStored(...)/accountRemoved(...): the per-id entry is updated, the
+ * account set is dropped and any load already running is detached so its
+ * (possibly stale) result is not cached.
+ *
+ * Cached accounts are the same objects until they expire, so changes made to
+ * them in memory are visible to every reader of the cache.
+ *
+ * Thread-safe.
+ */
+public class AccountCache {
+
+    // A cached value and when it was loaded (nanoTime)
+    private static final class Cached<T> {
+
+        private final T value;
+        private final long loadedAt;
+
+        private Cached(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final AccountReaderDAO reader;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    // ============================
+    // Account set (guarded by setLock)
+    // ============================
+    private final Object setLock = new Object();
+    private volatile Cached<List<Account>> accountSet;
+    private CompletableFuture<List<Account>> setLoad;
+
+    // ============================
+    // Per-id entries (guarded by entries; LRU by access order)
+    // ============================
+    private final LinkedHashMap<Long, Cached<Account>> entries;
+    private final Map<Long, CompletableFuture<Account>> entryLoads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AccountCache(AccountReaderDAO reader, int maxEntries, long ttlMillis) {
+        this(reader, maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    // Clock injectable so tests can expire entries without sleeping
+    AccountCache(AccountReaderDAO reader, int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader DAO cannot be null");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.reader = reader;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<Long, Cached<Account>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cached<Account>> eldest) {
+                return size() > AccountCache.this.maxEntries;
+            }
+        };
+    }
+
+    // ============================
+    // Reads
+    // ============================
+
+    /**
+     * All accounts (unmodifiable), from the cache while the set is fresh.
+     */
+    public List<Account> getAccounts() {
+        Cached<List<Account>> cached = accountSet;
+        if (cached != null && isFresh(cached)) {
+            hit();
+            return cached.value;
+        }
+        miss();
+
+        CompletableFuture<List<Account>> load;
+        boolean loader = false;
+        synchronized (setLock) {
+            cached = accountSet;
+            if (cached != null && isFresh(cached)) {
+                return cached.value; // loaded while we waited for the lock
+            }
+            if (setLoad == null) {
+                setLoad = new CompletableFuture<>();
+                loader = true;
+            }
+            load = setLoad;
+        }
+        if (!loader) {
+            return join(load);
+        }
+
+        long loadStart = System.nanoTime();
+        try {
+            List<Account> accounts = Collections.unmodifiableList(new ArrayList<>(reader.readAccounts()));
+            synchronized (setLock) {
+                // Only cache it if no write detached this load meanwhile
+                if (setLoad == load) {
+                    accountSet = new Cached<>(accounts, clock.getAsLong());
+                    setLoad = null;
+                }
+            }
+            load.complete(accounts);
+            return accounts;
+        } catch (RuntimeException | Error e) {
+            // Errors too (e.g. OutOfMemoryError): waiters must never be left on a load that never completes
+            synchronized (setLock) {
+                if (setLoad == load) {
+                    setLoad = null;
+                }
+            }
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            BankMetrics.ACCOUNT_CACHE_LOAD_LATENCY.recordSince(loadStart);
+        }
+    }
+
+    /**
+     * The account with this id (null if the DAO has none; misses are not
+     * cached).
+     */
+    public Account getAccount(long accountId) {
+        Long key = accountId;
+        synchronized (entries) {
+            Cached<Account> cached = entries.get(key);
+            if (cached != null) {
+                if (isFresh(cached)) {
+                    hit();
+                    return cached.value;
+                }
+                entries.remove(key);
+            }
+        }
+        miss();
+
+        CompletableFuture<Account> load = new CompletableFuture<>();
+        CompletableFuture<Account> running = entryLoads.putIfAbsent(key, load);
+        if (running != null) {
+            return join(running);
+        }
+
+        long loadStart = System.nanoTime();
+        try {
+            Account account = reader.readAccount(accountId);
+            synchronized (entries) {
+                // Only cache it if no write detached this load meanwhile
+                if (entryLoads.remove(key, load) && account != null) {
+                    entries.put(key, new Cached<>(account, clock.getAsLong()));
+                }
+            }
+            load.complete(account);
+            return account;
+        } catch (RuntimeException | Error e) {
+            entryLoads.remove(key, load);
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            BankMetrics.ACCOUNT_CACHE_LOAD_LATENCY.recordSince(loadStart);
+        }
+    }
+
+    // ============================
+    // Write notifications (called after the DAO write succeeded)
+    // ============================
+
+    /**
+     * The account was created or updated: its per-id entry now holds it and the
+     * account set is reloaded on next read.
+     */
+    public void accountStored(Account account) {
+        Long key = account.getACCOUNT_ID();
+        synchronized (entries) {
+            entryLoads.remove(key);
+            entries.put(key, new Cached<>(account, clock.getAsLong()));
+        }
+        invalidateAccountSet();
+    }
+
+    /**
+     * The account was deleted: its per-id entry is dropped and the account set
+     * is reloaded on next read.
+     */
+    public void accountRemoved(Account account) {
+        Long key = account.getACCOUNT_ID();
+        synchronized (entries) {
+            entryLoads.remove(key);
+            entries.remove(key);
+        }
+        invalidateAccountSet();
+    }
+
+    /**
+     * Drops the account set (per-id entries are kept).
+     */
+    public void invalidateAccountSet() {
+        synchronized (setLock) {
+            accountSet = null;
+            setLoad = null;
+        }
+    }
+
+    /**
+     * Drops everything; the next reads go to the DAO.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entryLoads.clear();
+            entries.clear();
+        }
+        invalidateAccountSet();
+    }
+
+    /**
+     * Removes expired per-id entries now (they are otherwise removed when read
+     * or pushed out by newer ones).
+     */
+    public int evictExpired() {
+        int evicted = 0;
+        synchronized (entries) {
+            Iterator<Cached<Account>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (!isFresh(it.next())) {
+                    it.remove();
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    // ============================
+    // Stats
+    // ============================
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Hits / (hits + misses) over set and per-id reads, 0 before any read.
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Registers this cache's hit ratio (percent) and entry count as gauges.
+     * Load latency and hit/miss counts are in BankMetrics already.
+     */
+    public void registerGauges(MetricsRegistry metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics registry cannot be null");
+        }
+        metrics.gauge(BankMetrics.ACCOUNT_CACHE_HIT_RATIO, () -> Math.round(getHitRatio() * 100));
+        metrics.gauge(BankMetrics.ACCOUNT_CACHE_ENTRIES, this::size);
+    }
+
+    // ============================
+    // Internals
+    // ============================
+
+    private boolean isFresh(Cached<?> cached) {
+        return clock.getAsLong() - cached.loadedAt < ttlNanos;
+    }
+
+    // Cache counters plus the process-wide BankMetrics ones
+    private void hit() {
+        hits.increment();
+        BankMetrics.ACCOUNT_CACHE_HITS_COUNT.increment();
+    }
+
+    private void miss() {
+        misses.increment();
+        BankMetrics.ACCOUNT_CACHE_MISSES_COUNT.increment();
+    }
+
+    // Waits for another caller's load; its DAO exception (or Error) is rethrown as is
+    private static <T> T join(CompletableFuture<T> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
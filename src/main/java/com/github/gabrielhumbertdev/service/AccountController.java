@@ -1,46 +1,350 @@
 package com.github.gabrielhumbertdev.service;
 
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.gabrielhumbertdev.dao.TransactionJournal;
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
+import com.github.gabrielhumbertdev.metrics.MetricsRegistry;
 import com.github.gabrielhumbertdev.model.account.Account;
 import com.github.gabrielhumbertdev.model.account.CheckingAccount;
 import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.model.account.TransactionHistory;
+import com.github.gabrielhumbertdev.model.account.TransactionPage;
 import com.github.gabrielhumbertdev.model.customer.Customer;
 import com.github.gabrielhumbertdev.model.customer.Person;
 import com.github.gabrielhumbertdev.model.organisation.Company;
+import com.github.gabrielhumbertdev.util.Money;
+import com.github.gabrielhumbertdev.util.TaskExecutors;
 
 
 public class AccountController {
 
-    private List<Customer> customers = new ArrayList<>();
-    private List<Account> accounts = new ArrayList<>();
+    // Customers + accounts indexed by id, with an account -> owner reverse index.
+    // Keeps create/remove/lookup O(1) regardless of the number of accounts.
+    private final AccountRegistry registry;
 
     // ============================
     // Question 2: Customer email IDs + Transaction Alerts (deposit/withdraw)
     // ============================
     // This controller sends transaction alerts by calling AlertService after
-    // deposit/withdraw.
-    private final AlertService alertService = new AlertService(customers, accounts);
+    // deposit/withdraw. AlertService shares the registry, so its lookups by
+    // account/customer id stay in sync with create/remove below.
+    private final AlertService alertService;
+
+    // Optional write-ahead journal: every state change below is recorded once
+    // applied. An append the journal rejects (closed / failed) is dropped, never
+    // thrown: the change already happened, and a caller retrying it would apply
+    // it twice. The journal reports its own health (isHealthy(), getFailure()).
+    private volatile TransactionJournal journal;
+
+    // Per-account history ring size for new accounts (0 = history off)
+    private volatile int historyCapacity;
+
+    // Runs the *Async operations (null = TaskExecutors.shared())
+    private volatile Executor executor;
+
+    public AccountController() {
+        this(new AccountRegistry());
+    }
+
+    // ControllerSnapshot restores into a registry sized for the snapshot
+    AccountController(AccountRegistry registry) {
+        this.registry = registry;
+        this.alertService = new AlertService(registry);
+    }
+
+    // Registry access for ControllerSnapshot
+    AccountRegistry registry() {
+        return registry;
+    }
+
+    public AlertService getAlertService() {
+        return alertService;
+    }
+
+    /**
+     * Executor for depositAsync/withdrawAsync. Defaults to TaskExecutors.shared()
+     * (a virtual thread per operation on Java 21, daemon platform threads on
+     * older JVMs). Pass null to go back to the default.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        Executor current = executor;
+        return current == null ? TaskExecutors.shared() : current;
+    }
+
+    /**
+     * Runs async operations and alert sends on TaskExecutors.shared(), so a
+     * request blocked on SMTP costs a virtual thread instead of a platform
+     * thread. Returns true if virtual threads are actually used (Java 21+),
+     * false on the platform-thread fallback.
+     */
+    public boolean enableVirtualThreads() {
+        executor = TaskExecutors.shared();
+        alertService.setSendExecutor(TaskExecutors.shared());
+        return TaskExecutors.usesVirtualThreads();
+    }
+
+    /**
+     * Exports this controller's account and customer counts as gauges
+     * (BankMetrics.ACCOUNTS / CUSTOMERS), replacing those of any controller
+     * registered before.
+     */
+    public void registerGauges(MetricsRegistry metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics registry cannot be null");
+        }
+        metrics.gauge(BankMetrics.ACCOUNTS, registry::accountCount);
+        metrics.gauge(BankMetrics.CUSTOMERS, registry::customerCount);
+    }
+
+    /**
+     * Records customer/account changes, deposits, withdrawals, fines, interest,
+     * corrections and rate / check number / email changes in the journal from
+     * now on (null stops journaling). The journal's group commit decides when
+     * records are on disk; the controller does not close it. If the journal is
+     * closed or fails, operations still succeed and their records are dropped:
+     * watch TransactionJournal.isHealthy() / BankMetrics.JOURNAL_REJECTED.
+     */
+    public void setJournal(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    // For batch jobs in this package that change balances outside deposit/withdraw
+    void recordWithdrawal(long accountId, long cents) {
+        if (cents > 0) {
+            record(journal -> journal.withdrawal(accountId, cents));
+        }
+    }
+
+    void recordFine(long accountId, long cents) {
+        if (cents > 0) {
+            record(journal -> journal.fine(accountId, cents));
+        }
+    }
+
+    // Appends the record of an applied change (no-op without a journal). A closed
+    // or failed journal rejects it; the journal counts that, we do not rethrow.
+    private void record(Consumer<TransactionJournal> append) {
+        TransactionJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            append.accept(current);
+        } catch (IllegalStateException | UncheckedIOException e) {
+            // counted by the journal (getRejectedAppends)
+        }
+    }
+
+    /**
+     * Switches transaction/fine alerts to async dispatch: emails are sent by
+     * workerCount background threads from a queue of queueCapacity entries, so
+     * deposit/withdraw no longer wait for the mail server.
+     */
+    public AsyncAlertDispatcher enableAsyncAlerts(int queueCapacity, int workerCount) {
+        AsyncAlertDispatcher dispatcher = new AsyncAlertDispatcher(queueCapacity, workerCount);
+        alertService.setDispatcher(dispatcher);
+        return dispatcher;
+    }
+
+    /**
+     * Flushes queued alerts and stops the async workers (no-op in inline mode).
+     * Later alerts are sent inline again.
+     */
+    public boolean shutdownAlerts(long timeout, TimeUnit unit) throws InterruptedException {
+        AsyncAlertDispatcher dispatcher = alertService.getDispatcher();
+        if (dispatcher == null) {
+            return true;
+        }
+        alertService.setDispatcher(null);
+        return dispatcher.shutdown(timeout, unit);
+    }
 
     // Return unmodifiable view (protects internal state)
     public List<Customer> getCustomers() {
-        return Collections.unmodifiableList(customers);
+        return registry.customersView();
     }
 
+    /**
+     * Replaces all customers. Ownership links are rebuilt from each customer's
+     * account list; registered accounts are kept.
+     */
     public void setCustomers(List<Customer> customers) {
-        this.customers = customers;
+        // Copy first: the argument may be one of our own live views
+        List<Customer> replacement = customers == null ? new ArrayList<Customer>() : new ArrayList<>(customers);
+        List<Account> currentAccounts = registry.snapshotAccounts();
+        registry.clear();
+        for (Account account : currentAccounts) {
+            registry.addAccount(account);
+        }
+        for (Customer customer : replacement) {
+            registry.addCustomer(customer);
+            linkExistingAccounts(customer);
+        }
     }
 
     // Return unmodifiable view (protects internal state)
     public List<Account> getAccounts() {
-        return Collections.unmodifiableList(accounts);
+        return registry.accountsView();
     }
 
+    /**
+     * Replaces all accounts. Ownership links are rebuilt from the registered
+     * customers' account lists.
+     */
     public void setAccounts(List<Account> accounts) {
-        this.accounts = accounts;
+        // Copy first: the argument may be one of our own live views
+        List<Account> replacement = accounts == null ? new ArrayList<Account>() : new ArrayList<>(accounts);
+        List<Customer> currentCustomers = registry.snapshotCustomers();
+        registry.clear();
+        for (Account account : replacement) {
+            registry.addAccount(account);
+        }
+        for (Customer customer : currentCustomers) {
+            registry.addCustomer(customer);
+            linkExistingAccounts(customer);
+        }
+    }
+
+    /**
+     * Point-in-time copy of all accounts, safe for batch jobs to iterate while
+     * other threads create or remove accounts.
+     */
+    public List<Account> snapshotAccounts() {
+        return registry.snapshotAccounts();
+    }
+
+    /**
+     * Point-in-time copy of all customers (see snapshotAccounts()).
+     */
+    public List<Customer> snapshotCustomers() {
+        return registry.snapshotCustomers();
+    }
+
+    /**
+     * O(1) lookup of a registered customer by CUSTOMER_ID (null if not found).
+     */
+    public Customer findCustomer(long customerId) {
+        return registry.findCustomer(customerId);
+    }
+
+    /**
+     * O(1) lookup of a registered account by ACCOUNT_ID (null if not found).
+     */
+    public Account findAccount(long accountId) {
+        return registry.findAccount(accountId);
+    }
+
+    /**
+     * O(1) lookup of the (primary) owner of an account (null if not found).
+     */
+    public Customer findOwner(long accountId) {
+        return registry.findOwner(accountId);
+    }
+
+    /**
+     * True if customer is one of the account's owners.
+     */
+    public boolean isAccountOwner(Customer customer, Account account) {
+        if (customer == null || account == null) {
+            return false;
+        }
+        return registry.findOwners(account.getACCOUNT_ID()).contains(customer);
+    }
+
+    // ============================
+    // Transaction history (last-N balance changes per account)
+    // ============================
+
+    /**
+     * Records the last capacityPerAccount balance changes (deposits, withdrawals,
+     * fines, interest, corrections) of every registered account and of every
+     * account created from now on. The rings are allocated here, so recording
+     * a change never allocates. Accounts that already have a history keep it.
+     */
+    public void enableTransactionHistory(int capacityPerAccount) {
+        if (capacityPerAccount <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive");
+        }
+        historyCapacity = capacityPerAccount;
+        for (Account account : registry.snapshotAccounts()) {
+            account.enableHistory(capacityPerAccount);
+        }
+    }
+
+    public int getTransactionHistoryCapacity() {
+        return historyCapacity;
+    }
+
+    /**
+     * The newest limit transactions of an account, newest first.
+     */
+    public TransactionPage getRecentTransactions(long accountId, int limit) {
+        return getTransactions(accountId, Long.MAX_VALUE, limit);
+    }
+
+    /**
+     * One page of an account's transactions older than beforeSequence, newest
+     * first: start with Long.MAX_VALUE, then pass page.getNextCursor(). Empty if
+     * the account has no history; IllegalArgumentException if it is unknown.
+     */
+    public TransactionPage getTransactions(long accountId, long beforeSequence, int limit) {
+        Account account = registry.findAccount(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException("Unknown account: " + accountId);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        TransactionHistory history = account.getHistory();
+        return history == null ? TransactionPage.empty() : history.before(beforeSequence, limit);
+    }
+
+    /**
+     * Joint ownership: links an already registered account to another customer.
+     * Use this instead of customer.addAccount(...) so removeAccount(...) can
+     * detach the account from every owner.
+     */
+    public void addAccountOwner(Customer customer, Account account) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        if (!customer.getAccounts().contains(account)) {
+            customer.addAccount(account);
+        }
+        registry.linkOwner(customer, account);
+
+        record(journal -> journal.ownerAdded(account.getACCOUNT_ID(), customer.getCUSTOMER_ID()));
+    }
+
+    // Links a customer's accounts that are registered in this controller
+    private void linkExistingAccounts(Customer customer) {
+        if (customer == null || customer.getAccounts() == null) {
+            return;
+        }
+        for (Account account : customer.getAccounts()) {
+            if (registry.containsAccount(account)) {
+                registry.linkOwner(customer, account);
+            }
+        }
     }
 
     // Helper: validation for String inputs
@@ -63,19 +367,20 @@ public class AccountController {
 
         type = type.trim();
 
+        Customer customer;
         if (type.equalsIgnoreCase("person")) {
-            Person p = new Person(name.trim(), address.trim());
-            customers.add(p);
-            return p;
+            customer = new Person(name.trim(), address.trim());
+        } else if (type.equalsIgnoreCase("company")) {
+            customer = new Company(name.trim(), address.trim());
+        } else {
+            throw new IllegalArgumentException("Unknown customer type: " + type);
         }
 
-        if (type.equalsIgnoreCase("company")) {
-            Company c = new Company(name.trim(), address.trim());
-            customers.add(c);
-            return c;
-        }
+        registry.addCustomer(customer);
 
-        throw new IllegalArgumentException("Unknown customer type: " + type);
+        Customer created = customer;
+        record(journal -> journal.customerCreated(created));
+        return customer;
     }
 
     // Story 2: remove customer + remove all their accounts
@@ -85,13 +390,20 @@ public class AccountController {
         }
 
         for (Account acc : new ArrayList<>(customer.getAccounts())) {
-            accounts.remove(acc);
+            // Detach from any joint owners too, so no customer keeps a dead account
+            for (Customer owner : registry.removeAccount(acc.getACCOUNT_ID())) {
+                if (owner != customer) {
+                    owner.removeAccount(acc);
+                }
+            }
+            record(journal -> journal.accountRemoved(acc.getACCOUNT_ID()));
         }
 
         // NOTE: you chose to keep this for now (can be revisited later)
         customer.getAccounts().clear();
 
-        customers.remove(customer);
+        registry.removeCustomer(customer.getCUSTOMER_ID());
+        record(journal -> journal.customerRemoved(customer.getCUSTOMER_ID()));
     }
 
     // Story 3: create account
@@ -105,21 +417,27 @@ public class AccountController {
 
         type = type.trim();
 
+        Account account;
         if (type.equalsIgnoreCase("checking")) {
-            CheckingAccount ca = new CheckingAccount();
-            accounts.add(ca);
-            customer.addAccount(ca);
-            return ca;
+            account = new CheckingAccount();
+        } else if (type.equalsIgnoreCase("savings")) {
+            account = new SavingsAccount();
+        } else {
+            throw new IllegalArgumentException("Unknown account type: " + type);
         }
 
-        if (type.equalsIgnoreCase("savings")) {
-            SavingsAccount sa = new SavingsAccount();
-            accounts.add(sa);
-            customer.addAccount(sa);
-            return sa;
+        int capacity = historyCapacity;
+        if (capacity > 0) {
+            account.enableHistory(capacity);
         }
 
-        throw new IllegalArgumentException("Unknown account type: " + type);
+        registry.addAccount(account);
+        customer.addAccount(account);
+        registry.linkOwner(customer, account);
+
+        Account created = account;
+        record(journal -> journal.accountCreated(created, customer.getCUSTOMER_ID()));
+        return account;
     }
 
     // Story 4: remove account
@@ -128,46 +446,171 @@ public class AccountController {
             throw new IllegalArgumentException("Account cannot be null");
         }
 
-        accounts.remove(account);
+        // Only the owners recorded in the reverse index are touched (no full scan)
+        for (Customer owner : registry.removeAccount(account.getACCOUNT_ID())) {
+            owner.removeAccount(account);
+        }
+
+        record(journal -> journal.accountRemoved(account.getACCOUNT_ID()));
+    }
 
-        for (Customer customer : customers) {
-            customer.removeAccount(account);
+    // ============================
+    // Journaled changes outside deposit/withdraw
+    // ============================
+    // Values that are set rather than added (email, rate, check number) are
+    // changed and journaled under the object's lock, so the journal holds them in
+    // the order they were applied.
+
+    /**
+     * Sets the customer's alert email (null or blank clears it) and journals the
+     * change.
+     */
+    public void setCustomerEmail(Customer customer, String email) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        String value = isNullOrBlank(email) ? null : email.trim();
+        synchronized (customer) {
+            customer.setEmail(value);
+            record(journal -> journal.emailChanged(customer.getCUSTOMER_ID(), value));
+        }
+    }
+
+    /**
+     * Balance correction: sets the balance to the given value (values that cannot
+     * be held in cents, e.g. NaN, are ignored) and journals the change.
+     */
+    public void correctBalance(Account account, double balance) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        if (!Money.isConvertible(balance)) {
+            return;
+        }
+        long corrected = Money.toCents(balance);
+        long previous = account.correctBalanceCents(corrected);
+        if (corrected != previous) {
+            record(journal -> journal.correction(account.getACCOUNT_ID(), corrected - previous));
+        }
+    }
+
+    public void setInterestRate(SavingsAccount account, double rate) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        synchronized (account) {
+            account.setInterestRate(rate);
+            record(journal -> journal.rateChanged(account.getACCOUNT_ID(), rate));
+        }
+    }
+
+    /**
+     * Credits one period of interest to a savings account and journals it.
+     * Returns the interest credited in cents.
+     */
+    public long addInterest(SavingsAccount account) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        long interest = account.addInterestCents();
+        recordInterest(account.getACCOUNT_ID(), interest);
+        return interest;
+    }
+
+    void recordInterest(long accountId, long cents) {
+        if (cents != 0) {
+            record(journal -> journal.interest(accountId, cents));
+        }
+    }
+
+    public void setNextCheckNumber(CheckingAccount account, int nextCheckNumber) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        synchronized (account) {
+            account.setNextCheckNumber(nextCheckNumber);
+            record(journal -> journal.checkNumber(account.getACCOUNT_ID(), nextCheckNumber));
+        }
+    }
+
+    /**
+     * Issues the account's next check number and journals the new counter.
+     */
+    public int issueCheckNumber(CheckingAccount account) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        synchronized (account) {
+            int issued = account.issueNextCheckNumber();
+            record(journal -> journal.checkNumber(account.getACCOUNT_ID(), issued + 1));
+            return issued;
         }
     }
 
     // ============================
     // Question 2: Deposit transaction + email alert
     // ============================
-    public void deposit(Customer customer, Account account, double amount) {
+    /**
+     * Deposits amount and alerts customer; returns false (balance unchanged) if
+     * the amount was refused (not positive, under a cent, or overflowing).
+     */
+    public boolean deposit(Customer customer, Account account, double amount) {
         if (customer == null) {
             throw new IllegalArgumentException("Customer cannot be null");
         }
         if (account == null) {
             throw new IllegalArgumentException("Account cannot be null");
         }
-
-        account.deposit(amount);
+        long start = System.nanoTime();
+
+        // Same checks as Account.deposit(...), in cents so the journal gets the exact amount
+        boolean deposited = false;
+        if (Money.isConvertible(amount) && amount > 0) {
+            long cents = Money.toCents(amount);
+            deposited = account.depositCents(cents);
+            if (deposited) {
+                record(journal -> journal.deposit(account.getACCOUNT_ID(), cents));
+            }
+        }
 
         // Question 2: Email alert for deposit
         alertService.sendTransactionAlert(customer, account, amount);
+        BankMetrics.DEPOSIT_LATENCY.recordSince(start);
+        return deposited;
+    }
+
+    /**
+     * deposit(...) on the controller's executor. Arguments are checked on the
+     * caller thread; the future completes with deposit(...)'s result (false if
+     * refused) when the deposit and its alert are done.
+     */
+    public CompletableFuture<Boolean> depositAsync(Customer customer, Account account, double amount) {
+        checkParties(customer, account);
+        return CompletableFuture.supplyAsync(() -> deposit(customer, account, amount), getExecutor());
     }
 
     // ============================
     // Question 2: Withdraw transaction + email alert
     // Question 3C: If Checking violates minimum balance -> fine + email alert
     // ============================
-    public void withdraw(Customer customer, Account account, double amount) {
+    /**
+     * Withdraws amount, alerts customer and applies a minimum balance fine if
+     * due; returns the amount withdrawn (0 if refused, e.g. insufficient funds).
+     */
+    public double withdraw(Customer customer, Account account, double amount) {
         if (customer == null) {
             throw new IllegalArgumentException("Customer cannot be null");
         }
         if (account == null) {
             throw new IllegalArgumentException("Account cannot be null");
         }
+        long start = System.nanoTime();
 
         double withdrawn = account.withdraw(amount);
 
         // Question 2: Email alert for withdraw (only if withdraw succeeded)
         if (withdrawn > 0) {
+            recordWithdrawal(account.getACCOUNT_ID(), Money.toCents(withdrawn));
             alertService.sendTransactionAlert(customer, account, -withdrawn);
         }
 
@@ -177,8 +620,29 @@ public class AccountController {
 
             double fine = checking.applyMinimumBalanceFineIfNeeded();
             if (fine > 0) {
+                recordFine(checking.getACCOUNT_ID(), Money.toCents(fine));
                 alertService.sendMinimumBalanceFineAlert(customer, checking, fine, checking.getMinimumBalance());
             }
         }
+        BankMetrics.WITHDRAW_LATENCY.recordSince(start);
+        return withdrawn;
+    }
+
+    /**
+     * withdraw(...) on the controller's executor (see depositAsync); completes
+     * with the amount withdrawn, 0 if refused.
+     */
+    public CompletableFuture<Double> withdrawAsync(Customer customer, Account account, double amount) {
+        checkParties(customer, account);
+        return CompletableFuture.supplyAsync(() -> withdraw(customer, account, amount), getExecutor());
+    }
+
+    private static void checkParties(Customer customer, Account account) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,410 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.util.LongIntHashMap;
+
+/**
+ * AccountRegistry
+ *
+ * In-memory index of the customers and accounts managed by AccountController.
+ * - customers keyed by CUSTOMER_ID
+ * - accounts keyed by ACCOUNT_ID
+ * - reverse index: ACCOUNT_ID -> owning customers (supports joint ownership).
+ * The primary owner of a registered account sits in a list parallel to the
+ * accounts (no per-account map entry); only joint owners beyond the first, and
+ * owners of accounts not registered here, go in a map
+ *
+ * Entries are stored in dense lists with an id -> position map, so add, remove
+ * and lookup are O(1). Removal swaps the last entry into the freed position,
+ * which means iteration order is NOT preserved after a removal.
+ */
+public class AccountRegistry {
+
+    private static final int NO_POSITION = -1;
+
+    private final List<Customer> customers;
+    private final List<Account> accounts;
+
+    // id -> position in the list above (primitive map: no boxing per entry)
+    private final LongIntHashMap customerPositions;
+    private final LongIntHashMap accountPositions;
+
+    // Primary owner of accounts.get(i) at primaryOwners.get(i) (null = none)
+    private final List<Customer> primaryOwners;
+
+    // ACCOUNT_ID -> owners not held in primaryOwners: the extra owners of a joint
+    // account, or every owner of an account that is not registered
+    private final Map<Long, List<Customer>> otherOwnersByAccountId;
+
+    private final List<Customer> customerView;
+    private final List<Account> accountView;
+
+    public AccountRegistry() {
+        this(0, 0);
+    }
+
+    /**
+     * Registry sized for a known number of entries (e.g. restoring a snapshot),
+     * so loading them never rehashes or regrows the lists.
+     */
+    public AccountRegistry(int expectedCustomers, int expectedAccounts) {
+        if (expectedCustomers < 0 || expectedAccounts < 0) {
+            throw new IllegalArgumentException("Expected sizes cannot be negative");
+        }
+        this.customers = new ArrayList<>(expectedCustomers);
+        this.accounts = new ArrayList<>(expectedAccounts);
+        this.customerPositions = new LongIntHashMap(expectedCustomers);
+        this.accountPositions = new LongIntHashMap(expectedAccounts);
+        this.primaryOwners = new ArrayList<>(expectedAccounts);
+        this.otherOwnersByAccountId = new HashMap<>();
+        this.customerView = new RegistryView<>(customers, customerPositions, true);
+        this.accountView = new RegistryView<>(accounts, accountPositions, false);
+    }
+
+    // ============================
+    // Customers
+    // ============================
+
+    /**
+     * Registers a customer. Returns false if a customer with the same id is already
+     * registered.
+     */
+    public synchronized boolean addCustomer(Customer customer) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        long id = customer.getCUSTOMER_ID();
+        if (customerPositions.containsKey(id)) {
+            return false;
+        }
+        customerPositions.put(id, customers.size(), NO_POSITION);
+        customers.add(customer);
+        return true;
+    }
+
+    /**
+     * Removes a customer (but not the customer's accounts). Returns the removed
+     * customer, or null if none was registered under that id.
+     */
+    public synchronized Customer removeCustomer(long customerId) {
+        int position = customerPositions.remove(customerId, NO_POSITION);
+        if (position == NO_POSITION) {
+            return null;
+        }
+        return swapRemove(customers, null, customerPositions, position, true);
+    }
+
+    public synchronized Customer findCustomer(long customerId) {
+        int position = customerPositions.get(customerId, NO_POSITION);
+        return position == NO_POSITION ? null : customers.get(position);
+    }
+
+    public synchronized boolean containsCustomer(Customer customer) {
+        return customer != null && findCustomer(customer.getCUSTOMER_ID()) == customer;
+    }
+
+    // ============================
+    // Accounts
+    // ============================
+
+    /**
+     * Registers an account. Returns false if an account with the same id is already
+     * registered.
+     */
+    public synchronized boolean addAccount(Account account) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        long id = account.getACCOUNT_ID();
+        if (accountPositions.containsKey(id)) {
+            return false;
+        }
+        accountPositions.put(id, accounts.size(), NO_POSITION);
+        accounts.add(account);
+
+        // Owners linked before the account was registered: the first becomes primary
+        List<Customer> owners = otherOwnersByAccountId.get(id);
+        primaryOwners.add(owners == null ? null : owners.remove(0));
+        if (owners != null && owners.isEmpty()) {
+            otherOwnersByAccountId.remove(id);
+        }
+        return true;
+    }
+
+    /**
+     * Removes an account and its ownership entries. Returns the owners the account
+     * was linked to (empty list if none), so the caller can detach it from them.
+     */
+    public synchronized List<Customer> removeAccount(long accountId) {
+        Customer primary = null;
+        int position = accountPositions.remove(accountId, NO_POSITION);
+        if (position != NO_POSITION) {
+            primary = primaryOwners.get(position);
+            swapRemove(accounts, primaryOwners, accountPositions, position, false);
+        }
+        List<Customer> others = otherOwnersByAccountId.remove(accountId);
+        if (primary == null) {
+            return others == null ? Collections.<Customer>emptyList() : others;
+        }
+        List<Customer> owners = new ArrayList<>(others == null ? 1 : others.size() + 1);
+        owners.add(primary);
+        if (others != null) {
+            owners.addAll(others);
+        }
+        return owners;
+    }
+
+    public synchronized Account findAccount(long accountId) {
+        int position = accountPositions.get(accountId, NO_POSITION);
+        return position == NO_POSITION ? null : accounts.get(position);
+    }
+
+    public synchronized boolean containsAccount(Account account) {
+        return account != null && findAccount(account.getACCOUNT_ID()) == account;
+    }
+
+    // ============================
+    // Ownership (reverse index)
+    // ============================
+
+    /**
+     * Records that the customer owns the account. Duplicate links are ignored.
+     */
+    public synchronized void linkOwner(Customer customer, Account account) {
+        if (customer == null || account == null) {
+            throw new IllegalArgumentException("Customer and account cannot be null");
+        }
+        long id = account.getACCOUNT_ID();
+        int position = accountPositions.get(id, NO_POSITION);
+        if (position != NO_POSITION) {
+            Customer primary = primaryOwners.get(position);
+            if (primary == null) {
+                primaryOwners.set(position, customer);
+                return;
+            }
+            if (primary == customer) {
+                return;
+            }
+        }
+        List<Customer> owners = otherOwnersByAccountId.get(id);
+        if (owners == null) {
+            owners = new ArrayList<>(1);
+            otherOwnersByAccountId.put(id, owners);
+        }
+        if (!owners.contains(customer)) {
+            owners.add(customer);
+        }
+    }
+
+    public synchronized void unlinkOwner(Customer customer, Account account) {
+        if (customer == null || account == null) {
+            return;
+        }
+        long id = account.getACCOUNT_ID();
+        List<Customer> owners = otherOwnersByAccountId.get(id);
+        int position = accountPositions.get(id, NO_POSITION);
+        if (position != NO_POSITION && primaryOwners.get(position) == customer) {
+            // Next joint owner (if any) becomes primary
+            primaryOwners.set(position, owners == null ? null : owners.remove(0));
+        } else if (owners != null) {
+            owners.remove(customer);
+        }
+        if (owners != null && owners.isEmpty()) {
+            otherOwnersByAccountId.remove(id);
+        }
+    }
+
+    /**
+     * Returns the first (primary) owner of the account, or null if unknown.
+     */
+    public synchronized Customer findOwner(long accountId) {
+        int position = accountPositions.get(accountId, NO_POSITION);
+        if (position != NO_POSITION) {
+            return primaryOwners.get(position);
+        }
+        List<Customer> owners = otherOwnersByAccountId.get(accountId);
+        return owners == null ? null : owners.get(0);
+    }
+
+    /**
+     * Returns a copy of all owners of the account (empty if unknown).
+     */
+    public synchronized List<Customer> findOwners(long accountId) {
+        List<Customer> owners = new ArrayList<>(1);
+        int position = accountPositions.get(accountId, NO_POSITION);
+        if (position != NO_POSITION && primaryOwners.get(position) != null) {
+            owners.add(primaryOwners.get(position));
+        }
+        List<Customer> others = otherOwnersByAccountId.get(accountId);
+        if (others != null) {
+            owners.addAll(others);
+        }
+        return owners;
+    }
+
+    // ============================
+    // Bulk operations + views
+    // ============================
+
+    public synchronized void clear() {
+        customers.clear();
+        accounts.clear();
+        customerPositions.clear();
+        accountPositions.clear();
+        primaryOwners.clear();
+        otherOwnersByAccountId.clear();
+    }
+
+    public synchronized int customerCount() {
+        return customers.size();
+    }
+
+    public synchronized int accountCount() {
+        return accounts.size();
+    }
+
+    /**
+     * Read-only live view of the registered customers.
+     */
+    public List<Customer> customersView() {
+        return customerView;
+    }
+
+    /**
+     * Read-only live view of the registered accounts.
+     */
+    public List<Account> accountsView() {
+        return accountView;
+    }
+
+    /**
+     * Point-in-time copy of the registered customers (safe to iterate while other
+     * threads modify the registry).
+     */
+    public synchronized List<Customer> snapshotCustomers() {
+        return new ArrayList<>(customers);
+    }
+
+    /**
+     * Point-in-time copy of the registered accounts (safe to iterate while other
+     * threads modify the registry).
+     */
+    public synchronized List<Account> snapshotAccounts() {
+        return new ArrayList<>(accounts);
+    }
+
+    // ============================
+    // Snapshot support (ControllerSnapshot)
+    // ============================
+
+    /**
+     * Consistent copy of the registry taken under one lock: customers, accounts
+     * and, parallel to accounts, each account's primary owner (null if none).
+     */
+    synchronized Contents contents() {
+        return new Contents(customers.toArray(new Customer[0]), accounts.toArray(new Account[0]),
+                primaryOwners.toArray(new Customer[0]));
+    }
+
+    /**
+     * Replaces everything with the given contents in one locked pass, setting
+     * each account's primary owner directly (no per-link lookups). Any further
+     * owners of joint accounts are linked afterwards with linkOwner(...).
+     */
+    synchronized void load(Contents contents) {
+        clear();
+        for (int i = 0; i < contents.accounts.length; i++) {
+            if (addAccount(contents.accounts[i])) {
+                primaryOwners.set(primaryOwners.size() - 1, contents.primaryOwners[i]);
+            }
+        }
+        for (Customer customer : contents.customers) {
+            addCustomer(customer);
+        }
+    }
+
+    static final class Contents {
+
+        final Customer[] customers;
+        final Account[] accounts;
+        final Customer[] primaryOwners;
+
+        Contents(Customer[] customers, Account[] accounts, Customer[] primaryOwners) {
+            this.customers = customers;
+            this.accounts = accounts;
+            this.primaryOwners = primaryOwners;
+        }
+    }
+
+    // Moves the last element into the freed slot so removal stays O(1)
+    // (parallel, if not null, is moved the same way: primaryOwners for accounts)
+    private static <T> T swapRemove(List<T> list, List<Customer> parallel, LongIntHashMap positions, int position,
+                                    boolean customer) {
+        int lastIndex = list.size() - 1;
+        T removed = list.get(position);
+        T last = list.remove(lastIndex);
+        Customer lastParallel = parallel == null ? null : parallel.remove(lastIndex);
+        if (position != lastIndex) {
+            list.set(position, last);
+            if (parallel != null) {
+                parallel.set(position, lastParallel);
+            }
+            positions.put(idOf(last, customer), position, NO_POSITION);
+        }
+        return removed;
+    }
+
+    private static long idOf(Object entry, boolean customer) {
+        return customer ? ((Customer) entry).getCUSTOMER_ID() : ((Account) entry).getACCOUNT_ID();
+    }
+
+    /**
+     * Read-only list view. contains(...) is answered from the id index instead of
+     * a linear scan.
+     */
+    private final class RegistryView<T> extends AbstractList<T> {
+
+        private final List<T> delegate;
+        private final LongIntHashMap positions;
+        private final boolean customer;
+
+        RegistryView(List<T> delegate, LongIntHashMap positions, boolean customer) {
+            this.delegate = delegate;
+            this.positions = positions;
+            this.customer = customer;
+        }
+
+        @Override
+        public T get(int index) {
+            synchronized (AccountRegistry.this) {
+                return delegate.get(index);
+            }
+        }
+
+        @Override
+        public int size() {
+            synchronized (AccountRegistry.this) {
+                return delegate.size();
+            }
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (customer ? !(o instanceof Customer) : !(o instanceof Account)) {
+                return false;
+            }
+            synchronized (AccountRegistry.this) {
+                int position = positions.get(idOf(o, customer), NO_POSITION);
+                return position != NO_POSITION && delegate.get(position) == o;
+            }
+        }
+    }
+}
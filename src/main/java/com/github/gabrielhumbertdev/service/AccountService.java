@@ -1,14 +1,87 @@
 package com.github.gabrielhumbertdev.service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.github.gabrielhumbertdev.dao.AccountPage;
+import com.github.gabrielhumbertdev.dao.AccountReaderDAO;
+import com.github.gabrielhumbertdev.dao.BatchResult;
 import com.github.gabrielhumbertdev.model.account.Account;
 
 public interface AccountService {
 
     List<Account> getAccounts();
 
+    /**
+     * The account with this id (null if there is none). The default scans
+     * getAccounts().
+     */
+    default Account getAccount(long accountId) {
+        for (Account account : getAccounts()) {
+            if (account.getACCOUNT_ID() == accountId) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Up to pageSize accounts from resumeToken on (null = first page), see
+     * AccountReaderDAO.readAccountPage(...). The default pages over
+     * getAccounts().
+     */
+    default AccountPage getAccountPage(String resumeToken, int pageSize) {
+        AccountReaderDAO all = this::getAccounts;
+        return all.readAccountPage(resumeToken, pageSize);
+    }
+
+    /**
+     * Every account, read lazily pageSize at a time. The default pages over
+     * getAccounts().
+     */
+    default Stream<Account> streamAccounts(int pageSize) {
+        AccountReaderDAO all = this::getAccounts;
+        return all.streamAccounts(pageSize);
+    }
+
     void removeAccount(Account account);
 
     Account createAccount(Account account);
+
+    /**
+     * Creates every account in the list with one result per item. The default
+     * calls createAccount(...) per item.
+     */
+    default BatchResult createAccounts(List<Account> accounts) {
+        BatchResult.Collector results = new BatchResult.Collector(accounts.size());
+        for (Account account : accounts) {
+            try {
+                results.success(createAccount(account));
+            } catch (RuntimeException e) {
+                results.failure(e);
+            }
+        }
+        return results.result();
+    }
+
+    /**
+     * Removes every account in the list with one result per item. The default
+     * calls removeAccount(...) per item.
+     */
+    default BatchResult removeAccounts(List<Account> accounts) {
+        BatchResult.Collector results = new BatchResult.Collector(accounts.size());
+        for (Account account : accounts) {
+            if (account == null) {
+                results.failure(new IllegalArgumentException("Account cannot be null"));
+                continue;
+            }
+            try {
+                removeAccount(account);
+                results.success(account);
+            } catch (RuntimeException e) {
+                results.failure(e);
+            }
+        }
+        return results.result();
+    }
 }
@@ -1,34 +1,167 @@
 package com.github.gabrielhumbertdev.service;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import com.github.gabrielhumbertdev.dao.AccountPage;
 import com.github.gabrielhumbertdev.dao.AccountReaderDAO;
 import com.github.gabrielhumbertdev.dao.AccountWriterDAO;
+import com.github.gabrielhumbertdev.dao.BatchResult;
 import com.github.gabrielhumbertdev.model.account.Account;
 
 public class AccountServiceImpl implements AccountService {
 
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+
     private AccountReaderDAO accReaderDao;
     private AccountWriterDAO accWriterDao;
 
+    // Max accounts per DAO batch call in createAccounts/removeAccounts
+    private final int batchSize;
+
+    // Read-through cache in front of accReaderDao (null = every read hits the DAO)
+    private volatile AccountCache cache;
+
     public AccountServiceImpl(AccountReaderDAO accReaderDao, AccountWriterDAO accWriterDao) {
+        this(accReaderDao, accWriterDao, DEFAULT_BATCH_SIZE);
+    }
+
+    public AccountServiceImpl(AccountReaderDAO accReaderDao, AccountWriterDAO accWriterDao, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
         this.accReaderDao = accReaderDao;
         this.accWriterDao = accWriterDao;
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Puts an AccountCache in front of the reader DAO from now on: getAccounts()
+     * and getAccount(id) are served from it (the list is then unmodifiable) and
+     * writes through this service keep it current. Writes that bypass the
+     * service are seen once entries expire. Returns the cache (for stats).
+     */
+    public AccountCache enableCache(int maxEntries, long ttlMillis) {
+        AccountCache enabled = new AccountCache(accReaderDao, maxEntries, ttlMillis);
+        cache = enabled;
+        return enabled;
+    }
+
+    /**
+     * Back to reading the DAO on every call.
+     */
+    public void disableCache() {
+        cache = null;
+    }
+
+    public AccountCache getCache() {
+        return cache;
     }
 
     @Override
     public List<Account> getAccounts() {
-        return accReaderDao.readAccounts();
+        AccountCache current = cache;
+        return current == null ? accReaderDao.readAccounts() : current.getAccounts();
+    }
+
+    @Override
+    public Account getAccount(long accountId) {
+        AccountCache current = cache;
+        return current == null ? accReaderDao.readAccount(accountId) : current.getAccount(accountId);
+    }
+
+    /**
+     * Reads the page straight from the DAO (never cached), so a batch job
+     * walking the whole book does not evict the cache's entries.
+     */
+    @Override
+    public AccountPage getAccountPage(String resumeToken, int pageSize) {
+        return accReaderDao.readAccountPage(resumeToken, pageSize);
+    }
+
+    /**
+     * Streams the DAO page by page (never cached): memory use is one page,
+     * whatever the size of the book.
+     */
+    @Override
+    public Stream<Account> streamAccounts(int pageSize) {
+        return accReaderDao.streamAccounts(pageSize);
     }
 
     @Override
     public void removeAccount(Account account) {
         accWriterDao.deleteAccount(account);
+        AccountCache current = cache;
+        if (current != null) {
+            current.accountRemoved(account);
+        }
     }
 
     @Override
     public Account createAccount(Account account) {
-        return accWriterDao.createAccount(account);
+        Account created = accWriterDao.createAccount(account);
+        AccountCache current = cache;
+        if (current != null) {
+            current.accountStored(created != null ? created : account);
+        }
+        return created;
+    }
+
+    /**
+     * Sends the accounts to AccountWriterDAO.createAccounts(...) in chunks of
+     * getBatchSize(); results are in request order.
+     */
+    @Override
+    public BatchResult createAccounts(List<Account> accounts) {
+        BatchResult result = inBatches(accounts, accWriterDao::createAccounts);
+        AccountCache current = cache;
+        if (current != null) {
+            for (int i = 0; i < result.size(); i++) {
+                if (!result.isFailed(i)) {
+                    Account created = result.getAccount(i);
+                    current.accountStored(created != null ? created : accounts.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sends the accounts to AccountWriterDAO.deleteAccounts(...) in chunks of
+     * getBatchSize(); results are in request order.
+     */
+    @Override
+    public BatchResult removeAccounts(List<Account> accounts) {
+        BatchResult result = inBatches(accounts, accWriterDao::deleteAccounts);
+        AccountCache current = cache;
+        if (current != null) {
+            for (int i = 0; i < result.size(); i++) {
+                if (!result.isFailed(i)) {
+                    current.accountRemoved(accounts.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    private BatchResult inBatches(List<Account> accounts, Function<List<Account>, BatchResult> call) {
+        if (accounts == null) {
+            throw new IllegalArgumentException("Accounts cannot be null");
+        }
+        if (accounts.size() <= batchSize) {
+            return call.apply(accounts);
+        }
+        List<BatchResult> parts = new ArrayList<>((accounts.size() + batchSize - 1) / batchSize);
+        for (int from = 0; from < accounts.size(); from += batchSize) {
+            parts.add(call.apply(accounts.subList(from, Math.min(accounts.size(), from + batchSize))));
+        }
+        return BatchResult.concat(parts);
     }
 }
@@ -1,13 +1,17 @@
 package com.github.gabrielhumbertdev.service;
 
-import java.text.DecimalFormat;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
 import com.github.gabrielhumbertdev.model.account.Account;
 import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.util.EmailMessage;
 import com.github.gabrielhumbertdev.util.EmailUtil;
+import com.github.gabrielhumbertdev.util.MessageTemplate;
+import com.github.gabrielhumbertdev.util.MoneyFormat;
 
 import jakarta.mail.MessagingException;
 
@@ -17,21 +21,120 @@ import jakarta.mail.MessagingException;
  * Story 3.1 (a/b): Transaction Alerts via Email - Generates standard alert
  * message format - Sends email using EmailUtil (Jakarta Mail) - Uses
  * streams/lambdas for lookups - Handles delivery failures (MessagingException)
+ *
+ * Records render/send latency and sent/failed/skipped counts in BankMetrics.
  */
 public class AlertService {
 
     private static final String EMAIL_SUBJECT = "Transaction Alert";
-    private static final DecimalFormat MONEY = new DecimalFormat("0.00");
+
+    // Standard message formats, compiled once (rendered into per-thread buffers)
+    private static final MessageTemplate ALERT_TEMPLATE = MessageTemplate
+            .compile("Hello {name}, We would like to notify you of a recent transaction on your account.\n"
+                    + "Transaction Details:\n" + "- Amount: ${amount}\n" + "- Account Number: {accountNumber}\n"
+                    + "- New Balance: ${newBalance}\n\n" + "Thank you for banking with us.\n" + "Best regards,\n"
+                    + "Your Bank");
+
+    private static final MessageTemplate FINE_TEMPLATE = MessageTemplate.compile("Hello {name},\n\n"
+            + "We would like to notify you that your account balance is below the minimum required.\n"
+            + "Minimum Balance Requirement:\n" + "- Minimum Balance: ${minimumBalance}\n\n"
+            + "A fine has been charged for the respective account:\n" + "- Fine Amount: ${fineAmount}\n"
+            + "- Account Number: {accountNumber}\n" + "- New Balance: ${newBalance}\n\n"
+            + "Thank you for banking with us.\n" + "Best regards,\n" + "Your Bank");
 
     private final List<Customer> customers;
     private final List<Account> accounts;
 
+    // Id indexes (account, customer, account -> owner) when built from a registry;
+    // null for the list constructor, which falls back to stream scans
+    private final AccountRegistry registry;
+
+    // Optional async mode: when set, emails are queued instead of sent inline
+    private volatile AsyncAlertDispatcher dispatcher;
+
+    // Optional: inline sends run on this executor instead of the caller thread
+    private volatile Executor sendExecutor;
+
+    // Optional digest mode: transaction alerts are coalesced per customer
+    private volatile TransactionAlertDigest digest;
+
     /**
      * Dependency: customer + account entity lists (per UML requirement).
      */
     public AlertService(List<Customer> customers, List<Account> accounts) {
         this.customers = Objects.requireNonNull(customers, "customers cannot be null");
         this.accounts = Objects.requireNonNull(accounts, "accounts cannot be null");
+        this.registry = null;
+    }
+
+    /**
+     * Uses the registry's indexes for lookups by account id and customer id, so
+     * an alert costs O(1) instead of scanning every customer and account. The
+     * registry is shared, not copied: customers and accounts added or removed by
+     * the owner of the registry are seen immediately.
+     */
+    public AlertService(AccountRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry cannot be null");
+        this.customers = registry.customersView();
+        this.accounts = registry.accountsView();
+    }
+
+    /**
+     * Async dispatch mode: alerts are rendered on the caller thread (so they show
+     * the committed balance) and handed to the dispatcher for sending. Pass null
+     * to go back to sending inline.
+     */
+    public void setDispatcher(AsyncAlertDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public AsyncAlertDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Per-send executor mode (e.g. TaskExecutors.shared(), one virtual thread
+     * per email on Java 21): each email is sent on its own task instead of
+     * blocking the caller, with no queue limit. Alerts are still rendered on the
+     * caller thread; the result means "accepted". The dispatcher, when set,
+     * takes precedence. Pass null to send inline again.
+     */
+    public void setSendExecutor(Executor sendExecutor) {
+        this.sendExecutor = sendExecutor;
+    }
+
+    public Executor getSendExecutor() {
+        return sendExecutor;
+    }
+
+    /**
+     * Digest mode: transaction alerts for the same customer within windowMillis
+     * are merged into one email (flushed early after maxEntries transactions).
+     * Minimum balance fine alerts are never delayed.
+     */
+    public TransactionAlertDigest enableDigest(long windowMillis, int maxEntries) {
+        TransactionAlertDigest created = new TransactionAlertDigest(windowMillis, maxEntries, this::sendDigest);
+        TransactionAlertDigest previous = digest;
+        digest = created;
+        if (previous != null) {
+            previous.close();
+        }
+        return created;
+    }
+
+    /**
+     * Leaves digest mode; open digests are sent immediately.
+     */
+    public void disableDigest() {
+        TransactionAlertDigest previous = digest;
+        digest = null;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public TransactionAlertDigest getDigest() {
+        return digest;
     }
 
     // ============================
@@ -49,72 +152,62 @@ public class AlertService {
         }
 
         // Standard message body (required format)
+        long renderStart = System.nanoTime();
         String messageBody = generateAlertMessage(customer, account, amount);
+        BankMetrics.ALERT_RENDER_LATENCY.recordSince(renderStart);
 
         // Question 2: Customer stores email id so alerts can be delivered
         String toEmail = safe(customer.getEmail());
 
         if (toEmail.isEmpty()) {
+            BankMetrics.ALERTS_SKIPPED_COUNT.increment();
             return false;
         }
 
-        try {
-            EmailUtil.sendEmail(toEmail, EMAIL_SUBJECT, messageBody);
+        TransactionAlertDigest currentDigest = digest;
+        if (currentDigest != null) {
+            // Sent later as part of the customer's digest email
+            currentDigest.add(customer, account, amount);
             return true;
-        } catch (MessagingException e) {
-            // Requirement: "take care of message delivery failures"
-            return false;
         }
+
+        return deliver(toEmail, EMAIL_SUBJECT, messageBody);
     }
 
     /**
-     * Sends a transaction alert by account id. Uses streams to find: - the account
-     * - the customer who owns that account
+     * Sends a transaction alert by account id. Finds the account and the customer
+     * who owns it (indexed lookups with a registry, streams otherwise).
      */
     public boolean sendTransactionAlert(long accountId, double amount) {
-
-        Optional<Account> accountOpt = accounts.stream().filter(a -> a != null && a.getACCOUNT_ID() == accountId)
-                .findFirst();
-
-        if (!accountOpt.isPresent()) {
+        Account account = findAccount(accountId);
+        if (account == null) {
             return false;
         }
 
-        Account account = accountOpt.get();
-
-        Optional<Customer> customerOpt = customers.stream().filter(Objects::nonNull)
-                .filter(c -> c.getAccounts() != null)
-                .filter(c -> c.getAccounts().stream().anyMatch(a -> a != null && a.getACCOUNT_ID() == accountId))
-                .findFirst();
-
-        if (!customerOpt.isPresent()) {
+        Customer owner = findOwner(accountId);
+        if (owner == null) {
             return false;
         }
 
-        return sendTransactionAlert(customerOpt.get(), account, amount);
+        return sendTransactionAlert(owner, account, amount);
     }
 
     // ============================
     // UML Requirement: sendTransactionAlert(customerId: Long): void
     // ============================
     /**
-     * Sends a transaction alert by customer ID. Uses streams to find the customer
-     * and their accounts.
+     * Sends a transaction alert by customer ID for the customer's first account.
      */
     public void sendTransactionAlert(Long customerId) {
         if (customerId == null) {
             return;
         }
 
-        Optional<Customer> customerOpt = customers.stream().filter(Objects::nonNull)
-                .filter(c -> c.getCUSTOMER_ID() == customerId).findFirst();
-
-        if (!customerOpt.isPresent()) {
+        Customer customer = findCustomer(customerId);
+        if (customer == null) {
             return;
         }
 
-        Customer customer = customerOpt.get();
-
         if (customer.getAccounts() == null || customer.getAccounts().isEmpty()) {
             return;
         }
@@ -122,18 +215,17 @@ public class AlertService {
         // Send alert for the first account
         Account account = customer.getAccounts().get(0);
 
+        long renderStart = System.nanoTime();
         String messageBody = generateAlertMessage(customer, account, account.getBalance());
+        BankMetrics.ALERT_RENDER_LATENCY.recordSince(renderStart);
         String toEmail = safe(customer.getEmail());
 
         if (toEmail.isEmpty()) {
+            BankMetrics.ALERTS_SKIPPED_COUNT.increment();
             return;
         }
 
-        try {
-            EmailUtil.sendEmail(toEmail, EMAIL_SUBJECT, messageBody);
-        } catch (MessagingException e) {
-            // Delivery failure handled here
-        }
+        deliver(toEmail, EMAIL_SUBJECT, messageBody);
     }
 
     // ============================
@@ -156,18 +248,15 @@ public class AlertService {
 
         String toEmail = safe(customer.getEmail());
         if (toEmail.isEmpty()) {
+            BankMetrics.ALERTS_SKIPPED_COUNT.increment();
             return false;
         }
 
+        long renderStart = System.nanoTime();
         String messageBody = generateMinimumBalanceFineMessage(customer, account, fineAmount, minimumBalance);
+        BankMetrics.ALERT_RENDER_LATENCY.recordSince(renderStart);
 
-        try {
-            EmailUtil.sendEmail(toEmail, "Minimum Balance Alert", messageBody);
-            return true;
-        } catch (MessagingException e) {
-            // Delivery failure handled here
-            return false;
-        }
+        return deliver(toEmail, "Minimum Balance Alert", messageBody);
     }
 
     /**
@@ -175,19 +264,8 @@ public class AlertService {
      */
     public String generateMinimumBalanceFineMessage(Customer customer, Account account, double fineAmount,
                                                     double minimumBalance) {
-
-        String customerName = safe(customer.getName());
-        String accountNumber = String.valueOf(account.getACCOUNT_ID());
-        String minBalanceStr = "$" + MONEY.format(minimumBalance);
-        String fineStr = "$" + MONEY.format(fineAmount);
-        String newBalanceStr = "$" + MONEY.format(account.getBalance());
-
-        return "Hello " + customerName + ",\n\n"
-                + "We would like to notify you that your account balance is below the minimum required.\n"
-                + "Minimum Balance Requirement:\n" + "- Minimum Balance: " + minBalanceStr + "\n\n"
-                + "A fine has been charged for the respective account:\n" + "- Fine Amount: " + fineStr + "\n"
-                + "- Account Number: " + accountNumber + "\n" + "- New Balance: " + newBalanceStr + "\n\n"
-                + "Thank you for banking with us.\n" + "Best regards,\n" + "Your Bank";
+        return FINE_TEMPLATE.begin().text(safe(customer.getName())).money(minimumBalance).money(fineAmount)
+                .number(account.getACCOUNT_ID()).money(account.getBalance()).finish();
     }
 
     /**
@@ -200,16 +278,122 @@ public class AlertService {
      * Thank you for banking with us. Best regards, Your Bank
      */
     public String generateAlertMessage(Customer customer, Account account, double amount) {
+        return generateAlertMessage(customer.getName(), account.getACCOUNT_ID(), amount, account.getBalance());
+    }
+
+    private String generateAlertMessage(String name, long accountId, double amount, double newBalance) {
+        return ALERT_TEMPLATE.begin().text(safe(name)).money(amount).number(accountId).money(newBalance).finish();
+    }
+
+    /**
+     * Sends inline, or queues when async mode is on, or hands the send to the
+     * send executor. In the async modes the result means "accepted for delivery"
+     * (false if the queue was full / the executor refused); the send itself is
+     * recorded where it runs.
+     */
+    private boolean deliver(String toEmail, String subject, String messageBody) {
+        AsyncAlertDispatcher current = dispatcher;
+        if (current != null) {
+            boolean accepted = current.submit(new EmailMessage(toEmail, subject, messageBody));
+            if (!accepted) {
+                BankMetrics.ALERTS_FAILED_COUNT.increment();
+            }
+            return accepted;
+        }
+
+        Executor executor = sendExecutor;
+        if (executor != null) {
+            try {
+                executor.execute(() -> sendNow(toEmail, subject, messageBody));
+                return true;
+            } catch (RejectedExecutionException e) {
+                BankMetrics.ALERTS_FAILED_COUNT.increment();
+                return false;
+            }
+        }
+
+        return sendNow(toEmail, subject, messageBody);
+    }
+
+    private boolean sendNow(String toEmail, String subject, String messageBody) {
+        long sendStart = System.nanoTime();
+        try {
+            EmailUtil.sendEmail(toEmail, subject, messageBody);
+            BankMetrics.ALERTS_SENT_COUNT.increment();
+            return true;
+        } catch (MessagingException e) {
+            // Requirement: "take care of message delivery failures"
+            BankMetrics.ALERTS_FAILED_COUNT.increment();
+            return false;
+        } finally {
+            BankMetrics.ALERT_SEND_LATENCY.recordSince(sendStart);
+        }
+    }
 
-        String customerName = safe(customer.getName());
-        String amountStr = "$" + MONEY.format(amount);
-        String accountNumber = String.valueOf(account.getACCOUNT_ID());
-        String newBalanceStr = "$" + MONEY.format(account.getBalance());
+    /**
+     * Digest message: same wording as generateAlertMessage(...), with one block of
+     * details per transaction. A single transaction uses the standard format.
+     */
+    public String generateDigestMessage(Customer customer, List<TransactionAlertDigest.Entry> entries) {
+        StringBuilder body = new StringBuilder(128 + entries.size() * 96);
+        body.append("Hello ").append(safe(customer.getName())).append(", We would like to notify you of ")
+                .append(entries.size()).append(" recent transactions on your account.\n");
+
+        for (TransactionAlertDigest.Entry entry : entries) {
+            body.append("Transaction Details:\n").append("- Amount: $");
+            MoneyFormat.appendTo(body, entry.getAmount()).append("\n").append("- Account Number: ")
+                    .append(entry.getAccountId()).append("\n").append("- New Balance: $");
+            MoneyFormat.appendTo(body, entry.getNewBalance()).append("\n\n");
+        }
 
-        return "Hello " + customerName + ", We would like to notify you of a recent transaction on your account.\n"
-                + "Transaction Details:\n" + "- Amount: " + amountStr + "\n" + "- Account Number: " + accountNumber
-                + "\n" + "- New Balance: " + newBalanceStr + "\n\n" + "Thank you for banking with us.\n"
-                + "Best regards,\n" + "Your Bank";
+        body.append("Thank you for banking with us.\n").append("Best regards,\n").append("Your Bank");
+        return body.toString();
+    }
+
+    // Flush handler for digest mode (runs on the digest timer thread)
+    private void sendDigest(Customer customer, List<TransactionAlertDigest.Entry> entries) {
+        String toEmail = safe(customer.getEmail());
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (toEmail.isEmpty()) {
+            BankMetrics.ALERTS_SKIPPED_COUNT.increment();
+            return;
+        }
+        if (entries.size() == 1) {
+            TransactionAlertDigest.Entry entry = entries.get(0);
+            deliver(toEmail, EMAIL_SUBJECT, generateAlertMessage(customer.getName(), entry.getAccountId(),
+                    entry.getAmount(), entry.getNewBalance()));
+            return;
+        }
+        deliver(toEmail, EMAIL_SUBJECT, generateDigestMessage(customer, entries));
+    }
+
+    // ============================
+    // Lookups: registry indexes when available, stream scans over the lists otherwise
+    // ============================
+    private Account findAccount(long accountId) {
+        if (registry != null) {
+            return registry.findAccount(accountId);
+        }
+        return accounts.stream().filter(a -> a != null && a.getACCOUNT_ID() == accountId).findFirst().orElse(null);
+    }
+
+    private Customer findOwner(long accountId) {
+        if (registry != null) {
+            return registry.findOwner(accountId);
+        }
+        return customers.stream().filter(Objects::nonNull).filter(c -> c.getAccounts() != null)
+                .filter(c -> c.getAccounts().stream().anyMatch(a -> a != null && a.getACCOUNT_ID() == accountId))
+                .findFirst().orElse(null);
+    }
+
+    private Customer findCustomer(long customerId) {
+        if (registry != null) {
+            return registry.findCustomer(customerId);
+        }
+        return customers.stream().filter(Objects::nonNull).filter(c -> c.getCUSTOMER_ID() == customerId).findFirst()
+                .orElse(null);
     }
 
     private String safe(String value) {
@@ -0,0 +1,256 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
+import com.github.gabrielhumbertdev.util.EmailMessage;
+import com.github.gabrielhumbertdev.util.EmailSender;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * AsyncAlertDispatcher
+ *
+ * Sends alert emails on a pool of background workers so the transaction thread
+ * never waits for the SMTP server. - Bounded queue: when full, new alerts are
+ * dropped (and counted) instead of blocking the caller - Workers drain up to
+ * MAX_BATCH_SIZE queued emails and send them as one batch (one connection) -
+ * Counters: submitted, sent, failed, dropped + current queue depth - flush(...)
+ * waits until every accepted alert has been attempted; shutdown(...) flushes
+ * then stops workers
+ */
+public class AsyncAlertDispatcher {
+
+    static final int MAX_BATCH_SIZE = 32;
+
+    private final BlockingQueue<EmailMessage> queue;
+    private final EmailSender sender;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Accepted but not yet attempted (queued + in-flight)
+    private final AtomicLong pending = new AtomicLong();
+    private final Object flushMonitor = new Object();
+
+    private volatile boolean running = true;
+
+    public AsyncAlertDispatcher(int queueCapacity, int workerCount) {
+        this(queueCapacity, workerCount, EmailSender.DEFAULT);
+    }
+
+    public AsyncAlertDispatcher(int queueCapacity, int workerCount, EmailSender sender) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        if (sender == null) {
+            throw new IllegalArgumentException("Sender cannot be null");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sender = sender;
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "alert-dispatch-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues an email. Never blocks: returns false (and counts a drop) if the
+     * queue is full or the dispatcher has been shut down.
+     */
+    public boolean submit(EmailMessage message) {
+        if (message == null) {
+            return false;
+        }
+        if (!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        pending.incrementAndGet();
+        if (!queue.offer(message)) {
+            completeOne();
+            dropped.incrementAndGet();
+            return false;
+        }
+        // shutdown() may have run between the check above and the offer: take
+        // the message back if no worker has it yet (if one does, it is sent)
+        if (!running && queue.remove(message)) {
+            completeOne();
+            dropped.incrementAndGet();
+            return false;
+        }
+        submitted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Waits until every accepted email has been attempted. Returns false on
+     * timeout.
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (flushMonitor) {
+            while (pending.get() > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                flushMonitor.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting new emails, flushes what is queued (up to the timeout) and
+     * stops the workers. Returns false if the queue could not be drained in time.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        running = false;
+        boolean drained = flush(timeout, unit);
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(1));
+        }
+        return drained;
+    }
+
+    /**
+     * Registers a JVM shutdown hook that flushes queued alerts before exit.
+     */
+    public void registerShutdownHook(long timeout, TimeUnit unit) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                shutdown(timeout, unit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "alert-dispatch-shutdown"));
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void runWorker() {
+        List<EmailMessage> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                // After shutdown() only what is already queued is sent
+                EmailMessage first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    return;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Interrupted by shutdown(): exit once the queue is empty
+                if (!running && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            deliver(batch);
+            batch.clear();
+        }
+    }
+
+    private void deliver(List<EmailMessage> batch) {
+        try {
+            if (batch.size() == 1) {
+                sendOne(batch.get(0));
+                return;
+            }
+            long sendStart = System.nanoTime();
+            int failures;
+            try {
+                failures = sender.sendBatch(batch).size();
+            } finally {
+                // One connection for the whole batch: each message gets its share
+                long perMessage = (System.nanoTime() - sendStart) / batch.size();
+                for (int i = 0; i < batch.size(); i++) {
+                    BankMetrics.ALERT_SEND_LATENCY.record(perMessage);
+                }
+            }
+            countSent(batch.size() - failures);
+            countFailed(failures);
+        } catch (RuntimeException e) {
+            // Delivery failure handled here (never kills the worker)
+            countFailed(batch.size());
+        } finally {
+            completeMany(batch.size());
+        }
+    }
+
+    private void sendOne(EmailMessage message) {
+        long sendStart = System.nanoTime();
+        try {
+            sender.send(message);
+            countSent(1);
+        } catch (MessagingException | RuntimeException e) {
+            countFailed(1);
+        } finally {
+            BankMetrics.ALERT_SEND_LATENCY.recordSince(sendStart);
+        }
+    }
+
+    // Dispatcher counters plus the process-wide BankMetrics ones
+    private void countSent(int count) {
+        sent.addAndGet(count);
+        BankMetrics.ALERTS_SENT_COUNT.add(count);
+    }
+
+    private void countFailed(int count) {
+        failed.addAndGet(count);
+        BankMetrics.ALERTS_FAILED_COUNT.add(count);
+    }
+
+    private void completeOne() {
+        completeMany(1);
+    }
+
+    private void completeMany(int count) {
+        if (pending.addAndGet(-count) == 0) {
+            synchronized (flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+}
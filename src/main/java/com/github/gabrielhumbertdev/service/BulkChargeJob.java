@@ -0,0 +1,189 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.util.Money;
+
+/**
+ * BulkChargeJob
+ *
+ * Bank-wide version of Customer.chargeAllAccounts(...): charges every account
+ * of every customer, with each customer's own rule (Person: flat amount,
+ * Company: double for SavingsAccount). - customers are charged in parallel
+ * partitions on a ForkJoinPool - each withdrawal is the account's lock-free CAS,
+ * so deposits/withdrawals running at the same time are never blocked or lost -
+ * no alerts are sent (same as chargeAllAccounts)
+ *
+ * The customers and their account lists are snapshotted at the start; accounts
+ * opened during the run are not charged.
+ */
+public class BulkChargeJob {
+
+    public static final int DEFAULT_CHUNK_SIZE = 2_048; // customers per task
+
+    // Leaves room for per-account multipliers in chargeCentsFor(...)
+    public static final long MAX_CHARGE_CENTS = Long.MAX_VALUE / 4;
+
+    private final AccountController controller;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BulkChargeJob(AccountController controller) {
+        this(controller, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public BulkChargeJob(AccountController controller, ForkJoinPool pool, int chunkSize) {
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller cannot be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.controller = controller;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Charges amount to every customer. Throws IllegalArgumentException for a
+     * non-positive or unrepresentable amount.
+     */
+    public BulkChargeResult run(double amount) {
+        if (!Double.isFinite(amount) || amount <= 0 || !Money.isConvertible(amount)) {
+            throw new IllegalArgumentException("Charge amount must be a positive amount");
+        }
+        return runCents(Money.toCents(amount));
+    }
+
+    /**
+     * Cents version of run(...). Amounts above MAX_CHARGE_CENTS are rejected so
+     * per-account rules (e.g. double for company savings) cannot overflow.
+     */
+    public BulkChargeResult runCents(long amountCents) {
+        if (amountCents <= 0 || amountCents > MAX_CHARGE_CENTS) {
+            throw new IllegalArgumentException("Charge amount must be positive and at most " + MAX_CHARGE_CENTS);
+        }
+        long start = System.nanoTime();
+
+        // Snapshot customers + accounts, and give each customer its own slice of the result arrays
+        List<Customer> customers = controller.snapshotCustomers();
+        int customerCount = customers.size();
+        Customer[] owners = customers.toArray(new Customer[0]);
+        Account[][] accountsByCustomer = new Account[customerCount][];
+        int[] offsets = new int[customerCount + 1];
+        for (int i = 0; i < customerCount; i++) {
+            accountsByCustomer[i] = snapshotAccounts(owners[i]);
+            offsets[i + 1] = Math.addExact(offsets[i], accountsByCustomer[i].length);
+        }
+
+        int entries = offsets[customerCount];
+        long[] accountIds = new long[entries];
+        long[] customerIds = new long[entries];
+        long[] requestedCents = new long[entries];
+        long[] withdrawnCents = new long[entries];
+
+        if (customerCount > 0) {
+            pool.invoke(new ChargeTask(owners, accountsByCustomer, offsets, amountCents, accountIds, customerIds,
+                    requestedCents, withdrawnCents, 0, customerCount, chunkSize));
+        }
+
+        // Journal (if any) after the parallel phase, one append per actual withdrawal
+        for (int i = 0; i < entries; i++) {
+            controller.recordWithdrawal(accountIds[i], withdrawnCents[i]);
+        }
+
+        return new BulkChargeResult(customerCount, accountIds, customerIds, requestedCents, withdrawnCents,
+                System.nanoTime() - start);
+    }
+
+    // Copy of the customer's account list (nulls dropped); the list itself is not thread-safe
+    private static Account[] snapshotAccounts(Customer customer) {
+        List<Account> accounts = customer.getAccounts();
+        if (accounts == null) {
+            return new Account[0];
+        }
+        int count = 0;
+        Account[] copy = accounts.toArray(new Account[0]);
+        for (Account account : copy) {
+            if (account != null) {
+                copy[count++] = account;
+            }
+        }
+        return count == copy.length ? copy : Arrays.copyOf(copy, count);
+    }
+
+    // ============================
+    // Fork/join over customer ranges; every task writes only its customers' slots
+    // ============================
+    private static final class ChargeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Customer[] owners;
+        private final Account[][] accountsByCustomer;
+        private final int[] offsets;
+        private final long amountCents;
+        private final long[] accountIds;
+        private final long[] customerIds;
+        private final long[] requestedCents;
+        private final long[] withdrawnCents;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ChargeTask(Customer[] owners, Account[][] accountsByCustomer, int[] offsets, long amountCents,
+                   long[] accountIds, long[] customerIds, long[] requestedCents, long[] withdrawnCents, int from,
+                   int to, int chunkSize) {
+            this.owners = owners;
+            this.accountsByCustomer = accountsByCustomer;
+            this.offsets = offsets;
+            this.amountCents = amountCents;
+            this.accountIds = accountIds;
+            this.customerIds = customerIds;
+            this.requestedCents = requestedCents;
+            this.withdrawnCents = withdrawnCents;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkSize) {
+                int mid = (from + to) >>> 1;
+                invokeAll(split(from, mid), split(mid, to));
+                return;
+            }
+
+            for (int c = from; c < to; c++) {
+                Customer customer = owners[c];
+                Account[] accounts = accountsByCustomer[c];
+                int slot = offsets[c];
+                for (Account account : accounts) {
+                    long requested = customer.chargeCentsFor(account, amountCents);
+                    // 0 = refused (e.g. savings without enough balance)
+                    long withdrawn = account.withdrawCents(requested);
+
+                    accountIds[slot] = account.getACCOUNT_ID();
+                    customerIds[slot] = customer.getCUSTOMER_ID();
+                    requestedCents[slot] = requested;
+                    withdrawnCents[slot] = withdrawn;
+                    slot++;
+                }
+            }
+        }
+
+        private ChargeTask split(int start, int end) {
+            return new ChargeTask(owners, accountsByCustomer, offsets, amountCents, accountIds, customerIds,
+                    requestedCents, withdrawnCents, start, end, chunkSize);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.gabrielhumbertdev.service;
+
+import com.github.gabrielhumbertdev.util.Money;
+
+/**
+ * Outcome of a BulkChargeJob run. One entry per (customer, account) charged,
+ * held in parallel primitive arrays: entry i charged account getAccountId(i) of
+ * customer getCustomerId(i), asked for getRequestedCents(i) and actually
+ * withdrew getWithdrawnCents(i). An entry that withdrew nothing failed (e.g. a
+ * savings account with insufficient balance).
+ */
+public class BulkChargeResult {
+
+    private final int customersProcessed;
+    private final long[] accountIds;
+    private final long[] customerIds;
+    private final long[] requestedCents;
+    private final long[] withdrawnCents;
+    private final long totalRequestedCents;
+    private final long totalWithdrawnCents;
+    private final int failureCount;
+    private final long elapsedNanos;
+
+    BulkChargeResult(int customersProcessed, long[] accountIds, long[] customerIds, long[] requestedCents,
+                     long[] withdrawnCents, long elapsedNanos) {
+        this.customersProcessed = customersProcessed;
+        this.accountIds = accountIds;
+        this.customerIds = customerIds;
+        this.requestedCents = requestedCents;
+        this.withdrawnCents = withdrawnCents;
+        this.elapsedNanos = elapsedNanos;
+
+        long requested = 0;
+        long withdrawn = 0;
+        int failures = 0;
+        for (int i = 0; i < accountIds.length; i++) {
+            requested += requestedCents[i];
+            withdrawn += withdrawnCents[i];
+            if (withdrawnCents[i] == 0) {
+                failures++;
+            }
+        }
+        this.totalRequestedCents = requested;
+        this.totalWithdrawnCents = withdrawn;
+        this.failureCount = failures;
+    }
+
+    public int getCustomersProcessed() {
+        return customersProcessed;
+    }
+
+    /**
+     * Number of (customer, account) entries. A joint account is charged once per
+     * owner, as chargeAllAccounts(...) does.
+     */
+    public int size() {
+        return accountIds.length;
+    }
+
+    public long getAccountId(int index) {
+        return accountIds[index];
+    }
+
+    public long getCustomerId(int index) {
+        return customerIds[index];
+    }
+
+    public long getRequestedCents(int index) {
+        return requestedCents[index];
+    }
+
+    public long getWithdrawnCents(int index) {
+        return withdrawnCents[index];
+    }
+
+    public boolean isFailed(int index) {
+        return withdrawnCents[index] == 0;
+    }
+
+    /**
+     * Account ids of the failed entries, in entry order.
+     */
+    public long[] getFailedAccountIds() {
+        long[] failed = new long[failureCount];
+        int next = 0;
+        for (int i = 0; i < accountIds.length; i++) {
+            if (withdrawnCents[i] == 0) {
+                failed[next++] = accountIds[i];
+            }
+        }
+        return failed;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public long getTotalRequestedCents() {
+        return totalRequestedCents;
+    }
+
+    public long getTotalWithdrawnCents() {
+        return totalWithdrawnCents;
+    }
+
+    public double getTotalWithdrawn() {
+        return Money.toDouble(totalWithdrawnCents);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkChargeResult{customers=" + customersProcessed + ", accounts=" + accountIds.length
+                + ", withdrawnCents=" + totalWithdrawnCents + ", requestedCents=" + totalRequestedCents + ", failures="
+                + failureCount + ", elapsedMs=" + getElapsedMillis() + "}";
+    }
+}
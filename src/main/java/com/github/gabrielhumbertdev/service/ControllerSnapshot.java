@@ -0,0 +1,949 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import com.github.gabrielhumbertdev.dao.JournalRecord;
+import com.github.gabrielhumbertdev.dao.TransactionJournal;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.customer.Person;
+import com.github.gabrielhumbertdev.model.organisation.Company;
+import com.github.gabrielhumbertdev.util.LongIntHashMap;
+
+/**
+ * ControllerSnapshot
+ *
+ * Binary snapshot of an AccountController for fast restarts: every customer
+ * (kind, id, name, address, email, account list), every account (kind, id,
+ * balance, interest rate, next check number, primary owner) and the static id
+ * counters, so restored ids and new ids never collide.
+ *
+ * - the file is a set of independent blocks (fixed-width account records,
+ * variable-size customer entries), each with its own CRC32 in a directory - write
+ * encodes the blocks in parallel and writes them with positional NIO writes to a
+ * temp file that is fsynced and then atomically renamed over the target -
+ * restore reads the blocks with positional bulk reads and decodes them in
+ * parallel on a ForkJoinPool straight into arrays, then loads a registry sized
+ * up front (no rehashing)
+ *
+ * Layout: 128-byte header (magic, version, created, id counters, journal
+ * sequence, counts, directory offset, entries per block, directory CRC, header
+ * CRC) | blocks, in any order | directory: one (long offset, int length, int
+ * crc) entry per block, account blocks first. Every block but the last of its
+ * kind is full, so block b holds entries [b * perBlock, ...).
+ *
+ * Account record (40 bytes): long id | long balance cents | long interest rate
+ * (double bits) | int primary owner (customer index, -1 none) | int next check
+ * number | byte kind | byte flags | 2 reserved. Customer entry: long id | byte
+ * kind | int account count | int account index per account | name, address,
+ * email as int byte length (-1 = null) + UTF-8.
+ *
+ * Balances are read one by one, so a snapshot taken while other threads deposit
+ * or withdraw is not a single point in time; pause writes for an exact copy.
+ * The journal sequence stored in the header tells which journal records came
+ * after the snapshot started: restore(file, journalDir) replays exactly those
+ * on top of the snapshot (exact when writes were paused during write(...);
+ * otherwise a balance change made while the snapshot was taken may be counted
+ * twice).
+ */
+public final class ControllerSnapshot {
+
+    public static final int DEFAULT_ACCOUNTS_PER_BLOCK = 1 << 15; // 1.25 MB per block
+    public static final int DEFAULT_CUSTOMERS_PER_BLOCK = 1 << 13;
+
+    static final int HEADER_SIZE = 128;
+    static final int ACCOUNT_RECORD_SIZE = 40;
+    static final int DIRECTORY_ENTRY_SIZE = 16;
+
+    private static final int MAGIC = 0x534E4150; // "SNAP"
+    private static final int VERSION = 1;
+
+    // header offsets
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_CREATED = 8;
+    private static final int H_NEXT_ACCOUNT_ID = 16;
+    private static final int H_NEXT_CUSTOMER_ID = 24;
+    private static final int H_JOURNAL_SEQUENCE = 32;
+    private static final int H_ACCOUNT_COUNT = 40;
+    private static final int H_CUSTOMER_COUNT = 44;
+    private static final int H_ACCOUNT_BLOCKS = 48;
+    private static final int H_CUSTOMER_BLOCKS = 52;
+    private static final int H_DIRECTORY_OFFSET = 56;
+    private static final int H_ACCOUNTS_PER_BLOCK = 64;
+    private static final int H_CUSTOMERS_PER_BLOCK = 68;
+    private static final int H_DIRECTORY_CRC = 72;
+    private static final int H_CRC = 76; // CRC32 of bytes [0, 76)
+
+    // account record offsets
+    private static final int A_ID = 0;
+    private static final int A_BALANCE = 8;
+    private static final int A_RATE = 16;
+    private static final int A_OWNER = 24;
+    private static final int A_CHECK_NUMBER = 28;
+    private static final int A_KIND = 32;
+    private static final int A_FLAGS = 33;
+
+    // The account is in the controller (not only in a customer's account list)
+    private static final byte FLAG_REGISTERED = 1;
+
+    private static final int NO_INDEX = -1;
+
+    private final Path file;
+    private final long createdMillis;
+    private final long nextAccountId;
+    private final long nextCustomerId;
+    private final long journalSequence;
+    private final int accountCount;
+    private final int customerCount;
+    private final long sizeBytes;
+
+    private ControllerSnapshot(Path file, ByteBuffer header, long sizeBytes) {
+        this.file = file;
+        this.createdMillis = header.getLong(H_CREATED);
+        this.nextAccountId = header.getLong(H_NEXT_ACCOUNT_ID);
+        this.nextCustomerId = header.getLong(H_NEXT_CUSTOMER_ID);
+        this.journalSequence = header.getLong(H_JOURNAL_SEQUENCE);
+        this.accountCount = header.getInt(H_ACCOUNT_COUNT);
+        this.customerCount = header.getInt(H_CUSTOMER_COUNT);
+        this.sizeBytes = sizeBytes;
+    }
+
+    // ============================
+    // Write
+    // ============================
+
+    /**
+     * Writes a snapshot of the controller to file (replacing it atomically) on
+     * the common pool.
+     */
+    public static ControllerSnapshot write(AccountController controller, Path file) throws IOException {
+        return write(controller, file, ForkJoinPool.commonPool(), DEFAULT_ACCOUNTS_PER_BLOCK,
+                DEFAULT_CUSTOMERS_PER_BLOCK);
+    }
+
+    static ControllerSnapshot write(AccountController controller, Path file, ForkJoinPool pool,
+                                    int accountsPerBlock, int customersPerBlock) throws IOException {
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller cannot be null");
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (accountsPerBlock <= 0 || customersPerBlock <= 0) {
+            throw new IllegalArgumentException("Block sizes must be positive");
+        }
+
+        // Journal position first: every record after it may or may not be in the snapshot
+        TransactionJournal journal = controller.getJournal();
+        long journalSequence = journal == null ? 0 : journal.getLastSequence();
+        AccountRegistry.Contents contents = controller.registry().contents();
+        // Counters after the copy, so they are above every id in it
+        long nextAccountId = Account.getNextAccountId();
+        long nextCustomerId = Customer.getNextCustomerId();
+        Customer[] customers = contents.customers;
+        Account[] registered = contents.accounts;
+
+        // Index every customer and account; accounts that only appear in a customer's
+        // own list (added without the controller) are appended so the lists survive
+        LongIntHashMap customerIndexById = new LongIntHashMap(customers.length);
+        for (int i = 0; i < customers.length; i++) {
+            customerIndexById.put(customers[i].getCUSTOMER_ID(), i, NO_INDEX);
+        }
+        LongIntHashMap accountIndexById = new LongIntHashMap(registered.length);
+        for (int i = 0; i < registered.length; i++) {
+            accountIndexById.put(registered[i].getACCOUNT_ID(), i, NO_INDEX);
+        }
+        List<Account> unregistered = new ArrayList<>();
+        Account[][] accountsByCustomer = new Account[customers.length][];
+        for (int c = 0; c < customers.length; c++) {
+            accountsByCustomer[c] = accountsOf(customers[c]);
+            for (Account account : accountsByCustomer[c]) {
+                if (!accountIndexById.containsKey(account.getACCOUNT_ID())) {
+                    accountIndexById.put(account.getACCOUNT_ID(), registered.length + unregistered.size(), NO_INDEX);
+                    unregistered.add(account);
+                }
+            }
+        }
+        Account[] accounts = Arrays.copyOf(registered, registered.length + unregistered.size());
+        for (int i = 0; i < unregistered.size(); i++) {
+            accounts[registered.length + i] = unregistered.get(i);
+        }
+
+        int accountBlocks = blockCount(accounts.length, accountsPerBlock);
+        int customerBlocks = blockCount(customers.length, customersPerBlock);
+        long[] blockOffsets = new long[accountBlocks + customerBlocks];
+        int[] blockLengths = new int[blockOffsets.length];
+        int[] blockCrcs = new int[blockOffsets.length];
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            AtomicLong cursor = new AtomicLong(HEADER_SIZE);
+            if (blockOffsets.length > 0) {
+                WriteTask task = new WriteTask(channel, cursor, blockOffsets, blockLengths, blockCrcs, accounts,
+                        registered.length, contents.primaryOwners, customerIndexById, accountsPerBlock, customers,
+                        accountsByCustomer, accountIndexById, customersPerBlock, accountBlocks, 0,
+                        blockOffsets.length);
+                invoke(pool, task);
+            }
+
+            // Directory after the blocks, header last
+            ByteBuffer directory = ByteBuffer.allocate(blockOffsets.length * DIRECTORY_ENTRY_SIZE);
+            for (int b = 0; b < blockOffsets.length; b++) {
+                directory.putLong(blockOffsets[b]).putInt(blockLengths[b]).putInt(blockCrcs[b]);
+            }
+            directory.flip();
+            long directoryOffset = cursor.get();
+            int directoryCrc = crc(directory.array(), 0, directory.limit());
+            writeFully(channel, directory, directoryOffset);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(H_MAGIC, MAGIC).putInt(H_VERSION, VERSION).putLong(H_CREATED, System.currentTimeMillis())
+                    .putLong(H_NEXT_ACCOUNT_ID, nextAccountId).putLong(H_NEXT_CUSTOMER_ID, nextCustomerId)
+                    .putLong(H_JOURNAL_SEQUENCE, journalSequence).putInt(H_ACCOUNT_COUNT, accounts.length)
+                    .putInt(H_CUSTOMER_COUNT, customers.length).putInt(H_ACCOUNT_BLOCKS, accountBlocks)
+                    .putInt(H_CUSTOMER_BLOCKS, customerBlocks).putLong(H_DIRECTORY_OFFSET, directoryOffset)
+                    .putInt(H_ACCOUNTS_PER_BLOCK, accountsPerBlock).putInt(H_CUSTOMERS_PER_BLOCK, customersPerBlock)
+                    .putInt(H_DIRECTORY_CRC, directoryCrc);
+            header.putInt(H_CRC, crc(header.array(), 0, H_CRC));
+            writeFully(channel, header, 0);
+
+            channel.force(true);
+            long size = directoryOffset + directory.limit();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new ControllerSnapshot(file, header, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Copy of the customer's account list (nulls dropped); the list itself is not thread-safe
+    private static Account[] accountsOf(Customer customer) {
+        List<Account> accounts = customer.getAccounts();
+        if (accounts == null) {
+            return new Account[0];
+        }
+        Account[] copy = accounts.toArray(new Account[0]);
+        int count = 0;
+        for (Account account : copy) {
+            if (account != null) {
+                copy[count++] = account;
+            }
+        }
+        return count == copy.length ? copy : Arrays.copyOf(copy, count);
+    }
+
+    private static byte kindOf(Account account) {
+        if (account instanceof CheckingAccount) {
+            return JournalRecord.CHECKING;
+        }
+        if (account instanceof SavingsAccount) {
+            return JournalRecord.SAVINGS;
+        }
+        throw new IllegalArgumentException("Cannot snapshot account type " + account.getClass().getName());
+    }
+
+    private static byte kindOf(Customer customer) {
+        if (customer instanceof Person) {
+            return JournalRecord.PERSON;
+        }
+        if (customer instanceof Company) {
+            return JournalRecord.COMPANY;
+        }
+        throw new IllegalArgumentException("Cannot snapshot customer type " + customer.getClass().getName());
+    }
+
+    // ============================
+    // Read
+    // ============================
+
+    /**
+     * Reads only the header of a snapshot file (counts, counters, journal
+     * sequence).
+     */
+    public static ControllerSnapshot readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ControllerSnapshot(file, readValidHeader(channel, file), channel.size());
+        }
+    }
+
+    /**
+     * Restores a controller from a snapshot file on the common pool. The id
+     * counters are moved forward to the snapshot's values first. Throws
+     * IOException if the file is not a snapshot or any block fails its checksum.
+     */
+    public static AccountController restore(Path file) throws IOException {
+        return restore(file, ForkJoinPool.commonPool());
+    }
+
+    public static AccountController restore(Path file, ForkJoinPool pool) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readValidHeader(channel, file);
+            long nextAccountId = header.getLong(H_NEXT_ACCOUNT_ID);
+            long nextCustomerId = header.getLong(H_NEXT_CUSTOMER_ID);
+            int accountCount = header.getInt(H_ACCOUNT_COUNT);
+            int customerCount = header.getInt(H_CUSTOMER_COUNT);
+            int accountBlocks = header.getInt(H_ACCOUNT_BLOCKS);
+            int customerBlocks = header.getInt(H_CUSTOMER_BLOCKS);
+            int accountsPerBlock = header.getInt(H_ACCOUNTS_PER_BLOCK);
+            int customersPerBlock = header.getInt(H_CUSTOMERS_PER_BLOCK);
+            if (accountCount < 0 || customerCount < 0 || accountsPerBlock <= 0 || customersPerBlock <= 0
+                    || accountBlocks != blockCount(accountCount, accountsPerBlock)
+                    || customerBlocks != blockCount(customerCount, customersPerBlock)) {
+                throw new IOException(file + ": corrupt snapshot header");
+            }
+
+            int blockCount = accountBlocks + customerBlocks;
+            ByteBuffer directory = ByteBuffer.allocate(Math.multiplyExact(blockCount, DIRECTORY_ENTRY_SIZE));
+            readFully(channel, directory, header.getLong(H_DIRECTORY_OFFSET), file);
+            if (crc(directory.array(), 0, directory.limit()) != header.getInt(H_DIRECTORY_CRC)) {
+                throw new IOException(file + ": corrupt snapshot directory");
+            }
+            long[] blockOffsets = new long[blockCount];
+            int[] blockLengths = new int[blockCount];
+            int[] blockCrcs = new int[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                blockOffsets[b] = directory.getLong(b * DIRECTORY_ENTRY_SIZE);
+                blockLengths[b] = directory.getInt(b * DIRECTORY_ENTRY_SIZE + 8);
+                blockCrcs[b] = directory.getInt(b * DIRECTORY_ENTRY_SIZE + 12);
+            }
+
+            // Counters first: every restored id is below them, so the restore constructors
+            // running in parallel only read the counters and never move them
+            Account.advanceNextAccountId(nextAccountId);
+            Customer.advanceNextCustomerId(nextCustomerId);
+
+            Account[] accounts = new Account[accountCount];
+            int[] primaryOwnerIndexes = new int[accountCount];
+            byte[] flags = new byte[accountCount];
+            Customer[] customers = new Customer[customerCount];
+            // (customer index, account index) of owners other than the primary one
+            Queue<int[]> jointLinks = new ConcurrentLinkedQueue<>();
+            ReadTask accountPhase = new ReadTask(channel, file, blockOffsets, blockLengths, blockCrcs, 0,
+                    accountBlocks, accounts, primaryOwnerIndexes, flags, customers, jointLinks, accountBlocks,
+                    accountsPerBlock, customersPerBlock, nextAccountId, nextCustomerId);
+            invoke(pool, accountPhase);
+            // Customers reference accounts by index, so they decode once all accounts exist
+            ReadTask customerPhase = new ReadTask(channel, file, blockOffsets, blockLengths, blockCrcs,
+                    accountBlocks, blockCount, accounts, primaryOwnerIndexes, flags, customers, jointLinks,
+                    accountBlocks, accountsPerBlock, customersPerBlock, nextAccountId, nextCustomerId);
+            invoke(pool, customerPhase);
+
+            // Registered accounts + primary owners in snapshot order
+            int registeredCount = 0;
+            for (byte flag : flags) {
+                if ((flag & FLAG_REGISTERED) != 0) {
+                    registeredCount++;
+                }
+            }
+            Account[] registered = new Account[registeredCount];
+            Customer[] primaryOwners = new Customer[registeredCount];
+            int next = 0;
+            for (int i = 0; i < accountCount; i++) {
+                if ((flags[i] & FLAG_REGISTERED) == 0) {
+                    continue;
+                }
+                int owner = primaryOwnerIndexes[i];
+                if (owner != NO_INDEX && (owner < 0 || owner >= customerCount)) {
+                    throw new IOException(file + ": corrupt owner index " + owner);
+                }
+                registered[next] = accounts[i];
+                primaryOwners[next] = owner == NO_INDEX ? null : customers[owner];
+                next++;
+            }
+
+            AccountRegistry registry = new AccountRegistry(customerCount, registeredCount);
+            registry.load(new AccountRegistry.Contents(customers, registered, primaryOwners));
+            for (int[] link : jointLinks) {
+                registry.linkOwner(customers[link[0]], accounts[link[1]]);
+            }
+            return new AccountController(registry);
+        }
+    }
+
+    /**
+     * Restores the snapshot, then replays the journal records in journalDir
+     * written after it (sequence above getJournalSequence()), and attaches the
+     * journal to the controller so new changes are appended after them. The
+     * caller owns the journal (controller.getJournal()) and closes it.
+     */
+    public static AccountController restore(Path file, Path journalDir) throws IOException {
+        if (journalDir == null) {
+            throw new IllegalArgumentException("Journal directory cannot be null");
+        }
+        long snapshotSequence = readHeader(file).getJournalSequence();
+        AccountController controller = restore(file);
+
+        // Opening first cuts off a torn tail, so replay and new appends agree on the end
+        TransactionJournal journal = TransactionJournal.open(journalDir);
+        try {
+            if (journal.getLastSequence() < snapshotSequence) {
+                throw new IOException(journalDir + ": journal ends at " + journal.getLastSequence()
+                        + ", before the snapshot (" + snapshotSequence + ")");
+            }
+            JournalReplay replay = new JournalReplay(controller);
+            TransactionJournal.replay(journalDir, record -> {
+                if (record.getSequence() > snapshotSequence) {
+                    replay.apply(record);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        controller.setJournal(journal);
+        return controller;
+    }
+
+    // Applies journal records to a controller that has no journal yet (nothing is
+    // journaled twice). Records are facts: withdrawals and fines are applied
+    // without the account's checks, records for unknown ids are skipped.
+    private static final class JournalReplay {
+
+        private final AccountController controller;
+        private final AccountRegistry registry;
+
+        JournalReplay(AccountController controller) {
+            this.controller = controller;
+            this.registry = controller.registry();
+        }
+
+        void apply(JournalRecord record) {
+            Account account = registry.findAccount(record.getAccountId());
+            Customer customer = registry.findCustomer(record.getCustomerId());
+            switch (record.getType()) {
+            case CUSTOMER_CREATED:
+                if (customer == null) {
+                    registry.addCustomer(record.getKind() == JournalRecord.COMPANY
+                            ? new Company(record.getCustomerId(), record.getName(), record.getAddress())
+                            : new Person(record.getCustomerId(), record.getName(), record.getAddress()));
+                }
+                break;
+            case CUSTOMER_REMOVED:
+                controller.removeCustomer(customer);
+                break;
+            case ACCOUNT_CREATED:
+                if (account == null) {
+                    Account created = record.getKind() == JournalRecord.SAVINGS
+                            ? new SavingsAccount(record.getAccountId())
+                            : new CheckingAccount(record.getAccountId());
+                    registry.addAccount(created);
+                    if (customer != null) {
+                        customer.addAccount(created);
+                        registry.linkOwner(customer, created);
+                    }
+                }
+                break;
+            case ACCOUNT_REMOVED:
+                if (account != null) {
+                    controller.removeAccount(account);
+                }
+                break;
+            case OWNER_ADDED:
+                if (account != null && customer != null) {
+                    controller.addAccountOwner(customer, account);
+                }
+                break;
+            case DEPOSIT:
+            case INTEREST:
+            case CORRECTION:
+                addCents(account, record.getAmountCents());
+                break;
+            case WITHDRAWAL:
+            case FINE:
+                addCents(account, -record.getAmountCents());
+                break;
+            case RATE_CHANGED:
+                if (account instanceof SavingsAccount) {
+                    ((SavingsAccount) account).setInterestRate(record.getRate());
+                }
+                break;
+            case CHECK_NUMBER:
+                if (account instanceof CheckingAccount) {
+                    ((CheckingAccount) account).setNextCheckNumber((int) record.getAmountCents());
+                }
+                break;
+            case EMAIL_CHANGED:
+                if (customer != null) {
+                    customer.setEmail(record.getEmail().isEmpty() ? null : record.getEmail());
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        private static void addCents(Account account, long cents) {
+            if (account != null) {
+                account.setBalanceCents(account.getBalanceCents() + cents);
+            }
+        }
+    }
+
+    private static ByteBuffer readValidHeader(FileChannel channel, Path file) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException(file + ": not a controller snapshot (too short)");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0, file);
+        if (header.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException(file + ": not a controller snapshot (bad magic)");
+        }
+        if (header.getInt(H_VERSION) != VERSION) {
+            throw new IOException(file + ": unsupported snapshot version " + header.getInt(H_VERSION));
+        }
+        if (crc(header.array(), 0, H_CRC) != header.getInt(H_CRC)) {
+            throw new IOException(file + ": corrupt snapshot header");
+        }
+        return header;
+    }
+
+    // ============================
+    // Accessors (header values)
+    // ============================
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    public long getNextAccountId() {
+        return nextAccountId;
+    }
+
+    public long getNextCustomerId() {
+        return nextCustomerId;
+    }
+
+    /**
+     * Last journal sequence when the snapshot started (0 without a journal).
+     */
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    /**
+     * Accounts in the snapshot, including those only held in a customer's
+     * account list.
+     */
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ControllerSnapshot{" + file + ", customers=" + customerCount + ", accounts=" + accountCount
+                + ", nextAccountId=" + nextAccountId + ", nextCustomerId=" + nextCustomerId + ", journalSequence="
+                + journalSequence + ", bytes=" + sizeBytes + "}";
+    }
+
+    // ============================
+    // Helpers
+    // ============================
+
+    private static int blockCount(int entries, int perBlock) {
+        return (int) ((entries + (long) perBlock - 1) / perBlock);
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    // Runs a task, turning I/O failures inside workers back into IOException
+    private static void invoke(ForkJoinPool pool, RecursiveAction task) throws IOException {
+        try {
+            pool.invoke(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, Path file)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException(file + ": snapshot is truncated");
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    // ============================
+    // Parallel block encoding: each leaf encodes one block, reserves its place in
+    // the file and writes it with a positional write
+    // ============================
+    private static final class WriteTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final AtomicLong cursor;
+        private final long[] blockOffsets;
+        private final int[] blockLengths;
+        private final int[] blockCrcs;
+        private final Account[] accounts;
+        private final int registeredCount;
+        private final Customer[] primaryOwners;
+        private final LongIntHashMap customerIndexById;
+        private final int accountsPerBlock;
+        private final Customer[] customers;
+        private final Account[][] accountsByCustomer;
+        private final LongIntHashMap accountIndexById;
+        private final int customersPerBlock;
+        private final int accountBlocks;
+        private final int from;
+        private final int to;
+
+        WriteTask(FileChannel channel, AtomicLong cursor, long[] blockOffsets, int[] blockLengths, int[] blockCrcs,
+                  Account[] accounts, int registeredCount, Customer[] primaryOwners, LongIntHashMap customerIndexById,
+                  int accountsPerBlock, Customer[] customers, Account[][] accountsByCustomer,
+                  LongIntHashMap accountIndexById, int customersPerBlock, int accountBlocks, int from, int to) {
+            this.channel = channel;
+            this.cursor = cursor;
+            this.blockOffsets = blockOffsets;
+            this.blockLengths = blockLengths;
+            this.blockCrcs = blockCrcs;
+            this.accounts = accounts;
+            this.registeredCount = registeredCount;
+            this.primaryOwners = primaryOwners;
+            this.customerIndexById = customerIndexById;
+            this.accountsPerBlock = accountsPerBlock;
+            this.customers = customers;
+            this.accountsByCustomer = accountsByCustomer;
+            this.accountIndexById = accountIndexById;
+            this.customersPerBlock = customersPerBlock;
+            this.accountBlocks = accountBlocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(split(from, mid), split(mid, to));
+                return;
+            }
+
+            ByteBuffer block = from < accountBlocks ? encodeAccounts(from) : encodeCustomers(from - accountBlocks);
+            block.flip();
+            int length = block.limit();
+            long offset = cursor.getAndAdd(length);
+            blockOffsets[from] = offset;
+            blockLengths[from] = length;
+            blockCrcs[from] = crc(block.array(), 0, length);
+            try {
+                writeFully(channel, block, offset);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private ByteBuffer encodeAccounts(int block) {
+            int start = block * accountsPerBlock;
+            int end = Math.min(accounts.length, start + accountsPerBlock);
+            ByteBuffer buffer = ByteBuffer.allocate((end - start) * ACCOUNT_RECORD_SIZE);
+            for (int i = start; i < end; i++) {
+                Account account = accounts[i];
+                int base = (i - start) * ACCOUNT_RECORD_SIZE;
+                byte kind = kindOf(account);
+                Customer owner = i < registeredCount ? primaryOwners[i] : null;
+
+                buffer.putLong(base + A_ID, account.getACCOUNT_ID());
+                buffer.putLong(base + A_BALANCE, account.getBalanceCents());
+                buffer.putLong(base + A_RATE, kind == JournalRecord.SAVINGS
+                        ? Double.doubleToRawLongBits(((SavingsAccount) account).getInterestRate())
+                        : 0);
+                buffer.putInt(base + A_OWNER,
+                        owner == null ? NO_INDEX : customerIndexById.get(owner.getCUSTOMER_ID(), NO_INDEX));
+                buffer.putInt(base + A_CHECK_NUMBER,
+                        kind == JournalRecord.CHECKING ? ((CheckingAccount) account).getNextCheckNumber() : 0);
+                buffer.put(base + A_KIND, kind);
+                buffer.put(base + A_FLAGS, i < registeredCount ? FLAG_REGISTERED : 0);
+            }
+            buffer.position(buffer.capacity());
+            return buffer;
+        }
+
+        private ByteBuffer encodeCustomers(int block) {
+            int start = block * customersPerBlock;
+            int end = Math.min(customers.length, start + customersPerBlock);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * (end - start));
+            for (int c = start; c < end; c++) {
+                Customer customer = customers[c];
+                Account[] owned = accountsByCustomer[c];
+                byte[] name = customer.getName().getBytes(StandardCharsets.UTF_8);
+                byte[] address = customer.getAddress().getBytes(StandardCharsets.UTF_8);
+                byte[] email = customer.getEmail() == null ? null
+                        : customer.getEmail().getBytes(StandardCharsets.UTF_8);
+
+                int size = 8 + 1 + 4 + 4 * owned.length + 12 + name.length + address.length
+                        + (email == null ? 0 : email.length);
+                buffer = ensureRemaining(buffer, size);
+                buffer.putLong(customer.getCUSTOMER_ID()).put(kindOf(customer)).putInt(owned.length);
+                for (Account account : owned) {
+                    buffer.putInt(accountIndexById.get(account.getACCOUNT_ID(), NO_INDEX));
+                }
+                putText(buffer, name);
+                putText(buffer, address);
+                putText(buffer, email);
+            }
+            return buffer;
+        }
+
+        private static ByteBuffer ensureRemaining(ByteBuffer buffer, int size) {
+            if (buffer.remaining() >= size) {
+                return buffer;
+            }
+            long capacity = Math.max((long) buffer.capacity() * 2, (long) buffer.position() + size);
+            ByteBuffer grown = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8, capacity));
+            buffer.flip();
+            return grown.put(buffer);
+        }
+
+        private static void putText(ByteBuffer buffer, byte[] text) {
+            if (text == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(text.length).put(text);
+            }
+        }
+
+        private WriteTask split(int start, int end) {
+            return new WriteTask(channel, cursor, blockOffsets, blockLengths, blockCrcs, accounts, registeredCount,
+                    primaryOwners, customerIndexById, accountsPerBlock, customers, accountsByCustomer,
+                    accountIndexById, customersPerBlock, accountBlocks, start, end);
+        }
+    }
+
+    // ============================
+    // Parallel block decoding: each leaf reads one block with a positional read,
+    // checks its CRC and fills its own range of the result arrays
+    // ============================
+    private static final class ReadTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final Path file;
+        private final long[] blockOffsets;
+        private final int[] blockLengths;
+        private final int[] blockCrcs;
+        private final int from;
+        private final int to;
+        private final Account[] accounts;
+        private final int[] primaryOwnerIndexes;
+        private final byte[] flags;
+        private final Customer[] customers;
+        private final Queue<int[]> jointLinks;
+        private final int accountBlocks;
+        private final int accountsPerBlock;
+        private final int customersPerBlock;
+        private final long nextAccountId;
+        private final long nextCustomerId;
+
+        ReadTask(FileChannel channel, Path file, long[] blockOffsets, int[] blockLengths, int[] blockCrcs, int from,
+                 int to, Account[] accounts, int[] primaryOwnerIndexes, byte[] flags, Customer[] customers,
+                 Queue<int[]> jointLinks, int accountBlocks, int accountsPerBlock, int customersPerBlock, long nextAccountId,
+                 long nextCustomerId) {
+            this.channel = channel;
+            this.file = file;
+            this.blockOffsets = blockOffsets;
+            this.blockLengths = blockLengths;
+            this.blockCrcs = blockCrcs;
+            this.from = from;
+            this.to = to;
+            this.accounts = accounts;
+            this.primaryOwnerIndexes = primaryOwnerIndexes;
+            this.flags = flags;
+            this.customers = customers;
+            this.jointLinks = jointLinks;
+            this.accountBlocks = accountBlocks;
+            this.accountsPerBlock = accountsPerBlock;
+            this.customersPerBlock = customersPerBlock;
+            this.nextAccountId = nextAccountId;
+            this.nextCustomerId = nextCustomerId;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(split(from, mid), split(mid, to));
+                return;
+            }
+            if (from >= to) {
+                return;
+            }
+            try {
+                ByteBuffer block = read(from);
+                if (from < accountBlocks) {
+                    decodeAccounts(block, from);
+                } else {
+                    decodeCustomers(block, from - accountBlocks);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                // Bad lengths/indexes inside a block that passed its CRC
+                throw new UncheckedIOException(new IOException(file + ": corrupt snapshot block " + from, e));
+            }
+        }
+
+        private ByteBuffer read(int block) throws IOException {
+            if (blockLengths[block] < 0) {
+                throw new IOException(file + ": corrupt snapshot directory");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(blockLengths[block]);
+            readFully(channel, buffer, blockOffsets[block], file);
+            if (crc(buffer.array(), 0, buffer.limit()) != blockCrcs[block]) {
+                throw new IOException(file + ": snapshot block " + block + " failed its checksum");
+            }
+            return buffer;
+        }
+
+        private void decodeAccounts(ByteBuffer block, int blockIndex) throws IOException {
+            int start = blockIndex * accountsPerBlock;
+            int count = Math.min(accountsPerBlock, accounts.length - start);
+            if (block.limit() != count * ACCOUNT_RECORD_SIZE) {
+                throw new IOException(file + ": corrupt snapshot block " + blockIndex);
+            }
+
+            for (int r = 0; r < count; r++) {
+                int base = r * ACCOUNT_RECORD_SIZE;
+                long id = block.getLong(base + A_ID);
+                if (id >= nextAccountId) {
+                    throw new IOException(file + ": account id " + id + " is not below the saved counter");
+                }
+                byte kind = block.get(base + A_KIND);
+                Account account;
+                if (kind == JournalRecord.CHECKING) {
+                    CheckingAccount checking = new CheckingAccount(id);
+                    checking.setNextCheckNumber(block.getInt(base + A_CHECK_NUMBER));
+                    account = checking;
+                } else if (kind == JournalRecord.SAVINGS) {
+                    SavingsAccount savings = new SavingsAccount(id);
+                    savings.setInterestRate(Double.longBitsToDouble(block.getLong(base + A_RATE)));
+                    account = savings;
+                } else {
+                    throw new IOException(file + ": unknown account kind " + kind);
+                }
+                account.setBalanceCents(block.getLong(base + A_BALANCE));
+
+                int index = start + r;
+                accounts[index] = account;
+                primaryOwnerIndexes[index] = block.getInt(base + A_OWNER);
+                flags[index] = block.get(base + A_FLAGS);
+            }
+        }
+
+        private void decodeCustomers(ByteBuffer block, int blockIndex) throws IOException {
+            int start = blockIndex * customersPerBlock;
+            int end = Math.min(customers.length, start + customersPerBlock);
+            for (int index = start; index < end; index++) {
+                long id = block.getLong();
+                byte kind = block.get();
+                int accountCount = block.getInt();
+                if (id >= nextCustomerId) {
+                    throw new IOException(file + ": customer id " + id + " is not below the saved counter");
+                }
+                if (accountCount < 0 || accountCount > block.remaining() / 4) {
+                    throw new IOException(file + ": corrupt account count " + accountCount);
+                }
+                List<Account> owned = new ArrayList<>(accountCount);
+                for (int a = 0; a < accountCount; a++) {
+                    int accountIndex = block.getInt();
+                    owned.add(accounts[accountIndex]);
+                    if ((flags[accountIndex] & FLAG_REGISTERED) != 0 && primaryOwnerIndexes[accountIndex] != index) {
+                        jointLinks.add(new int[] { index, accountIndex });
+                    }
+                }
+                String name = getText(block);
+                String address = getText(block);
+                String email = getText(block);
+
+                Customer customer;
+                if (kind == JournalRecord.PERSON) {
+                    customer = new Person(id, name, address);
+                } else if (kind == JournalRecord.COMPANY) {
+                    customer = new Company(id, name, address);
+                } else {
+                    throw new IOException(file + ": unknown customer kind " + kind);
+                }
+                customer.setEmail(email);
+                customer.setAccounts(owned);
+                customers[index] = customer;
+            }
+            if (block.hasRemaining()) {
+                throw new IOException(file + ": corrupt snapshot block " + (accountBlocks + blockIndex));
+            }
+        }
+
+        private static String getText(ByteBuffer buffer) {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            String text = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return text;
+        }
+
+        private ReadTask split(int start, int end) {
+            return new ReadTask(channel, file, blockOffsets, blockLengths, blockCrcs, start, end, accounts,
+                    primaryOwnerIndexes, flags, customers, jointLinks, accountBlocks, accountsPerBlock,
+                    customersPerBlock, nextAccountId, nextCustomerId);
+        }
+    }
+}
@@ -1,7 +1,44 @@
 package com.github.gabrielhumbertdev.service;
 
+import java.util.stream.LongStream;
+
+import com.github.gabrielhumbertdev.util.Money;
+
 public interface FeeCalculatorService {
 
     double calculateFee(double balance);
 
+    /**
+     * Fixed-point version: balance and fee in cents. The default adapts the double
+     * method; implementations should override it with pure long arithmetic.
+     */
+    default long calculateFeeCents(long balanceCents) {
+        return Money.toCents(calculateFee(Money.toDouble(balanceCents)));
+    }
+
+    /**
+     * Bulk version: feesCents[i] = fee of balancesCents[i]. feesCents must be at
+     * least as long as balancesCents.
+     */
+    default void calculateFeesCents(long[] balancesCents, long[] feesCents) {
+        if (balancesCents == null || feesCents == null) {
+            throw new IllegalArgumentException("Balances and fees cannot be null");
+        }
+        if (feesCents.length < balancesCents.length) {
+            throw new IllegalArgumentException("Fee array is shorter than balance array");
+        }
+        for (int i = 0; i < balancesCents.length; i++) {
+            feesCents[i] = calculateFeeCents(balancesCents[i]);
+        }
+    }
+
+    /**
+     * Streaming version: one fee (cents) per balance (cents), in order.
+     */
+    default LongStream calculateFeesCents(LongStream balancesCents) {
+        if (balancesCents == null) {
+            throw new IllegalArgumentException("Balances cannot be null");
+        }
+        return balancesCents.map(this::calculateFeeCents);
+    }
 }
@@ -1,20 +1,106 @@
 package com.github.gabrielhumbertdev.service;
 
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+/**
+ * Tiered fees driven by a FeeSchedule (default: 20/15/10/5/0 at
+ * 100/500/1000/2000). The schedule can be swapped at runtime without locking;
+ * every call, including a whole bulk run, prices against one schedule.
+ */
 public class FeeCalculatorServiceImpl implements FeeCalculatorService {
 
+    // Bulk runs at least this long are split across the common ForkJoinPool
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private volatile FeeSchedule schedule;
+
+    public FeeCalculatorServiceImpl() {
+        this(FeeSchedule.DEFAULT);
+    }
+
+    public FeeCalculatorServiceImpl(FeeSchedule schedule) {
+        setSchedule(schedule);
+    }
+
+    /**
+     * Replaces the fee table. Calls already running finish with the previous one.
+     */
+    public void setSchedule(FeeSchedule schedule) {
+        if (schedule == null) {
+            throw new IllegalArgumentException("Fee schedule cannot be null");
+        }
+        this.schedule = schedule;
+    }
+
+    public FeeSchedule getSchedule() {
+        return schedule;
+    }
+
     @Override
     public double calculateFee(double balance) {
-        if (balance <= 100) {
-            return 20;
-        } else if (balance <= 500) {
-            return 15;
-        } else if (balance <= 1000) {
-            return 10;
-        } else if (balance <= 2000) {
-            return 5;
-        } else {
-            return 0;
+        return schedule.fee(balance);
+    }
+
+    // Same tiers in cents (no double arithmetic)
+    @Override
+    public long calculateFeeCents(long balanceCents) {
+        return schedule.feeCents(balanceCents);
+    }
+
+    @Override
+    public void calculateFeesCents(long[] balancesCents, long[] feesCents) {
+        if (balancesCents == null || feesCents == null) {
+            throw new IllegalArgumentException("Balances and fees cannot be null");
+        }
+        if (feesCents.length < balancesCents.length) {
+            throw new IllegalArgumentException("Fee array is shorter than balance array");
+        }
+
+        FeeSchedule current = schedule;
+        int length = balancesCents.length;
+        if (length < PARALLEL_THRESHOLD) {
+            current.feesCents(balancesCents, feesCents, 0, length);
+            return;
         }
+
+        // Chunks write disjoint ranges of feesCents
+        int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            current.feesCents(balancesCents, feesCents, from, Math.min(length, from + CHUNK_SIZE));
+        });
+    }
+
+    @Override
+    public LongStream calculateFeesCents(LongStream balancesCents) {
+        if (balancesCents == null) {
+            throw new IllegalArgumentException("Balances cannot be null");
+        }
+        FeeSchedule current = schedule;
+        return balancesCents.map(current::feeCents);
+    }
+
+    /**
+     * Total fees (cents) of a monthly fee run, without materialising per-account
+     * fees.
+     */
+    public long totalFeesCents(long[] balancesCents) {
+        if (balancesCents == null) {
+            throw new IllegalArgumentException("Balances cannot be null");
+        }
+
+        FeeSchedule current = schedule;
+        int length = balancesCents.length;
+        if (length < PARALLEL_THRESHOLD) {
+            return current.totalFeesCents(balancesCents, 0, length);
+        }
+
+        int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks).parallel().mapToLong(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            return current.totalFeesCents(balancesCents, from, Math.min(length, from + CHUNK_SIZE));
+        }).sum();
     }
 }
@@ -0,0 +1,244 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Immutable fee table: a balance pays the fee of the first tier whose upper
+ * bound (inclusive) it does not exceed, or the default fee above the last tier.
+ * Amounts are held in cents; the double view used by calculateFee(double) is
+ * derived from them.
+ *
+ * Configuration (properties):
+ *
+ * <pre>
+ * fee.tiers=100.00:20.00, 500.00:15.00, 1000.00:10.00, 2000.00:5.00
+ * fee.default=0.00
+ * </pre>
+ *
+ * Each tier is "upperBound:fee" in currency units with at most two decimals;
+ * upper bounds must be strictly increasing.
+ */
+public final class FeeSchedule {
+
+    public static final String TIERS_PROPERTY = "fee.tiers";
+    public static final String DEFAULT_FEE_PROPERTY = "fee.default";
+
+    /**
+     * The original fee ladder: 20/15/10/5/0 at 100/500/1000/2000.
+     */
+    public static final FeeSchedule DEFAULT = new FeeSchedule(new long[] { 10_000, 50_000, 100_000, 200_000 },
+            new long[] { 2_000, 1_500, 1_000, 500 }, 0);
+
+    private final long[] upperBoundsCents;
+    private final long[] feesCents; // one more entry than bounds: the default fee comes last
+
+    // Double view for calculateFee(double): same comparisons as the old if/else ladder
+    private final double[] upperBounds;
+    private final double[] fees;
+
+    /**
+     * @param upperBoundsCents inclusive upper bound of each tier, strictly
+     *                         increasing
+     * @param tierFeesCents    fee of each tier (same length as bounds), >= 0
+     * @param defaultFeeCents  fee above the last tier, >= 0
+     */
+    public FeeSchedule(long[] upperBoundsCents, long[] tierFeesCents, long defaultFeeCents) {
+        if (upperBoundsCents == null || tierFeesCents == null) {
+            throw new IllegalArgumentException("Tiers cannot be null");
+        }
+        if (upperBoundsCents.length != tierFeesCents.length) {
+            throw new IllegalArgumentException("Every tier needs exactly one fee");
+        }
+        for (int i = 0; i < upperBoundsCents.length; i++) {
+            if (i > 0 && upperBoundsCents[i] <= upperBoundsCents[i - 1]) {
+                throw new IllegalArgumentException("Tier bounds must be strictly increasing");
+            }
+            if (tierFeesCents[i] < 0) {
+                throw new IllegalArgumentException("Fees cannot be negative");
+            }
+        }
+        if (defaultFeeCents < 0) {
+            throw new IllegalArgumentException("Fees cannot be negative");
+        }
+
+        this.upperBoundsCents = upperBoundsCents.clone();
+        this.feesCents = Arrays.copyOf(tierFeesCents, tierFeesCents.length + 1);
+        this.feesCents[tierFeesCents.length] = defaultFeeCents;
+
+        this.upperBounds = new double[upperBoundsCents.length];
+        this.fees = new double[feesCents.length];
+        for (int i = 0; i < upperBounds.length; i++) {
+            upperBounds[i] = upperBoundsCents[i] / 100.0;
+        }
+        for (int i = 0; i < fees.length; i++) {
+            fees[i] = feesCents[i] / 100.0;
+        }
+    }
+
+    // ============================
+    // Configuration
+    // ============================
+    /**
+     * Builds a schedule from fee.tiers / fee.default (see class comment).
+     */
+    public static FeeSchedule fromProperties(Properties properties) {
+        if (properties == null) {
+            throw new IllegalArgumentException("Properties cannot be null");
+        }
+        String tiers = properties.getProperty(TIERS_PROPERTY);
+        if (tiers == null || tiers.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing " + TIERS_PROPERTY);
+        }
+
+        String[] entries = tiers.split(",");
+        long[] bounds = new long[entries.length];
+        long[] tierFees = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Tier must be upperBound:fee, got '" + entries[i].trim() + "'");
+            }
+            bounds[i] = parseCents(parts[0]);
+            tierFees[i] = parseCents(parts[1]);
+        }
+
+        long defaultFee = parseCents(properties.getProperty(DEFAULT_FEE_PROPERTY, "0"));
+        return new FeeSchedule(bounds, tierFees, defaultFee);
+    }
+
+    public static FeeSchedule load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        return fromProperties(properties);
+    }
+
+    public static FeeSchedule load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return fromProperties(properties);
+        }
+    }
+
+    // "12.5" -> 1250; more than two decimals is a configuration error, not rounded
+    private static long parseCents(String amount) {
+        try {
+            return new BigDecimal(amount.trim()).movePointRight(2).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount '" + amount.trim() + "' in fee schedule", e);
+        }
+    }
+
+    // ============================
+    // Single lookups (binary search over the tier bounds)
+    // ============================
+    public long feeCents(long balanceCents) {
+        int low = 0;
+        int high = upperBoundsCents.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (balanceCents <= upperBoundsCents[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return feesCents[low];
+    }
+
+    /**
+     * Double version. NaN is above every tier (default fee), as in the old
+     * if/else ladder.
+     */
+    public double fee(double balance) {
+        int low = 0;
+        int high = upperBounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (balance <= upperBounds[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return fees[low];
+    }
+
+    // ============================
+    // Bulk lookups
+    // ============================
+    /**
+     * Prices balancesCents[from, to) into feesOut at the same positions. The tier
+     * index is a branch-free count of the bounds each balance exceeds, so the
+     * loop runs at a steady rate whatever the mix of balances.
+     */
+    public void feesCents(long[] balancesCents, long[] feesOut, int from, int to) {
+        long[] bounds = upperBoundsCents;
+        long[] table = feesCents;
+        int tierCount = bounds.length;
+        for (int i = from; i < to; i++) {
+            long balance = balancesCents[i];
+            int tier = 0;
+            for (int t = 0; t < tierCount; t++) {
+                tier += balance > bounds[t] ? 1 : 0;
+            }
+            feesOut[i] = table[tier];
+        }
+    }
+
+    /**
+     * Sum of the fees for balancesCents[from, to), without writing per-account
+     * results.
+     */
+    public long totalFeesCents(long[] balancesCents, int from, int to) {
+        long[] bounds = upperBoundsCents;
+        long[] table = feesCents;
+        int tierCount = bounds.length;
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            long balance = balancesCents[i];
+            int tier = 0;
+            for (int t = 0; t < tierCount; t++) {
+                tier += balance > bounds[t] ? 1 : 0;
+            }
+            total += table[tier];
+        }
+        return total;
+    }
+
+    // ============================
+    // Accessors
+    // ============================
+    public int getTierCount() {
+        return upperBoundsCents.length;
+    }
+
+    public long[] getUpperBoundsCents() {
+        return upperBoundsCents.clone();
+    }
+
+    public long[] getTierFeesCents() {
+        return Arrays.copyOf(feesCents, upperBoundsCents.length);
+    }
+
+    public long getDefaultFeeCents() {
+        return feesCents[upperBoundsCents.length];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("FeeSchedule[");
+        for (int i = 0; i < upperBoundsCents.length; i++) {
+            text.append("<=").append(upperBoundsCents[i]).append(':').append(feesCents[i]).append(", ");
+        }
+        return text.append("default:").append(getDefaultFeeCents()).append(" cents]").toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+
+/**
+ * InterestAccrualJob
+ *
+ * Batch interest run over the whole book: takes every SavingsAccount from an
+ * AccountController (snapshotAccounts()) or an AccountService
+ * (getAccounts()), splits the list into chunks on a ForkJoinPool and calls
+ * addInterestCents() on each account. Other account types are skipped.
+ *
+ * Safe to run alongside normal traffic: interest is credited with the same
+ * CAS update as deposits, so no account is locked. Over a controller every
+ * credit is journaled through it (INTEREST records, like the fines of
+ * MinimumBalanceSweepJob); a closed or failed journal never stops the run.
+ */
+public class InterestAccrualJob {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8_192;
+
+    // Exactly one of the two is set
+    private final AccountController controller;
+    private final AccountService accountService;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public InterestAccrualJob(AccountController controller) {
+        this(controller, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public InterestAccrualJob(AccountController controller, ForkJoinPool pool, int chunkSize) {
+        this(controller, null, pool, chunkSize);
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller cannot be null");
+        }
+    }
+
+    /**
+     * Job over an AccountService's accounts; its credits are not journaled.
+     */
+    public InterestAccrualJob(AccountService accountService) {
+        this(accountService, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public InterestAccrualJob(AccountService accountService, ForkJoinPool pool, int chunkSize) {
+        this(null, accountService, pool, chunkSize);
+        if (accountService == null) {
+            throw new IllegalArgumentException("Account service cannot be null");
+        }
+    }
+
+    private InterestAccrualJob(AccountController controller, AccountService accountService, ForkJoinPool pool,
+            int chunkSize) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.controller = controller;
+        this.accountService = accountService;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Applies interest to every savings account once and reports the totals.
+     */
+    public InterestAccrualResult run() {
+        long start = System.nanoTime();
+
+        List<Account> accounts = controller != null ? controller.snapshotAccounts() : accountService.getAccounts();
+        if (accounts == null || accounts.isEmpty()) {
+            return new InterestAccrualResult(0, 0, System.nanoTime() - start);
+        }
+        // Chunks index into the list, so it must support fast get(i)
+        if (!(accounts instanceof RandomAccess)) {
+            accounts = new ArrayList<>(accounts);
+        }
+
+        LongAdder processed = new LongAdder();
+        LongAdder interestCents = new LongAdder();
+        pool.invoke(new AccrualTask(accounts, 0, accounts.size(), processed, interestCents));
+
+        return new InterestAccrualResult(processed.sum(), interestCents.sum(), System.nanoTime() - start);
+    }
+
+    private final class AccrualTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Account> accounts;
+        private final int from;
+        private final int to;
+        private final LongAdder processed;
+        private final LongAdder interestCents;
+
+        AccrualTask(List<Account> accounts, int from, int to, LongAdder processed, LongAdder interestCents) {
+            this.accounts = accounts;
+            this.from = from;
+            this.to = to;
+            this.processed = processed;
+            this.interestCents = interestCents;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                accrueChunk();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new AccrualTask(accounts, from, middle, processed, interestCents),
+                    new AccrualTask(accounts, middle, to, processed, interestCents));
+        }
+
+        // Local totals; the shared adders are touched once per chunk
+        private void accrueChunk() {
+            long count = 0;
+            long interest = 0;
+            for (int i = from; i < to; i++) {
+                Account account = accounts.get(i);
+                if (account instanceof SavingsAccount) {
+                    long credited = ((SavingsAccount) account).addInterestCents();
+                    if (controller != null) {
+                        controller.recordInterest(account.getACCOUNT_ID(), credited);
+                    }
+                    interest += credited;
+                    count++;
+                }
+            }
+            processed.add(count);
+            interestCents.add(interest);
+        }
+    }
+}
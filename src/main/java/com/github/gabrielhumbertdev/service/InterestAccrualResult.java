@@ -0,0 +1,45 @@
+package com.github.gabrielhumbertdev.service;
+
+import com.github.gabrielhumbertdev.util.Money;
+
+/**
+ * Outcome of one InterestAccrualJob run.
+ */
+public class InterestAccrualResult {
+
+    private final long accountsProcessed;
+    private final long totalInterestCents;
+    private final long elapsedNanos;
+
+    public InterestAccrualResult(long accountsProcessed, long totalInterestCents, long elapsedNanos) {
+        this.accountsProcessed = accountsProcessed;
+        this.totalInterestCents = totalInterestCents;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getAccountsProcessed() {
+        return accountsProcessed;
+    }
+
+    public long getTotalInterestCents() {
+        return totalInterestCents;
+    }
+
+    public double getTotalInterest() {
+        return Money.toDouble(totalInterestCents);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "InterestAccrualResult[accountsProcessed=" + accountsProcessed + ", totalInterestCents="
+                + totalInterestCents + ", elapsedMillis=" + getElapsedMillis() + "]";
+    }
+}
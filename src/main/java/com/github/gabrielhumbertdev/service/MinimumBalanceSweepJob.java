@@ -0,0 +1,266 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.util.Money;
+import com.github.gabrielhumbertdev.util.TaskExecutors;
+
+/**
+ * MinimumBalanceSweepJob
+ *
+ * End-of-day sweep: fines every CheckingAccount below the minimum balance, no
+ * matter how it got there (withdraw only checks at withdrawal time). - scans a
+ * snapshot of the controller's accounts in parallel chunks on a ForkJoinPool -
+ * applies the fine with the same CAS check as withdraw(...) - sends the fine
+ * alerts in bulk once the scan is done, on an I/O executor (default
+ * TaskExecutors.shared()) so blocking SMTP sends never tie up the ForkJoinPool
+ *
+ * Progress/throughput counters can be read while a sweep is running.
+ * schedule(...) runs the sweep periodically on a background thread.
+ */
+public class MinimumBalanceSweepJob {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8_192;
+
+    private final AccountController controller;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final Executor alertExecutor;
+
+    // Live counters of the current (or last) sweep
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder fined = new LongAdder();
+    private volatile long total;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+
+    public MinimumBalanceSweepJob(AccountController controller) {
+        this(controller, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public MinimumBalanceSweepJob(AccountController controller, ForkJoinPool pool, int chunkSize) {
+        this(controller, pool, chunkSize, TaskExecutors.shared());
+    }
+
+    public MinimumBalanceSweepJob(AccountController controller, ForkJoinPool pool, int chunkSize,
+                                  Executor alertExecutor) {
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller cannot be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (alertExecutor == null) {
+            throw new IllegalArgumentException("Alert executor cannot be null");
+        }
+        this.controller = controller;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.alertExecutor = alertExecutor;
+    }
+
+    /**
+     * Runs one sweep. Throws IllegalStateException if a sweep is already running.
+     */
+    public MinimumBalanceSweepResult runOnce() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Minimum balance sweep already running");
+        }
+        try {
+            scanned.reset();
+            fined.reset();
+            startNanos = System.nanoTime();
+            endNanos = 0;
+
+            List<Account> accounts = controller.snapshotAccounts();
+            total = accounts.size();
+
+            List<FinedAccount> finedAccounts = pool.invoke(new SweepTask(accounts, 0, accounts.size()));
+
+            long totalFinesCents = 0;
+            for (FinedAccount finedAccount : finedAccounts) {
+                totalFinesCents += finedAccount.fineCents;
+                controller.recordFine(finedAccount.account.getACCOUNT_ID(), finedAccount.fineCents);
+            }
+
+            // Bulk alerts on the I/O executor: an inline send blocks on SMTP
+            List<CompletableFuture<Boolean>> alerts = new ArrayList<>(finedAccounts.size());
+            for (FinedAccount finedAccount : finedAccounts) {
+                try {
+                    alerts.add(CompletableFuture.supplyAsync(() -> sendAlert(finedAccount), alertExecutor)
+                            .exceptionally(e -> false));
+                } catch (RejectedExecutionException e) {
+                    alerts.add(CompletableFuture.completedFuture(false));
+                }
+            }
+            long sent = 0;
+            for (CompletableFuture<Boolean> alert : alerts) {
+                if (alert.join()) {
+                    sent++;
+                }
+            }
+
+            endNanos = System.nanoTime();
+            return new MinimumBalanceSweepResult(scanned.sum(), finedAccounts.size(), totalFinesCents, sent,
+                    finedAccounts.size() - sent, endNanos - startNanos);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Runs the sweep every period (e.g. once a day) on a background thread.
+     */
+    public synchronized void schedule(long initialDelay, long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Minimum balance sweep already scheduled");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "minimum-balance-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                runOnce();
+            } catch (RuntimeException e) {
+                // keep the schedule alive: next run retries
+            }
+        }, initialDelay, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // ============================
+    // Progress / throughput counters
+    // ============================
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public long getAccountsScanned() {
+        return scanned.sum();
+    }
+
+    public long getAccountsTotal() {
+        return total;
+    }
+
+    public long getAccountsFined() {
+        return fined.sum();
+    }
+
+    /**
+     * Fraction of the current sweep done (0.0 - 1.0).
+     */
+    public double getProgress() {
+        long currentTotal = total;
+        return currentTotal == 0 ? (running.get() ? 0.0 : 1.0) : (double) scanned.sum() / currentTotal;
+    }
+
+    /**
+     * Accounts scanned per second in the current (or last) sweep.
+     */
+    public double getThroughputPerSecond() {
+        long start = startNanos;
+        if (start == 0) {
+            return 0.0;
+        }
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        long elapsed = Math.max(1, end - start);
+        return scanned.sum() * 1e9 / elapsed;
+    }
+
+    private boolean sendAlert(FinedAccount finedAccount) {
+        Customer owner = controller.findOwner(finedAccount.account.getACCOUNT_ID());
+        if (owner == null) {
+            return false;
+        }
+        CheckingAccount account = finedAccount.account;
+        return controller.getAlertService().sendMinimumBalanceFineAlert(owner, account,
+                Money.toDouble(finedAccount.fineCents), account.getMinimumBalance());
+    }
+
+    private static final class FinedAccount {
+
+        private final CheckingAccount account;
+        private final long fineCents;
+
+        private FinedAccount(CheckingAccount account, long fineCents) {
+            this.account = account;
+            this.fineCents = fineCents;
+        }
+    }
+
+    private final class SweepTask extends RecursiveTask<List<FinedAccount>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Account> accounts;
+        private final int from;
+        private final int to;
+
+        SweepTask(List<Account> accounts, int from, int to) {
+            this.accounts = accounts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<FinedAccount> compute() {
+            if (to - from <= chunkSize) {
+                return sweepChunk();
+            }
+            int middle = (from + to) >>> 1;
+            SweepTask left = new SweepTask(accounts, from, middle);
+            left.fork();
+            List<FinedAccount> right = new SweepTask(accounts, middle, to).compute();
+            List<FinedAccount> result = left.join();
+            result.addAll(right);
+            return result;
+        }
+
+        private List<FinedAccount> sweepChunk() {
+            List<FinedAccount> result = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Account account = accounts.get(i);
+                if (account instanceof CheckingAccount) {
+                    CheckingAccount checking = (CheckingAccount) account;
+                    long fine = checking.applyMinimumBalanceFineIfNeededCents();
+                    if (fine > 0) {
+                        result.add(new FinedAccount(checking, fine));
+                    }
+                }
+            }
+            scanned.add(to - from);
+            fined.add(result.size());
+            return result;
+        }
+    }
+}
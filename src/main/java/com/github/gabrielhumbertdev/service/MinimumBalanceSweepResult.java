@@ -0,0 +1,71 @@
+package com.github.gabrielhumbertdev.service;
+
+import com.github.gabrielhumbertdev.util.Money;
+
+/**
+ * Outcome of one MinimumBalanceSweepJob run.
+ */
+public class MinimumBalanceSweepResult {
+
+    private final long accountsScanned;
+    private final long accountsFined;
+    private final long totalFinesCents;
+    private final long alertsSent;
+    private final long alertsFailed;
+    private final long elapsedNanos;
+
+    public MinimumBalanceSweepResult(long accountsScanned, long accountsFined, long totalFinesCents, long alertsSent,
+                                     long alertsFailed, long elapsedNanos) {
+        this.accountsScanned = accountsScanned;
+        this.accountsFined = accountsFined;
+        this.totalFinesCents = totalFinesCents;
+        this.alertsSent = alertsSent;
+        this.alertsFailed = alertsFailed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getAccountsScanned() {
+        return accountsScanned;
+    }
+
+    public long getAccountsFined() {
+        return accountsFined;
+    }
+
+    public long getTotalFinesCents() {
+        return totalFinesCents;
+    }
+
+    public double getTotalFines() {
+        return Money.toDouble(totalFinesCents);
+    }
+
+    /**
+     * Fine alerts delivered (or queued, in async alert mode).
+     */
+    public long getAlertsSent() {
+        return alertsSent;
+    }
+
+    /**
+     * Fine alerts not delivered: no owner, no email or delivery failure.
+     */
+    public long getAlertsFailed() {
+        return alertsFailed;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "MinimumBalanceSweepResult[accountsScanned=" + accountsScanned + ", accountsFined=" + accountsFined
+                + ", totalFinesCents=" + totalFinesCents + ", alertsSent=" + alertsSent + ", alertsFailed="
+                + alertsFailed + ", elapsedMillis=" + getElapsedMillis() + "]";
+    }
+}
@@ -1,9 +1,13 @@
 package com.github.gabrielhumbertdev.service;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
 import com.github.gabrielhumbertdev.model.customer.Customer;
 import com.github.gabrielhumbertdev.model.depositbox.SafetyDepositBox;
 import com.github.gabrielhumbertdev.util.EmailUtil;
+import com.github.gabrielhumbertdev.util.MessageTemplate;
 
 import jakarta.mail.MessagingException;
 
@@ -12,13 +16,41 @@ import jakarta.mail.MessagingException;
  * when a SafetyDepositBox is allocated - Customer receives email alert when a
  * SafetyDepositBox is released
  *
- * Uses EmailUtil (Jakarta Mail) and handles delivery failures.
+ * Uses EmailUtil (Jakarta Mail) and handles delivery failures (counted in
+ * BankMetrics, together with render/send latency and skipped alerts).
  */
 public class SafetyDepositBoxAlertService {
 
     private static final String SUBJECT_ALLOCATED = "Safety Deposit Box Allocated";
     private static final String SUBJECT_RELEASED = "Safety Deposit Box Released";
 
+    private static final MessageTemplate ALLOCATION_TEMPLATE = MessageTemplate.compile("Hello {name},\n\n"
+            + "Your Safety Deposit Box has been allocated successfully.\n" + "Deposit Box Details:\n"
+            + "- Box ID: {boxId}\n" + "- Status: ALLOCATED\n\n" + "Thank you for banking with us.\n"
+            + "Best regards,\n" + "Your Bank");
+
+    private static final MessageTemplate RELEASE_TEMPLATE = MessageTemplate.compile("Hello {name},\n\n"
+            + "Your Safety Deposit Box has been revoked successfully.\n" + "Deposit Box Details:\n"
+            + "- Box ID: {boxId}\n" + "- Status: REVOKED\n\n" + "Thank you for banking with us.\n"
+            + "Best regards,\n" + "Your Bank");
+
+    // Optional: sends run on this executor instead of the caller thread
+    private volatile Executor sendExecutor;
+
+    /**
+     * Sends on the given executor (e.g. TaskExecutors.shared(), one virtual
+     * thread per send on Java 21) instead of blocking the caller on SMTP. The
+     * send methods then return true once the email is accepted. Pass null to
+     * send inline again.
+     */
+    public void setSendExecutor(Executor sendExecutor) {
+        this.sendExecutor = sendExecutor;
+    }
+
+    public Executor getSendExecutor() {
+        return sendExecutor;
+    }
+
     /**
      * Sends an email alert when a deposit box is allocated to a customer. Returns
      * true if email sent successfully, false if failed.
@@ -30,18 +62,15 @@ public class SafetyDepositBoxAlertService {
 
         String to = safe(customer.getEmail());
         if (to.isEmpty()) {
+            BankMetrics.ALERTS_SKIPPED_COUNT.increment();
             return false;
         }
 
+        long renderStart = System.nanoTime();
         String message = generateAllocationMessage(customer, box);
+        BankMetrics.ALERT_RENDER_LATENCY.recordSince(renderStart);
 
-        try {
-            EmailUtil.sendEmail(to, SUBJECT_ALLOCATED, message);
-            return true;
-        } catch (MessagingException e) {
-            // delivery failure handled here
-            return false;
-        }
+        return send(to, SUBJECT_ALLOCATED, message);
     }
 
     /**
@@ -55,38 +84,58 @@ public class SafetyDepositBoxAlertService {
 
         String to = safe(customer.getEmail());
         if (to.isEmpty()) {
+            BankMetrics.ALERTS_SKIPPED_COUNT.increment();
             return false;
         }
 
+        long renderStart = System.nanoTime();
         String message = generateReleaseMessage(customer, box);
+        BankMetrics.ALERT_RENDER_LATENCY.recordSince(renderStart);
 
-        try {
-            EmailUtil.sendEmail(to, SUBJECT_RELEASED, message);
-            return true;
-        } catch (MessagingException e) {
-            // delivery failure handled here
-            return false;
-        }
+        return send(to, SUBJECT_RELEASED, message);
     }
 
     /**
      * Standard allocation message.
      */
     public String generateAllocationMessage(Customer customer, SafetyDepositBox box) {
-        return "Hello " + safe(customer.getName()) + ",\n\n"
-                + "Your Safety Deposit Box has been allocated successfully.\n" + "Deposit Box Details:\n" + "- Box ID: "
-                + box.getId() + "\n" + "- Status: ALLOCATED\n\n" + "Thank you for banking with us.\n"
-                + "Best regards,\n" + "Your Bank";
+        return ALLOCATION_TEMPLATE.begin().text(safe(customer.getName())).decimal(box.getId()).finish();
     }
 
     /**
      * Standard release message.
      */
     public String generateReleaseMessage(Customer customer, SafetyDepositBox box) {
-        return "Hello " + safe(customer.getName()) + ",\n\n"
-                + "Your Safety Deposit Box has been revoked successfully.\n" + "Deposit Box Details:\n" + "- Box ID: "
-                + box.getId() + "\n" + "- Status: REVOKED\n\n" + "Thank you for banking with us.\n" + "Best regards,\n"
-                + "Your Bank";
+        return RELEASE_TEMPLATE.begin().text(safe(customer.getName())).decimal(box.getId()).finish();
+    }
+
+    private boolean send(String to, String subject, String message) {
+        Executor executor = sendExecutor;
+        if (executor == null) {
+            return sendNow(to, subject, message);
+        }
+        try {
+            executor.execute(() -> sendNow(to, subject, message));
+            return true;
+        } catch (RejectedExecutionException e) {
+            BankMetrics.ALERTS_FAILED_COUNT.increment();
+            return false;
+        }
+    }
+
+    private boolean sendNow(String to, String subject, String message) {
+        long sendStart = System.nanoTime();
+        try {
+            EmailUtil.sendEmail(to, subject, message);
+            BankMetrics.ALERTS_SENT_COUNT.increment();
+            return true;
+        } catch (MessagingException e) {
+            // delivery failure handled here
+            BankMetrics.ALERTS_FAILED_COUNT.increment();
+            return false;
+        } finally {
+            BankMetrics.ALERT_SEND_LATENCY.recordSince(sendStart);
+        }
     }
 
     private String safe(String value) {
@@ -1,12 +1,26 @@
 package com.github.gabrielhumbertdev.service;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
 import com.github.gabrielhumbertdev.model.customer.Customer;
 import com.github.gabrielhumbertdev.model.depositbox.SafetyDepositBox;
 import com.github.gabrielhumbertdev.model.depositbox.SmallSafetyDepositBox;
 
+/**
+ * SafetyDepositBoxService
+ *
+ * Hands out a limited number of boxes; when all are allotted, callers wait
+ * until one is released. Guarded by a ReentrantLock + Condition rather than
+ * synchronized/wait(), so a waiting virtual thread unmounts from its carrier
+ * thread instead of pinning it. Alerts are sent after the lock is released.
+ */
 public class SafetyDepositBoxService {
 
     private static SafetyDepositBoxService safetyDepositBoxService;
@@ -21,8 +35,20 @@ public class SafetyDepositBoxService {
     private List<SafetyDepositBox> safetyDepositBoxes;
     private int numberOfSafetyDepositBoxes;
 
+    // Free-list of released boxes: allocate/release/count are O(1) instead of
+    // scanning every box. trackedSize detects outside changes to the box list
+    // (e.g. getSafetyDepositBoxes().clear()) so the free-list can be rebuilt.
+    // available is the live count behind getNumberOfAvailableSafetyDepositBoxes;
+    // a free box allotted from outside stays counted until it is skipped.
+    private final Deque<SafetyDepositBox> freeBoxes = new ArrayDeque<>();
+    private int trackedSize;
+    private int available;
+
     private boolean waitingFlag;
 
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition boxReleased = lock.newCondition();
+
     private SafetyDepositBoxService() {
         this.safetyDepositBoxes = new ArrayList<>();
         this.numberOfSafetyDepositBoxes = 2; // max set to TWO
@@ -32,53 +58,108 @@ public class SafetyDepositBoxService {
     public static synchronized SafetyDepositBoxService getInstance() {
         if (safetyDepositBoxService == null) {
             safetyDepositBoxService = new SafetyDepositBoxService();
+            BankMetrics.registry().gauge(BankMetrics.AVAILABLE_BOXES,
+                    safetyDepositBoxService::getNumberOfAvailableSafetyDepositBoxes);
         }
         return safetyDepositBoxService;
     }
 
-    public synchronized void setNumberOfSafetyDepositBoxes(int numberOfSafetyDepositBoxes) {
-        this.numberOfSafetyDepositBoxes = numberOfSafetyDepositBoxes;
+    public void setNumberOfSafetyDepositBoxes(int numberOfSafetyDepositBoxes) {
+        lock.lock();
+        try {
+            this.numberOfSafetyDepositBoxes = numberOfSafetyDepositBoxes;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized int getNumberOfSafetyDepositBoxes() {
-        return numberOfSafetyDepositBoxes;
+    public int getNumberOfSafetyDepositBoxes() {
+        lock.lock();
+        try {
+            return numberOfSafetyDepositBoxes;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Existing method kept for backward compatibility. Allocates a box but does NOT
      * send alerts (no customer provided).
      */
-    public synchronized SafetyDepositBox allocateSafetyDepositBox() {
-        SafetyDepositBox released = getReleasedSafetyDepositBox();
-        if (released != null) {
-            released.setAllotted(true);
-            return released;
-        }
+    public SafetyDepositBox allocateSafetyDepositBox() {
+        return allocate(-1, null);
+    }
 
-        if (safetyDepositBoxes.size() < numberOfSafetyDepositBoxes) {
-            return createNewBox();
-        }
+    /**
+     * Like allocateSafetyDepositBox(), but waits at most timeout for a box to be
+     * released; returns null if none was (or the wait was interrupted).
+     */
+    public SafetyDepositBox allocateSafetyDepositBox(long timeout, TimeUnit unit) {
+        return allocate(toWaitNanos(timeout, unit), null);
+    }
 
-        // FIX: If no boxes can ever exist, return null immediately (prevents deadlock)
-        if (numberOfSafetyDepositBoxes <= 0) {
-            return null;
+    private static long toWaitNanos(long timeout, TimeUnit unit) {
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
         }
+        return Math.max(0, unit.toNanos(timeout));
+    }
 
-        waitingFlag = true;
+    // timeoutNanos < 0 waits until a box is released; holder may be null
+    private SafetyDepositBox allocate(long timeoutNanos, Customer holder) {
+        lock.lock();
+        try {
+            SafetyDepositBox released = pollFreeBox();
+            if (released != null) {
+                released.setAllotted(true);
+                released.setHolder(holder);
+                return released;
+            }
 
-        while (true) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            if (safetyDepositBoxes.size() < numberOfSafetyDepositBoxes) {
+                SafetyDepositBox created = createNewBox();
+                created.setHolder(holder);
+                return created;
+            }
+
+            // FIX: If no boxes can ever exist, return null immediately (prevents deadlock)
+            if (numberOfSafetyDepositBoxes <= 0 || timeoutNanos == 0) {
                 return null;
             }
 
-            SafetyDepositBox box = getReleasedSafetyDepositBox();
-            if (box != null) {
-                box.setAllotted(true);
-                return box;
+            waitingFlag = true;
+
+            // Time spent blocked here (until a box is handed over or the wait is
+            // interrupted) goes into BankMetrics.BOX_ALLOCATE_WAIT_LATENCY
+            long waitStart = System.nanoTime();
+            long remaining = timeoutNanos;
+            try {
+                while (true) {
+                    try {
+                        if (timeoutNanos < 0) {
+                            boxReleased.await();
+                        } else if (remaining <= 0) {
+                            return null;
+                        } else {
+                            remaining = boxReleased.awaitNanos(remaining);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+
+                    SafetyDepositBox box = pollFreeBox();
+                    if (box != null) {
+                        box.setAllotted(true);
+                        box.setHolder(holder);
+                        return box;
+                    }
+                }
+            } finally {
+                BankMetrics.BOX_ALLOCATE_WAIT_LATENCY.recordSince(waitStart);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -86,14 +167,31 @@ public class SafetyDepositBoxService {
     // Question 4: Allocation (Allotted) + Email Alert
     // ============================
     /**
-     * Allocates a box and sends an allocation alert to the customer.
+     * Allocates a box and sends an allocation alert to the customer (outside the
+     * lock, so a slow send does not hold up other allocations).
      */
-    public synchronized SafetyDepositBox allocateSafetyDepositBox(Customer customer) {
+    public SafetyDepositBox allocateSafetyDepositBox(Customer customer) {
         if (customer == null) {
             return null;
         }
 
-        SafetyDepositBox box = allocateSafetyDepositBox(); // reuse existing logic
+        SafetyDepositBox box = allocate(-1, customer); // reuse existing logic
+        if (box != null) {
+            alertService.sendAllocationAlert(customer, box);
+        }
+        return box;
+    }
+
+    /**
+     * allocateSafetyDepositBox(customer) with a bounded wait (see
+     * allocateSafetyDepositBox(long, TimeUnit)); no alert if it times out.
+     */
+    public SafetyDepositBox allocateSafetyDepositBox(Customer customer, long timeout, TimeUnit unit) {
+        if (customer == null) {
+            return null;
+        }
+
+        SafetyDepositBox box = allocate(toWaitNanos(timeout, unit), customer);
         if (box != null) {
             alertService.sendAllocationAlert(customer, box);
         }
@@ -104,12 +202,25 @@ public class SafetyDepositBoxService {
      * Existing method kept for backward compatibility. Releases a box but does NOT
      * send alerts (no customer provided).
      */
-    public synchronized void releaseSafetyDepositBox(SafetyDepositBox box) {
+    public void releaseSafetyDepositBox(SafetyDepositBox box) {
         if (box == null) {
             return;
         }
-        box.setAllotted(false);
-        notifyAll();
+        lock.lock();
+        try {
+            syncFreeList();
+            // Only a box that was actually allotted goes back on the free-list
+            // (releasing twice must not hand the same box out twice)
+            if (box.isAllotted() && isManaged(box)) {
+                freeBoxes.push(box);
+                available++;
+            }
+            box.setAllotted(false);
+            box.setHolder(null);
+            boxReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
     // ============================
@@ -119,7 +230,7 @@ public class SafetyDepositBoxService {
      * Releases a box and sends a release/revoked alert to the customer. (Message
      * wording is handled inside SafetyDepositBoxAlertService)
      */
-    public synchronized void releaseSafetyDepositBox(Customer customer, SafetyDepositBox box) {
+    public void releaseSafetyDepositBox(Customer customer, SafetyDepositBox box) {
         if (customer == null || box == null) {
             return;
         }
@@ -128,34 +239,130 @@ public class SafetyDepositBoxService {
         alertService.sendReleaseAlert(customer, box);
     }
 
-    public synchronized int getNumberOfAvailableSafetyDepositBoxes() {
-        int count = 0;
-        for (SafetyDepositBox box : safetyDepositBoxes) {
-            if (!box.isAllotted()) {
-                count++;
-            }
+    /**
+     * Number of released boxes, in O(1). A box marked allotted from outside the
+     * service is still counted until an allocation (or this call, once it is at
+     * the head of the free-list) skips it.
+     */
+    public int getNumberOfAvailableSafetyDepositBoxes() {
+        lock.lock();
+        try {
+            syncFreeList();
+            dropStaleHead();
+            return available;
+        } finally {
+            lock.unlock();
         }
-        return count;
     }
 
-    public synchronized SafetyDepositBox getReleasedSafetyDepositBox() {
-        for (SafetyDepositBox box : safetyDepositBoxes) {
-            if (!box.isAllotted()) {
-                return box;
+    /**
+     * Returns a released (free) box without allotting it, or null if none.
+     */
+    public SafetyDepositBox getReleasedSafetyDepositBox() {
+        lock.lock();
+        try {
+            syncFreeList();
+            dropStaleHead();
+            return freeBoxes.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The box with this id (ids are 1, 2, ... in creation order), null if none.
+     * O(1): like isManaged(...), relies on id == position + 1.
+     */
+    public SafetyDepositBox findSafetyDepositBox(int id) {
+        lock.lock();
+        try {
+            int index = id - 1;
+            if (index < 0 || index >= safetyDepositBoxes.size()) {
+                return null;
             }
+            SafetyDepositBox box = safetyDepositBoxes.get(index);
+            return box != null && box.getId() == id ? box : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The customer the box was allocated to with allocateSafetyDepositBox(customer,
+     * ...), or null (free, or allocated without a customer).
+     */
+    public Customer getHolder(SafetyDepositBox box) {
+        if (box == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return box.isAllotted() ? box.getHolder() : null;
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
-    public synchronized List<SafetyDepositBox> getSafetyDepositBoxes() {
+    public List<SafetyDepositBox> getSafetyDepositBoxes() {
         return safetyDepositBoxes;
     }
 
+    /**
+     * Alert service used for allocation/release emails (e.g. to send them on
+     * virtual threads with setSendExecutor(...)).
+     */
+    public SafetyDepositBoxAlertService getAlertService() {
+        return alertService;
+    }
+
     private SafetyDepositBox createNewBox() {
+        syncFreeList();
         SafetyDepositBox box = new SmallSafetyDepositBox();
         box.setAllotted(true);
         box.setId(safetyDepositBoxes.size() + 1);
         safetyDepositBoxes.add(box);
+        trackedSize = safetyDepositBoxes.size();
+        return box;
+    }
+
+    // Takes a free box off the free-list (null if none)
+    private SafetyDepositBox pollFreeBox() {
+        syncFreeList();
+        dropStaleHead();
+        SafetyDepositBox box = freeBoxes.poll();
+        if (box != null) {
+            available--;
+        }
         return box;
     }
+
+    // Skips boxes that were marked allotted behind the service's back
+    private void dropStaleHead() {
+        while (!freeBoxes.isEmpty() && freeBoxes.peek().isAllotted()) {
+            freeBoxes.poll();
+            available--;
+        }
+    }
+
+    // Box ids are position + 1, so membership is an O(1) check
+    private boolean isManaged(SafetyDepositBox box) {
+        int index = (int) box.getId() - 1;
+        return index >= 0 && index < safetyDepositBoxes.size() && safetyDepositBoxes.get(index) == box;
+    }
+
+    // Rebuilds the free-list (one O(n) pass) only if the box list was changed
+    // outside this service
+    private void syncFreeList() {
+        if (safetyDepositBoxes.size() == trackedSize) {
+            return;
+        }
+        freeBoxes.clear();
+        for (SafetyDepositBox box : safetyDepositBoxes) {
+            if (!box.isAllotted()) {
+                freeBoxes.add(box);
+            }
+        }
+        available = freeBoxes.size();
+        trackedSize = safetyDepositBoxes.size();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.github.gabrielhumbertdev.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+
+/**
+ * TransactionAlertDigest
+ *
+ * Coalesces transaction alerts per customer: the first transaction opens a
+ * window of windowMillis, every transaction for the same customer inside that
+ * window is buffered, and when the window closes the whole list is handed to
+ * the flush handler (which sends ONE email). A digest is also flushed early
+ * once it holds maxEntries transactions.
+ */
+public class TransactionAlertDigest {
+
+    /**
+     * One buffered transaction (values captured when the alert was raised).
+     */
+    public static final class Entry {
+
+        private final long accountId;
+        private final double amount;
+        private final double newBalance;
+
+        Entry(long accountId, double amount, double newBalance) {
+            this.accountId = accountId;
+            this.amount = amount;
+            this.newBalance = newBalance;
+        }
+
+        public long getAccountId() {
+            return accountId;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public double getNewBalance() {
+            return newBalance;
+        }
+    }
+
+    private static final class Pending {
+
+        private final Customer customer;
+        private final List<Entry> entries = new ArrayList<>();
+        private ScheduledFuture<?> timer; // null if the timer could not be scheduled
+
+        private Pending(Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    private final long windowMillis;
+    private final int maxEntries;
+    private final BiConsumer<Customer, List<Entry>> flushHandler;
+
+    private final ConcurrentMap<Long, Pending> pendingByCustomer = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public TransactionAlertDigest(long windowMillis, int maxEntries, BiConsumer<Customer, List<Entry>> flushHandler) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Digest window must be positive");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (flushHandler == null) {
+            throw new IllegalArgumentException("Flush handler cannot be null");
+        }
+        this.windowMillis = windowMillis;
+        this.maxEntries = maxEntries;
+        this.flushHandler = flushHandler;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-digest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Buffers a transaction for the customer. Opens (and schedules the flush of)
+     * a new window if none is open. After close() the timer is gone, so the
+     * transaction is sent right away instead of being buffered.
+     */
+    public void add(Customer customer, Account account, double amount) {
+        long customerId = customer.getCUSTOMER_ID();
+        Entry entry = new Entry(account.getACCOUNT_ID(), amount, account.getBalance());
+        boolean[] sendNow = new boolean[1];
+
+        pendingByCustomer.compute(customerId, (id, pending) -> {
+            if (pending == null) {
+                Pending opened = new Pending(customer);
+                try {
+                    // The timer flushes this window only, never a later one
+                    opened.timer = scheduler.schedule(() -> flushWindow(id, opened), windowMillis,
+                            TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Closed (e.g. disableDigest racing this add): no window to wait for
+                    sendNow[0] = true;
+                }
+                pending = opened;
+            }
+            pending.entries.add(entry);
+            sendNow[0] |= pending.entries.size() >= maxEntries;
+            return pending;
+        });
+
+        if (sendNow[0]) {
+            flush(customerId);
+        }
+    }
+
+    /**
+     * Sends the open digest for the customer now (no-op if none is open).
+     */
+    public void flush(long customerId) {
+        send(pendingByCustomer.remove(customerId));
+    }
+
+    // Timer task: flushes the window it was scheduled for, if still open
+    private void flushWindow(long customerId, Pending window) {
+        if (pendingByCustomer.remove(customerId, window)) {
+            send(window);
+        }
+    }
+
+    private void send(Pending pending) {
+        if (pending == null) {
+            return;
+        }
+        if (pending.timer != null) {
+            pending.timer.cancel(false);
+        }
+        if (!pending.entries.isEmpty()) {
+            flushHandler.accept(pending.customer, Collections.unmodifiableList(pending.entries));
+        }
+    }
+
+    /**
+     * Sends every open digest now.
+     */
+    public void flushAll() {
+        for (Long customerId : new ArrayList<>(pendingByCustomer.keySet())) {
+            flush(customerId);
+        }
+    }
+
+    public int getOpenDigestCount() {
+        return pendingByCustomer.size();
+    }
+
+    /**
+     * Flushes every open digest and stops the window timer.
+     */
+    public void close() {
+        scheduler.shutdownNow();
+        flushAll();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.gabrielhumbertdev.util;
+
+/**
+ * Immutable outbound email (recipient, subject, body). Used when emails are
+ * queued or batched instead of being sent straight away through EmailUtil.
+ */
+public final class EmailMessage {
+
+    private final String to;
+    private final String subject;
+    private final String body;
+
+    public EmailMessage(String to, String subject, String body) {
+        this.to = to;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+}
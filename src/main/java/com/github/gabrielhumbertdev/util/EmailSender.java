@@ -0,0 +1,44 @@
+package com.github.gabrielhumbertdev.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * Strategy for delivering an EmailMessage. The default implementation delegates
+ * to EmailUtil (shared MailClient); tests and async dispatchers can plug in
+ * their own.
+ */
+public interface EmailSender {
+
+    EmailSender DEFAULT = new EmailSender() {
+        @Override
+        public void send(EmailMessage message) throws MessagingException {
+            EmailUtil.sendEmail(message.getTo(), message.getSubject(), message.getBody());
+        }
+
+        @Override
+        public List<EmailMessage> sendBatch(List<EmailMessage> messages) {
+            return EmailUtil.sendEmails(messages);
+        }
+    };
+
+    void send(EmailMessage message) throws MessagingException;
+
+    /**
+     * Sends several emails; returns the ones that failed (empty list = all sent).
+     * Implementations that hold a connection should send the batch over it.
+     */
+    default List<EmailMessage> sendBatch(List<EmailMessage> messages) {
+        List<EmailMessage> failed = new ArrayList<>();
+        for (EmailMessage message : messages) {
+            try {
+                send(message);
+            } catch (MessagingException | RuntimeException e) {
+                failed.add(message);
+            }
+        }
+        return failed;
+    }
+}
@@ -1,24 +1,67 @@
 package com.github.gabrielhumbertdev.util;
 
+import java.util.List;
 import java.util.Properties;
 
-import jakarta.mail.Authenticator;
-import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
-import jakarta.mail.PasswordAuthentication;
-import jakarta.mail.Session;
-import jakarta.mail.Transport;
-import jakarta.mail.internet.InternetAddress;
-import jakarta.mail.internet.MimeMessage;
 
 /**
  * Question 1 (3.1): Email utility used to send real-time email alerts. Uses
  * Jakarta Mail (no external API calls).
+ *
+ * All sends go through one shared MailClient, so the Session is built once and
+ * SMTP connections are reused instead of opened per message.
  */
 public class EmailUtil {
 
+    private static final int DEFAULT_MAX_CONNECTIONS = 4;
+    private static final long DEFAULT_MAX_IDLE_MILLIS = 60_000;
+
+    private static volatile MailClient client;
+
     public static void sendEmail(String to, String subject, String body) throws MessagingException {
+        getClient().send(to, subject, body);
+    }
+
+    /**
+     * Sends several emails over one pooled connection. Returns the messages that
+     * could not be delivered (empty list = all sent).
+     */
+    public static List<EmailMessage> sendEmails(List<EmailMessage> messages) {
+        try {
+            return getClient().sendBatch(messages);
+        } catch (MessagingException e) {
+            // Client could not be configured: nothing was sent
+            return messages;
+        }
+    }
+
+    /**
+     * Replaces the shared client (e.g. with real SMTP settings). The previous
+     * client's connections are closed.
+     */
+    public static synchronized void setClient(MailClient mailClient) {
+        MailClient previous = client;
+        client = mailClient;
+        if (previous != null && previous != mailClient) {
+            previous.close();
+        }
+    }
 
+    public static MailClient getClient() throws MessagingException {
+        MailClient current = client;
+        if (current != null) {
+            return current;
+        }
+        synchronized (EmailUtil.class) {
+            if (client == null) {
+                client = createDefaultClient();
+            }
+            return client;
+        }
+    }
+
+    private static MailClient createDefaultClient() throws MessagingException {
         // SMTP configuration
         Properties props = new Properties();
         props.put("mail.smtp.host", "smtp.example.com"); // placeholder
@@ -26,22 +69,7 @@ public class EmailUtil {
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
 
-        // Create mail session with authentication
-        Session session = Session.getInstance(props, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication("your-email@example.com", "your-password");
-            }
-        });
-
-        // Create message
-        Message message = new MimeMessage(session);
-        message.setFrom(new InternetAddress("your-email@example.com"));
-        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to));
-        message.setSubject(subject);
-        message.setText(body);
-
-        // Send email
-        Transport.send(message);
+        return new MailClient(props, "your-email@example.com", "your-password", DEFAULT_MAX_CONNECTIONS,
+                DEFAULT_MAX_IDLE_MILLIS);
     }
 }
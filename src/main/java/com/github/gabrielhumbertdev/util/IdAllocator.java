@@ -0,0 +1,242 @@
+package com.github.gabrielhumbertdev.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IdAllocator
+ *
+ * Hands out ids start, start + step, start + 2 * step, ... (accounts: 1000 +
+ * 5k, customers: 2_000_000 + 7k) from many threads without a shared lock.
+ *
+ * - each thread leases a block of blockSize ids with one atomic add on the
+ * shared frontier and then takes ids from its own block with no shared writes,
+ * so creation scales with the number of threads - ids are unique but only
+ * ordered within one thread; ids left in a block when a thread dies are never
+ * handed out (gaps are fine, reuse is not) - virtual threads (Java 21, usually
+ * one per task) take single ids straight from the frontier instead: a block
+ * leased by a thread that creates one object would be almost all gap
+ * - advance(...) / observe(...) move the frontier forward for restored ids and
+ * make every thread drop its current block
+ * - persistTo(...) keeps a high-water mark in a file, reserved ahead of the
+ * frontier: after a restart (or crash) allocation resumes above every id that
+ * may have been handed out
+ *
+ * observe(...) only protects ids at or above the frontier: an id restored from
+ * elsewhere that lies inside a block already leased to a thread is not
+ * detected. Restore snapshots with advance(...) first (ControllerSnapshot
+ * does).
+ *
+ * Thread-safe.
+ */
+public final class IdAllocator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+    public static final int DEFAULT_RESERVE_BLOCKS = 1024;
+
+    private final long start;
+    private final long step;
+    private final long blockSpan; // step * blockSize
+
+    // Next id no thread has leased yet
+    private final AtomicLong frontier;
+
+    // Bumped by advance(): blocks leased under an older epoch are dropped
+    private volatile long epoch;
+
+    private final ThreadLocal<Lease> leases = ThreadLocal.withInitial(Lease::new);
+
+    // High-water mark file (null = not persisted) and the mark last written to it
+    private Path markFile;
+    private long reserveSpan;
+    private volatile long persistedMark = Long.MAX_VALUE;
+
+    public IdAllocator(long start, long step) {
+        this(start, step, DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdAllocator(long start, long step, int blockSize) {
+        if (start < 0) {
+            throw new IllegalArgumentException("Start cannot be negative");
+        }
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step must be positive");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.start = start;
+        this.step = step;
+        this.blockSpan = step * blockSize;
+        this.frontier = new AtomicLong(start);
+    }
+
+    /**
+     * Next id for the calling thread.
+     */
+    public long next() {
+        if (TaskExecutors.isVirtualThread(Thread.currentThread())) {
+            return nextFromFrontier();
+        }
+        Lease lease = leases.get();
+        if (lease.next == lease.end || lease.epoch != epoch) {
+            renew(lease);
+        }
+        long id = lease.next;
+        lease.next += step;
+        return id;
+    }
+
+    /**
+     * High-water mark: every id handed out so far is below it. Snapshots persist
+     * it and pass it back to advance(...) after a restart.
+     */
+    public long getHighWaterMark() {
+        return frontier.get();
+    }
+
+    /**
+     * Every id handed out from now on is at least nextId: moves the frontier
+     * forward to nextId (rounded up onto the start + k * step grid; never
+     * backwards) and drops every thread's leased block.
+     */
+    public synchronized void advance(long nextId) {
+        long target = align(nextId);
+        long current = frontier.get();
+        while (current < target && !frontier.compareAndSet(current, target)) {
+            current = frontier.get();
+        }
+        epoch++;
+        persistAtLeast(target);
+    }
+
+    /**
+     * Records that id is in use (an object restored with its own id): ids at or
+     * above the frontier are skipped from now on. Only a volatile read when id is
+     * already below the frontier.
+     */
+    public void observe(long id) {
+        if (id >= frontier.get()) {
+            advance(id + step);
+        }
+    }
+
+    // ============================
+    // High-water mark persistence
+    // ============================
+
+    /**
+     * persistTo(file, DEFAULT_RESERVE_BLOCKS).
+     */
+    public void persistTo(Path file) throws IOException {
+        persistTo(file, DEFAULT_RESERVE_BLOCKS);
+    }
+
+    /**
+     * Persists the high-water mark to file from now on. If the file exists, its
+     * mark is read first and the frontier advanced to it. The mark written is
+     * reserveBlocks blocks ahead of the frontier, so the file is only rewritten
+     * once every reserveBlocks leases.
+     */
+    public synchronized void persistTo(Path file, int reserveBlocks) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        if (reserveBlocks <= 0) {
+            throw new IllegalArgumentException("Reserve must be positive");
+        }
+        if (Files.exists(file)) {
+            advance(readMark(file));
+        }
+        markFile = file;
+        reserveSpan = blockSpan * reserveBlocks;
+        persistedMark = Long.MIN_VALUE;
+        persistAtLeast(frontier.get());
+    }
+
+    /**
+     * Mark stored in a high-water mark file (see persistTo(...)).
+     */
+    public static long readMark(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length != Long.BYTES) {
+            throw new IOException(file + ": corrupt id high-water mark");
+        }
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    // ============================
+    // Internals
+    // ============================
+    private void renew(Lease lease) {
+        // Epoch before the add: an advance() racing with us then forces one more renew
+        long currentEpoch = epoch;
+        long blockStart = frontier.getAndAdd(blockSpan);
+        long blockEnd = blockStart + blockSpan;
+        if (blockEnd > persistedMark) {
+            persistAtLeast(blockEnd);
+        }
+        lease.next = blockStart;
+        lease.end = blockEnd;
+        lease.epoch = currentEpoch;
+    }
+
+    // One id, no lease (virtual threads)
+    private long nextFromFrontier() {
+        long id = frontier.getAndAdd(step);
+        if (id + step > persistedMark) {
+            persistAtLeast(id + step);
+        }
+        return id;
+    }
+
+    // Makes sure the file says at least `end` before ids below it are handed out
+    private synchronized void persistAtLeast(long end) {
+        if (markFile == null || end <= persistedMark) {
+            return;
+        }
+        long mark = align(end + reserveSpan);
+        try {
+            writeMark(markFile, mark);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot persist id high-water mark to " + markFile, e);
+        }
+        persistedMark = mark;
+    }
+
+    private static void writeMark(Path file, long mark) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, mark);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Smallest id on the grid that is >= value
+    private long align(long value) {
+        if (value <= start) {
+            return start;
+        }
+        long steps = (value - start + step - 1) / step;
+        return start + steps * step;
+    }
+
+    // Per-thread block [next, end)
+    private static final class Lease {
+        long next;
+        long end;
+        long epoch = -1;
+    }
+}
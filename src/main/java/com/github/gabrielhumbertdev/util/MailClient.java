@@ -0,0 +1,323 @@
+package com.github.gabrielhumbertdev.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.mail.Authenticator;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.PasswordAuthentication;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * MailClient
+ *
+ * SMTP client that is configured once and reuses its connections: - one
+ * Session (properties + Authenticator) per client - a small pool of connected
+ * Transport instances, borrowed per send or per batch - batches are sent with
+ * sendMessage(...) over a single open connection - stale connections (closed by
+ * the server or idle too long) are reconnected transparently
+ *
+ * The pool works on Connection (a Transport of the Session here); the
+ * package-private ConnectionFactory constructor lets tests pool in-memory
+ * connections without an SMTP server.
+ *
+ * Thread-safe: each Transport is used by one thread at a time.
+ */
+public class MailClient implements EmailSender {
+
+    private static final long BORROW_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * One SMTP connection as the pool sees it (a Transport in production, an
+     * in-memory fake in tests).
+     */
+    interface Connection {
+
+        boolean isConnected();
+
+        void connect() throws MessagingException;
+
+        void send(EmailMessage message) throws MessagingException;
+
+        /**
+         * Closes the connection, ignoring errors (it may already be broken).
+         */
+        void close();
+    }
+
+    /**
+     * Creates a new, not yet connected, Connection.
+     */
+    interface ConnectionFactory {
+        Connection create() throws MessagingException;
+    }
+
+    private final Session session; // null when built from a ConnectionFactory
+    private final InternetAddress from;
+    private final ConnectionFactory connections;
+    private final int maxConnections;
+    private final long maxIdleMillis;
+
+    private final BlockingQueue<PooledConnection> idle;
+    private final AtomicInteger created = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    /**
+     * @param smtpProperties Jakarta Mail properties (mail.smtp.host, port, ...)
+     * @param username       SMTP login (also used as From address)
+     * @param password       SMTP password
+     * @param maxConnections size of the connection pool
+     * @param maxIdleMillis  connections idle longer than this are re-opened before
+     *                       use (servers usually drop idle SMTP sessions)
+     */
+    public MailClient(Properties smtpProperties, String username, String password, int maxConnections,
+                      long maxIdleMillis) throws MessagingException {
+        if (smtpProperties == null) {
+            throw new IllegalArgumentException("SMTP properties cannot be null");
+        }
+        checkMaxConnections(maxConnections);
+
+        Properties props = new Properties();
+        props.putAll(smtpProperties);
+        this.session = Session.getInstance(props, new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(username, password);
+            }
+        });
+        this.from = new InternetAddress(username);
+        this.connections = () -> new TransportConnection(session.getTransport("smtp"));
+        this.maxConnections = maxConnections;
+        this.maxIdleMillis = maxIdleMillis;
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+    }
+
+    // Pool over any kind of connection (no Session): used by the tests
+    MailClient(ConnectionFactory connections, int maxConnections, long maxIdleMillis) {
+        checkMaxConnections(maxConnections);
+        this.session = null;
+        this.from = null;
+        this.connections = connections;
+        this.maxConnections = maxConnections;
+        this.maxIdleMillis = maxIdleMillis;
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+    }
+
+    private static void checkMaxConnections(int maxConnections) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Max connections must be positive");
+        }
+    }
+
+    /**
+     * The client's Session (null for a client built over a ConnectionFactory).
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Sends one email over a pooled connection.
+     */
+    public void send(String to, String subject, String body) throws MessagingException {
+        send(new EmailMessage(to, subject, body));
+    }
+
+    @Override
+    public void send(EmailMessage message) throws MessagingException {
+        PooledConnection connection = borrow();
+        try {
+            sendOver(connection, message);
+        } finally {
+            giveBack(connection);
+        }
+    }
+
+    /**
+     * Sends all emails over one connection. Failures do not stop the batch; the
+     * messages that could not be delivered are returned (empty list = all sent).
+     */
+    @Override
+    public List<EmailMessage> sendBatch(List<EmailMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<EmailMessage> failed = new ArrayList<>();
+        PooledConnection connection;
+        try {
+            connection = borrow();
+        } catch (MessagingException e) {
+            // No connection at all: the whole batch failed
+            return new ArrayList<>(messages);
+        }
+
+        try {
+            for (EmailMessage message : messages) {
+                try {
+                    sendOver(connection, message);
+                } catch (MessagingException | RuntimeException e) {
+                    failed.add(message);
+                }
+            }
+        } finally {
+            giveBack(connection);
+        }
+        return failed;
+    }
+
+    /**
+     * Closes every pooled connection. Connections currently borrowed are closed
+     * when they are returned.
+     */
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            discard(connection);
+        }
+    }
+
+    private MimeMessage createMessage(String to, String subject, String body) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(from);
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to));
+        message.setSubject(subject);
+        message.setText(body);
+        message.saveChanges();
+        return message;
+    }
+
+    // Sends over the connection; if it went stale mid-way, reconnect once and retry
+    private void sendOver(PooledConnection pooled, EmailMessage message) throws MessagingException {
+        ensureConnected(pooled);
+        try {
+            pooled.connection.send(message);
+        } catch (MessagingException | IllegalStateException e) {
+            if (pooled.connection.isConnected()) {
+                // Server rejected the message itself (bad recipient etc.): not a connection problem
+                throw e;
+            }
+            ensureConnected(pooled);
+            pooled.connection.send(message);
+        }
+        pooled.lastUsed = System.currentTimeMillis();
+    }
+
+    private void ensureConnected(PooledConnection pooled) throws MessagingException {
+        boolean tooIdle = maxIdleMillis > 0 && System.currentTimeMillis() - pooled.lastUsed > maxIdleMillis;
+        if (tooIdle && pooled.connection.isConnected()) {
+            pooled.connection.close();
+        }
+        if (!pooled.connection.isConnected()) {
+            pooled.connection.connect();
+            pooled.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    private PooledConnection borrow() throws MessagingException {
+        if (closed) {
+            throw new MessagingException("Mail client is closed");
+        }
+
+        PooledConnection pooled = idle.poll();
+        if (pooled != null) {
+            return pooled;
+        }
+
+        // Grow the pool up to maxConnections, then wait for a free connection
+        while (true) {
+            int current = created.get();
+            if (current >= maxConnections) {
+                break;
+            }
+            if (created.compareAndSet(current, current + 1)) {
+                try {
+                    return new PooledConnection(connections.create());
+                } catch (MessagingException | RuntimeException e) {
+                    // No connection was created: give the slot back or the pool shrinks for good
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+
+        try {
+            pooled = idle.poll(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection");
+        }
+        if (pooled == null) {
+            throw new MessagingException("Timed out waiting for an SMTP connection");
+        }
+        return pooled;
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        if (closed || !idle.offer(pooled)) {
+            discard(pooled);
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        pooled.connection.close();
+        created.decrementAndGet();
+    }
+
+    // Connection over a Jakarta Mail Transport of this client's Session
+    private final class TransportConnection implements Connection {
+
+        private final Transport transport;
+
+        private TransportConnection(Transport transport) {
+            this.transport = transport;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return transport.isConnected();
+        }
+
+        @Override
+        public void connect() throws MessagingException {
+            transport.connect();
+        }
+
+        @Override
+        public void send(EmailMessage message) throws MessagingException {
+            MimeMessage mime = createMessage(message.getTo(), message.getSubject(), message.getBody());
+            transport.sendMessage(mime, mime.getAllRecipients());
+        }
+
+        @Override
+        public void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                // already broken: nothing else to do
+            }
+        }
+    }
+
+    private static final class PooledConnection {
+
+        private final Connection connection;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+}
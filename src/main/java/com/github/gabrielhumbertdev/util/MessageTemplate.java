@@ -0,0 +1,157 @@
+package com.github.gabrielhumbertdev.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-compiled message template. The pattern is split once into literal text
+ * and {placeholders}; rendering appends literals and values into a reusable
+ * per-thread buffer, so the only object created per message is the result
+ * String.
+ *
+ * Values are supplied in placeholder order:
+ *
+ * <pre>
+ * String body = TEMPLATE.begin().text(name).money(amount).number(accountId).finish();
+ * </pre>
+ *
+ * Money values are formatted like DecimalFormat("0.00") (see MoneyFormat).
+ * Templates are immutable and can be shared between threads.
+ */
+public final class MessageTemplate {
+
+    // Buffers that grew past this (huge names, long digests) are not kept
+    private static final int MAX_RETAINED_CAPACITY = 8 * 1024;
+
+    private final String pattern;
+    private final String[] literals; // literals[i] comes before placeholder i
+    private final String[] placeholders;
+    private final int estimatedLength;
+
+    private final ThreadLocal<Renderer> renderers = ThreadLocal.withInitial(() -> new Renderer(this));
+
+    private MessageTemplate(String pattern, String[] literals, String[] placeholders) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.placeholders = placeholders;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length + placeholders.length * 16;
+    }
+
+    /**
+     * Parses pattern. Placeholders are written {name}; names are only used for
+     * readability and error messages.
+     */
+    public static MessageTemplate compile(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null");
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = pattern.indexOf('{', position);
+            if (open < 0) {
+                literals.add(pattern.substring(position));
+                break;
+            }
+            int close = pattern.indexOf('}', open + 1);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at index " + open + ": " + pattern);
+            }
+            literals.add(pattern.substring(position, open));
+            placeholders.add(pattern.substring(open + 1, close));
+            position = close + 1;
+        }
+
+        return new MessageTemplate(pattern, literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    public int getPlaceholderCount() {
+        return placeholders.length;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Starts a message on the calling thread's buffer. Calling begin() again on
+     * the same thread discards any message of this template not yet finished.
+     */
+    public Renderer begin() {
+        Renderer renderer = renderers.get();
+        renderer.start();
+        return renderer;
+    }
+
+    /**
+     * Fills placeholders of one message in order. Obtained from begin(); not to
+     * be shared between threads.
+     */
+    public static final class Renderer {
+
+        private final MessageTemplate template;
+        private StringBuilder buffer;
+        private int next;
+
+        private Renderer(MessageTemplate template) {
+            this.template = template;
+            this.buffer = new StringBuilder(template.estimatedLength);
+        }
+
+        private void start() {
+            next = 0;
+            buffer.setLength(0);
+            buffer.append(template.literals[0]);
+        }
+
+        public Renderer text(String value) {
+            buffer.append(value);
+            return advance();
+        }
+
+        public Renderer number(long value) {
+            buffer.append(value);
+            return advance();
+        }
+
+        // Same text as string concatenation of a double (Double.toString)
+        public Renderer decimal(double value) {
+            buffer.append(value);
+            return advance();
+        }
+
+        public Renderer money(double value) {
+            MoneyFormat.appendTo(buffer, value);
+            return advance();
+        }
+
+        /**
+         * Returns the rendered message and releases the buffer for reuse.
+         */
+        public String finish() {
+            if (next != template.placeholders.length) {
+                throw new IllegalStateException("Missing value for {" + template.placeholders[next] + "}");
+            }
+            String message = buffer.toString();
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                buffer = new StringBuilder(template.estimatedLength);
+            }
+            return message;
+        }
+
+        private Renderer advance() {
+            if (next >= template.placeholders.length) {
+                throw new IllegalStateException("Too many values for template: " + template.pattern);
+            }
+            buffer.append(template.literals[++next]);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.gabrielhumbertdev.util;
+
+/**
+ * Money helpers for the fixed-point representation: amounts are primitive long
+ * minor units (cents), so arithmetic is exact and allocation-free.
+ *
+ * Rounding rules: - double -> cents: nearest cent, halves away from zero -
+ * interest / rates: nearest cent, halves to even (banker's rounding)
+ */
+public final class Money {
+
+    public static final long CENTS_PER_UNIT = 100;
+
+    /**
+     * Interest rates are held as micro-percent: 1% == 1_000_000 (so 5.25% ==
+     * 5_250_000). Six decimal places of a percent is finer than any published
+     * rate.
+     */
+    public static final long RATE_MICROS_PER_PERCENT = 1_000_000L;
+
+    // cents * rateMicros / RATE_DIVISOR == interest in cents
+    private static final long RATE_DIVISOR = CENTS_PER_UNIT * RATE_MICROS_PER_PERCENT;
+
+    // Largest amount that still converts to cents exactly (2^53 / 100)
+    private static final double MAX_CONVERTIBLE = 9.0e13;
+
+    private Money() {
+    }
+
+    /**
+     * True if the double amount is finite and small enough to convert to cents
+     * without losing precision.
+     */
+    public static boolean isConvertible(double amount) {
+        return Double.isFinite(amount) && Math.abs(amount) <= MAX_CONVERTIBLE;
+    }
+
+    /**
+     * Converts a decimal amount to cents (nearest cent, halves away from zero).
+     * Callers must check isConvertible(...) first.
+     */
+    public static long toCents(double amount) {
+        if (!isConvertible(amount)) {
+            throw new IllegalArgumentException("Amount cannot be represented in cents: " + amount);
+        }
+        long cents = Math.round(Math.abs(amount) * CENTS_PER_UNIT);
+        return amount < 0 ? -cents : cents;
+    }
+
+    /**
+     * Compatibility adapter for the double-based API.
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Converts a percentage (5.0 == 5%) to micro-percent. Callers must check
+     * Double.isFinite(...) first.
+     */
+    public static long toRateMicros(double percent) {
+        return Math.round(percent * RATE_MICROS_PER_PERCENT);
+    }
+
+    /**
+     * Interest on a balance: cents * rate%, rounded to the nearest cent with
+     * halves to even. Exact for every balance; throws ArithmeticException only if
+     * the result itself does not fit in a long.
+     */
+    public static long applyRate(long cents, long rateMicros) {
+        // Split the balance so the intermediate product cannot overflow:
+        // cents = whole * RATE_DIVISOR + rest -> whole * rate is exact, rest * rate < 1e8 * rate
+        long whole = Math.floorDiv(cents, RATE_DIVISOR);
+        long rest = Math.floorMod(cents, RATE_DIVISOR);
+        long partial = Math.multiplyExact(rest, rateMicros);
+
+        long quotient = Math.addExact(Math.multiplyExact(whole, rateMicros), Math.floorDiv(partial, RATE_DIVISOR));
+        long remainder = Math.floorMod(partial, RATE_DIVISOR);
+        return roundHalfEven(quotient, remainder, RATE_DIVISOR);
+    }
+
+    // quotient + remainder / divisor, rounded to nearest with halves to even
+    private static long roundHalfEven(long quotient, long remainder, long divisor) {
+        long twice = remainder * 2;
+        if (twice > divisor || (twice == divisor && (quotient & 1) != 0)) {
+            return Math.addExact(quotient, 1);
+        }
+        return quotient;
+    }
+}
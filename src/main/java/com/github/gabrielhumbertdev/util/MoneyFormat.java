@@ -0,0 +1,126 @@
+package com.github.gabrielhumbertdev.util;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formats amounts exactly like new DecimalFormat("0.00") in the default locale,
+ * but appends into a caller's StringBuilder without creating objects and is
+ * safe to use from any thread.
+ *
+ * Rounding is HALF_EVEN on the exact binary value of the double (as
+ * DecimalFormat does since Java 8), so 0.125 -> "0.12" and 1.005 -> "1.00".
+ * Negative values that round to zero keep their sign ("-0.00"). NaN, infinity
+ * and amounts of 1e11 or more go through a per-thread DecimalFormat: for very
+ * large values DecimalFormat works from the shortest decimal representation
+ * (Double.toString digits), which can differ from the exact binary value in
+ * the cents.
+ */
+public final class MoneyFormat {
+
+    // Below this a double is precise to far less than a cent, so rounding the
+    // exact binary value and DecimalFormat's digit-based rounding always agree
+    private static final double MAX_FAST_PATH = 1e11;
+
+    private static final int MANTISSA_BITS = 52;
+    private static final long MANTISSA_MASK = (1L << MANTISSA_BITS) - 1;
+    private static final int EXPONENT_BIAS = 1075; // 1023 + 52
+
+    // Captured once, like the shared DecimalFormat this replaces
+    private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance();
+    private static final char ZERO_DIGIT = SYMBOLS.getZeroDigit();
+    private static final char DECIMAL_SEPARATOR = SYMBOLS.getDecimalSeparator();
+    private static final char MINUS_SIGN = SYMBOLS.getMinusSign();
+
+    private static final ThreadLocal<DecimalFormat> FALLBACK = ThreadLocal
+            .withInitial(() -> new DecimalFormat("0.00"));
+
+    private MoneyFormat() {
+    }
+
+    /**
+     * Same result as new DecimalFormat("0.00").format(value).
+     */
+    public static String format(double value) {
+        return appendTo(new StringBuilder(24), value).toString();
+    }
+
+    /**
+     * Appends value formatted as "0.00" to out and returns out.
+     */
+    public static StringBuilder appendTo(StringBuilder out, double value) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude < MAX_FAST_PATH)) {
+            // NaN, infinity, huge amounts: rare enough to take the slow path
+            return out.append(FALLBACK.get().format(value));
+        }
+
+        // DecimalFormat prints the sign for -0.0 and for tiny negative values too
+        if (value < 0.0 || (value == 0.0 && Double.doubleToRawLongBits(value) != 0L)) {
+            out.append(MINUS_SIGN);
+        }
+        appendCents(out, toCentsHalfEven(magnitude));
+        return out;
+    }
+
+    // Exact HALF_EVEN rounding of magnitude * 100 (magnitude finite, >= 0, < 1e11)
+    private static long toCentsHalfEven(double magnitude) {
+        long bits = Double.doubleToRawLongBits(magnitude);
+        int biasedExponent = (int) (bits >>> MANTISSA_BITS);
+        long mantissa = bits & MANTISSA_MASK;
+        int exponent;
+        if (biasedExponent == 0) {
+            exponent = 1 - EXPONENT_BIAS; // subnormal
+        } else {
+            mantissa |= 1L << MANTISSA_BITS;
+            exponent = biasedExponent - EXPONENT_BIAS;
+        }
+
+        // magnitude == mantissa * 2^exponent, mantissa < 2^53 -> mantissa * 100 < 2^60.
+        // magnitude < 1e11 < 2^52, so the exponent is always negative here
+        long scaled = mantissa * 100;
+        int shift = -exponent;
+        if (shift > 60) {
+            return 0; // below half a cent
+        }
+
+        long cents = scaled >>> shift;
+        long remainder = scaled & ((1L << shift) - 1);
+        long half = 1L << (shift - 1);
+        if (remainder > half || (remainder == half && (cents & 1) != 0)) {
+            cents++;
+        }
+        return cents;
+    }
+
+    // Appends cents >= 0 as <units><separator><2 digits>, using the locale's digits
+    private static void appendCents(StringBuilder out, long cents) {
+        long units = cents / 100;
+        int fraction = (int) (cents % 100);
+
+        if (units == 0) {
+            out.append(ZERO_DIGIT);
+        } else {
+            int start = out.length();
+            while (units > 0) {
+                out.append(digit((int) (units % 10)));
+                units /= 10;
+            }
+            reverse(out, start, out.length() - 1);
+        }
+
+        out.append(DECIMAL_SEPARATOR).append(digit(fraction / 10)).append(digit(fraction % 10));
+    }
+
+    private static char digit(int value) {
+        return (char) (ZERO_DIGIT + value);
+    }
+
+    private static void reverse(StringBuilder out, int from, int to) {
+        while (from < to) {
+            char tmp = out.charAt(from);
+            out.setCharAt(from++, out.charAt(to));
+            out.setCharAt(to--, tmp);
+        }
+    }
+}
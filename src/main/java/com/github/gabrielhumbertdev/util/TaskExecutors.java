@@ -0,0 +1,161 @@
+package com.github.gabrielhumbertdev.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TaskExecutors
+ *
+ * Executors for blocking work (SMTP sends, transactions that wait on I/O).
+ *
+ * - on Java 21+ every task gets its own virtual thread, so tens of thousands
+ * of tasks can block at once on a few carrier threads - looked up by
+ * reflection, so the code still compiles and runs on Java 8
+ * - on older JVMs (or with -Dbanking.virtualThreads=false) the fallback is a
+ * bounded pool of daemon platform threads (DEFAULT_MAX_PLATFORM_THREADS, then
+ * a queue of DEFAULT_QUEUE_CAPACITY tasks); beyond that execute(...) throws
+ * RejectedExecutionException instead of starting threads until the JVM runs
+ * out of memory
+ */
+public final class TaskExecutors {
+
+    /**
+     * System property: "false" forces the platform-thread fallback on Java 21+.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "banking.virtualThreads";
+
+    public static final int DEFAULT_MAX_PLATFORM_THREADS = 256;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final long IDLE_THREAD_SECONDS = 60;
+
+    // Executors.newVirtualThreadPerTaskExecutor() when the JVM has it, else null
+    private static final MethodHandle NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    // Thread.isVirtual() when the JVM has it, else null
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * True if this JVM supports virtual threads (Java 21+).
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * True if newPerTaskExecutor(...) hands out virtual threads.
+     */
+    public static boolean usesVirtualThreads() {
+        return isVirtualThreadSupported() && !"false".equalsIgnoreCase(System.getProperty(VIRTUAL_THREADS_PROPERTY));
+    }
+
+    /**
+     * True if thread is a virtual thread (always false before Java 21).
+     */
+    public static boolean isVirtualThread(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * One virtual thread per task when available, otherwise a bounded pool of
+     * daemon threads named namePrefix-1, namePrefix-2, ... (see the class
+     * comment). The caller owns the executor and shuts it down.
+     */
+    public static ExecutorService newPerTaskExecutor(String namePrefix) {
+        return newPerTaskExecutor(namePrefix, DEFAULT_MAX_PLATFORM_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * As newPerTaskExecutor(namePrefix), with the limits of the platform-thread
+     * fallback: at most maxPlatformThreads threads (idle ones exit after a
+     * minute), then up to queueCapacity waiting tasks, then
+     * RejectedExecutionException. Virtual threads are not limited.
+     */
+    public static ExecutorService newPerTaskExecutor(String namePrefix, int maxPlatformThreads, int queueCapacity) {
+        if (namePrefix == null || namePrefix.trim().isEmpty()) {
+            throw new IllegalArgumentException("Thread name prefix cannot be null or empty");
+        }
+        if (maxPlatformThreads <= 0) {
+            throw new IllegalArgumentException("Max platform threads must be positive");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("Queue capacity cannot be negative");
+        }
+        if (usesVirtualThreads()) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke();
+            } catch (Throwable e) {
+                // fall through to platform threads
+            }
+        }
+        // core == max: a new thread per task up to the limit, then the queue
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxPlatformThreads, maxPlatformThreads,
+                IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                queueCapacity == 0 ? new SynchronousQueue<>() : new LinkedBlockingQueue<>(queueCapacity),
+                daemonThreads(namePrefix), (task, executor) -> {
+                    throw new RejectedExecutionException(namePrefix + ": all " + maxPlatformThreads
+                            + " threads busy and " + queueCapacity + " tasks queued");
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Process-wide per-task executor (created on first use, never shut down; its
+     * threads do not keep the JVM alive).
+     */
+    public static ExecutorService shared() {
+        return Shared.EXECUTOR;
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+                    MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle findVirtualExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    // Lazy holder
+    private static final class Shared {
+        static final ExecutorService EXECUTOR = newPerTaskExecutor("banking-task");
+    }
+}
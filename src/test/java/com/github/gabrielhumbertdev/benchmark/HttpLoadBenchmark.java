@@ -0,0 +1,147 @@
+package com.github.gabrielhumbertdev.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.gabrielhumbertdev.http.BankHttpServer;
+import com.github.gabrielhumbertdev.metrics.LatencyHistogram;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.service.AccountController;
+import com.github.gabrielhumbertdev.service.SafetyDepositBoxService;
+import com.github.gabrielhumbertdev.util.TaskExecutors;
+
+/**
+ * Local load test of BankHttpServer (not a unit test: run main manually).
+ *
+ * Each client thread loops over keep-alive HTTP/1.1 requests: a deposit to its
+ * own account, then a balance lookup (1:1). For every concurrency level the
+ * run prints requests/s and client-side latency percentiles.
+ *
+ * Usage: HttpLoadBenchmark [secondsPerLevel] [maxConcurrency] [serverThreads]
+ * serverThreads 0 (default) = TaskExecutors.shared() (virtual threads on
+ * Java 21+), otherwise a fixed pool of that size.
+ */
+public class HttpLoadBenchmark {
+
+    private static final byte[] DEPOSIT_BODY = "{\"amount\":1}".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int maxConcurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int serverThreads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        // Keep the client connection pool as large as the biggest level
+        System.setProperty("http.maxConnections", Integer.toString(maxConcurrency));
+
+        AccountController controller = new AccountController();
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < maxConcurrency; i++) {
+            Customer customer = controller.createCustomer("Customer " + i, i + " Main Street", "person");
+            Account account = controller.createAccount(customer, "checking");
+            accountIds.add(account.getACCOUNT_ID()); // no email: alerts are skipped
+        }
+
+        ExecutorService serverExecutor = serverThreads > 0 ? Executors.newFixedThreadPool(serverThreads) : null;
+        BankHttpServer server = BankHttpServer.create(controller, SafetyDepositBoxService.getInstance(),
+                new InetSocketAddress("127.0.0.1", 0),
+                serverExecutor != null ? serverExecutor : TaskExecutors.shared());
+        server.start();
+        String base = "http://127.0.0.1:" + server.getPort() + "/accounts/";
+        System.out.println("server executor: " + (serverExecutor != null ? serverThreads + " threads"
+                : TaskExecutors.usesVirtualThreads() ? "virtual threads" : "platform thread pool"));
+
+        try {
+            runLevel(base, accountIds, 1, 1); // warm-up
+            System.out.printf("%-12s %12s %10s %10s %10s%n", "concurrency", "requests/s", "p50 us", "p99 us",
+                    "max us");
+            for (int concurrency = 1; concurrency <= maxConcurrency; concurrency *= 2) {
+                runLevel(base, accountIds, concurrency, seconds);
+            }
+        } finally {
+            server.stop(0);
+            if (serverExecutor != null) {
+                serverExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private static void runLevel(String base, List<Long> accountIds, int concurrency, int seconds)
+            throws Exception {
+        LatencyHistogram latency = new LatencyHistogram("http.client");
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> running = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            String account = base + accountIds.get(c);
+            URL deposit = new URL(account + "/deposit");
+            URL balance = new URL(account);
+            running.add(clients.submit(() -> {
+                boolean depositNext = true;
+                while (System.nanoTime() < deadline) {
+                    long requestStart = System.nanoTime();
+                    try {
+                        int status = depositNext ? request(deposit, DEPOSIT_BODY) : request(balance, null);
+                        if (status != 200) {
+                            errors.increment();
+                        }
+                    } catch (IOException e) {
+                        errors.increment();
+                    }
+                    latency.recordSince(requestStart);
+                    depositNext = !depositNext;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> client : running) {
+            client.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        System.out.printf("%-12d %12.0f %10d %10d %10d%s%n", concurrency,
+                snapshot.getCount() * 1e9 / elapsed,
+                snapshot.getPercentileNanos(50) / 1_000,
+                snapshot.getPercentileNanos(99) / 1_000,
+                snapshot.getMaxNanos() / 1_000,
+                errors.sum() == 0 ? "" : "  errors=" + errors.sum());
+    }
+
+    // One request; the body is read to the end so the connection is reused
+    private static int request(URL url, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        int status = connection.getResponseCode();
+        byte[] buffer = new byte[256];
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            while (in != null && in.read(buffer) > 0) {
+                // drain
+            }
+        }
+        return status;
+    }
+}
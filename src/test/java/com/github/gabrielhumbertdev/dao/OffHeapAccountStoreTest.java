@@ -0,0 +1,280 @@
+package com.github.gabrielhumbertdev.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+
+//Off-heap store: slot reuse, id index, crash-safe reopen
+public class OffHeapAccountStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void createReadDelete_inMemory() throws IOException {
+        try (OffHeapAccountStore store = OffHeapAccountStore.inMemory()) {
+            SavingsAccount savings = new SavingsAccount();
+            savings.setInterestRate(2.5);
+            savings.deposit(123.45);
+            CheckingAccount checking = new CheckingAccount();
+            checking.setNextCheckNumber(42);
+
+            store.createAccount(savings);
+            store.createAccount(checking);
+
+            SavingsAccount loaded = (SavingsAccount) store.readAccount(savings.getACCOUNT_ID());
+            assertEquals(12_345, loaded.getBalanceCents());
+            assertEquals(2.5, loaded.getInterestRate());
+            assertEquals(42, ((CheckingAccount) store.readAccount(checking.getACCOUNT_ID())).getNextCheckNumber());
+            assertEquals(2, store.readAccounts().size());
+
+            store.deleteAccount(savings);
+
+            assertNull(store.readAccount(savings.getACCOUNT_ID()));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    public void deletedSlot_isReusedByNextCreate() throws IOException {
+        Path file = tempDir.resolve("accounts.dat");
+        try (OffHeapAccountStore store = OffHeapAccountStore.open(file, 4)) {
+            Account first = store.createAccount(new CheckingAccount());
+            store.createAccount(new CheckingAccount());
+            store.deleteAccount(first);
+            store.createAccount(new SavingsAccount());
+        }
+
+        // Two slots used (header + one 4-slot chunk): no growth after reuse
+        assertEquals(OffHeapAccountStore.HEADER_SIZE + 4L * OffHeapAccountStore.SLOT_SIZE, Files.size(file));
+    }
+
+    @Test
+    public void reopen_restoresAccountsAcrossChunks() throws IOException {
+        Path file = tempDir.resolve("accounts.dat");
+        CheckingAccount updated = new CheckingAccount();
+        long deletedId;
+        try (OffHeapAccountStore store = OffHeapAccountStore.open(file, 4)) {
+            for (int i = 0; i < 10; i++) {
+                CheckingAccount account = new CheckingAccount();
+                account.setBalanceCents(i * 100L);
+                store.createAccount(account);
+            }
+            store.createAccount(updated);
+            updated.deposit(99.99);
+            assertTrue(store.updateAccount(updated));
+
+            deletedId = store.readAccounts().get(0).getACCOUNT_ID();
+            store.deleteAccount(store.readAccount(deletedId));
+        }
+
+        try (OffHeapAccountStore reopened = OffHeapAccountStore.open(file)) {
+            List<Account> accounts = reopened.readAccounts();
+
+            assertEquals(10, accounts.size());
+            assertFalse(reopened.contains(deletedId));
+            assertEquals(9_999, reopened.readAccount(updated.getACCOUNT_ID()).getBalanceCents());
+            assertEquals(0, reopened.getCorruptSlotCount());
+        }
+    }
+
+    @Test
+    public void reopen_dropsHalfWrittenRecord() throws IOException {
+        Path file = tempDir.resolve("accounts.dat");
+        CheckingAccount kept = new CheckingAccount();
+        CheckingAccount torn = new CheckingAccount();
+        try (OffHeapAccountStore store = OffHeapAccountStore.open(file)) {
+            store.createAccount(kept);
+            store.createAccount(torn);
+        }
+
+        // Simulate a crash in the middle of creating slot 1: balance changed, checksum not
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(OffHeapAccountStore.HEADER_SIZE + OffHeapAccountStore.SLOT_SIZE + 16);
+            raw.writeLong(777L);
+        }
+
+        try (OffHeapAccountStore reopened = OffHeapAccountStore.open(file)) {
+            assertEquals(1, reopened.getCorruptSlotCount());
+            assertTrue(reopened.contains(kept.getACCOUNT_ID()));
+            assertFalse(reopened.contains(torn.getACCOUNT_ID()));
+
+            // The discarded slot is free for the next account
+            reopened.createAccount(new SavingsAccount());
+            assertEquals(2, reopened.size());
+        }
+    }
+
+    @Test
+    public void reopen_finishesUpdateCutShortAfterItsRedoRecord() throws IOException {
+        Path file = tempDir.resolve("accounts.dat");
+        CheckingAccount account = new CheckingAccount();
+        try (OffHeapAccountStore store = OffHeapAccountStore.open(file)) {
+            store.createAccount(account);
+            account.deposit(200);
+            store.updateAccount(account);
+        }
+
+        // Crash while copying the committed redo record over slot 0
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(OffHeapAccountStore.H_REDO_STATE);
+            raw.writeByte(OffHeapAccountStore.REDO_PENDING);
+            raw.seek(OffHeapAccountStore.HEADER_SIZE + 16);
+            raw.writeLong(777L);
+        }
+
+        try (OffHeapAccountStore reopened = OffHeapAccountStore.open(file)) {
+            assertEquals(0, reopened.getCorruptSlotCount());
+            assertEquals(20_000L, reopened.readAccount(account.getACCOUNT_ID()).getBalanceCents());
+        }
+        try (OffHeapAccountStore again = OffHeapAccountStore.open(file)) {
+            assertEquals(20_000L, again.readAccount(account.getACCOUNT_ID()).getBalanceCents());
+        }
+    }
+
+    @Test
+    public void reopen_keepsLastCommittedRecordWhenRedoRecordIsTorn() throws IOException {
+        Path file = tempDir.resolve("accounts.dat");
+        CheckingAccount account = new CheckingAccount();
+        try (OffHeapAccountStore store = OffHeapAccountStore.open(file)) {
+            account.deposit(100);
+            store.createAccount(account);
+            account.deposit(50);
+            store.updateAccount(account);
+        }
+
+        // Crash while writing the next redo record: the slot itself was never touched
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(OffHeapAccountStore.H_REDO_STATE);
+            raw.writeByte(OffHeapAccountStore.REDO_PENDING);
+            raw.seek(OffHeapAccountStore.H_REDO_RECORD + 15); // balance inside the copied record
+            raw.writeLong(777L);
+        }
+
+        try (OffHeapAccountStore reopened = OffHeapAccountStore.open(file)) {
+            assertEquals(0, reopened.getCorruptSlotCount());
+            assertEquals(15_000L, reopened.readAccount(account.getACCOUNT_ID()).getBalanceCents());
+        }
+    }
+
+    @Test
+    public void batchCreateAndDelete_reportPerItemResults() throws IOException {
+        try (OffHeapAccountStore store = OffHeapAccountStore.inMemory()) {
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                accounts.add(i % 2 == 0 ? new CheckingAccount() : new SavingsAccount());
+            }
+            accounts.set(10, null);
+            accounts.set(20, new Account() {
+                // not a type the store can hold
+            });
+
+            BatchResult created = store.createAccounts(accounts);
+
+            assertEquals(5_000, created.size());
+            assertEquals(2, created.getFailureCount());
+            assertEquals(4_998, created.getSuccessCount());
+            assertTrue(Arrays.equals(new int[] { 10, 20 }, created.getFailedIndexes()));
+            assertTrue(created.getError(20) instanceof IllegalArgumentException);
+            assertNull(created.getAccount(10));
+            assertSame(accounts.get(0), created.getAccount(0));
+            assertEquals(4_998, store.size());
+
+            BatchResult deleted = store.deleteAccounts(accounts.subList(0, 100));
+
+            assertEquals(1, deleted.getFailureCount()); // the null item
+            assertFalse(deleted.isFailed(20)); // never stored: deleting is a no-op
+            assertEquals(4_998 - 98, store.size());
+            assertFalse(store.contains(accounts.get(0).getACCOUNT_ID()));
+        }
+    }
+
+    @Test
+    public void defaultBatchMethods_fallBackToSingleItemCalls() {
+        List<Account> stored = new ArrayList<>();
+        AccountWriterDAO singleItemDao = new AccountWriterDAO() {
+            @Override
+            public Account createAccount(Account account) {
+                if (account instanceof SavingsAccount) {
+                    throw new IllegalStateException("savings disabled");
+                }
+                stored.add(account);
+                return account;
+            }
+
+            @Override
+            public void deleteAccount(Account account) {
+                stored.remove(account);
+            }
+        };
+        Account checking = new CheckingAccount();
+        Account savings = new SavingsAccount();
+
+        BatchResult created = singleItemDao.createAccounts(Arrays.asList(checking, savings));
+        assertFalse(created.isFailed(0));
+        assertTrue(created.getError(1) instanceof IllegalStateException);
+        assertEquals(1, stored.size());
+
+        BatchResult deleted = singleItemDao.deleteAccounts(Arrays.asList(checking, null));
+        assertEquals(1, deleted.getSuccessCount());
+        assertTrue(deleted.isFailed(1));
+        assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    public void readAccountPage_walksSlotsOnceAndResumesFromToken() throws IOException {
+        try (OffHeapAccountStore store = OffHeapAccountStore.inMemory()) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                ids.add(store.createAccount(new CheckingAccount()).getACCOUNT_ID());
+            }
+            store.deleteAccount(store.readAccount(ids.remove(24))); // free trailing slot
+            store.deleteAccount(store.readAccount(ids.remove(3)));
+
+            AccountPage first = store.readAccountPage(null, 10);
+            assertEquals(10, first.getAccounts().size());
+            assertFalse(first.isLast());
+
+            // A cursor started from the first page's token sees the rest
+            AccountCursor cursor = new AccountCursor(store, first.getNextToken(), 10);
+            List<Long> seen = first.getAccounts().stream().map(Account::getACCOUNT_ID).collect(Collectors.toList());
+            while (cursor.hasNext()) {
+                seen.add(cursor.next().getACCOUNT_ID());
+            }
+            assertEquals(ids, seen);
+            assertNull(cursor.getResumeToken());
+
+            assertEquals(ids, store.streamAccounts(7).map(Account::getACCOUNT_ID).collect(Collectors.toList()));
+            assertTrue(store.readAccountPage(null, 23).isLast()); // exactly 23 left
+            assertThrows(IllegalArgumentException.class, () -> store.readAccountPage("x", 10));
+            assertThrows(IllegalArgumentException.class, () -> store.readAccountPage(null, 0));
+        }
+    }
+
+    @Test
+    public void open_rejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("not-a-store.dat");
+        Files.write(file, new byte[128]);
+
+        assertThrows(IOException.class, () -> OffHeapAccountStore.open(file));
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.gabrielhumbertdev.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.service.AccountController;
+import com.github.gabrielhumbertdev.service.InterestAccrualJob;
+
+//Write-ahead journal: controller hooks, group commit, rollover, torn tail
+public class TransactionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void controllerChanges_areJournaledInOrder() throws IOException {
+        AccountController controller = new AccountController();
+        Customer customer;
+        Account checking;
+        try (TransactionJournal journal = TransactionJournal.open(tempDir)) {
+            controller.setJournal(journal);
+
+            customer = controller.createCustomer("James", "Leeds St", "company");
+            checking = controller.createAccount(customer, "checking");
+            controller.deposit(customer, checking, 100.0);
+            controller.deposit(customer, checking, -5.0); // refused: not journaled
+            controller.withdraw(customer, checking, 60.0); // 40 left -> fine 25
+            controller.removeCustomer(customer);
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        assertEquals(7, TransactionJournal.replay(tempDir, records::add));
+
+        assertEquals(JournalRecord.Type.CUSTOMER_CREATED, records.get(0).getType());
+        assertEquals("James", records.get(0).getName());
+        assertEquals("Leeds St", records.get(0).getAddress());
+        assertEquals(JournalRecord.COMPANY, records.get(0).getKind());
+        assertEquals(JournalRecord.Type.ACCOUNT_CREATED, records.get(1).getType());
+        assertEquals(customer.getCUSTOMER_ID(), records.get(1).getCustomerId());
+        assertEquals(JournalRecord.CHECKING, records.get(1).getKind());
+        assertEquals(JournalRecord.Type.DEPOSIT, records.get(2).getType());
+        assertEquals(10_000, records.get(2).getAmountCents());
+        assertEquals(JournalRecord.Type.WITHDRAWAL, records.get(3).getType());
+        assertEquals(6_000, records.get(3).getAmountCents());
+        assertEquals(JournalRecord.Type.FINE, records.get(4).getType());
+        assertEquals(2_500, records.get(4).getAmountCents());
+        assertEquals(JournalRecord.Type.ACCOUNT_REMOVED, records.get(5).getType());
+        assertEquals(checking.getACCOUNT_ID(), records.get(5).getAccountId());
+        assertEquals(JournalRecord.Type.CUSTOMER_REMOVED, records.get(6).getType());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).getSequence());
+        }
+    }
+
+    @Test
+    public void interestCorrectionsAndSettings_areJournaled() throws IOException {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("Ada", "London", "person");
+        SavingsAccount savings = (SavingsAccount) controller.createAccount(customer, "savings");
+        CheckingAccount checking = (CheckingAccount) controller.createAccount(customer, "checking");
+        savings.deposit(1_000);
+        try (TransactionJournal journal = TransactionJournal.open(tempDir)) {
+            controller.setJournal(journal);
+
+            controller.setCustomerEmail(customer, " ada@test.com ");
+            controller.setInterestRate(savings, 5.0);
+            controller.addInterest(savings); // +50.00
+            controller.correctBalance(savings, 1_000.0); // -50.00
+            controller.setNextCheckNumber(checking, 100);
+            assertEquals(100, controller.issueCheckNumber(checking));
+            controller.setCustomerEmail(customer, null);
+
+            new InterestAccrualJob(controller).run(); // +50.00 again
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        TransactionJournal.replay(tempDir, records::add);
+        assertEquals(8, records.size());
+
+        assertEquals(JournalRecord.Type.EMAIL_CHANGED, records.get(0).getType());
+        assertEquals(customer.getCUSTOMER_ID(), records.get(0).getCustomerId());
+        assertEquals("ada@test.com", records.get(0).getEmail());
+        assertEquals(JournalRecord.Type.RATE_CHANGED, records.get(1).getType());
+        assertEquals(5.0, records.get(1).getRate());
+        assertEquals(JournalRecord.Type.INTEREST, records.get(2).getType());
+        assertEquals(5_000, records.get(2).getAmountCents());
+        assertEquals(JournalRecord.Type.CORRECTION, records.get(3).getType());
+        assertEquals(-5_000, records.get(3).getAmountCents());
+        assertEquals(JournalRecord.Type.CHECK_NUMBER, records.get(4).getType());
+        assertEquals(100, records.get(4).getAmountCents());
+        assertEquals(101, records.get(5).getAmountCents());
+        assertEquals("", records.get(6).getEmail());
+        assertNull(customer.getEmail());
+        assertEquals(JournalRecord.Type.INTEREST, records.get(7).getType());
+        assertEquals(savings.getACCOUNT_ID(), records.get(7).getAccountId());
+        assertEquals(5_000, records.get(7).getAmountCents());
+    }
+
+    @Test
+    public void closedJournal_doesNotFailAppliedOperations() throws IOException {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("Ada", "London", "person");
+        Account checking = controller.createAccount(customer, "checking");
+        TransactionJournal journal = TransactionJournal.open(tempDir);
+        controller.setJournal(journal);
+        journal.close();
+
+        // Applied once, reported as success: a retry would deposit twice
+        controller.deposit(customer, checking, 100.0);
+        controller.withdraw(customer, checking, 20.0);
+
+        assertEquals(8_000, checking.getBalanceCents());
+        assertFalse(journal.isHealthy());
+        assertEquals(2, journal.getRejectedAppends());
+    }
+
+    @Test
+    public void groupCommit_syncsAfterNRecords() throws Exception {
+        try (TransactionJournal journal = TransactionJournal.open(tempDir, 10, 60_000,
+                TransactionJournal.DEFAULT_SEGMENT_BYTES)) {
+            for (int i = 0; i < 9; i++) {
+                journal.deposit(1000, 100);
+            }
+            Thread.sleep(50);
+            assertEquals(0, journal.getDurableSequence()); // below N, interval far away
+
+            journal.deposit(1000, 100);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (journal.getDurableSequence() < 10 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(10, journal.getDurableSequence());
+
+            journal.fine(1000, 2_500);
+            journal.sync();
+            assertEquals(11, journal.getDurableSequence());
+        }
+    }
+
+    @Test
+    public void segments_rollOver_andReplayAcrossThem() throws Exception {
+        int records = 40_000; // 41 bytes each -> several 300 KB segments
+        try (TransactionJournal journal = TransactionJournal.open(tempDir, 1_000, 5, 300_000)) {
+            Thread[] writers = new Thread[4];
+            for (int t = 0; t < writers.length; t++) {
+                final long accountId = 1000 + t * 5;
+                writers[t] = new Thread(() -> {
+                    for (int i = 0; i < records / 4; i++) {
+                        journal.deposit(accountId, i + 1);
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+
+        assertTrue(TransactionJournal.listSegments(tempDir).size() > 3);
+        long[] sum = new long[1];
+        assertEquals(records, TransactionJournal.replay(tempDir, record -> sum[0] += record.getAmountCents()));
+        assertEquals(4L * (records / 4) * (records / 4 + 1) / 2, sum[0]);
+    }
+
+    @Test
+    public void reopen_dropsTornTail_andContinuesSequence() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(tempDir)) {
+            journal.deposit(1000, 100);
+            journal.deposit(1000, 200);
+        }
+
+        // Crash in the middle of the next record: header written, body incomplete
+        Path segment = TransactionJournal.listSegments(tempDir).get(0);
+        Files.write(segment, new byte[] { 0, 0, 0, 33, 1, 2, 3, 4, 6, 0, 0 }, StandardOpenOption.APPEND);
+        assertEquals(2, TransactionJournal.replay(tempDir, record -> { }));
+
+        try (TransactionJournal journal = TransactionJournal.open(tempDir)) {
+            assertEquals(2, journal.getLastSequence());
+            assertEquals(3, journal.withdrawal(1000, 50));
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        assertEquals(3, TransactionJournal.replay(tempDir, records::add));
+        assertEquals(JournalRecord.Type.WITHDRAWAL, records.get(2).getType());
+    }
+
+    @Test
+    public void closedJournal_rejectsAppends() throws IOException {
+        TransactionJournal journal = TransactionJournal.open(tempDir);
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> journal.deposit(1000, 1));
+    }
+}
@@ -0,0 +1,203 @@
+package com.github.gabrielhumbertdev.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.service.AccountController;
+import com.github.gabrielhumbertdev.service.SafetyDepositBoxService;
+
+//Embedded HTTP API: routes, status codes and the compact JSON encoding
+public class BankHttpServerTest {
+
+    private AccountController controller;
+    private ExecutorService executor;
+    private BankHttpServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        controller = new AccountController();
+        executor = Executors.newFixedThreadPool(4);
+        SafetyDepositBoxService boxes = SafetyDepositBoxService.getInstance();
+        boxes.getSafetyDepositBoxes().clear();
+        boxes.setNumberOfSafetyDepositBoxes(2);
+        server = BankHttpServer.create(controller, boxes, new InetSocketAddress("127.0.0.1", 0), executor);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void customerAccountDepositWithdrawAndBalance() throws IOException {
+        Reply customer = call("POST", "/customers", "{\"name\":\"Ada\",\"address\":\"London\",\"type\":\"person\"}");
+        assertEquals(201, customer.status);
+        String customerId = customer.json().get("id");
+
+        Reply account = call("POST", "/accounts", "{\"customerId\":" + customerId + ",\"type\":\"Savings\"}");
+        assertEquals(201, account.status);
+        assertEquals("savings", account.json().get("type"));
+        String accountId = account.json().get("id");
+
+        assertEquals("125.50", call("POST", "/accounts/" + accountId + "/deposit", "{\"amount\":125.5}").json()
+                .get("balance"));
+        Map<String, String> afterWithdraw = call("POST", "/accounts/" + accountId + "/withdraw", "{\"amount\":25}")
+                .json();
+        assertEquals("100.50", afterWithdraw.get("balance"));
+        assertEquals("10050", afterWithdraw.get("balanceCents"));
+
+        Reply balance = call("GET", "/accounts/" + accountId, null);
+        assertEquals(200, balance.status);
+        assertEquals("{\"id\":" + accountId + ",\"type\":\"savings\",\"balance\":100.50,\"balanceCents\":10050}",
+                balance.body);
+        assertEquals(100.5, controller.findAccount(Long.parseLong(accountId)).getBalance(), 0.0001);
+    }
+
+    @Test
+    public void errors_mapToStatusCodes() throws IOException {
+        assertEquals(400, call("POST", "/customers", "{\"name\":\"Ada\",\"address\":\"London\",\"type\":\"alien\"}").status);
+        assertEquals(400, call("POST", "/customers", "{not json").status);
+        assertEquals(404, call("GET", "/accounts/123456789", null).status);
+        assertEquals(404, call("GET", "/accountsX", null).status);
+        assertEquals(405, call("GET", "/customers", null).status);
+
+        String customerId = call("POST", "/customers", "{\"name\":\"Ada\",\"address\":\"London\",\"type\":\"company\"}")
+                .json().get("id");
+        String accountId = call("POST", "/accounts", "{\"customerId\":" + customerId + ",\"type\":\"checking\"}")
+                .json().get("id");
+        Reply negative = call("POST", "/accounts/" + accountId + "/deposit", "{\"amount\":-5}");
+        assertEquals(400, negative.status);
+        assertTrue(negative.json().get("error").contains("positive"));
+    }
+
+    @Test
+    public void refusedOrForeignOperations_areRejected_andLeaveTheBalanceAlone() throws IOException {
+        String owner = call("POST", "/customers", "{\"name\":\"Ada\",\"address\":\"London\",\"type\":\"person\"}")
+                .json().get("id");
+        String other = call("POST", "/customers", "{\"name\":\"Bob\",\"address\":\"Leeds\",\"type\":\"person\"}")
+                .json().get("id");
+        String accountId = call("POST", "/accounts", "{\"customerId\":" + owner + ",\"type\":\"savings\"}")
+                .json().get("id");
+        call("POST", "/accounts/" + accountId + "/deposit", "{\"amount\":10}");
+
+        assertEquals(403, call("POST", "/accounts/" + accountId + "/withdraw",
+                "{\"amount\":5,\"customerId\":" + other + "}").status);
+        assertEquals(409, call("POST", "/accounts/" + accountId + "/withdraw", "{\"amount\":50}").status);
+        assertEquals(400, call("POST", "/accounts/" + accountId + "/deposit", "{\"amount\":0.001}").status);
+        assertEquals(200, call("POST", "/accounts/" + accountId + "/deposit",
+                "{\"amount\":1,\"customerId\":" + owner + "}").status);
+
+        assertEquals(1100, controller.findAccount(Long.parseLong(accountId)).getBalanceCents());
+    }
+
+    @Test
+    public void boxes_answer503_whenNoneIsReleasedInTime() throws IOException {
+        server.setBoxWaitMillis(50);
+        String holder = "{\"customerId\":" + newCustomer("Ada") + "}";
+        assertEquals(201, call("POST", "/boxes", holder).status);
+        assertEquals(201, call("POST", "/boxes", holder).status);
+
+        Reply busy = call("POST", "/boxes", holder);
+        assertEquals(503, busy.status);
+        assertTrue(busy.json().get("error").contains("box"));
+    }
+
+    @Test
+    public void boxes_allocateAndRelease_onlyByTheHolder() throws IOException {
+        String holder = "{\"customerId\":" + newCustomer("Ada") + "}";
+        String other = "{\"customerId\":" + newCustomer("Bob") + "}";
+        assertEquals(400, call("POST", "/boxes", "").status);
+
+        Reply allocated = call("POST", "/boxes", holder);
+        assertEquals(201, allocated.status);
+        assertEquals("true", allocated.json().get("allotted"));
+        String release = "/boxes/" + allocated.json().get("id") + "/release";
+
+        assertEquals(400, call("POST", release, "{}").status);
+        assertEquals(403, call("POST", release, other).status);
+        Reply released = call("POST", release, holder);
+        assertEquals(200, released.status);
+        assertEquals("false", released.json().get("allotted"));
+        assertEquals(403, call("POST", release, holder).status); // no longer held
+        assertEquals(404, call("POST", "/boxes/99/release", holder).status);
+    }
+
+    @Test
+    public void json_roundTripsEscapesAndRejectsNesting() {
+        String written = Json.object().field("name", "A \"q\"\n\\ \u0001").field("n", -7).amount("a", -5).end();
+        assertEquals("{\"name\":\"A \\\"q\\\"\\n\\\\ \\u0001\",\"n\":-7,\"a\":-0.05}", written);
+
+        Map<String, String> parsed = Json.parseObject(written);
+        assertEquals("A \"q\"\n\\ \u0001", parsed.get("name"));
+        assertEquals("-7", parsed.get("n"));
+        assertEquals("-0.05", parsed.get("a"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":{\"b\":1}}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":1} x"));
+    }
+
+    // ============================
+    // Helpers
+    // ============================
+
+    private static final class Reply {
+
+        private final int status;
+        private final String body;
+
+        private Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        private Map<String, String> json() {
+            return Json.parseObject(body);
+        }
+    }
+
+    private String newCustomer(String name) throws IOException {
+        return call("POST", "/customers", "{\"name\":\"" + name + "\",\"address\":\"London\",\"type\":\"person\"}")
+                .json().get("id");
+    }
+
+    private Reply call(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[512];
+        try (InputStream stream = in) {
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                bytes.write(buffer, 0, read);
+            }
+        }
+        return new Reply(status, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
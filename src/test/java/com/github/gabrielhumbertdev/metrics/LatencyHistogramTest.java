@@ -0,0 +1,110 @@
+package com.github.gabrielhumbertdev.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+//Latency histogram accuracy + registry text dump and JMX export
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValueWithinOneSixteenth() {
+        long[] samples = { 0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+        for (long value : samples) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+
+            assertTrue(bucket < LatencyHistogram.BUCKET_COUNT);
+            assertTrue(upper >= value, "upper bound below value " + value);
+            assertTrue(upper - value <= value / 16, "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    public void percentilesFollowRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int micros = 1; micros <= 1_000; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertEquals(500_500, snapshot.getMeanNanos(), 0.001);
+        assertWithin(500_000, snapshot.getPercentileNanos(50));
+        assertWithin(990_000, snapshot.getPercentileNanos(99));
+        assertEquals(1_000_000, snapshot.getPercentileNanos(100));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getPercentileNanos(101));
+    }
+
+    @Test
+    public void concurrentRecordingLosesNothing() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram("concurrent");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(200_000, histogram.snapshot().getCount());
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void registryDumpsAndExportsOverJmx() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.histogram("op.latency").record(2_000);
+        registry.counter("op.calls").add(3);
+        registry.gauge("queue.depth", () -> 7);
+        registry.gauge("broken", () -> {
+            throw new IllegalStateException();
+        });
+
+        String dump = registry.dump();
+        assertTrue(dump.contains("op.latency count=1 mean=2.0us"), dump);
+        assertTrue(dump.contains("op.calls 3\n"), dump);
+        assertTrue(dump.contains("queue.depth 7\n"), dump);
+        assertTrue(dump.contains("broken -1\n"), dump);
+
+        ObjectName name = registry.registerMBean("com.github.gabrielhumbertdev:type=Metrics,name=test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(3L, server.getAttribute(name, "op.calls"));
+            assertEquals(7L, server.getAttribute(name, "queue.depth"));
+            assertEquals(1L, server.getAttribute(name, "op.latency.count"));
+            assertEquals(2_000L, server.getAttribute(name, "op.latency.max"));
+            assertEquals(dump, server.invoke(name, "dump", new Object[0], new String[0]));
+
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertEquals(0L, server.getAttribute(name, "op.calls"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 16,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
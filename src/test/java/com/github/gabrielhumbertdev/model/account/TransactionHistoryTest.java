@@ -0,0 +1,113 @@
+package com.github.gabrielhumbertdev.model.account;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+//Ring-buffer transaction history: wrap-around, paging, allocation-free appends
+public class TransactionHistoryTest {
+
+    @Test
+    public void ring_keepsOnlyTheNewestEntries() {
+        TransactionHistory history = new TransactionHistory(4);
+        for (int i = 1; i <= 6; i++) {
+            history.append(TransactionHistory.Type.DEPOSIT, i, i * 10L);
+        }
+
+        assertEquals(4, history.size());
+        assertEquals(6, history.getLastSequence());
+        TransactionPage page = history.latest(10);
+        assertEquals(4, page.size());
+        assertEquals(6, page.getEntries().get(0).getSequence());
+        assertEquals(60, page.getEntries().get(0).getBalanceAfterCents());
+        assertEquals(3, page.getEntries().get(3).getSequence());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void paging_followsTheCursorWhileNewEntriesArrive() {
+        TransactionHistory history = new TransactionHistory(8);
+        for (int i = 1; i <= 5; i++) {
+            history.append(TransactionHistory.Type.WITHDRAWAL, i, -i);
+        }
+
+        TransactionPage first = history.latest(2);
+        assertEquals(5, first.getEntries().get(0).getSequence());
+        assertEquals(4, first.getEntries().get(1).getSequence());
+        assertTrue(first.hasMore());
+
+        history.append(TransactionHistory.Type.FINE, 2_500, -2_506); // does not shift the next page
+
+        TransactionPage second = history.before(first.getNextCursor(), 2);
+        assertEquals(3, second.getEntries().get(0).getSequence());
+        assertEquals(2, second.getEntries().get(1).getSequence());
+
+        TransactionPage last = history.before(second.getNextCursor(), 2);
+        assertEquals(1, last.size());
+        assertEquals(TransactionHistory.Type.WITHDRAWAL, last.getEntries().get(0).getType());
+        assertFalse(last.hasMore());
+        assertTrue(history.before(last.getNextCursor(), 2).isEmpty());
+    }
+
+    @Test
+    public void emptyHistory_andInvalidArguments() {
+        TransactionHistory history = new TransactionHistory(2);
+
+        assertTrue(history.latest(5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> history.latest(0));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionHistory(0));
+    }
+
+    @Test
+    public void accountOperations_areRecordedWithResultingBalance() {
+        SavingsAccount savings = new SavingsAccount();
+        savings.enableHistory(8);
+        savings.setInterestRate(10);
+
+        savings.depositCents(10_000);
+        assertEquals(0, savings.withdrawCents(20_000)); // refused: not recorded
+        savings.withdrawCents(4_000);
+        savings.addInterestCents();
+        savings.correctBalance(100.0);
+
+        TransactionPage page = savings.getHistory().latest(10);
+        assertEquals(4, page.size());
+        assertEquals(TransactionHistory.Type.CORRECTION, page.getEntries().get(0).getType());
+        assertEquals(3_400, page.getEntries().get(0).getAmountCents());
+        assertEquals(TransactionHistory.Type.INTEREST, page.getEntries().get(1).getType());
+        assertEquals(6_600, page.getEntries().get(1).getBalanceAfterCents());
+        assertEquals(TransactionHistory.Type.WITHDRAWAL, page.getEntries().get(2).getType());
+        assertEquals(6_000, page.getEntries().get(2).getBalanceAfterCents());
+        assertEquals(TransactionHistory.Type.DEPOSIT, page.getEntries().get(3).getType());
+    }
+
+    @Test
+    public void append_doesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported());
+
+        CheckingAccount checking = new CheckingAccount();
+        checking.enableHistory(16);
+        for (int i = 0; i < 20_000; i++) { // warm up
+            checking.depositCents(1);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            checking.depositCents(1);
+            checking.withdrawCents(1);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated < 4_096, "appends allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,199 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.dao.AccountReaderDAO;
+import com.github.gabrielhumbertdev.dao.OffHeapAccountStore;
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
+import com.github.gabrielhumbertdev.metrics.MetricsRegistry;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+
+//Read-through account cache: hits, TTL/size eviction, write updates, load collapsing
+public class AccountCacheTest {
+
+    @Test
+    public void getAccounts_loadsOnceAndServesHitsUntilTtlExpires() {
+        AccountReaderDAO reader = mock(AccountReaderDAO.class);
+        List<Account> accounts = Arrays.asList(new CheckingAccount(), new SavingsAccount());
+        when(reader.readAccounts()).thenReturn(accounts);
+        AtomicLong clock = new AtomicLong();
+        AccountCache cache = new AccountCache(reader, 10, 1_000, clock::get);
+        long loadsBefore = BankMetrics.ACCOUNT_CACHE_LOAD_LATENCY.getCount();
+
+        assertEquals(accounts, cache.getAccounts());
+        assertEquals(accounts, cache.getAccounts());
+        assertEquals(accounts, cache.getAccounts());
+        verify(reader, times(1)).readAccounts();
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2.0 / 3, cache.getHitRatio(), 0.0001);
+        assertEquals(loadsBefore + 1, BankMetrics.ACCOUNT_CACHE_LOAD_LATENCY.getCount());
+        assertThrows(UnsupportedOperationException.class, () -> cache.getAccounts().clear());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        cache.getAccounts();
+        verify(reader, times(2)).readAccounts();
+    }
+
+    @Test
+    public void perIdEntries_areEvictedLeastRecentlyUsedFirstAndByTtl() {
+        OffHeapAccountStore store = OffHeapAccountStore.inMemory();
+        Account a = store.createAccount(new CheckingAccount());
+        Account b = store.createAccount(new CheckingAccount());
+        Account c = store.createAccount(new SavingsAccount());
+        AtomicLong clock = new AtomicLong();
+        AccountCache cache = new AccountCache(store, 2, 1_000, clock::get);
+
+        Account cachedA = cache.getAccount(a.getACCOUNT_ID());
+        cache.getAccount(b.getACCOUNT_ID());
+        assertSame(cachedA, cache.getAccount(a.getACCOUNT_ID())); // a is now most recent
+        cache.getAccount(c.getACCOUNT_ID()); // pushes out b
+        assertEquals(2, cache.size());
+        long missesBefore = cache.getMissCount();
+        assertSame(cachedA, cache.getAccount(a.getACCOUNT_ID()));
+        cache.getAccount(b.getACCOUNT_ID());
+        assertEquals(missesBefore + 1, cache.getMissCount());
+
+        assertNull(cache.getAccount(-1L));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(2, cache.evictExpired());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void writesThroughTheService_keepTheCacheCurrent() {
+        OffHeapAccountStore store = OffHeapAccountStore.inMemory();
+        AccountServiceImpl service = new AccountServiceImpl(store, store);
+        AccountCache cache = service.enableCache(100, 60_000);
+        Account first = service.createAccount(new CheckingAccount());
+
+        assertEquals(1, service.getAccounts().size());
+        assertSame(first, service.getAccount(first.getACCOUNT_ID()));
+
+        Account second = service.createAccount(new SavingsAccount());
+        assertEquals(2, service.getAccounts().size());
+        service.removeAccount(first);
+        assertEquals(1, service.getAccounts().size());
+        assertNull(service.getAccount(first.getACCOUNT_ID()));
+        assertSame(second, service.getAccount(second.getACCOUNT_ID()));
+
+        List<Account> batch = Arrays.asList(new CheckingAccount(), new CheckingAccount());
+        service.createAccounts(batch);
+        assertEquals(3, service.getAccounts().size());
+        service.removeAccounts(batch);
+        assertEquals(1, service.getAccounts().size());
+        assertTrue(cache.getHitCount() > 0);
+
+        MetricsRegistry metrics = new MetricsRegistry();
+        cache.registerGauges(metrics);
+        assertEquals(Math.round(cache.getHitRatio() * 100),
+                metrics.value(BankMetrics.ACCOUNT_CACHE_HIT_RATIO).longValue());
+        assertEquals(cache.size(), metrics.value(BankMetrics.ACCOUNT_CACHE_ENTRIES).longValue());
+
+        service.disableCache();
+        assertNull(service.getCache());
+        assertEquals(1, service.getAccounts().size());
+    }
+
+    @Test
+    public void concurrentMisses_shareOneDaoCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger daoCalls = new AtomicInteger();
+        List<Account> accounts = Arrays.asList(new CheckingAccount());
+        AccountReaderDAO reader = () -> {
+            daoCalls.incrementAndGet();
+            await(release);
+            return accounts;
+        };
+        AccountCache cache = new AccountCache(reader, 10, 60_000);
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<CompletableFuture<List<Account>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(CompletableFuture.supplyAsync(cache::getAccounts, executor));
+            }
+            // Every caller has missed before the load is allowed to finish
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (cache.getMissCount() < callers && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (CompletableFuture<List<Account>> result : results) {
+                assertEquals(accounts, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(callers, cache.getMissCount());
+        assertEquals(1, daoCalls.get());
+    }
+
+    @Test
+    public void failedLoad_isRethrownAndNotCached() {
+        AccountReaderDAO reader = mock(AccountReaderDAO.class);
+        when(reader.readAccounts()).thenThrow(new IllegalStateException("store down"))
+                .thenReturn(Arrays.asList(new CheckingAccount()));
+        AccountCache cache = new AccountCache(reader, 10, 60_000);
+
+        assertThrows(IllegalStateException.class, cache::getAccounts);
+        assertEquals(1, cache.getAccounts().size());
+        assertThrows(IllegalArgumentException.class, () -> new AccountCache(reader, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AccountCache(reader, 1, 0));
+    }
+
+    @Test
+    public void errorDuringLoad_doesNotLeaveAPendingLoadBehind() {
+        AccountReaderDAO reader = mock(AccountReaderDAO.class);
+        CheckingAccount account = new CheckingAccount();
+        when(reader.readAccounts()).thenThrow(new OutOfMemoryError("test"))
+                .thenReturn(Arrays.asList(account));
+        when(reader.readAccount(account.getACCOUNT_ID())).thenThrow(new OutOfMemoryError("test"))
+                .thenReturn(account);
+        AccountCache cache = new AccountCache(reader, 10, 60_000);
+
+        assertThrows(OutOfMemoryError.class, cache::getAccounts);
+        assertThrows(OutOfMemoryError.class, () -> cache.getAccount(account.getACCOUNT_ID()));
+
+        // The next reads load again instead of waiting for the failed loads
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertEquals(1, cache.getAccounts().size());
+            assertSame(account, cache.getAccount(account.getACCOUNT_ID()));
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+
+//Lock-free balance updates: many threads on the SAME account
+public class AccountConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    public void setup() {
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void concurrentDeposits_noLostUpdates() throws Exception {
+        CheckingAccount account = new CheckingAccount();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                account.deposit(1.0);
+            }
+        });
+
+        assertEquals(THREADS * 10_000.0, account.getBalance());
+    }
+
+    @Test
+    public void concurrentSavingsWithdrawals_neverOverdraw() throws Exception {
+        SavingsAccount account = new SavingsAccount();
+        account.deposit(1_000.0);
+        DoubleAdder withdrawn = new DoubleAdder();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 500; i++) {
+                withdrawn.add(account.withdraw(1.0));
+            }
+        });
+
+        // 8 threads x 500 attempts = 4000 requests, only 1000 can succeed
+        assertEquals(1_000.0, withdrawn.sum());
+        assertEquals(0.0, account.getBalance());
+    }
+
+    @Test
+    public void concurrentFineChecks_withDeposits_keepBalanceConsistent() throws Exception {
+        CheckingAccount account = new CheckingAccount();
+        account.setBalance(0.0);
+        DoubleAdder fines = new DoubleAdder();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                account.deposit(10.0);
+                fines.add(account.applyMinimumBalanceFineIfNeeded());
+            }
+        });
+
+        // Every deposit and every fine must be reflected exactly once
+        assertEquals(THREADS * 1_000 * 10.0 - fines.sum(), account.getBalance());
+    }
+
+    @Test
+    public void concurrentCheckIssue_noDuplicateNumbers() throws Exception {
+        CheckingAccount account = new CheckingAccount();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                account.issueNextCheckNumber();
+            }
+        });
+
+        assertEquals(THREADS * 1_000 + 1, account.getNextCheckNumber());
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.TransactionEntry;
+import com.github.gabrielhumbertdev.model.account.TransactionHistory;
+import com.github.gabrielhumbertdev.model.account.TransactionPage;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.util.EmailUtil;
+
+//AccountController: deposit/withdraw/fine history + paged queries
+public class AccountControllerHistoryTest {
+
+    @Test
+    public void depositWithdrawAndFine_areQueryableNewestFirst() {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("James", "Leeds St", "person");
+        customer.setEmail("james@test.com");
+        Account existing = controller.createAccount(customer, "savings");
+        controller.enableTransactionHistory(8);
+        Account checking = controller.createAccount(customer, "checking");
+
+        try (MockedStatic<EmailUtil> emailMock = mockStatic(EmailUtil.class)) {
+            controller.deposit(customer, checking, 100.0);
+            controller.withdraw(customer, checking, 60.0); // 40 left -> fine 25
+            controller.deposit(customer, existing, 5.0);
+
+            // Recording history does not change the alerts: 3 transactions + 1 fine
+            emailMock.verify(() -> EmailUtil.sendEmail(eq("james@test.com"), anyString(), anyString()), times(4));
+        }
+
+        List<TransactionEntry> entries = controller.getRecentTransactions(checking.getACCOUNT_ID(), 10)
+                .getEntries();
+        assertEquals(3, entries.size());
+        assertEquals(TransactionHistory.Type.FINE, entries.get(0).getType());
+        assertEquals(25.0, entries.get(0).getAmount());
+        assertEquals(15.0, entries.get(0).getBalanceAfter());
+        assertEquals(TransactionHistory.Type.WITHDRAWAL, entries.get(1).getType());
+        assertEquals(4_000, entries.get(1).getBalanceAfterCents());
+        assertEquals(TransactionHistory.Type.DEPOSIT, entries.get(2).getType());
+        assertEquals(10_000, entries.get(2).getAmountCents());
+
+        // Accounts registered before enabling are covered too
+        assertEquals(1, controller.getRecentTransactions(existing.getACCOUNT_ID(), 10).size());
+
+        TransactionPage page = controller.getTransactions(checking.getACCOUNT_ID(), Long.MAX_VALUE, 2);
+        assertTrue(page.hasMore());
+        page = controller.getTransactions(checking.getACCOUNT_ID(), page.getNextCursor(), 2);
+        assertEquals(1, page.size());
+        assertEquals(TransactionHistory.Type.DEPOSIT, page.getEntries().get(0).getType());
+    }
+
+    @Test
+    public void historyOff_givesEmptyPages_unknownAccountIsRejected() {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("James", "Leeds St", "person");
+        Account account = controller.createAccount(customer, "checking");
+        account.depositCents(100);
+
+        assertTrue(controller.getRecentTransactions(account.getACCOUNT_ID(), 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> controller.getRecentTransactions(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> controller.enableTransactionHistory(0));
+    }
+}
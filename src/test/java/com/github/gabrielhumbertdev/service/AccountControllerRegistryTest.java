@@ -0,0 +1,160 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.util.EmailUtil;
+
+//Indexed registry: O(1) create/remove/lookup + read-only views
+public class AccountControllerRegistryTest {
+
+    private AccountController controller;
+
+    @BeforeEach
+    public void setup() {
+        controller = new AccountController();
+    }
+
+    @Test
+    public void createAccount_isIndexedByIdAndOwner() {
+        Customer customer = controller.createCustomer("James", "Leeds St", "person");
+        Account account = controller.createAccount(customer, "checking");
+
+        assertSame(customer, controller.findCustomer(customer.getCUSTOMER_ID()));
+        assertSame(account, controller.findAccount(account.getACCOUNT_ID()));
+        assertSame(customer, controller.findOwner(account.getACCOUNT_ID()));
+    }
+
+    @Test
+    public void removeAccount_detachesFromJointOwners() {
+        Customer james = controller.createCustomer("James", "Leeds St", "person");
+        Customer chris = controller.createCustomer("Chris", "Liverpool Rd", "person");
+        Account shared = controller.createAccount(james, "checking");
+        controller.addAccountOwner(chris, shared);
+
+        controller.removeAccount(shared);
+
+        assertNull(controller.findAccount(shared.getACCOUNT_ID()));
+        assertNull(controller.findOwner(shared.getACCOUNT_ID()));
+        assertTrue(james.getAccounts().isEmpty());
+        assertTrue(chris.getAccounts().isEmpty());
+        assertEquals(0, controller.getAccounts().size());
+    }
+
+    @Test
+    public void removeCustomer_dropsOnlyTheirAccounts_andKeepsOthersIndexed() {
+        Customer james = controller.createCustomer("James", "Leeds St", "person");
+        Customer chris = controller.createCustomer("Chris", "Liverpool Rd", "company");
+        Account first = controller.createAccount(james, "checking");
+        Account second = controller.createAccount(james, "savings");
+        Account kept = controller.createAccount(chris, "savings");
+
+        controller.removeCustomer(james);
+
+        assertNull(controller.findCustomer(james.getCUSTOMER_ID()));
+        assertNull(controller.findAccount(first.getACCOUNT_ID()));
+        assertNull(controller.findAccount(second.getACCOUNT_ID()));
+        // Swap-remove must keep the moved entry reachable by id
+        assertSame(kept, controller.findAccount(kept.getACCOUNT_ID()));
+        assertEquals(1, controller.getAccounts().size());
+        assertTrue(controller.getAccounts().contains(kept));
+        assertFalse(controller.getAccounts().contains(first));
+    }
+
+    @Test
+    public void views_areReadOnlyAndLive() {
+        List<Account> accounts = controller.getAccounts();
+        Customer customer = controller.createCustomer("James", "Leeds St", "person");
+        Account account = controller.createAccount(customer, "checking");
+
+        assertEquals(1, accounts.size());
+        assertSame(account, accounts.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> accounts.add(account));
+        assertThrows(UnsupportedOperationException.class, () -> controller.getCustomers().remove(0));
+    }
+
+    @Test
+    public void setAccounts_rebuildsOwnershipFromCustomers() {
+        Customer customer = controller.createCustomer("James", "Leeds St", "person");
+        Account account = controller.createAccount(customer, "checking");
+
+        controller.setAccounts(controller.getAccounts().subList(0, 1));
+
+        assertSame(account, controller.findAccount(account.getACCOUNT_ID()));
+        assertSame(customer, controller.findOwner(account.getACCOUNT_ID()));
+    }
+
+    @Test
+    public void alertLookupsByAccountAndCustomerId_followCreateAndRemove() throws Exception {
+        Customer james = controller.createCustomer("James", "Leeds St", "person");
+        james.setEmail("james@test.com");
+        Account account = controller.createAccount(james, "checking");
+        AlertService alertService = controller.getAlertService();
+
+        try (MockedStatic<EmailUtil> email = mockStatic(EmailUtil.class)) {
+            assertTrue(alertService.sendTransactionAlert(account.getACCOUNT_ID(), 10.0));
+            alertService.sendTransactionAlert(Long.valueOf(james.getCUSTOMER_ID()));
+            email.verify(() -> EmailUtil.sendEmail(eq("james@test.com"), anyString(),
+                    contains("Account Number: " + account.getACCOUNT_ID())), times(2));
+
+            controller.removeAccount(account);
+            assertFalse(alertService.sendTransactionAlert(account.getACCOUNT_ID(), 10.0));
+
+            controller.removeCustomer(james);
+            alertService.sendTransactionAlert(Long.valueOf(james.getCUSTOMER_ID()));
+            email.verify(() -> EmailUtil.sendEmail(anyString(), anyString(), anyString()),
+                    times(2));
+        }
+    }
+
+    @Test
+    public void jointOwners_keepPrimaryOrderThroughUnlinkAndRemove() {
+        AccountRegistry registry = new AccountRegistry();
+        Customer james = controller.createCustomer("James", "Leeds St", "person");
+        Customer mary = controller.createCustomer("Mary", "York St", "person");
+        Account first = controller.createAccount(james, "checking");
+        Account joint = controller.createAccount(james, "savings");
+
+        // Owner linked before the account is registered becomes its primary owner
+        registry.linkOwner(mary, joint);
+        registry.addAccount(first);
+        registry.addAccount(joint);
+        registry.linkOwner(james, joint);
+        registry.linkOwner(james, joint); // duplicate ignored
+        assertSame(mary, registry.findOwner(joint.getACCOUNT_ID()));
+        assertEquals(2, registry.findOwners(joint.getACCOUNT_ID()).size());
+
+        // Unlinking the primary promotes the next owner
+        registry.unlinkOwner(mary, joint);
+        assertSame(james, registry.findOwner(joint.getACCOUNT_ID()));
+        assertEquals(1, registry.findOwners(joint.getACCOUNT_ID()).size());
+
+        // Removing the first account swaps the joint one into its slot; owner follows
+        registry.linkOwner(mary, first);
+        registry.linkOwner(mary, joint);
+        registry.removeAccount(first.getACCOUNT_ID());
+        assertSame(james, registry.findOwner(joint.getACCOUNT_ID()));
+        List<Customer> owners = registry.removeAccount(joint.getACCOUNT_ID());
+        assertEquals(2, owners.size());
+        assertSame(james, owners.get(0));
+        assertSame(mary, owners.get(1));
+        assertNull(registry.findOwner(joint.getACCOUNT_ID()));
+    }
+}
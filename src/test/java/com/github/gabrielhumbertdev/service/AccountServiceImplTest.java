@@ -1,20 +1,32 @@
 package com.github.gabrielhumbertdev.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import com.github.gabrielhumbertdev.dao.AccountPage;
 import com.github.gabrielhumbertdev.dao.AccountReaderDAO;
 import com.github.gabrielhumbertdev.dao.AccountWriterDAO;
+import com.github.gabrielhumbertdev.dao.BatchResult;
+import com.github.gabrielhumbertdev.dao.OffHeapAccountStore;
 import com.github.gabrielhumbertdev.model.account.Account;
 import com.github.gabrielhumbertdev.model.account.CheckingAccount;
 import com.github.gabrielhumbertdev.model.account.SavingsAccount;
@@ -89,4 +101,78 @@ public class AccountServiceImplTest {
         verify(writerDao).createAccount(account);
         verifyNoInteractions(readerDao);
     }
+
+    @Test
+    public void createAccounts_sendsBatchesOfConfiguredSizeToWriterDao() {
+        AccountReaderDAO readerDao = mock(AccountReaderDAO.class);
+        AccountWriterDAO writerDao = mock(AccountWriterDAO.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(writerDao.createAccounts(anyList())).thenAnswer(invocation -> {
+            List<Account> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            BatchResult.Collector results = new BatchResult.Collector(batch.size());
+            batch.forEach(results::success);
+            return results.result();
+        });
+
+        AccountService service = new AccountServiceImpl(readerDao, writerDao, 4);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            accounts.add(new CheckingAccount());
+        }
+
+        BatchResult result = service.createAccounts(accounts);
+
+        assertEquals(10, result.size());
+        assertEquals(0, result.getFailureCount());
+        for (int i = 0; i < 10; i++) {
+            assertSame(accounts.get(i), result.getAccount(i));
+        }
+        assertEquals(Arrays.asList(4, 4, 2), batchSizes);
+        verify(writerDao, times(3)).createAccounts(anyList());
+        verifyNoInteractions(readerDao);
+        assertThrows(IllegalArgumentException.class, () -> new AccountServiceImpl(readerDao, writerDao, 0));
+    }
+
+    @Test
+    public void removeAccounts_keepsResultsInRequestOrderAcrossBatches() {
+        OffHeapAccountStore store = OffHeapAccountStore.inMemory();
+        AccountService service = new AccountServiceImpl(store, store, 3);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            accounts.add(i % 2 == 0 ? new CheckingAccount() : new SavingsAccount());
+        }
+        service.createAccounts(accounts);
+        accounts.set(5, null);
+
+        BatchResult removed = service.removeAccounts(accounts);
+
+        assertEquals(8, removed.size());
+        assertEquals(1, removed.getFailureCount());
+        assertTrue(removed.isFailed(5));
+        assertSame(accounts.get(6), removed.getAccount(6));
+        assertEquals(1, store.size()); // only the account whose slot was nulled out is left
+    }
+
+    @Test
+    public void accountPages_fromDefaultDao_areOrderedByIdAndResumable() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            accounts.add(i % 2 == 0 ? new CheckingAccount() : new SavingsAccount());
+        }
+        List<Account> shuffled = new ArrayList<>(accounts);
+        Collections.reverse(shuffled);
+        AccountReaderDAO readerDao = () -> shuffled;
+        AccountService service = new AccountServiceImpl(readerDao, mock(AccountWriterDAO.class));
+
+        AccountPage first = service.getAccountPage(null, 4);
+        assertEquals(accounts.subList(0, 4), first.getAccounts());
+        AccountPage second = service.getAccountPage(first.getNextToken(), 4);
+        assertEquals(accounts.subList(4, 8), second.getAccounts());
+        AccountPage last = service.getAccountPage(second.getNextToken(), 4);
+        assertEquals(accounts.subList(8, 10), last.getAccounts());
+        assertTrue(last.isLast());
+
+        assertEquals(accounts, service.streamAccounts(3).collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,154 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.organisation.Company;
+import com.github.gabrielhumbertdev.util.EmailUtil;
+
+//Digest mode: transaction alerts coalesced per customer, fine alerts immediate
+public class AlertServiceDigestTest {
+
+    private AlertService alertService;
+    private Company customer;
+    private CheckingAccount account;
+
+    @BeforeEach
+    public void setup() {
+        alertService = new AlertService(new ArrayList<>(), new ArrayList<>());
+        customer = new Company("ACME", "456 Ave");
+        customer.setEmail("ops@acme.com");
+        account = new CheckingAccount();
+        account.setBalance(1000.0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        alertService.disableDigest();
+    }
+
+    @Test
+    public void transactionsInsideWindow_areSentAsOneEmail() throws Exception {
+        // Long window: nothing is sent until we flush explicitly
+        TransactionAlertDigest digest = alertService.enableDigest(60_000, 1000);
+
+        try (MockedStatic<EmailUtil> emailMock = Mockito.mockStatic(EmailUtil.class)) {
+            emailMock.when(() -> EmailUtil.sendEmail(anyString(), anyString(), anyString())).thenAnswer(inv -> null);
+
+            for (int i = 0; i < 3; i++) {
+                account.deposit(10.0);
+                assertTrue(alertService.sendTransactionAlert(customer, account, 10.0));
+            }
+            emailMock.verify(() -> EmailUtil.sendEmail(anyString(), anyString(), anyString()), never());
+            assertEquals(1, digest.getOpenDigestCount());
+
+            // Act
+            digest.flushAll();
+
+            // Assert
+            emailMock.verify(() -> EmailUtil.sendEmail(eq("ops@acme.com"), eq("Transaction Alert"),
+                    argThat(body -> body.contains("3 recent transactions") && body.contains("- New Balance: $1010.00")
+                            && body.contains("- New Balance: $1030.00"))),
+                    times(1));
+        }
+    }
+
+    @Test
+    public void digestReachingMaxEntries_isFlushedEarly() throws Exception {
+        alertService.enableDigest(60_000, 2);
+
+        try (MockedStatic<EmailUtil> emailMock = Mockito.mockStatic(EmailUtil.class)) {
+            emailMock.when(() -> EmailUtil.sendEmail(anyString(), anyString(), anyString())).thenAnswer(inv -> null);
+
+            alertService.sendTransactionAlert(customer, account, 10.0);
+            alertService.sendTransactionAlert(customer, account, 20.0);
+
+            emailMock.verify(() -> EmailUtil.sendEmail(anyString(), anyString(), contains2Transactions()), times(1));
+        }
+    }
+
+    @Test
+    public void minimumBalanceFineAlert_isNotDelayedByDigest() throws Exception {
+        alertService.enableDigest(60_000, 1000);
+
+        try (MockedStatic<EmailUtil> emailMock = Mockito.mockStatic(EmailUtil.class)) {
+            emailMock.when(() -> EmailUtil.sendEmail(anyString(), anyString(), anyString())).thenAnswer(inv -> null);
+
+            assertTrue(alertService.sendMinimumBalanceFineAlert(customer, account, 25.0, 50.0));
+
+            emailMock.verify(() -> EmailUtil.sendEmail(eq("ops@acme.com"), eq("Minimum Balance Alert"), anyString()),
+                    times(1));
+        }
+    }
+
+    @Test
+    public void singleTransactionDigest_usesStandardMessage() throws Exception {
+        TransactionAlertDigest digest = alertService.enableDigest(60_000, 1000);
+        String expected = alertService.generateAlertMessage(customer, account, 10.0);
+
+        try (MockedStatic<EmailUtil> emailMock = Mockito.mockStatic(EmailUtil.class)) {
+            emailMock.when(() -> EmailUtil.sendEmail(anyString(), anyString(), anyString())).thenAnswer(inv -> null);
+
+            alertService.sendTransactionAlert(customer, account, 10.0);
+            digest.flush(customer.getCUSTOMER_ID());
+
+            emailMock.verify(() -> EmailUtil.sendEmail(eq("ops@acme.com"), eq("Transaction Alert"), eq(expected)),
+                    times(1));
+        }
+    }
+
+    @Test
+    public void earlyFlush_cancelsItsTimer_soTheNextWindowGetsItsFullLength() throws Exception {
+        List<Integer> flushed = Collections.synchronizedList(new ArrayList<>());
+        TransactionAlertDigest digest = new TransactionAlertDigest(300, 2,
+                (c, entries) -> flushed.add(entries.size()));
+        try {
+            digest.add(customer, account, 10.0);
+            digest.add(customer, account, 20.0); // full: flushed early
+            Thread.sleep(150);
+            digest.add(customer, account, 30.0); // new window, ends ~450 ms
+
+            // Past the first window's end: its timer must not flush the second one
+            Thread.sleep(200);
+            assertEquals(Collections.singletonList(2), flushed);
+            assertEquals(1, digest.getOpenDigestCount());
+        } finally {
+            digest.close();
+        }
+        assertEquals(Arrays.asList(2, 1), flushed);
+    }
+
+    @Test
+    public void addAfterClose_sendsRightAwayInsteadOfThrowing() {
+        List<Integer> flushed = Collections.synchronizedList(new ArrayList<>());
+        TransactionAlertDigest digest = new TransactionAlertDigest(60_000, 10,
+                (c, entries) -> flushed.add(entries.size()));
+        digest.close();
+
+        digest.add(customer, account, 10.0);
+
+        assertEquals(Collections.singletonList(1), flushed);
+        assertEquals(0, digest.getOpenDigestCount());
+    }
+
+    private static String contains2Transactions() {
+        return argThat(body -> body.contains("2 recent transactions"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.customer.Person;
+import com.github.gabrielhumbertdev.util.EmailMessage;
+
+import jakarta.mail.MessagingException;
+
+//Async alert dispatch: queued sends, drop/failure counters, flush + shutdown
+public class AsyncAlertDispatcherTest {
+
+    @Test
+    public void alertService_inAsyncMode_queuesRenderedAlert_andFlushSendsIt() throws Exception {
+        List<EmailMessage> sent = Collections.synchronizedList(new ArrayList<>());
+        AsyncAlertDispatcher dispatcher = new AsyncAlertDispatcher(16, 2, sent::add);
+
+        AlertService alertService = new AlertService(new ArrayList<>(), new ArrayList<>());
+        alertService.setDispatcher(dispatcher);
+
+        Person customer = new Person("John Doe", "London");
+        customer.setEmail("john@test.com");
+        CheckingAccount account = new CheckingAccount();
+        account.setBalance(150.0);
+
+        // Act
+        assertTrue(alertService.sendTransactionAlert(customer, account, 50.0));
+        // Balance changes after the call must not leak into the queued message
+        account.setBalance(0.0);
+        assertTrue(dispatcher.flush(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1, sent.size());
+        assertEquals("john@test.com", sent.get(0).getTo());
+        assertEquals("Transaction Alert", sent.get(0).getSubject());
+        assertTrue(sent.get(0).getBody().contains("- New Balance: $150.00"));
+        assertEquals(1, dispatcher.getSentCount());
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void submit_whenQueueFull_dropsAndCounts() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncAlertDispatcher dispatcher = new AsyncAlertDispatcher(1, 1, message -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // First message occupies the worker, second fills the queue
+        assertTrue(dispatcher.submit(new EmailMessage("a@test.com", "s", "b")));
+        waitUntilQueueEmpty(dispatcher);
+        assertTrue(dispatcher.submit(new EmailMessage("b@test.com", "s", "b")));
+        assertFalse(dispatcher.submit(new EmailMessage("c@test.com", "s", "b")));
+
+        assertEquals(1, dispatcher.getDroppedCount());
+        assertEquals(1, dispatcher.getQueueDepth());
+
+        release.countDown();
+        assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(2, dispatcher.getSentCount());
+    }
+
+    @Test
+    public void deliveryFailure_isCounted_andWorkerKeepsRunning() throws Exception {
+        AsyncAlertDispatcher dispatcher = new AsyncAlertDispatcher(8, 1, message -> {
+            if (message.getTo().startsWith("bad")) {
+                throw new MessagingException("SMTP server unavailable");
+            }
+        });
+
+        dispatcher.submit(new EmailMessage("bad@test.com", "s", "b"));
+        dispatcher.submit(new EmailMessage("good@test.com", "s", "b"));
+        assertTrue(dispatcher.flush(5, TimeUnit.SECONDS));
+
+        assertEquals(1, dispatcher.getFailedCount());
+        assertEquals(1, dispatcher.getSentCount());
+
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+        assertFalse(dispatcher.submit(new EmailMessage("late@test.com", "s", "b")));
+    }
+
+    private void waitUntilQueueEmpty(AsyncAlertDispatcher dispatcher) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void submitRacingShutdown_everyAcceptedMessageIsSent() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            List<EmailMessage> sent = Collections.synchronizedList(new ArrayList<>());
+            AsyncAlertDispatcher dispatcher = new AsyncAlertDispatcher(1_000, 2, sent::add);
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> submitters = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread submitter = new Thread(() -> {
+                    await(start);
+                    for (int i = 0; i < 100; i++) {
+                        if (dispatcher.submit(new EmailMessage("a@test.com", "s", "b"))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+                submitter.start();
+                submitters.add(submitter);
+            }
+
+            start.countDown();
+            dispatcher.shutdown(5, TimeUnit.SECONDS);
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+
+            assertEquals(accepted.get(), dispatcher.getSubmittedCount());
+            assertEquals(accepted.get(), sent.size());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
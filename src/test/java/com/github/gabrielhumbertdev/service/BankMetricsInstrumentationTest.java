@@ -0,0 +1,115 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import com.github.gabrielhumbertdev.metrics.BankMetrics;
+import com.github.gabrielhumbertdev.metrics.MetricsRegistry;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.customer.Person;
+import com.github.gabrielhumbertdev.model.depositbox.SafetyDepositBox;
+import com.github.gabrielhumbertdev.util.EmailUtil;
+
+import jakarta.mail.MessagingException;
+
+//Services record latency + alert outcomes in BankMetrics (global: asserts use deltas)
+public class BankMetricsInstrumentationTest {
+
+    @Test
+    public void depositAndWithdraw_recordLatencyAndAlertOutcomes() {
+        AccountController controller = new AccountController();
+        Customer sent = controller.createCustomer("Ada", "London", "Person");
+        sent.setEmail("ada@test.com");
+        Customer failing = controller.createCustomer("Bob", "Leeds", "Person");
+        failing.setEmail("bob@test.com");
+        Customer noEmail = controller.createCustomer("Cy", "York", "Person");
+        Account first = controller.createAccount(sent, "Savings");
+        Account second = controller.createAccount(failing, "Savings");
+        Account third = controller.createAccount(noEmail, "Savings");
+
+        long deposits = BankMetrics.DEPOSIT_LATENCY.getCount();
+        long withdrawals = BankMetrics.WITHDRAW_LATENCY.getCount();
+        long renders = BankMetrics.ALERT_RENDER_LATENCY.getCount();
+        long sends = BankMetrics.ALERT_SEND_LATENCY.getCount();
+        long sentCount = BankMetrics.ALERTS_SENT_COUNT.sum();
+        long failedCount = BankMetrics.ALERTS_FAILED_COUNT.sum();
+        long skippedCount = BankMetrics.ALERTS_SKIPPED_COUNT.sum();
+
+        try (MockedStatic<EmailUtil> emailMock = Mockito.mockStatic(EmailUtil.class)) {
+            emailMock.when(() -> EmailUtil.sendEmail(eq("bob@test.com"), anyString(), anyString()))
+                    .thenThrow(new MessagingException("SMTP down"));
+
+            controller.deposit(sent, first, 100);
+            controller.deposit(failing, second, 100);
+            controller.deposit(noEmail, third, 100);
+            controller.withdraw(sent, first, 40);
+        }
+
+        assertEquals(deposits + 3, BankMetrics.DEPOSIT_LATENCY.getCount());
+        assertEquals(withdrawals + 1, BankMetrics.WITHDRAW_LATENCY.getCount());
+        assertEquals(renders + 4, BankMetrics.ALERT_RENDER_LATENCY.getCount());
+        assertEquals(sends + 3, BankMetrics.ALERT_SEND_LATENCY.getCount());
+        assertEquals(sentCount + 2, BankMetrics.ALERTS_SENT_COUNT.sum());
+        assertEquals(failedCount + 1, BankMetrics.ALERTS_FAILED_COUNT.sum());
+        assertEquals(skippedCount + 1, BankMetrics.ALERTS_SKIPPED_COUNT.sum());
+
+        String dump = BankMetrics.dump();
+        assertTrue(dump.contains(BankMetrics.DEPOSIT + " count="), dump);
+        assertTrue(dump.contains(BankMetrics.ALERTS_FAILED + " "), dump);
+    }
+
+    @Test
+    public void registerGauges_exportsLiveAccountAndCustomerCounts() {
+        AccountController controller = new AccountController();
+        MetricsRegistry metrics = new MetricsRegistry();
+        controller.registerGauges(metrics);
+
+        Customer customer = controller.createCustomer("Ada", "London", "Person");
+        controller.createAccount(customer, "Checking");
+        controller.createAccount(customer, "Savings");
+
+        assertEquals(Long.valueOf(2), metrics.value(BankMetrics.ACCOUNTS));
+        assertEquals(Long.valueOf(1), metrics.value(BankMetrics.CUSTOMERS));
+    }
+
+    @Test
+    public void blockedAllocation_recordsWaitTimeAndAvailableBoxGauge() throws Exception {
+        SafetyDepositBoxService service = SafetyDepositBoxService.getInstance();
+        service.getSafetyDepositBoxes().clear();
+        service.setNumberOfSafetyDepositBoxes(1);
+
+        SafetyDepositBox held = service.allocateSafetyDepositBox();
+        long waits = BankMetrics.BOX_ALLOCATE_WAIT_LATENCY.getCount();
+
+        AtomicReference<SafetyDepositBox> allocated = new AtomicReference<>();
+        Thread waiter = new Thread(() -> allocated.set(service.allocateSafetyDepositBox()));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(20);
+        assertEquals(Long.valueOf(0), BankMetrics.registry().value(BankMetrics.AVAILABLE_BOXES));
+
+        service.releaseSafetyDepositBox(held);
+        waiter.join(5_000);
+
+        assertFalse(waiter.isAlive());
+        assertNotNull(allocated.get());
+        assertEquals(waits + 1, BankMetrics.BOX_ALLOCATE_WAIT_LATENCY.getCount());
+        assertTrue(BankMetrics.BOX_ALLOCATE_WAIT_LATENCY.snapshot().getMaxNanos() >= 20_000_000L);
+
+        service.releaseSafetyDepositBox(allocated.get());
+        assertEquals(Long.valueOf(1), BankMetrics.registry().value(BankMetrics.AVAILABLE_BOXES));
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+
+//Bank-wide charge: per-customer rules, failures, totals, concurrent traffic
+public class BulkChargeJobTest {
+
+    @Test
+    public void run_appliesPersonAndCompanyRules_andReportsFailures() {
+        AccountController controller = new AccountController();
+        Customer person = controller.createCustomer("Ann", "London", "person");
+        Customer company = controller.createCustomer("Acme", "Leeds", "company");
+
+        Account personChecking = controller.createAccount(person, "checking");
+        Account personSavings = controller.createAccount(person, "savings");
+        Account companyChecking = controller.createAccount(company, "checking");
+        Account companySavings = controller.createAccount(company, "savings");
+        personSavings.setBalance(100.0);
+        companySavings.setBalance(15.0); // needs 20.00 (double charge): refused
+
+        BulkChargeResult result = new BulkChargeJob(controller).run(10.0);
+
+        assertEquals(2, result.getCustomersProcessed());
+        assertEquals(4, result.size());
+        assertEquals(-1_000, personChecking.getBalanceCents());
+        assertEquals(9_000, personSavings.getBalanceCents());
+        assertEquals(-1_000, companyChecking.getBalanceCents());
+        assertEquals(1_500, companySavings.getBalanceCents());
+
+        assertEquals(1, result.getFailureCount());
+        assertArrayEquals(new long[] { companySavings.getACCOUNT_ID() }, result.getFailedAccountIds());
+        assertEquals(5_000, result.getTotalRequestedCents());
+        assertEquals(3_000, result.getTotalWithdrawnCents());
+
+        for (int i = 0; i < result.size(); i++) {
+            if (result.getAccountId(i) == companySavings.getACCOUNT_ID()) {
+                assertEquals(company.getCUSTOMER_ID(), result.getCustomerId(i));
+                assertEquals(2_000, result.getRequestedCents(i));
+                assertEquals(0, result.getWithdrawnCents(i));
+            }
+        }
+    }
+
+    @Test
+    public void run_inParallelWithDeposits_losesNoUpdates() throws Exception {
+        AccountController controller = new AccountController();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Customer customer = controller.createCustomer("Customer " + i, "London", "person");
+            accounts.add(controller.createAccount(customer, "checking"));
+        }
+
+        // Concurrent traffic: +1.00 on every account, 20 times
+        Thread traffic = new Thread(() -> {
+            for (int round = 0; round < 20; round++) {
+                for (Account account : accounts) {
+                    account.depositCents(100);
+                }
+            }
+        });
+        traffic.start();
+        BulkChargeResult result = new BulkChargeJob(controller, new ForkJoinPool(4), 64).run(0.5);
+        traffic.join();
+
+        assertEquals(0, result.getFailureCount());
+        assertEquals(5_000 * 50L, result.getTotalWithdrawnCents());
+        for (Account account : accounts) {
+            assertEquals(2_000 - 50, account.getBalanceCents());
+        }
+    }
+
+    @Test
+    public void run_rejectsNonPositiveAmounts() {
+        BulkChargeJob job = new BulkChargeJob(new AccountController());
+
+        assertThrows(IllegalArgumentException.class, () -> job.run(0));
+        assertThrows(IllegalArgumentException.class, () -> job.run(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> job.runCents(-5));
+    }
+}
@@ -0,0 +1,224 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.gabrielhumbertdev.dao.TransactionJournal;
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.customer.Person;
+import com.github.gabrielhumbertdev.model.organisation.Company;
+
+//Binary snapshot: round trip of customers, accounts, ownership and id counters
+public class ControllerSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void restore_rebuildsCustomersAccountsAndOwnership() throws IOException {
+        AccountController controller = new AccountController();
+        Customer alice = controller.createCustomer("Alice", "1 Main St", "person");
+        alice.setEmail("alice@example.com");
+        Customer acme = controller.createCustomer("Acme Ltd", "Dock Road", "company");
+
+        CheckingAccount checking = (CheckingAccount) controller.createAccount(alice, "checking");
+        checking.setBalanceCents(12_345);
+        checking.issueNextCheckNumber();
+        checking.issueNextCheckNumber();
+        SavingsAccount savings = (SavingsAccount) controller.createAccount(acme, "savings");
+        savings.setBalanceCents(-1); // corrections may go negative
+        savings.setInterestRate(2.75);
+        controller.addAccountOwner(alice, savings); // joint: acme stays the primary owner
+
+        for (int i = 0; i < 40; i++) {
+            controller.createAccount(i % 2 == 0 ? alice : acme, i % 3 == 0 ? "savings" : "checking")
+                    .setBalanceCents(i * 100L);
+        }
+
+        // Only in the customer's own list, not registered in the controller
+        CheckingAccount offBook = new CheckingAccount();
+        acme.addAccount(offBook);
+
+        // Small blocks so the file holds several blocks of each kind
+        Path file = tempDir.resolve("bank.snapshot");
+        ControllerSnapshot written = ControllerSnapshot.write(controller, file, ForkJoinPool.commonPool(), 7, 1);
+        assertEquals(2, written.getCustomerCount());
+        assertEquals(43, written.getAccountCount());
+        assertEquals(Account.getNextAccountId(), written.getNextAccountId());
+        assertFalse(Files.exists(tempDir.resolve("bank.snapshot.tmp")));
+
+        AccountController restored = ControllerSnapshot.restore(file);
+
+        assertEquals(2, restored.getCustomers().size());
+        assertEquals(42, restored.getAccounts().size());
+        for (int i = 0; i < controller.getAccounts().size(); i++) {
+            Account original = controller.getAccounts().get(i);
+            Account copy = restored.getAccounts().get(i);
+            assertEquals(original.getACCOUNT_ID(), copy.getACCOUNT_ID());
+            assertEquals(original.getClass(), copy.getClass());
+            assertEquals(original.getBalanceCents(), copy.getBalanceCents());
+        }
+
+        Customer aliceCopy = restored.findCustomer(alice.getCUSTOMER_ID());
+        assertTrue(aliceCopy instanceof Person);
+        assertEquals("Alice", aliceCopy.getName());
+        assertEquals("1 Main St", aliceCopy.getAddress());
+        assertEquals("alice@example.com", aliceCopy.getEmail());
+        Customer acmeCopy = restored.findCustomer(acme.getCUSTOMER_ID());
+        assertTrue(acmeCopy instanceof Company);
+        assertNull(acmeCopy.getEmail());
+
+        CheckingAccount checkingCopy = (CheckingAccount) restored.findAccount(checking.getACCOUNT_ID());
+        assertEquals(12_345, checkingCopy.getBalanceCents());
+        assertEquals(3, checkingCopy.getNextCheckNumber());
+        assertSame(aliceCopy, restored.findOwner(checking.getACCOUNT_ID()));
+
+        SavingsAccount savingsCopy = (SavingsAccount) restored.findAccount(savings.getACCOUNT_ID());
+        assertEquals(-1, savingsCopy.getBalanceCents());
+        assertEquals(2.75, savingsCopy.getInterestRate());
+        assertSame(acmeCopy, restored.findOwner(savings.getACCOUNT_ID()));
+        assertTrue(aliceCopy.getAccounts().contains(savingsCopy)); // same object in both lists
+        assertTrue(acmeCopy.getAccounts().contains(savingsCopy));
+
+        // Account list order is kept; the off-book account survives only in the list
+        assertEquals(alice.getAccounts().size(), aliceCopy.getAccounts().size());
+        Account offBookCopy = acmeCopy.getAccounts().get(acmeCopy.getAccounts().size() - 1);
+        assertEquals(offBook.getACCOUNT_ID(), offBookCopy.getACCOUNT_ID());
+        assertNull(restored.findAccount(offBook.getACCOUNT_ID()));
+
+        // Restored objects behave like the originals
+        restored.removeAccount(savingsCopy);
+        assertFalse(aliceCopy.getAccounts().contains(savingsCopy));
+        assertFalse(acmeCopy.getAccounts().contains(savingsCopy));
+    }
+
+    @Test
+    public void restore_keepsIdCountersAheadOfRestoredIds() throws IOException {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("Bob", "2 High St", "person");
+        Account account = controller.createAccount(customer, "checking");
+
+        Path file = tempDir.resolve("ids.snapshot");
+        ControllerSnapshot written = ControllerSnapshot.write(controller, file);
+
+        AccountController restored = ControllerSnapshot.restore(file);
+        Customer newCustomer = restored.createCustomer("Carol", "3 Low St", "company");
+        Account newAccount = restored.createAccount(newCustomer, "savings");
+
+        assertTrue(newAccount.getACCOUNT_ID() >= written.getNextAccountId());
+        assertTrue(newAccount.getACCOUNT_ID() > account.getACCOUNT_ID());
+        assertTrue(newCustomer.getCUSTOMER_ID() >= written.getNextCustomerId());
+        assertEquals(written.getNextAccountId(), ControllerSnapshot.readHeader(file).getNextAccountId());
+    }
+
+    @Test
+    public void restoreWithJournal_replaysRecordsWrittenAfterTheSnapshot() throws IOException {
+        Path file = tempDir.resolve("bank.snapshot");
+        Path journalDir = tempDir.resolve("journal");
+        AccountController controller = new AccountController();
+        Customer alice;
+        CheckingAccount checking;
+        SavingsAccount closed;
+        Customer bob;
+        SavingsAccount savings;
+        long lastSequence;
+        try (TransactionJournal journal = TransactionJournal.open(journalDir)) {
+            controller.setJournal(journal);
+            alice = controller.createCustomer("Alice", "1 Main St", "person");
+            checking = (CheckingAccount) controller.createAccount(alice, "checking");
+            closed = (SavingsAccount) controller.createAccount(alice, "savings");
+            controller.deposit(alice, checking, 100.0);
+
+            ControllerSnapshot written = ControllerSnapshot.write(controller, file);
+            assertEquals(4, written.getJournalSequence());
+
+            // After the snapshot: only in the journal
+            controller.deposit(alice, checking, 50.0);
+            controller.withdraw(alice, checking, 120.0); // 30 left -> fine 25
+            controller.issueCheckNumber(checking);
+            controller.removeAccount(closed);
+            bob = controller.createCustomer("Bob Ltd", "Dock Road", "company");
+            savings = (SavingsAccount) controller.createAccount(bob, "savings");
+            controller.addAccountOwner(alice, savings);
+            controller.deposit(bob, savings, 200.0);
+            controller.setInterestRate(savings, 10.0);
+            controller.addInterest(savings);
+            controller.correctBalance(savings, 215.0);
+            controller.setCustomerEmail(alice, "alice@example.com"); // last: no alert is sent
+            lastSequence = journal.getLastSequence();
+        }
+
+        AccountController restored = ControllerSnapshot.restore(file, journalDir);
+        try (TransactionJournal journal = restored.getJournal()) {
+            CheckingAccount checkingCopy = (CheckingAccount) restored.findAccount(checking.getACCOUNT_ID());
+            assertEquals(500, checkingCopy.getBalanceCents());
+            assertEquals(2, checkingCopy.getNextCheckNumber());
+            assertNull(restored.findAccount(closed.getACCOUNT_ID()));
+            Customer aliceCopy = restored.findCustomer(alice.getCUSTOMER_ID());
+            assertEquals("alice@example.com", aliceCopy.getEmail());
+
+            Customer bobCopy = restored.findCustomer(bob.getCUSTOMER_ID());
+            assertTrue(bobCopy instanceof Company);
+            SavingsAccount savingsCopy = (SavingsAccount) restored.findAccount(savings.getACCOUNT_ID());
+            assertEquals(21_500, savingsCopy.getBalanceCents());
+            assertEquals(10.0, savingsCopy.getInterestRate());
+            assertSame(bobCopy, restored.findOwner(savings.getACCOUNT_ID()));
+            assertTrue(aliceCopy.getAccounts().contains(savingsCopy));
+            assertEquals(controller.getAccounts().size(), restored.getAccounts().size());
+
+            // New changes continue the same journal
+            assertEquals(lastSequence, journal.getLastSequence());
+            restored.deposit(bobCopy, savingsCopy, 1.0);
+            assertEquals(lastSequence + 1, journal.getLastSequence());
+        }
+    }
+
+    @Test
+    public void emptyController_roundTrips() throws IOException {
+        Path file = tempDir.resolve("empty.snapshot");
+        ControllerSnapshot.write(new AccountController(), file);
+
+        AccountController restored = ControllerSnapshot.restore(file);
+
+        assertTrue(restored.getCustomers().isEmpty());
+        assertTrue(restored.getAccounts().isEmpty());
+    }
+
+    @Test
+    public void restore_rejectsCorruptOrForeignFiles() throws IOException {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("Dan", "4 Side St", "person");
+        controller.createAccount(customer, "checking").setBalanceCents(500);
+        Path file = tempDir.resolve("bank.snapshot");
+        ControllerSnapshot.write(controller, file);
+
+        // Flip one byte of the first block (right after the header)
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[ControllerSnapshot.HEADER_SIZE + 10] ^= 0x40;
+        Path corrupt = Files.write(tempDir.resolve("corrupt.snapshot"), bytes);
+        assertThrows(IOException.class, () -> ControllerSnapshot.restore(corrupt));
+
+        Path foreign = Files.write(tempDir.resolve("foreign.snapshot"), new byte[256]);
+        assertThrows(IOException.class, () -> ControllerSnapshot.restore(foreign));
+
+        Path truncated = Files.write(tempDir.resolve("truncated.snapshot"),
+                Arrays.copyOf(Files.readAllBytes(file), ControllerSnapshot.HEADER_SIZE + 8));
+        assertThrows(IOException.class, () -> ControllerSnapshot.restore(truncated));
+    }
+}
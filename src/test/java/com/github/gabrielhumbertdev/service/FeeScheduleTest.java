@@ -0,0 +1,93 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+//Table-driven fees: configured tiers, hot swap, bulk pricing
+public class FeeScheduleTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(doubles = { -5, 0, 100, 100.001, 500, 500.5, 1000, 1999.99, 2000, 2000.01, 1e12, Double.NaN })
+    public void defaultSchedule_matchesOriginalLadder(double balance) {
+        double expected = balance <= 100 ? 20 : balance <= 500 ? 15 : balance <= 1000 ? 10 : balance <= 2000 ? 5 : 0;
+
+        assertEquals(expected, new FeeCalculatorServiceImpl().calculateFee(balance));
+    }
+
+    @Test
+    public void load_readsTiersFromFile() throws IOException {
+        Path file = tempDir.resolve("fees.properties");
+        Files.write(file, ("fee.tiers=50:12.50, 250.00:7\n" + "fee.default=1.25\n").getBytes(StandardCharsets.UTF_8));
+
+        FeeCalculatorServiceImpl service = new FeeCalculatorServiceImpl(FeeSchedule.load(file));
+
+        assertEquals(1_250, service.calculateFeeCents(5_000));
+        assertEquals(700, service.calculateFeeCents(5_001));
+        assertEquals(125, service.calculateFeeCents(25_001));
+        assertEquals(7.0, service.calculateFee(250));
+    }
+
+    @Test
+    public void invalidConfiguration_isRejected() {
+        Properties decreasing = new Properties();
+        decreasing.setProperty(FeeSchedule.TIERS_PROPERTY, "500:10,100:20");
+        Properties tooPrecise = new Properties();
+        tooPrecise.setProperty(FeeSchedule.TIERS_PROPERTY, "100:0.005");
+
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.fromProperties(new Properties()));
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.fromProperties(decreasing));
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.fromProperties(tooPrecise));
+    }
+
+    @Test
+    public void setSchedule_swapsTiersAtRuntime() {
+        FeeCalculatorServiceImpl service = new FeeCalculatorServiceImpl();
+        assertEquals(2_000, service.calculateFeeCents(5_000));
+
+        service.setSchedule(new FeeSchedule(new long[] { 10_000 }, new long[] { 100 }, 0));
+
+        assertEquals(100, service.calculateFeeCents(5_000));
+        assertEquals(0, service.calculateFeeCents(50_000));
+    }
+
+    @Test
+    public void bulkFees_matchSingleLookups_sequentialAndParallel() {
+        FeeCalculatorServiceImpl service = new FeeCalculatorServiceImpl();
+        Random random = new Random(7);
+
+        for (int length : new int[] { 1_000, FeeCalculatorServiceImpl.PARALLEL_THRESHOLD * 3 + 17 }) {
+            long[] balances = new long[length];
+            for (int i = 0; i < length; i++) {
+                balances[i] = random.nextInt(400_000) - 50_000;
+            }
+            balances[0] = Long.MIN_VALUE;
+            balances[1] = Long.MAX_VALUE;
+
+            long[] fees = new long[length];
+            service.calculateFeesCents(balances, fees);
+
+            long[] expected = Arrays.stream(balances).map(service::calculateFeeCents).toArray();
+            assertArrayEquals(expected, fees);
+            assertArrayEquals(expected, service.calculateFeesCents(LongStream.of(balances)).toArray());
+            assertEquals(LongStream.of(expected).sum(), service.totalFeesCents(balances));
+        }
+    }
+}
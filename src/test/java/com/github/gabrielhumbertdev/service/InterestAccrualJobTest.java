@@ -0,0 +1,80 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+
+//Bulk interest accrual: every savings account once, totals reported
+public class InterestAccrualJobTest {
+
+    @Test
+    public void run_appliesInterestToSavingsOnly_andReportsTotals() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            SavingsAccount savings = new SavingsAccount();
+            savings.setInterestRate(5.0);
+            savings.deposit(100.0);
+            accounts.add(savings);
+
+            CheckingAccount checking = new CheckingAccount();
+            checking.deposit(100.0);
+            accounts.add(checking);
+        }
+        AccountService accountService = mock(AccountService.class);
+        when(accountService.getAccounts()).thenReturn(accounts);
+
+        // Small chunks so the work is really split across the pool
+        InterestAccrualJob job = new InterestAccrualJob(accountService, new ForkJoinPool(4), 256);
+
+        // Act
+        InterestAccrualResult result = job.run();
+
+        // Assert
+        assertEquals(10_000, result.getAccountsProcessed());
+        assertEquals(10_000 * 500L, result.getTotalInterestCents());
+        for (Account account : accounts) {
+            double expected = account instanceof SavingsAccount ? 105.0 : 100.0;
+            assertEquals(expected, account.getBalance());
+        }
+    }
+
+    @Test
+    public void run_withNonRandomAccessList_stillProcessesEveryAccount() {
+        List<Account> accounts = new LinkedList<>();
+        for (int i = 0; i < 1_000; i++) {
+            SavingsAccount savings = new SavingsAccount();
+            savings.setInterestRate(1.0);
+            savings.deposit(10.0);
+            accounts.add(savings);
+        }
+        AccountService accountService = mock(AccountService.class);
+        when(accountService.getAccounts()).thenReturn(accounts);
+
+        InterestAccrualResult result = new InterestAccrualJob(accountService).run();
+
+        assertEquals(1_000, result.getAccountsProcessed());
+        assertEquals(1_000 * 10L, result.getTotalInterestCents());
+    }
+
+    @Test
+    public void run_withNoAccounts_returnsEmptyResult() {
+        AccountService accountService = mock(AccountService.class);
+        when(accountService.getAccounts()).thenReturn(new ArrayList<>());
+
+        InterestAccrualResult result = new InterestAccrualJob(accountService).run();
+
+        assertEquals(0, result.getAccountsProcessed());
+        assertEquals(0, result.getTotalInterestCents());
+    }
+}
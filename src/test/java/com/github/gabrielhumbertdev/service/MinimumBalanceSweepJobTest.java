@@ -0,0 +1,112 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.util.EmailMessage;
+
+//End-of-day sweep: fines every checking account below minimum + bulk alerts
+public class MinimumBalanceSweepJobTest {
+
+    @Test
+    public void runOnce_finesOnlyCheckingBelowMinimum_andAlertsOwners() throws Exception {
+        AccountController controller = new AccountController();
+        List<EmailMessage> sent = Collections.synchronizedList(new ArrayList<>());
+        AsyncAlertDispatcher dispatcher = new AsyncAlertDispatcher(10_000, 2, sent::add);
+        controller.getAlertService().setDispatcher(dispatcher);
+
+        int belowMinimum = 0;
+        for (int i = 0; i < 2_000; i++) {
+            Customer customer = controller.createCustomer("Customer " + i, "London", "person");
+            customer.setEmail("c" + i + "@test.com");
+
+            Account checking = controller.createAccount(customer, "checking");
+            // Every third account dropped below $50 without a withdrawal
+            checking.setBalance(i % 3 == 0 ? 40.0 : 80.0);
+            if (i % 3 == 0) {
+                belowMinimum++;
+            }
+
+            Account savings = controller.createAccount(customer, "savings");
+            savings.setBalance(10.0); // savings are never fined
+        }
+
+        MinimumBalanceSweepJob job = new MinimumBalanceSweepJob(controller, new ForkJoinPool(4), 128);
+
+        // Act
+        MinimumBalanceSweepResult result = job.runOnce();
+        assertTrue(dispatcher.flush(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(4_000, result.getAccountsScanned());
+        assertEquals(belowMinimum, result.getAccountsFined());
+        assertEquals(belowMinimum * 2_500L, result.getTotalFinesCents());
+        assertEquals(belowMinimum, result.getAlertsSent());
+        assertEquals(belowMinimum, sent.size());
+        assertTrue(sent.get(0).getSubject().equals("Minimum Balance Alert"));
+
+        for (Account account : controller.getAccounts()) {
+            if (account.getBalanceCents() == 1_500) { // 40 - 25
+                continue;
+            }
+            assertTrue(account.getBalanceCents() == 8_000 || account.getBalanceCents() == 1_000);
+        }
+
+        assertEquals(1.0, job.getProgress());
+        assertTrue(job.getThroughputPerSecond() > 0);
+        assertFalse(job.isRunning());
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void alerts_areSentThroughTheAlertExecutor() throws Exception {
+        AccountController controller = new AccountController();
+        List<EmailMessage> sent = Collections.synchronizedList(new ArrayList<>());
+        AsyncAlertDispatcher dispatcher = new AsyncAlertDispatcher(100, 1, sent::add);
+        controller.getAlertService().setDispatcher(dispatcher);
+        for (int i = 0; i < 10; i++) {
+            Customer customer = controller.createCustomer("Customer " + i, "London", "person");
+            customer.setEmail("c" + i + "@test.com");
+            controller.createAccount(customer, "checking").setBalance(10.0);
+        }
+
+        AtomicInteger tasks = new AtomicInteger();
+        MinimumBalanceSweepJob job = new MinimumBalanceSweepJob(controller, new ForkJoinPool(2), 4, task -> {
+            tasks.incrementAndGet();
+            new Thread(task).start();
+        });
+
+        MinimumBalanceSweepResult result = job.runOnce();
+        assertTrue(dispatcher.flush(10, TimeUnit.SECONDS));
+
+        assertEquals(10, result.getAlertsSent());
+        assertEquals(10, tasks.get());
+        assertEquals(10, sent.size());
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void fineForAccountWithoutEmail_isCountedAsFailedAlert() {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("No Mail", "London", "person");
+        controller.createAccount(customer, "checking").setBalance(10.0);
+
+        MinimumBalanceSweepResult result = new MinimumBalanceSweepJob(controller).runOnce();
+
+        assertEquals(1, result.getAccountsFined());
+        assertEquals(0, result.getAlertsSent());
+        assertEquals(1, result.getAlertsFailed());
+    }
+}
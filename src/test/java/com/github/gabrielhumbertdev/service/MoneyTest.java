@@ -0,0 +1,90 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+import com.github.gabrielhumbertdev.util.Money;
+
+//Fixed-point (long cents) money path: conversions, interest rounding, fees
+public class MoneyTest {
+
+    @Test
+    public void toCents_roundsToNearestCent_halvesAwayFromZero() {
+        assertEquals(12_345, Money.toCents(123.45));
+        assertEquals(1, Money.toCents(0.005));
+        assertEquals(-1, Money.toCents(-0.005));
+        assertEquals(0, Money.toCents(0.004));
+        assertFalse(Money.isConvertible(Double.NaN));
+        assertFalse(Money.isConvertible(Double.POSITIVE_INFINITY));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // cents, rate micros, expected interest cents
+            "10000, 5000000, 500", // $100 @ 5% = $5.00
+            "50, 1000000, 0", // 0.5 cent -> round half to even (0)
+            "150, 1000000, 2", // 1.5 cents -> 2
+            "250, 1000000, 2", // 2.5 cents -> 2
+            "351, 1000000, 4", // 3.51 cents -> 4
+            "-250, 1000000, -2", // negative balances round symmetrically
+            "9000000000000000000, 1000000, 90000000000000000" // no intermediate overflow
+    })
+    public void applyRate_isExact_andRoundsHalfToEven(long cents, long rateMicros, long expected) {
+        assertEquals(expected, Money.applyRate(cents, rateMicros));
+    }
+
+    @Test
+    public void savingsAddInterest_creditsRoundedCents() {
+        SavingsAccount account = new SavingsAccount();
+        account.setInterestRate(3.0);
+        account.setBalanceCents(12_345); // $123.45 * 3% = 370.35 cents
+
+        assertEquals(370, account.addInterestCents());
+        assertEquals(12_715, account.getBalanceCents());
+        assertEquals(127.15, account.getBalance());
+    }
+
+    @Test
+    public void savingsAddInterest_withUnusableRate_isSkipped() {
+        SavingsAccount account = new SavingsAccount();
+        account.setInterestRate(Double.NaN);
+        account.deposit(100.0);
+
+        account.addInterest();
+
+        assertEquals(100.0, account.getBalance());
+    }
+
+    @Test
+    public void repeatedDeposits_doNotDrift() {
+        CheckingAccount account = new CheckingAccount();
+        for (int i = 0; i < 1_000; i++) {
+            account.deposit(0.1);
+        }
+        assertEquals(10_000, account.getBalanceCents());
+        assertEquals(100.0, account.getBalance());
+    }
+
+    @Test
+    public void checkingFine_inCents() {
+        CheckingAccount account = new CheckingAccount();
+        account.setBalanceCents(4_999);
+
+        assertEquals(2_500, account.applyMinimumBalanceFineIfNeededCents());
+        assertEquals(2_499, account.getBalanceCents());
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { -5, 0, 100, 100.01, 500, 750, 1000, 1000.01, 2000, 2000.01, 1e9 })
+    public void calculateFeeCents_matchesDoubleTiers(double balance) {
+        FeeCalculatorService service = new FeeCalculatorServiceImpl();
+        assertEquals(Money.toCents(service.calculateFee(balance)), service.calculateFeeCents(Money.toCents(balance)));
+    }
+}
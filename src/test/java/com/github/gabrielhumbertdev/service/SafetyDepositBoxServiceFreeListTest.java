@@ -0,0 +1,114 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.depositbox.SafetyDepositBox;
+
+//Free-list allocation: released boxes are reused, counts stay exact
+public class SafetyDepositBoxServiceFreeListTest {
+
+    private SafetyDepositBoxService service;
+
+    @BeforeEach
+    public void setup() {
+        service = SafetyDepositBoxService.getInstance();
+
+        // Reset singleton state so tests are stable
+        service.getSafetyDepositBoxes().clear();
+        service.setNumberOfSafetyDepositBoxes(10_000);
+    }
+
+    @Test
+    public void largeVault_releaseAndReallocate_reusesReleasedBoxes() {
+        List<SafetyDepositBox> boxes = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            boxes.add(service.allocateSafetyDepositBox());
+        }
+        assertEquals(0, service.getNumberOfAvailableSafetyDepositBoxes());
+
+        SafetyDepositBox released = boxes.get(4_321);
+        service.releaseSafetyDepositBox(released);
+        assertEquals(1, service.getNumberOfAvailableSafetyDepositBoxes());
+        assertSame(released, service.getReleasedSafetyDepositBox());
+
+        SafetyDepositBox reallocated = service.allocateSafetyDepositBox();
+
+        assertSame(released, reallocated);
+        assertTrue(reallocated.isAllotted());
+        assertEquals(0, service.getNumberOfAvailableSafetyDepositBoxes());
+        assertEquals(10_000, service.getSafetyDepositBoxes().size());
+    }
+
+    @Test
+    public void releasingTwice_doesNotHandOutTheSameBoxTwice() {
+        service.setNumberOfSafetyDepositBoxes(2);
+        SafetyDepositBox first = service.allocateSafetyDepositBox();
+        service.allocateSafetyDepositBox();
+
+        service.releaseSafetyDepositBox(first);
+        service.releaseSafetyDepositBox(first);
+        assertEquals(1, service.getNumberOfAvailableSafetyDepositBoxes());
+
+        SafetyDepositBox again = service.allocateSafetyDepositBox();
+        assertSame(first, again);
+        assertNull(service.getReleasedSafetyDepositBox());
+    }
+
+    @Test
+    public void clearingBoxListFromOutside_resyncsFreeList() {
+        SafetyDepositBox box = service.allocateSafetyDepositBox();
+        service.releaseSafetyDepositBox(box);
+
+        service.getSafetyDepositBoxes().clear();
+
+        assertEquals(0, service.getNumberOfAvailableSafetyDepositBoxes());
+        assertNotSame(box, service.allocateSafetyDepositBox());
+    }
+
+    @Test
+    public void boxesAllottedFromOutside_leaveTheCountOnceSkipped() {
+        List<SafetyDepositBox> boxes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            boxes.add(service.allocateSafetyDepositBox());
+        }
+        for (SafetyDepositBox box : boxes) {
+            service.releaseSafetyDepositBox(box);
+        }
+
+        // Not the head of the free-list: still counted until it is skipped
+        boxes.get(1).setAllotted(true);
+        assertEquals(3, service.getNumberOfAvailableSafetyDepositBoxes());
+
+        assertNotSame(boxes.get(1), service.allocateSafetyDepositBox());
+        assertEquals(1, service.getNumberOfAvailableSafetyDepositBoxes());
+        assertNotSame(boxes.get(1), service.allocateSafetyDepositBox());
+        assertEquals(0, service.getNumberOfAvailableSafetyDepositBoxes());
+    }
+
+    @Test
+    public void findAndHolder_trackTheAllocatingCustomer() {
+        Customer customer = new AccountController().createCustomer("Ada", "London", "person");
+        SafetyDepositBox anonymous = service.allocateSafetyDepositBox();
+        SafetyDepositBox held = service.allocateSafetyDepositBox(customer);
+
+        assertSame(held, service.findSafetyDepositBox((int) held.getId()));
+        assertNull(service.findSafetyDepositBox(0));
+        assertNull(service.findSafetyDepositBox(3));
+        assertSame(customer, service.getHolder(held));
+        assertNull(service.getHolder(anonymous));
+
+        service.releaseSafetyDepositBox(held);
+        assertNull(service.getHolder(held));
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.gabrielhumbertdev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.depositbox.SafetyDepositBox;
+import com.github.gabrielhumbertdev.util.EmailUtil;
+import com.github.gabrielhumbertdev.util.TaskExecutors;
+
+//Async controller operations, executor-based alert sends and lock-based box waiting
+public class VirtualThreadExecutionTest {
+
+    @Test
+    public void perTaskExecutor_usesVirtualThreadsOnlyWhenTheJvmHasThem() throws Exception {
+        boolean java21 = isJava21OrLater();
+        assertEquals(java21, TaskExecutors.isVirtualThreadSupported());
+
+        ExecutorService executor = TaskExecutors.newPerTaskExecutor("test-task");
+        try {
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            if (!TaskExecutors.usesVirtualThreads()) {
+                assertEquals("test-task-1", threadName);
+            }
+            assertEquals(TaskExecutors.usesVirtualThreads(),
+                    executor.submit(() -> TaskExecutors.isVirtualThread(Thread.currentThread())).get(5,
+                            TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> TaskExecutors.newPerTaskExecutor(" "));
+    }
+
+    @Test
+    public void platformFallback_isBounded_andRejectsBeyondItsQueue() throws Exception {
+        if (TaskExecutors.usesVirtualThreads()) {
+            return; // the limits only apply to platform threads
+        }
+        ExecutorService executor = TaskExecutors.newPerTaskExecutor("bounded", 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        Runnable blocker = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            executor.execute(blocker);
+            executor.execute(blocker);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(blocker); // queued
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(blocker));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void depositAndWithdrawAsync_applyEveryOperation() throws Exception {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("Ada", "London", "Person");
+        Account account = controller.createAccount(customer, "Checking");
+        controller.deposit(customer, account, 1_000);
+
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            futures.add(controller.depositAsync(customer, account, 2));
+            futures.add(controller.withdrawAsync(customer, account, 1));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        assertEquals(1_000 + 2_000, account.getBalance(), 0.0001);
+        assertThrows(IllegalArgumentException.class, () -> controller.depositAsync(null, account, 1));
+        assertThrows(IllegalArgumentException.class, () -> controller.withdrawAsync(customer, null, 1));
+    }
+
+    @Test
+    public void asyncResults_reportRefusedOperations() throws Exception {
+        AccountController controller = new AccountController();
+        Customer customer = controller.createCustomer("Ada", "London", "Person");
+        Account account = controller.createAccount(customer, "Savings");
+
+        assertTrue(controller.depositAsync(customer, account, 10).get(5, TimeUnit.SECONDS));
+        assertEquals(4.0, controller.withdrawAsync(customer, account, 4).get(5, TimeUnit.SECONDS), 0.0001);
+
+        // Insufficient funds / under a cent: refused, balance untouched
+        assertEquals(0.0, controller.withdrawAsync(customer, account, 50).get(5, TimeUnit.SECONDS), 0.0);
+        assertFalse(controller.depositAsync(customer, account, 0.001).get(5, TimeUnit.SECONDS));
+        assertEquals(600, account.getBalanceCents());
+    }
+
+    @Test
+    public void sendExecutor_acceptsAlertAndSendsWhenTaskRuns() {
+        AccountController controller = new AccountController();
+        List<Runnable> sends = new ArrayList<>();
+        controller.getAlertService().setSendExecutor(sends::add);
+        Customer customer = controller.createCustomer("Ada", "London", "Person");
+        customer.setEmail("ada@test.com");
+        Account account = controller.createAccount(customer, "Savings");
+
+        try (MockedStatic<EmailUtil> emailMock = Mockito.mockStatic(EmailUtil.class)) {
+            controller.deposit(customer, account, 50);
+
+            // Rendered and accepted, not sent yet
+            assertEquals(1, sends.size());
+            emailMock.verify(() -> EmailUtil.sendEmail(anyString(), anyString(), anyString()), never());
+
+            sends.get(0).run();
+            emailMock.verify(() -> EmailUtil.sendEmail(eq("ada@test.com"), eq("Transaction Alert"),
+                    org.mockito.ArgumentMatchers.contains("$50.00")), times(1));
+        }
+    }
+
+    @Test
+    public void manyBlockedAllocations_areAllServedAsBoxesAreReleased() throws Exception {
+        SafetyDepositBoxService service = SafetyDepositBoxService.getInstance();
+        service.getSafetyDepositBoxes().clear();
+        service.setNumberOfSafetyDepositBoxes(2);
+
+        int waiterCount = 200;
+        ExecutorService executor = TaskExecutors.newPerTaskExecutor("box-waiter");
+        Set<SafetyDepositBox> held = ConcurrentHashMap.newKeySet();
+        AtomicInteger served = new AtomicInteger();
+        List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        try {
+            for (int i = 0; i < waiterCount; i++) {
+                waiters.add(CompletableFuture.runAsync(() -> {
+                    SafetyDepositBox box = service.allocateSafetyDepositBox();
+                    assertNotNull(box);
+                    assertTrue(held.add(box), "box handed to two holders");
+                    served.incrementAndGet();
+                    pause(); // hold the box so the others queue up
+                    held.remove(box);
+                    service.releaseSafetyDepositBox(box);
+                }, executor));
+            }
+            CompletableFuture.allOf(waiters.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(waiterCount, served.get());
+        int created = service.getSafetyDepositBoxes().size();
+        assertTrue(created >= 1 && created <= 2);
+        assertEquals(created, service.getNumberOfAvailableSafetyDepositBoxes());
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isJava21OrLater() {
+        String version = System.getProperty("java.specification.version");
+        return !version.startsWith("1.") && Integer.parseInt(version) >= 21;
+    }
+}
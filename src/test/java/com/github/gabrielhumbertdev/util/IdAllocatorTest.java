@@ -0,0 +1,151 @@
+package com.github.gabrielhumbertdev.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.gabrielhumbertdev.model.account.Account;
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.account.SavingsAccount;
+
+//Block-leased ids: unique across threads, on the start + k * step grid, survive restarts
+public class IdAllocatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void singleThread_keepsStartAndStep() {
+        IdAllocator allocator = new IdAllocator(2_000_000, 7, 4);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(2_000_000 + 7L * i, allocator.next());
+        }
+        assertEquals(2_000_000 + 7L * 12, allocator.getHighWaterMark()); // 3 blocks of 4 leased
+    }
+
+    @Test
+    public void concurrentThreads_neverShareAnId() throws Exception {
+        IdAllocator allocator = new IdAllocator(1000, 5, 16);
+        int threadCount = 8;
+        int perThread = 50_000;
+        long[][] ids = new long[threadCount][perThread];
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            long[] mine = ids[t];
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    mine[i] = allocator.next();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Long> seen = new HashSet<>();
+        for (long[] mine : ids) {
+            for (long id : mine) {
+                assertEquals(0, (id - 1000) % 5);
+                assertTrue(id < allocator.getHighWaterMark());
+                assertTrue(seen.add(id), "duplicate id " + id);
+            }
+        }
+        assertEquals(threadCount * perThread, seen.size());
+    }
+
+    @Test
+    public void advanceAndObserve_skipLeasedBlocksAndStayOnGrid() {
+        IdAllocator allocator = new IdAllocator(1000, 5, 64);
+        assertEquals(1000, allocator.next());
+
+        allocator.advance(5_001); // rounded up to the grid
+        assertEquals(5_005, allocator.next());
+
+        allocator.observe(100_000);
+        assertEquals(100_005, allocator.next());
+
+        allocator.observe(1_005); // below the frontier: block kept
+        assertEquals(100_010, allocator.next());
+
+        long frontier = allocator.getHighWaterMark();
+        allocator.advance(10); // never backwards, but the leased block is dropped
+        assertEquals(frontier, allocator.next());
+    }
+
+    @Test
+    public void persistedHighWaterMark_resumesAboveEveryIdAfterRestart() throws IOException {
+        Path file = tempDir.resolve("account-ids.hwm");
+        IdAllocator first = new IdAllocator(1000, 5, 8);
+        first.persistTo(file, 2);
+
+        long last = 0;
+        for (int i = 0; i < 100; i++) {
+            last = first.next();
+        }
+        assertTrue(IdAllocator.readMark(file) > last);
+
+        // "Restart": a fresh allocator reads the mark back
+        IdAllocator second = new IdAllocator(1000, 5, 8);
+        second.persistTo(file, 2);
+        long next = second.next();
+
+        assertTrue(next > last);
+        assertEquals(0, (next - 1000) % 5);
+        assertThrows(IllegalArgumentException.class, () -> second.persistTo(file, 0));
+    }
+
+    @Test
+    public void accountsCreatedConcurrently_getUniqueIds() throws Exception {
+        int threadCount = 4;
+        int perThread = 10_000;
+        List<List<Account>> created = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            List<Account> mine = new ArrayList<>(perThread);
+            created.add(mine);
+            boolean savings = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    mine.add(savings ? new SavingsAccount() : new CheckingAccount());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (List<Account> mine : created) {
+            for (Account account : mine) {
+                assertTrue(ids.add(account.getACCOUNT_ID()));
+                assertEquals(0, (account.getACCOUNT_ID() - 1000) % 5);
+            }
+        }
+        assertTrue(Account.getNextAccountId() > ids.stream().mapToLong(Long::longValue).max().getAsLong());
+    }
+}
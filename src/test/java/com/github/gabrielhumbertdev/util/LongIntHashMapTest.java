@@ -0,0 +1,41 @@
+package com.github.gabrielhumbertdev.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+//Primitive id index: must behave exactly like a HashMap<Long, Integer>
+public class LongIntHashMapTest {
+
+    @Test
+    public void randomOperations_matchHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Small key space + step of 5 (like account ids) forces collisions and deletes
+            long key = 1000 + 5L * random.nextInt(5_000);
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? -1 : previous, map.put(key, i, -1));
+            } else if (operation == 1) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            } else {
+                Integer value = expected.get(key);
+                assertEquals(value == null ? -1 : value, map.get(key, -1));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey(), -1));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.gabrielhumbertdev.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+
+//SMTP client pool: connection reuse, batch sends, failure paths (in-memory connections)
+public class MailClientTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger connects = new AtomicInteger();
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean refuseCreate;
+    private volatile boolean refuseConnect;
+
+    @Test
+    public void sends_reuseOnePooledConnection() throws MessagingException {
+        MailClient client = newClient(2, 0);
+
+        for (int i = 0; i < 5; i++) {
+            client.send("user" + i + "@test.com", "s", "b");
+        }
+
+        assertEquals(5, sent.size());
+        assertEquals(1, created.get());
+        assertEquals(1, connects.get());
+        client.close();
+        assertThrows(MessagingException.class, () -> client.send("a@test.com", "s", "b"));
+    }
+
+    @Test
+    public void sendBatch_usesOneConnection_andReturnsOnlyRejectedMessages() {
+        MailClient client = newClient(2, 0);
+        EmailMessage rejected = new EmailMessage("reject@test.com", "s", "b");
+
+        List<EmailMessage> failed = client.sendBatch(Arrays.asList(new EmailMessage("a@test.com", "s", "b"),
+                rejected, new EmailMessage("b@test.com", "s", "b")));
+
+        assertEquals(Collections.singletonList(rejected), failed);
+        assertEquals(Arrays.asList("a@test.com", "b@test.com"), sent);
+        assertEquals(1, connects.get());
+    }
+
+    @Test
+    public void idleConnection_isReopenedBeforeUse() throws Exception {
+        MailClient client = newClient(1, 1);
+
+        client.send("a@test.com", "s", "b");
+        Thread.sleep(5);
+        client.send("b@test.com", "s", "b");
+
+        assertEquals(1, created.get());
+        assertEquals(2, connects.get());
+    }
+
+    @Test
+    public void failedConnectionCreation_doesNotUseUpThePool() {
+        MailClient client = newClient(2, 0);
+        refuseCreate = true;
+
+        // More failures than the pool has connections
+        for (int i = 0; i < 5; i++) {
+            assertThrows(MessagingException.class, () -> client.send("a@test.com", "s", "b"));
+        }
+
+        refuseCreate = false;
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> client.send("a@test.com", "s", "b"));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void failedConnect_returnsTheConnection_andNextSendReconnects() {
+        MailClient client = newClient(1, 0);
+        refuseConnect = true;
+
+        assertThrows(MessagingException.class, () -> client.send("a@test.com", "s", "b"));
+        assertEquals(1, client.sendBatch(Collections.singletonList(new EmailMessage("a@test.com", "s", "b"))).size());
+
+        refuseConnect = false;
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> client.send("a@test.com", "s", "b"));
+        assertEquals(1, created.get());
+        assertEquals(1, connects.get());
+    }
+
+    @Test
+    public void droppedConnection_isReconnectedAndTheSendRetriedOnce() throws MessagingException {
+        List<FakeConnection> opened = new ArrayList<>();
+        MailClient client = new MailClient(() -> {
+            FakeConnection connection = new FakeConnection();
+            opened.add(connection);
+            return connection;
+        }, 1, 0);
+        client.send("a@test.com", "s", "b");
+
+        opened.get(0).dropOnNextSend = true;
+        client.send("b@test.com", "s", "b");
+
+        assertEquals(Arrays.asList("a@test.com", "b@test.com"), sent);
+        assertEquals(2, connects.get());
+        assertTrue(opened.get(0).isConnected());
+    }
+
+    // ============================
+    // Fake connection
+    // ============================
+
+    private MailClient newClient(int maxConnections, long maxIdleMillis) {
+        return new MailClient(() -> {
+            if (refuseCreate) {
+                throw new MessagingException("No transport");
+            }
+            return new FakeConnection();
+        }, maxConnections, maxIdleMillis);
+    }
+
+    private final class FakeConnection implements MailClient.Connection {
+
+        private boolean connected;
+        private boolean dropOnNextSend;
+
+        private FakeConnection() {
+            created.incrementAndGet();
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void connect() throws MessagingException {
+            if (refuseConnect) {
+                throw new MessagingException("Connection refused");
+            }
+            connects.incrementAndGet();
+            connected = true;
+        }
+
+        @Override
+        public void send(EmailMessage message) throws MessagingException {
+            if (!connected) {
+                throw new IllegalStateException("not connected");
+            }
+            if (dropOnNextSend) {
+                // Server closed the connection under us
+                dropOnNextSend = false;
+                connected = false;
+                throw new MessagingException("Connection reset");
+            }
+            if (message.getTo().startsWith("reject")) {
+                throw new SendFailedException("Recipient rejected: " + message.getTo());
+            }
+            sent.add(message.getTo());
+        }
+
+        @Override
+        public void close() {
+            connected = false;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.gabrielhumbertdev.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.gabrielhumbertdev.model.account.CheckingAccount;
+import com.github.gabrielhumbertdev.model.customer.Customer;
+import com.github.gabrielhumbertdev.model.customer.Person;
+import com.github.gabrielhumbertdev.service.AlertService;
+
+//Pre-compiled templates: same text as the old concatenation, safe across threads
+public class MessageTemplateTest {
+
+    @Test
+    public void render_fillsPlaceholdersInOrder() {
+        MessageTemplate template = MessageTemplate.compile("Hi {name}: ${amount} on {account} ({id})");
+
+        String message = template.begin().text("Ann").money(-0.5).number(1005).decimal(3.0).finish();
+
+        assertEquals("Hi Ann: $-0.50 on 1005 (3.0)", message);
+        assertEquals(4, template.getPlaceholderCount());
+    }
+
+    @Test
+    public void wrongNumberOfValues_isRejected() {
+        MessageTemplate template = MessageTemplate.compile("{a} and {b}");
+
+        assertThrows(IllegalStateException.class, () -> template.begin().text("x").finish());
+        assertThrows(IllegalStateException.class, () -> template.begin().text("x").text("y").text("z"));
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("broken {name"));
+
+        // The thread's buffer is usable again after a failed render
+        assertEquals("x and y", template.begin().text("x").text("y").finish());
+    }
+
+    @Test
+    public void alertMessages_fromManyThreads_matchStandardFormat() throws Exception {
+        Customer customer = new Person("  John Doe ", "London");
+        CheckingAccount account = new CheckingAccount();
+        account.setBalanceCents(150_000);
+        List<Customer> customers = new ArrayList<>();
+        customers.add(customer);
+        List<com.github.gabrielhumbertdev.model.account.Account> accounts = new ArrayList<>();
+        accounts.add(account);
+        AlertService alertService = new AlertService(customers, accounts);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int seed = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        double amount = seed * 1000 + i / 8.0;
+                        String expected = "Hello John Doe, We would like to notify you of a recent transaction on your account.\n"
+                                + "Transaction Details:\n" + "- Amount: $" + new java.text.DecimalFormat("0.00").format(amount)
+                                + "\n" + "- Account Number: " + account.getACCOUNT_ID() + "\n"
+                                + "- New Balance: $1500.00\n\n" + "Thank you for banking with us.\n"
+                                + "Best regards,\n" + "Your Bank";
+                        assertEquals(expected, alertService.generateAlertMessage(customer, account, amount));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.gabrielhumbertdev.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+//MoneyFormat must match DecimalFormat("0.00") character for character
+public class MoneyFormatTest {
+
+    private final DecimalFormat reference = new DecimalFormat("0.00");
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0.0, -0.0, 0.005, 0.015, 0.125, 0.135, 1.005, 2.675, -2.675, -0.001, -0.005, 0.0049999,
+            1500.0, 123456789.125, 99999999999.995, 1e11, 9.320388123558462E14, -1e300, 4.9e-324, Double.MIN_NORMAL, Double.MAX_VALUE,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY })
+    public void edgeCases_matchDecimalFormat(double value) {
+        assertEquals(reference.format(value), MoneyFormat.format(value));
+    }
+
+    @Test
+    public void randomValues_matchDecimalFormat() {
+        Random random = new Random(12345);
+        for (int i = 0; i < 200_000; i++) {
+            double value;
+            switch (i % 5) {
+            case 0: // typical balances
+                value = (random.nextDouble() - 0.3) * 100_000;
+                break;
+            case 1: // exact half-cent candidates
+                value = (random.nextInt(2_000_000) - 1_000_000) / 1000.0 + 0.005;
+                break;
+            case 2: // amounts converted from cents
+                value = (random.nextLong() % 10_000_000_000L) / 100.0;
+                break;
+            case 3: // around the fast-path limit
+                value = (random.nextDouble() - 0.5) * 1e13;
+                break;
+            default: // any bit pattern
+                value = Double.longBitsToDouble(random.nextLong());
+                break;
+            }
+            assertEquals(reference.format(value), MoneyFormat.format(value), "value " + value);
+        }
+    }
+
+    @Test
+    public void appendTo_appendsToExistingText() {
+        StringBuilder out = new StringBuilder("$");
+
+        MoneyFormat.appendTo(out, 1234.5);
+
+        assertEquals("$1234.50", out.toString());
+    }
+}